@@ -4,6 +4,7 @@ import javax.swing.JFrame;
 
 import edu.nyu.cs.connectfour.container.GetContainerable;
 import edu.nyu.cs.connectfour.container.factory.GameContainerFactory;
+import edu.nyu.cs.connectfour.game.ai.OpeningBook;
 import edu.nyu.cs.connectfour.utils.SwingConsole;
 
 /**
@@ -14,6 +15,7 @@ import edu.nyu.cs.connectfour.utils.SwingConsole;
 public class ConnectFourApp {
 
     public static void main(String[] args) {
+        OpeningBook.getDefault();
         GetContainerable<JFrame> container = 
                 GameContainerFactory.getGameContainer("" + System.getenv().get("LOGNAME"), 800, 800);
         SwingConsole.run(container.getContainer());
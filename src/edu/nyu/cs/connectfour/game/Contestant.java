@@ -0,0 +1,80 @@
+package edu.nyu.cs.connectfour.game;
+
+import edu.nyu.cs.connectfour.game.ai.ComputerThinking;
+import edu.nyu.cs.connectfour.game.utils.ComputerLevel;
+import edu.nyu.cs.connectfour.utils.ParameterChecker;
+
+/**
+ * @author shenli
+ * <p>
+ * The {@code Contestant} class represents one side of a {@link Tournament}: a name, the computer level it
+ * searches at and the configuration of its engine. Each game of the tournament gives the contestant an engine
+ * of its own, passed to {@link #configure(ComputerThinking)} before the first move, so an engine configuration
+ * is compared against another by overriding that method, for instance with another
+ * {@link edu.nyu.cs.connectfour.game.ai.Evaluator} or without the opening book.
+ * <p>
+ * {@code Contestant} objects are constant; their values could not be changed after they are created. Because
+ * {@code Contestant} objects are immutable they could be shared, as long as {@link #configure(ComputerThinking)}
+ * keeps no state of its own.
+ */
+public class Contestant {
+    private final String name;
+    private final ComputerLevel level;
+
+    /**
+     * Initializes a newly created {@code Contestant} object searching with the default engine configuration.
+     * <p>
+     * @param name the contestant name
+     * @param level the computer level
+     * @throws NullPointerException if name or level is {@code null}
+     */
+    public Contestant(String name, ComputerLevel level) {
+        ParameterChecker.nullCheck(name, "contestant name");
+        ParameterChecker.nullCheck(level, "computer level");
+
+        this.name = name;
+        this.level = level;
+    }
+
+    /**
+     * Configures the engine this contestant plays a game with, before its first move. By default the engine is
+     * left as it is created.
+     * <p>
+     * @param engine the engine
+     */
+    protected void configure(ComputerThinking engine) {
+    }
+
+    /**
+     * Returns the contestant name.
+     * <p>
+     * @return the contestant name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the computer level the contestant searches at.
+     * <p>
+     * @return the computer level
+     */
+    public ComputerLevel getLevel() {
+        return level;
+    }
+
+    /**
+     * Returns string representation of this {@code Contestant} object. The string representation consists of
+     * the name and the computer level. Each fields are separated by the characters "," (comma).
+     * <p>
+     * @return a string representation of this {@code Contestant} object
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(name);
+        sb.append("," + level);
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,390 @@
+package edu.nyu.cs.connectfour.game;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import edu.nyu.cs.connectfour.game.rules.ConnectBoard;
+import edu.nyu.cs.connectfour.game.rules.ConnectRules;
+import edu.nyu.cs.connectfour.utils.ParameterChecker;
+
+/**
+ * @author shenli
+ * <p>
+ * The {@code Game} class represents one game of connect four, or of connect N under other {@link ConnectRules}:
+ * the chess map, the player to move and the result. Players are known by their index, 0 or 1, and a game knows
+ * nothing of player names, game modes or the user interface, nor of the
+ * {@link edu.nyu.cs.connectfour.game.subject.impl.GameUtility} singleton, so any number of games could be played
+ * at the same time. {@link GameListener}s are told about every chess placed and about the end of the game.
+ * <p>
+ * {@code Game} objects are not constant; their values could be changed after they are created. The
+ * {@code Game} object is not thread-safe. To use it concurrently, user must surround each method invocation
+ * with external synchronization of the users' choosing.
+ */
+public class Game {
+    private static final int PLAYER_NUMBER = 2;
+    private static final int LENGTH = 4;
+
+    private final List<GameListener> listeners = new CopyOnWriteArrayList<>();
+    private final ConnectRules rules;
+    private final ConnectBoard board;
+    private final int rows;
+    private final int columns;
+    private int offensive;
+    private final int[] nextPlace;
+    private final int[][] state;
+    private int chessNumber;
+    private int turn;
+    private int winner;
+    private boolean over;
+
+    /**
+     * Initializes a newly created {@code Game} object with an empty chess map, the first player to move.
+     * <p>
+     * @param rows the chess map row
+     * @param columns the chess map column
+     */
+    public Game(int rows, int columns) {
+        this(rows, columns, 0);
+    }
+
+    /**
+     * Initializes a newly created {@code Game} object with an empty chess map, the specified player to move.
+     * <p>
+     * @param rows the chess map row
+     * @param columns the chess map column
+     * @param offensive the index of the player moving first
+     * @throws IllegalArgumentException if rows or columns is negative, or offensive is not a player index
+     */
+    public Game(int rows, int columns, int offensive) {
+        this(ConnectRules.of(rows, columns, LENGTH), offensive);
+    }
+
+    /**
+     * Initializes a newly created {@code Game} object under the specified rules with an empty chess map, the
+     * specified player to move.
+     * <p>
+     * @param rules the rules
+     * @param offensive the index of the player moving first
+     * @throws NullPointerException if rules is {@code null}
+     * @throws IllegalArgumentException if offensive is not a player index
+     */
+    public Game(ConnectRules rules, int offensive) {
+        ParameterChecker.nullCheck(rules, "connect rules");
+        checkPlayer(offensive);
+
+        this.rules = rules;
+        this.board = rules.newBoard();
+        this.rows = rules.getRows();
+        this.columns = rules.getColumns();
+        this.nextPlace = new int[columns];
+        this.state = new int[rows][columns];
+        reset(offensive);
+    }
+
+    /**
+     * Empties the chess map and starts the game again with the specified player to move, without telling the
+     * listeners.
+     * <p>
+     * @param offensive the index of the player moving first
+     */
+    void reset(int offensive) {
+        this.offensive = offensive;
+        this.turn = offensive;
+        this.chessNumber = 0;
+        this.winner = -1;
+        this.over = false;
+        board.clear();
+        Arrays.fill(nextPlace, rows - 1);
+        for (int[] row : state) {
+            Arrays.fill(row, -1);
+        }
+    }
+
+    /**
+     * Returns the state of the column. True if the game is not over and a chess could be placed on the
+     * column, false if it's not.
+     * <p>
+     * @param column the column
+     * @return true if the column could be played, otherwise false
+     */
+    public boolean canPlace(int column) {
+        return !over && column >= 0 && column < columns && nextPlace[column] >= 0;
+    }
+
+    /**
+     * Places a chess of the player to move on the specified column, then either ends the game or passes the
+     * turn to the other player.
+     * <p>
+     * @param column the column
+     * @return the row the chess is placed on
+     * @throws IllegalArgumentException if column is negative
+     * @throws IllegalStateException if the game is over or the column is full or out of the chess map
+     */
+    public int place(int column) {
+        ParameterChecker.rangeCheck(column, "place column");
+        if (!canPlace(column)) {
+            throw new IllegalStateException("column could not be placed: " + column);
+        }
+
+        int player = turn;
+        int row = nextPlace[column];
+        boolean win = board.isWinningMove(column, player);
+        board.play(column, player);
+        state[row][column] = player;
+        nextPlace[column]--;
+        chessNumber++;
+        for (GameListener listener : listeners) {
+            listener.chessPlaced(this, player, row, column);
+        }
+        if (win) {
+            end(player);
+        } else if (chessNumber == rows * columns) {
+            end(-1);
+        } else {
+            turn = 1 - player;
+        }
+        return row;
+    }
+
+    /**
+     * Ends the game with the specified winner.
+     * <p>
+     * @param winner the index of the player who won, or -1 if the game is a draw
+     */
+    private void end(int winner) {
+        this.winner = winner;
+        this.over = true;
+        for (GameListener listener : listeners) {
+            listener.gameOver(this, winner);
+        }
+    }
+
+    /**
+     * Checks the specified player index.
+     * <p>
+     * @param player the player index
+     * @throws IllegalArgumentException if player is not a player index
+     */
+    static void checkPlayer(int player) {
+        if (player < 0 || player >= PLAYER_NUMBER) {
+            throw new IllegalArgumentException("player index: " + player);
+        }
+    }
+
+    /**
+     * Checks that the computer could play under the specified rules. The engine only searches games of
+     * connect four.
+     * <p>
+     * @param rules the rules
+     * @throws IllegalArgumentException if the rules are not the ones of connect four
+     */
+    static void checkComputerRules(ConnectRules rules) {
+        if (rules.getLength() != LENGTH) {
+            throw new IllegalArgumentException("computer connect length: " + rules.getLength());
+        }
+    }
+
+    /**
+     * Returns the rules the game is played under.
+     * <p>
+     * @return the rules
+     */
+    public ConnectRules getRules() {
+        return rules;
+    }
+
+    /**
+     * Returns the number of rows of the chess map.
+     * <p>
+     * @return the row
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns the number of columns of the chess map.
+     * <p>
+     * @return the column
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Returns the index of the player who moved first.
+     * <p>
+     * @return the offensive player index
+     */
+    public int getOffensive() {
+        return offensive;
+    }
+
+    /**
+     * Returns the index of the player to move, or of the player who placed the last chess once the game is
+     * over.
+     * <p>
+     * @return the player index
+     */
+    public int getTurn() {
+        return turn;
+    }
+
+    /**
+     * Returns the number of chess on the chess map.
+     * <p>
+     * @return the chess number
+     */
+    public int getChessNumber() {
+        return chessNumber;
+    }
+
+    /**
+     * Returns the state of the game. True if a player has won or the chess map is full, false if it's not.
+     * <p>
+     * @return true if the game is over, otherwise false
+     */
+    public boolean isOver() {
+        return over;
+    }
+
+    /**
+     * Returns the index of the player who won, or -1 if the game is a draw or not over.
+     * <p>
+     * @return the winner index
+     */
+    public int getWinner() {
+        return winner;
+    }
+
+    /**
+     * Returns the index of the player whose chess is on the specified cell, or -1 if the cell is empty. Row 0
+     * is the top of the chess map.
+     * <p>
+     * @param row the row
+     * @param column the column
+     * @return the player index
+     */
+    public int getChess(int row, int column) {
+        return state[row][column];
+    }
+
+    /**
+     * Returns the row the next chess placed on the specified column would land on, or -1 if it's full.
+     * <p>
+     * @param column the column
+     * @return the next row
+     */
+    public int getNextRow(int column) {
+        return nextPlace[column];
+    }
+
+    /**
+     * Returns the next chess place location on each column, shared with the search engines of the game.
+     * <p>
+     * @return the next place array
+     */
+    int[] nextPlace() {
+        return nextPlace;
+    }
+
+    /**
+     * Returns the chess map state, shared with the search engines of the game.
+     * <p>
+     * @return the chess map state array
+     */
+    int[][] state() {
+        return state;
+    }
+
+    /**
+     * Registers the specified listener.
+     * <p>
+     * @param listener the listener
+     * @throws NullPointerException if listener is {@code null}
+     */
+    public void addGameListener(GameListener listener) {
+        ParameterChecker.nullCheck(listener, "edu.nyu.cs.connectfour.game.GameListener");
+
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes the specified listener, if it is registered.
+     * <p>
+     * @param listener the listener
+     */
+    public void removeGameListener(GameListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Compares the specified object with this {@code Game} object for equality. Returns true if and only if
+     * the specified object is also a {@code Game} object and both objects have the same rules, offensive
+     * player, player turn, result and chess map.
+     * <p>
+     * @param o the object to be compared for equality with this {@code Game} object
+     * @return true if the specified object is equal to this {@code Game} object
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (! (o instanceof Game)) {
+            return false;
+        }
+        Game g = (Game) o;
+        return rules == g.rules
+                && offensive == g.offensive
+                && chessNumber == g.chessNumber
+                && turn == g.turn
+                && winner == g.winner
+                && over == g.over
+                && Arrays.deepEquals(state, g.state);
+    }
+
+    /**
+     * Returns the hash code value for this {@code Game} object.
+     * <p>
+     * @return the hash code value for this {@code Game} object
+     */
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int hashCode = 17;
+        hashCode = hashCode * prime + rows;
+        hashCode = hashCode * prime + columns;
+        hashCode = hashCode * prime + rules.getLength();
+        hashCode = hashCode * prime + offensive;
+        hashCode = hashCode * prime + turn;
+        hashCode = hashCode * prime + winner;
+        hashCode = hashCode * prime + Arrays.deepHashCode(state);
+        return hashCode;
+    }
+
+    /**
+     * Returns string representation of this {@code Game} object. The string representation consists of row,
+     * column number, chess number, player turn, winner and the chess map state, row by row from the top. Each
+     * fields are separated by the characters "," (comma).
+     * <p>
+     * @return a string representation of this {@code Game} object
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(rows);
+        sb.append("," + columns);
+        sb.append("," + chessNumber);
+        sb.append("," + turn);
+        sb.append("," + winner);
+        for (int[] row : state) {
+            for (int column : row) {
+                sb.append("," + column);
+            }
+        }
+        return sb.toString();
+    }
+
+}
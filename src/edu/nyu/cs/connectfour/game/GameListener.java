@@ -0,0 +1,29 @@
+package edu.nyu.cs.connectfour.game;
+
+/**
+ * @author shenli
+ * <p>
+ * A class can implement the {@code GameListener} interface when it wants to be informed of the chess placed
+ * in a {@link Game} object and of the end of the game.
+ */
+public interface GameListener {
+
+    /**
+     * This method is called whenever a chess is placed in the listened game.
+     * <p>
+     * @param game the game
+     * @param player the index of the player who placed the chess
+     * @param row the row of the chess
+     * @param column the column of the chess
+     */
+    public void chessPlaced(Game game, int player, int row, int column);
+
+    /**
+     * This method is called once the listened game is over, right after the last chess is placed.
+     * <p>
+     * @param game the game
+     * @param winner the index of the player who won, or -1 if the game is a draw
+     */
+    public void gameOver(Game game, int winner);
+
+}
@@ -0,0 +1,229 @@
+package edu.nyu.cs.connectfour.game;
+
+import edu.nyu.cs.connectfour.game.ai.ComputerThinking;
+import edu.nyu.cs.connectfour.game.utils.ComputerLevel;
+import edu.nyu.cs.connectfour.utils.ParameterChecker;
+
+/**
+ * @author shenli
+ * <p>
+ * The {@code GameSession} class hosts one {@link Game} for its clients: the names of its players and, when
+ * one of them is the computer, the computer level and the engine searching its moves. A session holds all of
+ * its state itself and does not depend on the Swing user interface or on the
+ * {@link edu.nyu.cs.connectfour.game.subject.impl.GameUtility} and
+ * {@link edu.nyu.cs.connectfour.player.subject.impl.PlayerInfo} singletons, so a process could host as many
+ * sessions as it likes.
+ * <p>
+ * The human players call {@link #play(int)}; whenever the computer is to move afterwards, it answers at once,
+ * on the calling thread. The engine is only created the first time the computer moves.
+ * <p>
+ * {@code GameSession} objects are not constant; their values could be changed after they are created. The
+ * {@code GameSession} object is thread-safe, each method being synchronized on the session. The game returned
+ * by {@link #getGame()} is not; users must synchronize on the session while they use it.
+ */
+public class GameSession {
+    private static final String[] DEFAULT_NAMES = {"Me", "Computer"};
+
+    private final long id;
+    private final Game game;
+    private final String[] names = DEFAULT_NAMES.clone();
+    private final int computer;
+    private final ComputerLevel level;
+    private ComputerThinking engine;
+    private long lastActive;
+
+    /**
+     * Initializes a newly created {@code GameSession} object for a game between two human players.
+     * <p>
+     * @param id the session id
+     * @param game the game
+     * @throws NullPointerException if game is {@code null}
+     */
+    public GameSession(long id, Game game) {
+        this(id, game, -1, null);
+    }
+
+    /**
+     * Initializes a newly created {@code GameSession} object for a game between a human player and the
+     * computer. If the computer moves first, it has moved when the session is returned.
+     * <p>
+     * @param id the session id
+     * @param game the game
+     * @param computer the index of the computer player, or -1 if both players are human
+     * @param level the computer level, ignored if both players are human
+     * @throws NullPointerException if game is {@code null}, or level is {@code null} and computer is not -1
+     * @throws IllegalArgumentException if computer is neither -1 nor a player index, or computer is not -1 and
+     * the game is not played under the rules of connect four, the only ones the computer could play
+     */
+    public GameSession(long id, Game game, int computer, ComputerLevel level) {
+        ParameterChecker.nullCheck(game, "game");
+        if (computer != -1) {
+            Game.checkPlayer(computer);
+            ParameterChecker.nullCheck(level, "computer level");
+            Game.checkComputerRules(game.getRules());
+        }
+
+        this.id = id;
+        this.game = game;
+        this.computer = computer;
+        this.level = computer == -1 ? null : level;
+        this.lastActive = System.currentTimeMillis();
+        if (isComputerTurn()) {
+            computerMove();
+        }
+    }
+
+    /**
+     * Places a chess of the human player to move on the specified column, then lets the computer answer if
+     * it is to move.
+     * <p>
+     * @param column the column
+     * @return the column the computer answered on, or -1 if it did not move
+     * @throws IllegalArgumentException if column is negative
+     * @throws IllegalStateException if the game is over, the computer is to move, or the column is full or out
+     * of the chess map
+     */
+    public synchronized int play(int column) {
+        if (isComputerTurn()) {
+            throw new IllegalStateException("the computer is to move");
+        }
+
+        game.place(column);
+        lastActive = System.currentTimeMillis();
+        if (isComputerTurn()) {
+            return computerMove();
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the state of the session. True if the game is not over and the computer is to move, false if
+     * it's not.
+     * <p>
+     * @return true if the computer is to move, otherwise false
+     */
+    private boolean isComputerTurn() {
+        return computer >= 0 && !game.isOver() && game.getTurn() == computer;
+    }
+
+    /**
+     * Searches and places the computer chess.
+     * <p>
+     * @return the column the computer placed on
+     */
+    private int computerMove() {
+        if (engine == null) {
+            engine = new ComputerThinking(game.getRows(), game.getColumns(), game.nextPlace(), game.state());
+        }
+        int column = engine.bestValue(level, computer);
+        game.place(column);
+        return column;
+    }
+
+    /**
+     * Returns the session id.
+     * <p>
+     * @return the session id
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Returns the game of this session.
+     * <p>
+     * @return the game
+     */
+    public Game getGame() {
+        return game;
+    }
+
+    /**
+     * Returns the index of the computer player, or -1 if both players are human.
+     * <p>
+     * @return the computer player index
+     */
+    public int getComputer() {
+        return computer;
+    }
+
+    /**
+     * Returns the computer level, or {@code null} if both players are human.
+     * <p>
+     * @return the computer level
+     */
+    public ComputerLevel getLevel() {
+        return level;
+    }
+
+    /**
+     * Returns the name of the specified player.
+     * <p>
+     * @param player the player index
+     * @return the player name
+     * @throws IllegalArgumentException if player is not a player index
+     */
+    public synchronized String getPlayerName(int player) {
+        Game.checkPlayer(player);
+
+        return names[player];
+    }
+
+    /**
+     * Sets the name of the specified player.
+     * <p>
+     * @param player the player index
+     * @param name the player name
+     * @throws IllegalArgumentException if player is not a player index
+     * @throws NullPointerException if name is {@code null}
+     */
+    public synchronized void setPlayerName(int player, String name) {
+        Game.checkPlayer(player);
+        ParameterChecker.nullCheck(name, "player name");
+
+        names[player] = name;
+    }
+
+    /**
+     * Returns the result of the game, as the game record announces it, or {@code null} if the game is not
+     * over.
+     * <p>
+     * @return the result
+     */
+    public synchronized String getResult() {
+        if (!game.isOver()) {
+            return null;
+        }
+        return game.getWinner() >= 0 ? names[game.getWinner()] + " wins!" : "Game Draw!";
+    }
+
+    /**
+     * Returns the time of the last move played in this session, or of its creation, in milliseconds since the
+     * epoch.
+     * <p>
+     * @return the time of the last activity
+     */
+    public synchronized long getLastActive() {
+        return lastActive;
+    }
+
+    /**
+     * Returns string representation of this {@code GameSession} object. The string representation consists
+     * of the session id, the player names, the computer player index, the computer level and the game. Each
+     * fields are separated by the characters "," (comma).
+     * <p>
+     * @return a string representation of this {@code GameSession} object
+     */
+    @Override
+    public synchronized String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(id);
+        sb.append("," + names[0]);
+        sb.append("," + names[1]);
+        sb.append("," + computer);
+        sb.append("," + level);
+        sb.append("," + game);
+        return sb.toString();
+    }
+
+}
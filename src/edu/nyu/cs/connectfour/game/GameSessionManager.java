@@ -0,0 +1,438 @@
+package edu.nyu.cs.connectfour.game;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import edu.nyu.cs.connectfour.game.ai.Analysis;
+import edu.nyu.cs.connectfour.game.ai.ComputerThinking;
+import edu.nyu.cs.connectfour.game.utils.ComputerLevel;
+import edu.nyu.cs.connectfour.utils.ParameterChecker;
+
+/**
+ * @author shenli
+ * <p>
+ * The {@code GameSessionManager} class hosts many games at the same time, each known by a session id. A game
+ * is kept as a {@link PackedGame}, the columns played packed in two {@code long}s, so that a session takes
+ * about {@link #SESSION_BYTES} bytes including its entry in the session map. Whenever a session is played,
+ * its chess map is rebuilt on a {@link Game} belonging to the playing thread, and the computer moves are
+ * searched by an engine belonging to that thread too, so no session holds a chess map or an engine of its
+ * own. The games are always played under the rules of connect four, the only ones the engines search.
+ * <p>
+ * Sessions which have not been played for longer than the idle timeout are evicted, either by
+ * {@link #evictIdle()}, which the users should call from time to time, or as soon as they are looked up or
+ * played. The manager counts the sessions created and evicted.
+ * <p>
+ * {@code GameSessionManager} objects are not constant; their values could be changed after they are
+ * created. The {@code GameSessionManager} object is thread-safe; each session is played by one thread at a
+ * time.
+ */
+public class GameSessionManager {
+    /**
+     * The approximate number of bytes a session takes in the manager with compressed object pointers: 40 for
+     * the packed game, 16 for the boxed session id, 32 for the node of the session map and from 4 to 16 for
+     * its slot in the table, depending on how full the table is
+     */
+    public static final int SESSION_BYTES = 100;
+
+    private final int rows;
+    private final int columns;
+    private final long idleTimeout;
+    private final ConcurrentMap<Long, PackedGame> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1L);
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+    private final ThreadLocal<Worker> workers = new ThreadLocal<Worker>() {
+        @Override
+        protected Worker initialValue() {
+            return new Worker(rows, columns);
+        }
+    };
+
+    /**
+     * Initializes a newly created {@code GameSessionManager} object hosting games with the specified rows and
+     * columns.
+     * <p>
+     * @param rows the chess map row
+     * @param columns the chess map column
+     * @param idleTimeout the time in milliseconds after which a session not played is evicted, 0 for never
+     * @throws IllegalArgumentException if rows, columns or idleTimeout is negative, or the chess map is too
+     * large to be packed
+     */
+    public GameSessionManager(int rows, int columns, long idleTimeout) {
+        ParameterChecker.rangeCheck(rows, "chess map row");
+        ParameterChecker.rangeCheck(columns, "chess map column");
+        if (idleTimeout < 0) {
+            throw new IllegalArgumentException("idle timeout: " + idleTimeout);
+        }
+        if (columns > PackedGame.MAX_COLUMNS || rows * columns > PackedGame.MAX_MOVES) {
+            throw new IllegalArgumentException("packed chess map: " + rows + "," + columns);
+        }
+
+        this.rows = rows;
+        this.columns = columns;
+        this.idleTimeout = idleTimeout;
+    }
+
+    /**
+     * Creates a session for a game between two human players.
+     * <p>
+     * @param offensive the index of the player moving first
+     * @return the session id
+     * @throws IllegalArgumentException if offensive is not a player index
+     */
+    public long create(int offensive) {
+        Game.checkPlayer(offensive);
+
+        return create(new PackedGame(offensive, -1, -1, System.currentTimeMillis()));
+    }
+
+    /**
+     * Creates a session for a game between a human player and the computer. If the computer moves first, it
+     * has moved when the session id is returned.
+     * <p>
+     * @param offensive the index of the player moving first
+     * @param computer the index of the computer player
+     * @param level the computer level
+     * @return the session id
+     * @throws IllegalArgumentException if offensive or computer is not a player index
+     * @throws NullPointerException if level is {@code null}
+     */
+    public long create(int offensive, int computer, ComputerLevel level) {
+        return create(offensive, computer, level, new int[1]);
+    }
+
+    /**
+     * Creates a session for a game between a human player and the computer, and stores the column the
+     * computer opened on, or -1 if it does not move first, as the first element of the specified array. If
+     * the computer moves first, it has moved when the session id is returned.
+     * <p>
+     * @param offensive the index of the player moving first
+     * @param computer the index of the computer player
+     * @param level the computer level
+     * @param opening the array the opening column is stored in
+     * @return the session id
+     * @throws IllegalArgumentException if offensive or computer is not a player index, or opening is empty
+     * @throws NullPointerException if level or opening is {@code null}
+     */
+    public long create(int offensive, int computer, ComputerLevel level, int[] opening) {
+        Game.checkPlayer(offensive);
+        Game.checkPlayer(computer);
+        ParameterChecker.nullCheck(level, "computer level");
+        ParameterChecker.nullCheck(opening, "opening");
+        ParameterChecker.rangeCheck(opening.length - 1, "opening length");
+
+        PackedGame packed = new PackedGame(offensive, computer, level.ordinal(), System.currentTimeMillis());
+        opening[0] = -1;
+        if (offensive == computer) {
+            Worker worker = workers.get();
+            packed.restore(worker.game);
+            opening[0] = computerMove(packed, worker);
+        }
+        return create(packed);
+    }
+
+    /**
+     * Adds the specified packed game under a new session id.
+     * <p>
+     * @param packed the packed game
+     * @return the session id
+     */
+    private long create(PackedGame packed) {
+        long id = nextId.getAndIncrement();
+        sessions.put(id, packed);
+        created.incrementAndGet();
+        return id;
+    }
+
+    /**
+     * Returns a copy of the game of the specified session, or {@code null} if there is no such session or it
+     * has been idle for too long.
+     * <p>
+     * @param id the session id
+     * @return the game
+     */
+    public Game lookup(long id) {
+        PackedGame packed = get(id);
+        if (packed == null) {
+            return null;
+        }
+        Game game = new Game(rows, columns);
+        synchronized (packed) {
+            packed.restore(game);
+        }
+        return game;
+    }
+
+    /**
+     * Places a chess of the human player to move on the specified column of the session, then lets the
+     * computer answer if it is to move.
+     * <p>
+     * @param id the session id
+     * @param column the column
+     * @return the column the computer answered on, or -1 if it did not move
+     * @throws IllegalArgumentException if there is no such session, it has been idle for too long, or column is
+     * negative
+     * @throws IllegalStateException if the game is over, the computer is to move, or the column is full or out
+     * of the chess map
+     */
+    public int play(long id, int column) {
+        PackedGame packed = get(id);
+        if (packed == null) {
+            throw new IllegalArgumentException("no such session: " + id);
+        }
+        synchronized (packed) {
+            Worker worker = workers.get();
+            Game game = worker.game;
+            packed.restore(game);
+            if (isComputerTurn(packed, game)) {
+                throw new IllegalStateException("the computer is to move");
+            }
+            game.place(column);
+            packed.append(column);
+            packed.setLastActive(System.currentTimeMillis());
+            if (isComputerTurn(packed, game)) {
+                return computerMove(packed, worker);
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Returns the score of every column of the game of the specified session for the player to move, searched
+     * like the specified level would. The session is not played, so it does not count as activity.
+     * <p>
+     * @param id the session id
+     * @param level the computer level
+     * @return the analysis
+     * @throws NullPointerException if level is {@code null}
+     * @throws IllegalArgumentException if there is no such session or it has been idle for too long
+     * @throws IllegalStateException if the game is over
+     */
+    public Analysis analyze(long id, ComputerLevel level) {
+        ParameterChecker.nullCheck(level, "computer level");
+
+        PackedGame packed = get(id);
+        if (packed == null) {
+            throw new IllegalArgumentException("no such session: " + id);
+        }
+        synchronized (packed) {
+            Worker worker = workers.get();
+            Game game = worker.game;
+            packed.restore(game);
+            if (game.isOver()) {
+                throw new IllegalStateException("the game is over");
+            }
+            ComputerThinking engine = worker.engine;
+            int threshold = engine.getEndgameThreshold();
+            engine.setEndgameThreshold(engine.getEndgameThreshold(level));
+            try {
+                if (level.getMoveBudget() > 0) {
+                    return engine.analyzeWithin(level.getMoveBudget(), game.getTurn(), null);
+                }
+                return engine.analyze(Math.max(1, level.getDegree()), game.getTurn());
+            } finally {
+                engine.setEndgameThreshold(threshold);
+            }
+        }
+    }
+
+    /**
+     * Returns the state of the game. True if the game is not over and the computer is to move, false if it's
+     * not.
+     * <p>
+     * @param packed the packed game
+     * @param game the game restored from it
+     * @return true if the computer is to move, otherwise false
+     */
+    private static boolean isComputerTurn(PackedGame packed, Game game) {
+        return packed.getComputer() >= 0 && !game.isOver() && game.getTurn() == packed.getComputer();
+    }
+
+    /**
+     * Searches and places the computer chess on the game of the worker, restored from the packed game, and
+     * appends it to the packed game.
+     * <p>
+     * @param packed the packed game
+     * @param worker the worker of the calling thread
+     * @return the column the computer placed on
+     */
+    private static int computerMove(PackedGame packed, Worker worker) {
+        ComputerLevel level = ComputerLevel.values()[packed.getLevel()];
+        int column = worker.engine.bestValue(level, packed.getComputer());
+        worker.game.place(column);
+        packed.append(column);
+        return column;
+    }
+
+    /**
+     * Returns the packed game of the specified session, evicting it if it has been idle for too long.
+     * <p>
+     * @param id the session id
+     * @return the packed game, or {@code null} if there is no such session
+     */
+    private PackedGame get(long id) {
+        PackedGame packed = sessions.get(id);
+        if (packed != null && isIdle(packed, System.currentTimeMillis())) {
+            if (sessions.remove(id, packed)) {
+                evicted.incrementAndGet();
+            }
+            return null;
+        }
+        return packed;
+    }
+
+    /**
+     * Returns the state of the session. True if it has not been played for longer than the idle timeout,
+     * false if it has. The time of the last activity is read without locking the session, so a session whose
+     * computer move is being searched does not hold up the eviction of the others.
+     * <p>
+     * @param packed the packed game
+     * @param now the current time in milliseconds
+     * @return true if the session is idle, otherwise false
+     */
+    private boolean isIdle(PackedGame packed, long now) {
+        if (idleTimeout == 0) {
+            return false;
+        }
+        return now - packed.getLastActive() > idleTimeout;
+    }
+
+    /**
+     * Evicts the specified session.
+     * <p>
+     * @param id the session id
+     * @return true if the session existed, otherwise false
+     */
+    public boolean evict(long id) {
+        if (sessions.remove(id) != null) {
+            evicted.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Evicts every session idle for longer than the idle timeout.
+     * <p>
+     * @return the number of sessions evicted
+     */
+    public int evictIdle() {
+        return evictIdle(System.currentTimeMillis());
+    }
+
+    /**
+     * Evicts every session idle for longer than the idle timeout at the specified time.
+     * <p>
+     * @param now the current time in milliseconds
+     * @return the number of sessions evicted
+     */
+    public int evictIdle(long now) {
+        int count = 0;
+        Iterator<Map.Entry<Long, PackedGame>> it = sessions.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Long, PackedGame> entry = it.next();
+            if (isIdle(entry.getValue(), now) && sessions.remove(entry.getKey(), entry.getValue())) {
+                count++;
+            }
+        }
+        evicted.addAndGet(count);
+        return count;
+    }
+
+    /**
+     * Returns the number of live sessions.
+     * <p>
+     * @return the number of sessions
+     */
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * Returns the number of sessions created since the manager was created.
+     * <p>
+     * @return the number of sessions created
+     */
+    public long getCreatedCount() {
+        return created.get();
+    }
+
+    /**
+     * Returns the number of sessions evicted since the manager was created, idle or not.
+     * <p>
+     * @return the number of sessions evicted
+     */
+    public long getEvictedCount() {
+        return evicted.get();
+    }
+
+    /**
+     * Returns the approximate number of bytes a session takes, {@link #SESSION_BYTES}.
+     * <p>
+     * @return the number of bytes per session
+     */
+    public int getSessionBytes() {
+        return SESSION_BYTES;
+    }
+
+    /**
+     * Returns the approximate number of bytes the live sessions take.
+     * <p>
+     * @return the number of bytes of all sessions
+     */
+    public long getMemoryEstimate() {
+        return (long) size() * SESSION_BYTES;
+    }
+
+    /**
+     * Returns the idle timeout in milliseconds, 0 if sessions are never evicted for being idle.
+     * <p>
+     * @return the idle timeout
+     */
+    public long getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    /**
+     * Returns string representation of this {@code GameSessionManager} object. The string representation
+     * consists of row, column number, idle timeout, the number of live sessions, created and evicted. Each
+     * fields are separated by the characters "," (comma).
+     * <p>
+     * @return a string representation of this {@code GameSessionManager} object
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(rows);
+        sb.append("," + columns);
+        sb.append("," + idleTimeout);
+        sb.append("," + size());
+        sb.append("," + getCreatedCount());
+        sb.append("," + getEvictedCount());
+        return sb.toString();
+    }
+
+    /**
+     * The {@code Worker} class is the chess map and the engine a thread plays the sessions on.
+     */
+    private static class Worker {
+        private final Game game;
+        private final ComputerThinking engine;
+
+        /**
+         * Creates a worker for chess maps with the specified rows and columns.
+         * <p>
+         * @param rows the chess map row
+         * @param columns the chess map column
+         */
+        Worker(int rows, int columns) {
+            this.game = new Game(rows, columns);
+            Game.checkComputerRules(game.getRules());
+            this.engine = new ComputerThinking(rows, columns, game.nextPlace(), game.state());
+        }
+    }
+
+}
@@ -0,0 +1,149 @@
+package edu.nyu.cs.connectfour.game;
+
+/**
+ * @author shenli
+ * <p>
+ * The {@code PackedGame} class keeps a game of a {@link GameSessionManager} in as few bytes as it could: the
+ * columns played, three bits each, packed in two {@code long}s, the number of chess, the players and the time
+ * of the last activity. The chess map itself is rebuilt from the columns whenever the game is played, so a
+ * packed game takes 40 bytes with compressed object pointers, whatever the size of its chess map.
+ * <p>
+ * {@code PackedGame} objects are not constant; their values could be changed after they are created. The
+ * {@code PackedGame} object is not thread-safe; the session manager synchronizes on it, except for the time of the
+ * last activity, which could be read at any time.
+ */
+final class PackedGame {
+    /**
+     * The largest number of chess a packed game could hold
+     */
+    static final int MAX_MOVES = 42;
+
+    /**
+     * The largest number of columns a packed game could hold
+     */
+    static final int MAX_COLUMNS = 8;
+
+    private static final int MOVE_BITS = 3;
+    private static final int MOVES_PER_WORD = MAX_MOVES / 2;
+    private static final long MOVE_MASK = (1L << MOVE_BITS) - 1;
+
+    private long low;
+    private long high;
+    private volatile long lastActive;
+    private byte count;
+    private final byte offensive;
+    private final byte computer;
+    private final byte level;
+
+    /**
+     * Initializes a newly created {@code PackedGame} object with no chess.
+     * <p>
+     * @param offensive the index of the player moving first
+     * @param computer the index of the computer player, or -1 if both players are human
+     * @param level the ordinal of the computer level, or -1 if both players are human
+     * @param lastActive the time of creation in milliseconds
+     */
+    PackedGame(int offensive, int computer, int level, long lastActive) {
+        this.offensive = (byte) offensive;
+        this.computer = (byte) computer;
+        this.level = (byte) level;
+        this.lastActive = lastActive;
+    }
+
+    /**
+     * Appends the specified column to the columns played.
+     * <p>
+     * @param column the column
+     */
+    void append(int column) {
+        assert count < MAX_MOVES;
+        assert column >= 0 && column < MAX_COLUMNS;
+
+        if (count < MOVES_PER_WORD) {
+            low |= (long) column << (MOVE_BITS * count);
+        } else {
+            high |= (long) column << (MOVE_BITS * (count - MOVES_PER_WORD));
+        }
+        count++;
+    }
+
+    /**
+     * Returns the column played by the specified move.
+     * <p>
+     * @param move the move index, 0 for the first one
+     * @return the column
+     */
+    int move(int move) {
+        if (move < MOVES_PER_WORD) {
+            return (int) (low >>> (MOVE_BITS * move) & MOVE_MASK);
+        }
+        return (int) (high >>> (MOVE_BITS * (move - MOVES_PER_WORD)) & MOVE_MASK);
+    }
+
+    /**
+     * Replays the columns played on the specified game, started again first.
+     * <p>
+     * @param game the game
+     */
+    void restore(Game game) {
+        game.reset(offensive);
+        for (int i = 0; i < count; i++) {
+            game.place(move(i));
+        }
+    }
+
+    /**
+     * Returns the number of chess played.
+     * <p>
+     * @return the chess number
+     */
+    int getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the index of the player who moved first.
+     * <p>
+     * @return the offensive player index
+     */
+    int getOffensive() {
+        return offensive;
+    }
+
+    /**
+     * Returns the index of the computer player, or -1 if both players are human.
+     * <p>
+     * @return the computer player index
+     */
+    int getComputer() {
+        return computer;
+    }
+
+    /**
+     * Returns the ordinal of the computer level, or -1 if both players are human.
+     * <p>
+     * @return the computer level ordinal
+     */
+    int getLevel() {
+        return level;
+    }
+
+    /**
+     * Returns the time of the last activity in milliseconds.
+     * <p>
+     * @return the time of the last activity
+     */
+    long getLastActive() {
+        return lastActive;
+    }
+
+    /**
+     * Sets the time of the last activity in milliseconds.
+     * <p>
+     * @param lastActive the time of the last activity
+     */
+    void setLastActive(long lastActive) {
+        this.lastActive = lastActive;
+    }
+
+}
@@ -0,0 +1,324 @@
+package edu.nyu.cs.connectfour.game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import edu.nyu.cs.connectfour.game.ai.ComputerThinking;
+import edu.nyu.cs.connectfour.game.utils.ComputerLevel;
+import edu.nyu.cs.connectfour.utils.ParameterChecker;
+
+/**
+ * @author shenli
+ * <p>
+ * The {@code Tournament} class plays games between two {@link Contestant}s without the user interface, to
+ * measure whether a change to the engine makes it stronger or faster.
+ * <p>
+ * The games are played in pairs on a pool of threads, one game at a time on each thread, each contestant with
+ * an engine of its own. Both games of a pair start from the same random opening, a number of random columns
+ * which do not end the game, and each contestant moves first in one of them, as
+ * {@link edu.nyu.cs.connectfour.game.subject.impl.GameUtility#setOffensive} decides in the user interface, so
+ * neither the openings nor moving first favour a contestant. The openings and the ties the engines break at
+ * random only depend on the seed, so two tournaments with the same seed play the same games as long as the
+ * contestants search to a fixed degree. The time of every move searched is kept for the
+ * latency percentiles of the {@link TournamentResult}. The games are always played under the rules of connect
+ * four, the only ones the engines search.
+ * <p>
+ * Run it as {@code java edu.nyu.cs.connectfour.game.Tournament first second [games [threads [plies [seed]]]]}
+ * with two {@link ComputerLevel} names. It prints the report of the result and exits with status 1 if the
+ * first level is weaker than the second beyond the 95% confidence interval, so it could gate a change to the
+ * engine.
+ * <p>
+ * {@code Tournament} objects are not constant; their values could be changed after they are created. The
+ * {@code Tournament} object is not thread-safe. To use it concurrently, user must surround each method
+ * invocation with external synchronization of the users' choosing.
+ */
+public class Tournament {
+    private static final int DEFAULT_ROWS = 6;
+    private static final int DEFAULT_COLUMNS = 7;
+    private static final int DEFAULT_OPENING_PLIES = 4;
+    private static final int DEFAULT_GAMES = 100;
+
+    private final Contestant first;
+    private final Contestant second;
+    private final int rows;
+    private final int columns;
+    private int openingPlies = DEFAULT_OPENING_PLIES;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private long seed;
+
+    /**
+     * Initializes a newly created {@code Tournament} object between the specified contestants on the classic
+     * chess map.
+     * <p>
+     * @param first the first contestant
+     * @param second the second contestant
+     * @throws NullPointerException if first or second is {@code null}
+     */
+    public Tournament(Contestant first, Contestant second) {
+        this(first, second, DEFAULT_ROWS, DEFAULT_COLUMNS);
+    }
+
+    /**
+     * Initializes a newly created {@code Tournament} object between the specified contestants.
+     * <p>
+     * @param first the first contestant
+     * @param second the second contestant
+     * @param rows the chess map row
+     * @param columns the chess map column
+     * @throws NullPointerException if first or second is {@code null}
+     * @throws IllegalArgumentException if rows or columns is not positive
+     */
+    public Tournament(Contestant first, Contestant second, int rows, int columns) {
+        ParameterChecker.nullCheck(first, "first contestant");
+        ParameterChecker.nullCheck(second, "second contestant");
+        ParameterChecker.rangeCheck(rows - 1, "chess map row");
+        ParameterChecker.rangeCheck(columns - 1, "chess map column");
+
+        this.first = first;
+        this.second = second;
+        this.rows = rows;
+        this.columns = columns;
+    }
+
+    /**
+     * Plays the specified number of games, rounded up to a whole number of pairs.
+     * <p>
+     * @param games the number of games
+     * @return the result
+     * @throws IllegalArgumentException if games is negative
+     * @throws InterruptedException if interrupted while waiting for the games
+     * @throws ExecutionException if a contestant searched a column which could not be played
+     */
+    public TournamentResult play(int games) throws InterruptedException, ExecutionException {
+        ParameterChecker.rangeCheck(games, "tournament games");
+
+        final AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "tournament-" + threadNumber.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }
+        });
+        long start = System.currentTimeMillis();
+        try {
+            List<Future<long[][]>> results = new ArrayList<Future<long[][]>>();
+            for (int i = 0; i < (games + 1) / 2 * 2; i++) {
+                final int index = i;
+                results.add(pool.submit(new Callable<long[][]>() {
+                    @Override
+                    public long[][] call() {
+                        return playGame(index);
+                    }
+                }));
+            }
+            int[] outcomes = new int[3];
+            List<long[]> latencies = new ArrayList<long[]>();
+            int[] moveCounts = new int[2];
+            for (Future<long[][]> result : results) {
+                long[][] game = result.get();
+                outcomes[(int) game[0][0] + 1]++;
+                latencies.add(game[1]);
+                latencies.add(game[2]);
+                moveCounts[0] += game[1].length;
+                moveCounts[1] += game[2].length;
+            }
+            long[][] merged = {new long[moveCounts[0]], new long[moveCounts[1]]};
+            int[] sizes = new int[2];
+            for (int i = 0; i < latencies.size(); i++) {
+                long[] moves = latencies.get(i);
+                System.arraycopy(moves, 0, merged[i & 1], sizes[i & 1], moves.length);
+                sizes[i & 1] += moves.length;
+            }
+            return new TournamentResult(first, second, outcomes[1], outcomes[0], outcomes[2], merged,
+                    System.currentTimeMillis() - start);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Plays the game of the specified index, the first contestant moving first in the even games.
+     * <p>
+     * @param index the game index
+     * @return the outcome: the winner side, or -1 for a draw, then the move latencies of each contestant in
+     * nanoseconds
+     */
+    private long[][] playGame(int index) {
+        Game game = new Game(rows, columns, index & 1);
+        Game.checkComputerRules(game.getRules());
+        for (int column : opening(index / 2)) {
+            game.place(column);
+        }
+        Contestant[] contestants = {first, second};
+        ComputerThinking[] engines = new ComputerThinking[2];
+        long[][] latencies = {new long[rows * columns], new long[rows * columns]};
+        int[] moves = new int[2];
+        for (int side = 0; side < 2; side++) {
+            engines[side] = new ComputerThinking(rows, columns, game.nextPlace(), game.state());
+            engines[side].setSeed((seed * 31 + index) * 2 + side);
+            contestants[side].configure(engines[side]);
+        }
+        while (!game.isOver()) {
+            int side = game.getTurn();
+            long start = System.nanoTime();
+            int column = engines[side].bestValue(contestants[side].getLevel(), side);
+            latencies[side][moves[side]++] = System.nanoTime() - start;
+            game.place(column);
+        }
+        long[] firstMoves = new long[moves[0]];
+        long[] secondMoves = new long[moves[1]];
+        System.arraycopy(latencies[0], 0, firstMoves, 0, moves[0]);
+        System.arraycopy(latencies[1], 0, secondMoves, 0, moves[1]);
+        return new long[][] {{game.getWinner()}, firstMoves, secondMoves};
+    }
+
+    /**
+     * Returns the random opening of the specified pair of games, columns which do not end the game.
+     * <p>
+     * @param pair the pair index
+     * @return the columns of the opening
+     */
+    int[] opening(int pair) {
+        Random random = new Random(seed * 31 + pair);
+        int plies = Math.min(openingPlies, rows * columns - 1);
+        int[] opening = new int[plies];
+        Game game = new Game(rows, columns);
+        int ply = 0;
+        while (ply < plies) {
+            int column = random.nextInt(columns);
+            if (!game.canPlace(column)) {
+                continue;
+            }
+            game.place(column);
+            if (game.isOver()) {
+                game = new Game(rows, columns);
+                ply = 0;
+                continue;
+            }
+            opening[ply++] = column;
+        }
+        return opening;
+    }
+
+    /**
+     * Returns the number of random columns each game starts with.
+     * <p>
+     * @return the number of opening plies
+     */
+    public int getOpeningPlies() {
+        return openingPlies;
+    }
+
+    /**
+     * Sets the number of random columns each game starts with.
+     * <p>
+     * @param openingPlies the number of opening plies
+     * @throws IllegalArgumentException if openingPlies is negative
+     */
+    public void setOpeningPlies(int openingPlies) {
+        ParameterChecker.rangeCheck(openingPlies, "opening plies");
+        this.openingPlies = openingPlies;
+    }
+
+    /**
+     * Returns the number of games played at the same time.
+     * <p>
+     * @return the number of threads
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Sets the number of games played at the same time.
+     * <p>
+     * @param threads the number of threads
+     * @throws IllegalArgumentException if threads is not positive
+     */
+    public void setThreads(int threads) {
+        ParameterChecker.rangeCheck(threads - 1, "tournament threads");
+        this.threads = threads;
+    }
+
+    /**
+     * Returns the seed of the random openings and tie-breaks.
+     * <p>
+     * @return the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Sets the seed of the random openings and tie-breaks.
+     * <p>
+     * @param seed the seed
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Returns string representation of this {@code Tournament} object. The string representation consists of
+     * the contestants, row, column number, the opening plies, the threads and the seed. Each fields are
+     * separated by the characters "," (comma).
+     * <p>
+     * @return a string representation of this {@code Tournament} object
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(first);
+        sb.append("," + second);
+        sb.append("," + rows);
+        sb.append("," + columns);
+        sb.append("," + openingPlies);
+        sb.append("," + threads);
+        sb.append("," + seed);
+        return sb.toString();
+    }
+
+    /**
+     * Plays a tournament between two computer levels and prints its report.
+     * <p>
+     * @param args the two levels, then the number of games, the threads, the opening plies and the seed, each
+     * optional
+     * @throws InterruptedException if interrupted while waiting for the games
+     * @throws ExecutionException if a level searched a column which could not be played
+     */
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        if (args.length < 2) {
+            System.err.println("usage: Tournament first second [games [threads [plies [seed]]]]");
+            System.exit(2);
+        }
+        Tournament tournament = new Tournament(new Contestant(args[0], ComputerLevel.valueOf(args[0])),
+                new Contestant(args[1], ComputerLevel.valueOf(args[1])));
+        int games = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_GAMES;
+        if (args.length > 3) {
+            tournament.setThreads(Integer.parseInt(args[3]));
+        }
+        if (args.length > 4) {
+            tournament.setOpeningPlies(Integer.parseInt(args[4]));
+        }
+        if (args.length > 5) {
+            tournament.setSeed(Long.parseLong(args[5]));
+        }
+
+        TournamentResult result = tournament.play(games);
+        System.out.print(result.report());
+        if (result.getEloInterval(TournamentResult.Z_95)[1] < 0) {
+            System.exit(1);
+        }
+    }
+
+}
@@ -0,0 +1,251 @@
+package edu.nyu.cs.connectfour.game;
+
+import java.util.Arrays;
+
+/**
+ * @author shenli
+ * <p>
+ * The {@code TournamentResult} class holds the outcome of a {@link Tournament}: the wins, draws and losses of
+ * the first contestant against the second, the Elo difference they suggest and the time each contestant took
+ * per move.
+ * <p>
+ * The Elo difference is found from the score of the first contestant, a win counting 1 and a draw 1/2, as
+ * {@code -400 log10(1 / score - 1)}. Its confidence interval maps the interval of the score, the mean score
+ * plus or minus its standard error times the normal quantile, the standard error being found from the
+ * variance of the game results. A score of 0 or 1 gives an infinite difference.
+ * <p>
+ * {@code TournamentResult} objects are constant; their values could not be changed after they are created.
+ * Because {@code TournamentResult} objects are immutable they could be shared.
+ */
+public class TournamentResult {
+    /**
+     * The normal quantile of a two-sided 95% confidence interval
+     */
+    public static final double Z_95 = 1.959964;
+
+    private final Contestant first;
+    private final Contestant second;
+    private final int wins;
+    private final int draws;
+    private final int losses;
+    private final long[][] latencies;
+    private final long elapsed;
+
+    /**
+     * Initializes a newly created {@code TournamentResult} object.
+     * <p>
+     * @param first the first contestant
+     * @param second the second contestant
+     * @param wins the number of games the first contestant won
+     * @param draws the number of drawn games
+     * @param losses the number of games the first contestant lost
+     * @param latencies the time of each move of each contestant in nanoseconds, in any order
+     * @param elapsed the time the tournament took in milliseconds
+     */
+    TournamentResult(Contestant first, Contestant second, int wins, int draws, int losses, long[][] latencies,
+            long elapsed) {
+        assert wins >= 0 && draws >= 0 && losses >= 0;
+        assert latencies.length == 2;
+
+        this.first = first;
+        this.second = second;
+        this.wins = wins;
+        this.draws = draws;
+        this.losses = losses;
+        this.latencies = new long[][] {latencies[0].clone(), latencies[1].clone()};
+        Arrays.sort(this.latencies[0]);
+        Arrays.sort(this.latencies[1]);
+        this.elapsed = elapsed;
+    }
+
+    /**
+     * Returns the specified contestant.
+     * <p>
+     * @param side 0 for the first contestant, 1 for the second
+     * @return the contestant
+     */
+    public Contestant getContestant(int side) {
+        Game.checkPlayer(side);
+        return side == 0 ? first : second;
+    }
+
+    /**
+     * Returns the number of games played.
+     * <p>
+     * @return the number of games
+     */
+    public int getGames() {
+        return wins + draws + losses;
+    }
+
+    /**
+     * Returns the number of games the first contestant won.
+     * <p>
+     * @return the number of wins
+     */
+    public int getWins() {
+        return wins;
+    }
+
+    /**
+     * Returns the number of drawn games.
+     * <p>
+     * @return the number of draws
+     */
+    public int getDraws() {
+        return draws;
+    }
+
+    /**
+     * Returns the number of games the first contestant lost.
+     * <p>
+     * @return the number of losses
+     */
+    public int getLosses() {
+        return losses;
+    }
+
+    /**
+     * Returns the mean score of the first contestant, a win counting 1 and a draw 1/2, or 1/2 if no game was
+     * played.
+     * <p>
+     * @return the score, from 0 to 1
+     */
+    public double getScore() {
+        int games = getGames();
+        return games == 0 ? 0.5 : (wins + draws * 0.5) / games;
+    }
+
+    /**
+     * Returns the Elo difference of the first contestant over the second.
+     * <p>
+     * @return the Elo difference, infinite if a contestant won or lost every game
+     */
+    public double getEloDifference() {
+        return elo(getScore());
+    }
+
+    /**
+     * Returns the confidence interval of the Elo difference of the first contestant over the second, for the
+     * specified normal quantile.
+     * <p>
+     * @param z the normal quantile, {@link #Z_95} for a 95% interval
+     * @return the lower and the upper bound of the interval
+     * @throws IllegalArgumentException if z is negative
+     */
+    public double[] getEloInterval(double z) {
+        if (z < 0) {
+            throw new IllegalArgumentException("normal quantile: " + z);
+        }
+
+        int games = getGames();
+        double score = getScore();
+        double margin = 0.0;
+        if (games > 0) {
+            double variance = (wins * (1.0 - score) * (1.0 - score) + draws * (0.5 - score) * (0.5 - score)
+                    + losses * score * score) / games;
+            margin = z * Math.sqrt(variance / games);
+        }
+        return new double[] {elo(Math.max(0.0, score - margin)), elo(Math.min(1.0, score + margin))};
+    }
+
+    /**
+     * Returns the Elo difference of the specified score.
+     * <p>
+     * @param score the score, from 0 to 1
+     * @return the Elo difference
+     */
+    private static double elo(double score) {
+        if (score <= 0.0) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        if (score >= 1.0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return -400.0 * Math.log10(1.0 / score - 1.0);
+    }
+
+    /**
+     * Returns the number of moves the specified contestant searched.
+     * <p>
+     * @param side 0 for the first contestant, 1 for the second
+     * @return the number of moves
+     */
+    public int getMoveCount(int side) {
+        Game.checkPlayer(side);
+        return latencies[side].length;
+    }
+
+    /**
+     * Returns the time within which the specified contestant searched the specified percentage of its moves,
+     * by the nearest rank.
+     * <p>
+     * @param side 0 for the first contestant, 1 for the second
+     * @param percentile the percentage of moves, from 0 to 100
+     * @return the time in milliseconds, or 0 if the contestant searched no move
+     * @throws IllegalArgumentException if side is not 0 or 1, or percentile is out of range
+     */
+    public double getLatencyPercentile(int side, double percentile) {
+        Game.checkPlayer(side);
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile: " + percentile);
+        }
+
+        long[] sorted = latencies[side];
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)] / 1000000.0;
+    }
+
+    /**
+     * Returns the time the tournament took.
+     * <p>
+     * @return the time in milliseconds
+     */
+    public long getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * Returns a report of this result for people to read, one line for the score and the Elo difference and
+     * one line of move latencies for each contestant.
+     * <p>
+     * @return the report
+     */
+    public String report() {
+        double[] interval = getEloInterval(Z_95);
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%s vs %s: +%d =%d -%d, score %.3f, elo %+.1f [%+.1f, %+.1f], %d ms%n",
+                first.getName(), second.getName(), wins, draws, losses, getScore(), getEloDifference(),
+                interval[0], interval[1], elapsed));
+        for (int side = 0; side < 2; side++) {
+            sb.append(String.format("%s: %d moves, p50 %.2f ms, p90 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                    getContestant(side).getName(), getMoveCount(side), getLatencyPercentile(side, 50),
+                    getLatencyPercentile(side, 90), getLatencyPercentile(side, 99),
+                    getLatencyPercentile(side, 100)));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns string representation of this {@code TournamentResult} object. The string representation
+     * consists of the names of the contestants, the wins, draws and losses of the first one and the time
+     * taken. Each fields are separated by the characters "," (comma).
+     * <p>
+     * @return a string representation of this {@code TournamentResult} object
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(first.getName());
+        sb.append("," + second.getName());
+        sb.append("," + wins);
+        sb.append("," + draws);
+        sb.append("," + losses);
+        sb.append("," + elapsed);
+        return sb.toString();
+    }
+
+}
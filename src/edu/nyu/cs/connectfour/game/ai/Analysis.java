@@ -0,0 +1,186 @@
+package edu.nyu.cs.connectfour.game.ai;
+
+/**
+ * @author shenli
+ * <p>
+ * The {@code Analysis} class represents the score of every column of a position for the player to move, found
+ * by {@link ComputerThinking#analyze(int, int)} from a single search, for instance to draw an analysis bar.
+ * <p>
+ * The score of a column is either its value searched to a degree, from the point of view of the player to
+ * move, or, near the end of the game, its exact {@link SolverResult}. Exact results are scored so that a win
+ * is worth more and a loss less than any searched value, a sooner win more than a later one and a later loss
+ * more than a sooner one, and a draw 0. A column which could not be played has no score.
+ * <p>
+ * {@code Analysis} objects are constant; their values could not be changed after they are created. Because
+ * {@code Analysis} objects are immutable they could be shared.
+ */
+public class Analysis {
+    /**
+     * The score of a column which could not be played
+     */
+    public static final int NO_SCORE = Integer.MIN_VALUE;
+
+    private static final int EXACT_WIN = Integer.MAX_VALUE / 2;
+
+    private final int player;
+    private final int degree;
+    private final int[] scores;
+    private final SolverResult[] results;
+    private final long nodes;
+
+    /**
+     * Initializes a newly created {@code Analysis} object with columns searched to the specified degree.
+     * <p>
+     * @param player the index of the player to move
+     * @param degree the degree searched to
+     * @param scores the value of each column, {@link #NO_SCORE} for a column which could not be played
+     * @param nodes the number of positions visited
+     */
+    Analysis(int player, int degree, int[] scores, long nodes) {
+        assert degree > 0;
+
+        this.player = player;
+        this.degree = degree;
+        this.scores = scores.clone();
+        this.results = null;
+        this.nodes = nodes;
+    }
+
+    /**
+     * Initializes a newly created {@code Analysis} object with the exact result of each column.
+     * <p>
+     * @param player the index of the player to move
+     * @param results the result of each column, {@code null} for a column which could not be played
+     * @param nodes the number of positions visited
+     */
+    Analysis(int player, SolverResult[] results, long nodes) {
+        this.player = player;
+        this.degree = 0;
+        this.scores = new int[results.length];
+        this.results = results.clone();
+        this.nodes = nodes;
+        for (int column = 0; column < results.length; column++) {
+            SolverResult result = results[column];
+            if (result == null) {
+                scores[column] = NO_SCORE;
+            } else if (result.getOutcome() == Outcome.WIN) {
+                scores[column] = EXACT_WIN - result.getDistance();
+            } else if (result.getOutcome() == Outcome.LOSS) {
+                scores[column] = -EXACT_WIN + result.getDistance();
+            } else {
+                scores[column] = 0;
+            }
+        }
+    }
+
+    /**
+     * Returns the index of the player to move.
+     * <p>
+     * @return the player index
+     */
+    public int getPlayer() {
+        return player;
+    }
+
+    /**
+     * Returns the degree the columns are searched to, or 0 if their results are exact.
+     * <p>
+     * @return the degree
+     */
+    public int getDegree() {
+        return degree;
+    }
+
+    /**
+     * Returns the state of the analysis. True if the result of every column is exact, false if it's not.
+     * <p>
+     * @return true if the analysis is exact, otherwise false
+     */
+    public boolean isExact() {
+        return results != null;
+    }
+
+    /**
+     * Returns the number of columns.
+     * <p>
+     * @return the column
+     */
+    public int getColumns() {
+        return scores.length;
+    }
+
+    /**
+     * Returns the state of the column. True if a chess could be placed on it, false if it's not.
+     * <p>
+     * @param column the column
+     * @return true if the column is playable, otherwise false
+     */
+    public boolean isPlayable(int column) {
+        return scores[column] != NO_SCORE;
+    }
+
+    /**
+     * Returns the score of the specified column for the player to move.
+     * <p>
+     * @param column the column
+     * @return the score, or {@link #NO_SCORE} if the column could not be played
+     */
+    public int getScore(int column) {
+        return scores[column];
+    }
+
+    /**
+     * Returns the exact result of the game for the player to move after placing a chess on the specified
+     * column.
+     * <p>
+     * @param column the column
+     * @return the result, or {@code null} if the analysis is not exact or the column could not be played
+     */
+    public SolverResult getResult(int column) {
+        return results == null ? null : results[column];
+    }
+
+    /**
+     * Returns the playable column with the best score, the one closest to the center among equal ones.
+     * <p>
+     * @return the best column, or -1 if no column could be played
+     */
+    public int getBestColumn() {
+        int[] ranks = CenterMoveOrdering.centerRanks(scores.length);
+        int best = -1;
+        for (int column = 0; column < scores.length; column++) {
+            if (isPlayable(column) && (best < 0 || scores[column] > scores[best]
+                    || (scores[column] == scores[best] && ranks[column] < ranks[best]))) {
+                best = column;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the number of positions visited to find the scores.
+     * <p>
+     * @return the number of visited positions
+     */
+    public long getNodeCount() {
+        return nodes;
+    }
+
+    /**
+     * Returns string representation of this {@code Analysis} object. The string representation consists of
+     * player, degree and the score of each column. Each fields are separated by the characters "," (comma).
+     * <p>
+     * @return string representation of this {@code Analysis} object
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(player);
+        sb.append("," + degree);
+        for (int score : scores) {
+            sb.append("," + score);
+        }
+        return sb.toString();
+    }
+
+}
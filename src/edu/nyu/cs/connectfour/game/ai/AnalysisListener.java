@@ -0,0 +1,20 @@
+package edu.nyu.cs.connectfour.game.ai;
+
+/**
+ * @author shenli
+ * <p>
+ * A class can implement the {@code AnalysisListener} interface when it wants to be informed of the scores of
+ * the columns found by {@link ComputerThinking#analyzeWithin(long, int, AnalysisListener)} as the search
+ * deepens.
+ */
+public interface AnalysisListener {
+
+    /**
+     * This method is called on the searching thread each time the columns have been searched one degree
+     * deeper, or once for an exact analysis.
+     * <p>
+     * @param analysis the analysis of the degree just completed
+     */
+    public void analysisUpdated(Analysis analysis);
+
+}
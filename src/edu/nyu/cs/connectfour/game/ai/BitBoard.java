@@ -0,0 +1,413 @@
+package edu.nyu.cs.connectfour.game.ai;
+
+import java.util.Arrays;
+
+/**
+ * @author shenli
+ * <p>
+ * The {@code BitBoard} class represents a chess map position as one {@code long} mask per player plus the
+ * height of each column.
+ * <p>
+ * Each column occupies {@code rows + 1} consecutive bits, the lowest bit being the bottom cell and the
+ * extra top bit always left empty as a sentinel, so that four in a row can be detected with a few shift and
+ * mask operations instead of walking the chess map in every direction. A {@code BitBoard} therefore can only
+ * represent chess maps for which {@code (rows + 1) * columns} does not exceed 64, see {@link #fits(int, int)}.
+ * The {@link Zobrist} hash of the position is updated incrementally as chess are placed and removed, together
+ * with the hash of its mirror image, the position reflected left to right. A position and its mirror image have
+ * the same value and mirrored best columns, so caches keyed by {@link #getCanonicalHash()} and storing columns
+ * through {@link #canonicalColumn(int)} serve both of them.
+ * <p>
+ * {@code BitBoard} objects are not constant; their values can be changed after they are created. The
+ * {@code BitBoard} object is not thread-safe. To use it concurrently, user must surround each method
+ * invocation with external synchronization of the users' choosing.
+ */
+public class BitBoard {
+    private static final int PLAYER_NUMBER = 2;
+
+    private final int rows;
+    private final int columns;
+    private final int height;
+    private final long[] discs;
+    private final int[] heights;
+    private final long bottom;
+    private final long full;
+    private int chessNumber;
+    private long hash;
+    private long mirrorHash;
+
+    /**
+     * Initializes a newly created {@code BitBoard} object so that it represents an empty chess map with the
+     * specified rows and columns.
+     * <p>
+     * @param rows the row
+     * @param columns the column
+     * @throws IllegalArgumentException if the chess map could not be represented by a {@code BitBoard}
+     */
+    public BitBoard(int rows, int columns) {
+        if (!fits(rows, columns)) {
+            throw new IllegalArgumentException("bit board size: " + rows + "x" + columns);
+        }
+
+        this.rows = rows;
+        this.columns = columns;
+        this.height = rows + 1;
+        this.discs = new long[PLAYER_NUMBER];
+        this.heights = new int[columns];
+        long bottom = 0L;
+        for (int column = 0; column < columns; column++) {
+            bottom |= 1L << (column * height);
+        }
+        this.bottom = bottom;
+        this.full = bottom * ((1L << rows) - 1);
+    }
+
+    /**
+     * Returns the state of chess map size. True if a chess map with the specified rows and columns could be
+     * represented by a {@code BitBoard}, false if it's not.
+     * <p>
+     * @param rows the row
+     * @param columns the column
+     * @return true if the chess map fits in a {@code BitBoard}, otherwise false
+     */
+    public static boolean fits(int rows, int columns) {
+        return rows > 0 && columns > 0 && (rows + 1) * columns <= Long.SIZE;
+    }
+
+    /**
+     * Loads the position from the chess map representation used by
+     * {@link edu.nyu.cs.connectfour.game.subject.impl.GameRecord}, where row 0 is the top row, -1 marks an
+     * empty cell and the player index marks an occupied one.
+     * <p>
+     * @param nextPlace the next chess place location on each column
+     * @param state the chess map state
+     */
+    public void load(int[] nextPlace, int[][] state) {
+        Arrays.fill(discs, 0L);
+        chessNumber = 0;
+        hash = 0L;
+        mirrorHash = 0L;
+        for (int column = 0; column < columns; column++) {
+            heights[column] = rows - 1 - nextPlace[column];
+            for (int h = 0; h < heights[column]; h++) {
+                int player = state[rows - 1 - h][column];
+                int bit = column * height + h;
+                discs[player] |= 1L << bit;
+                hash ^= Zobrist.key(player, bit);
+                mirrorHash ^= Zobrist.key(player, (columns - 1 - column) * height + h);
+                chessNumber++;
+            }
+        }
+    }
+
+    /**
+     * Returns the state of the column. True if a chess could be placed on the column, false if it's full.
+     * <p>
+     * @param column the column
+     * @return true if the column is playable, otherwise false
+     */
+    public boolean canPlay(int column) {
+        return heights[column] < rows;
+    }
+
+    /**
+     * Places a chess of the specified player on top of the specified column.
+     * <p>
+     * @param column the column
+     * @param player the player index
+     */
+    public void play(int column, int player) {
+        int bit = column * height + heights[column];
+        discs[player] |= 1L << bit;
+        hash ^= Zobrist.key(player, bit);
+        mirrorHash ^= Zobrist.key(player, (columns - 1 - column) * height + heights[column]);
+        heights[column]++;
+        chessNumber++;
+    }
+
+    /**
+     * Removes the top chess of the specified column.
+     * <p>
+     * @param column the column
+     */
+    public void undo(int column) {
+        heights[column]--;
+        chessNumber--;
+        int bit = column * height + heights[column];
+        int player = (discs[0] >>> bit & 1L) != 0 ? 0 : 1;
+        discs[player] &= ~(1L << bit);
+        hash ^= Zobrist.key(player, bit);
+        mirrorHash ^= Zobrist.key(player, (columns - 1 - column) * height + heights[column]);
+    }
+
+    /**
+     * Returns the state of game. True if the player would win by placing a chess on the specified column,
+     * false if it's not. The column must be playable.
+     * <p>
+     * @param column the column
+     * @param player the player index
+     * @return true if the move wins, otherwise false
+     */
+    public boolean isWinningMove(int column, int player) {
+        return hasFour(discs[player] | 1L << (column * height + heights[column]));
+    }
+
+    /**
+     * Returns the state of game. True if the player already has four chess in a row, false if it's not.
+     * <p>
+     * @param player the player index
+     * @return true if player is win, otherwise false
+     */
+    public boolean isWin(int player) {
+        return hasFour(discs[player]);
+    }
+
+    /**
+     * Returns the mask of the cells a chess could be placed on, the lowest empty cell of each column that is
+     * not full.
+     * <p>
+     * @return the playable mask
+     */
+    public long playableMask() {
+        return ((discs[0] | discs[1]) + bottom) & full;
+    }
+
+    /**
+     * Returns the mask of the empty cells that would give the specified player four in a row, whether or not
+     * a chess could be placed on them yet.
+     * <p>
+     * @param player the player index
+     * @return the winning cell mask
+     */
+    public long winningCells(int player) {
+        long mask = discs[player];
+        long cells = (mask << 1) & (mask << 2) & (mask << 3);
+        cells |= winningCells(mask, height);
+        cells |= winningCells(mask, height - 1);
+        cells |= winningCells(mask, height + 1);
+        return cells & full & ~(discs[0] | discs[1]);
+    }
+
+    /**
+     * Returns the number of rows.
+     * <p>
+     * @return the row
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns the number of columns.
+     * <p>
+     * @return the column
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Returns the chess mask of the specified player.
+     * <p>
+     * @param player the player index
+     * @return the chess mask
+     */
+    public long getDiscs(int player) {
+        return discs[player];
+    }
+
+    /**
+     * Returns the {@link Zobrist} hash of the position.
+     * <p>
+     * @return the position hash
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Returns the {@link Zobrist} hash of the mirror image of the position.
+     * <p>
+     * @return the mirror position hash
+     */
+    public long getMirrorHash() {
+        return mirrorHash;
+    }
+
+    /**
+     * Returns the hash shared by the position and its mirror image, the smaller of their hashes.
+     * <p>
+     * @return the canonical position hash
+     */
+    public long getCanonicalHash() {
+        return Math.min(hash, mirrorHash);
+    }
+
+    /**
+     * Returns the state of the position. True if its canonical hash is the hash of its mirror image, so that
+     * columns are mirrored on their way to and from caches keyed by the canonical hash, false if it's not.
+     * <p>
+     * @return true if the position is stored as its mirror image, otherwise false
+     */
+    public boolean isMirrored() {
+        return mirrorHash < hash;
+    }
+
+    /**
+     * Returns the specified column as stored with the canonical hash of the position, which is also the
+     * column of the position the stored column stands for.
+     * <p>
+     * @param column the column, or -1 for none
+     * @return the canonical column, or -1 for none
+     */
+    public int canonicalColumn(int column) {
+        return column >= 0 && isMirrored() ? columns - 1 - column : column;
+    }
+
+    /**
+     * Returns the state of the position. True if it is its own mirror image, so that a column and its mirror
+     * column have the same value, false if it's not.
+     * <p>
+     * @return true if the position is symmetric, otherwise false
+     */
+    public boolean isSymmetric() {
+        return mirrorHash == hash && discs[0] == mirror(discs[0]) && discs[1] == mirror(discs[1]);
+    }
+
+    /**
+     * Returns the specified mask reflected left to right.
+     * <p>
+     * @param mask the mask
+     * @return the mirror mask
+     */
+    private long mirror(long mask) {
+        long column = height == Long.SIZE ? -1L : (1L << height) - 1;
+        long mirror = 0L;
+        for (int i = 0; i < columns; i++) {
+            mirror |= ((mask >>> (i * height)) & column) << ((columns - 1 - i) * height);
+        }
+        return mirror;
+    }
+
+    /**
+     * Returns the number of chess in the specified column.
+     * <p>
+     * @param column the column
+     * @return the column height
+     */
+    public int getHeight(int column) {
+        return heights[column];
+    }
+
+    /**
+     * Returns the number of chess on the chess map.
+     * <p>
+     * @return the chess number
+     */
+    public int getChessNumber() {
+        return chessNumber;
+    }
+
+    /**
+     * Returns the state of the chess mask. True if the mask contains four chess in a row in any of the
+     * vertical, horizontal or diagonal directions, false if it's not.
+     * <p>
+     * @param mask the chess mask
+     * @return true if the mask contains four in a row, otherwise false
+     */
+    private boolean hasFour(long mask) {
+        return hasFour(mask, 1)
+                || hasFour(mask, height)
+                || hasFour(mask, height - 1)
+                || hasFour(mask, height + 1);
+    }
+
+    /**
+     * Returns the state of the chess mask in one direction. The sentinel bit on top of each column
+     * guarantees that shifted lines never wrap from one column into the next.
+     * <p>
+     * @param mask the chess mask
+     * @param shift the bit distance between two adjacent cells in the direction
+     * @return true if the mask contains four in a row in the direction, otherwise false
+     */
+    private static boolean hasFour(long mask, int shift) {
+        long pairs = mask & (mask >>> shift);
+        return (pairs & (pairs >>> (2 * shift))) != 0;
+    }
+
+    /**
+     * Returns the cells completing three chess of the mask into four in a row in one horizontal or diagonal
+     * direction, either at one end or in the gap of the line.
+     * <p>
+     * @param mask the chess mask
+     * @param shift the bit distance between two adjacent cells in the direction
+     * @return the completing cell mask, possibly including occupied and sentinel cells
+     */
+    private static long winningCells(long mask, int shift) {
+        long pairs = (mask << shift) & (mask << (2 * shift));
+        long cells = pairs & (mask << (3 * shift));
+        cells |= pairs & (mask >>> shift);
+        pairs = (mask >>> shift) & (mask >>> (2 * shift));
+        cells |= pairs & (mask >>> (3 * shift));
+        cells |= pairs & (mask << shift);
+        return cells;
+    }
+
+    /**
+     * Compares the specified object with this {@code BitBoard} object for equality. Returns true if and only
+     * if the specified object is also a {@code BitBoard} object, both objects have the same row, column and
+     * chess masks.
+     * <p>
+     * @param o the object to be compared for equality with this {@code BitBoard} object
+     * @return true if the specified object is equal to this {@code BitBoard} object
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (! (o instanceof BitBoard)) {
+            return false;
+        }
+        BitBoard bb = (BitBoard) o;
+        return rows == bb.rows
+                && columns == bb.columns
+                && Arrays.equals(discs, bb.discs);
+    }
+
+    /**
+     * Returns the hash code value for this {@code BitBoard} object.
+     * <p>
+     * @return the hash code value for this {@code BitBoard} object
+     */
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int hashCode = 17;
+        hashCode = hashCode * prime + rows;
+        hashCode = hashCode * prime + columns;
+        hashCode = hashCode * prime + Arrays.hashCode(discs);
+        return hashCode;
+    }
+
+    /**
+     * Returns string representation of this {@code BitBoard} object. The string representation consists of
+     * row, column number, chess masks of both players and the column heights. Each fields are separated by
+     * the characters "," (comma).
+     * <p>
+     * @return string representation of this {@code BitBoard} object
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(rows);
+        sb.append("," + columns);
+        for (long mask : discs) {
+            sb.append("," + Long.toHexString(mask));
+        }
+        for (int h : heights) {
+            sb.append("," + h);
+        }
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,26 @@
+package edu.nyu.cs.connectfour.game.ai;
+
+/**
+ * @author shenli
+ * <p>
+ * The {@code Bound} enum represents how a value stored in a {@link TranspositionTable} relates to the real 
+ * value of the position.
+ * <p>
+ * {@code Bound} are constant; their values could not be changed after they are created. Because
+ * {@code Bound} objects are immutable they could be shared.
+ */
+public enum Bound {
+    /**
+     * The value is the real value of the position
+     */
+    EXACT,
+    /**
+     * The real value of the position is greater than or equal to the value
+     */
+    LOWER,
+    /**
+     * The real value of the position is less than or equal to the value
+     */
+    UPPER;
+    
+}
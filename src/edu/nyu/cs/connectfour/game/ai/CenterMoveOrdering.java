@@ -0,0 +1,83 @@
+package edu.nyu.cs.connectfour.game.ai;
+
+/**
+ * @author shenli
+ * <p>
+ * The {@code CenterMoveOrdering} class orders columns from the center of the chess map outwards, the columns 
+ * on which most lines of four could still be made being searched first. The best column remembered for the 
+ * position goes before all others.
+ * <p>
+ * {@code CenterMoveOrdering} objects learn nothing from the search; one object could be used by several 
+ * searches for chess maps with the same column number.
+ */
+public class CenterMoveOrdering implements MoveOrdering {
+    private int[] ranks = new int[0];
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void reset(int columns, int plies) {
+        if (ranks.length != columns) {
+            ranks = centerRanks(columns);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void order(int ply, int side, int hashColumn, int[] moves, int count) {
+        for (int k = 1; k < count; k++) {
+            int column = moves[k];
+            int key = rank(column, hashColumn);
+            int j = k - 1;
+            while (j >= 0 && rank(moves[j], hashColumn) > key) {
+                moves[j + 1] = moves[j];
+                j--;
+            }
+            moves[j + 1] = column;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void cutoff(int ply, int side, int column, int depth) {
+        
+    }
+    
+    /**
+     * Returns the rank of each column when the columns are ordered from the center outwards, the left one of 
+     * two columns at the same distance from the center going first.
+     * <p>
+     * @param columns the number of columns
+     * @return the rank of each column, 0 being the center
+     */
+    static int[] centerRanks(int columns) {
+        int[] ranks = new int[columns];
+        for (int column = 0; column < columns; column++) {
+            int distance = Math.abs(2 * column - (columns - 1));
+            for (int other = 0; other < columns; other++) {
+                int d = Math.abs(2 * other - (columns - 1));
+                if (d < distance || (d == distance && other < column)) {
+                    ranks[column]++;
+                }
+            }
+        }
+        return ranks;
+    }
+    
+    /**
+     * Returns the rank of the column, the remembered best column ranking before all others.
+     * <p>
+     * @param column the column
+     * @param hashColumn the best column remembered for the position, or -1 if there is none
+     * @return the rank of the column
+     */
+    private int rank(int column, int hashColumn) {
+        return column == hashColumn ? -1 : ranks[column];
+    }
+    
+}
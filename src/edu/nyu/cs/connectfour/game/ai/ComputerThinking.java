@@ -1,23 +1,105 @@
 package edu.nyu.cs.connectfour.game.ai;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import edu.nyu.cs.connectfour.game.utils.ComputerLevel;
 
 /**
  * @author shenli
  * <p>
  * The {@code ComputerThinking} class is used to provide computer calculation.
  * <p>
+ * With a parallelism greater than one, the columns of the root are searched at the same time on a shared 
+ * {@link java.util.concurrent.ForkJoinPool}, each by a worker with its own copy of the chess map. The workers 
+ * share the transposition table and the best value found so far, unless the search is deterministic, in 
+ * which case every column is searched on its own with a private table and ties are broken towards the 
+ * center, so the same position always gives the same location.
+ * <p>
+ * Otherwise columns of the same value are told apart by a {@link MoveSelector}, which picks one of them at
+ * random in a single pass. Each object has a selector of its own; setting its seed replays the same choices.
+ * <p>
+ * Positions are remembered in the transposition table by their canonical hash, so a position and its mirror
+ * image, reflected left to right, share their entry, the best column being mirrored on its way in and out.
+ * When the root position is its own mirror image, only the columns of its left half and the center are
+ * searched and their values copied to their mirror columns.
+ * <p>
+ * The search is driven by a {@link SearchDriver}, which may be chosen for each {@link ComputerLevel}. With
+ * {@link SearchDriver#PVS} every column after the first of a position is searched with a null window first.
+ * With {@link SearchDriver#MTDF} the root is searched with null windows around a first guess, the value of
+ * the root remembered by the transposition table or the value of the former iteration, until its value is
+ * known; one last search with a window of three values around it then gives every column tying the best value
+ * its exact value. A parallel search drives MTD(f) like alpha-beta.
+ * <p>
+ * Besides the best location, the search can give the {@link Analysis} of a position: the score of every
+ * column from a single search, each searched with the full window, and in parallel with a parallelism
+ * greater than one, like the best location.
+ * <p>
+ * A search may be cancelled from another thread by {@link #cancel()}, the only method that may be called 
+ * while a search is running.
+ * <p>
  * {@code ComputerThinking} objects are not constant; their values can be changed after they are created.
  * The {@code ComputerThinking} object is not thread-safe. To use it concurrently, user must surround each 
  * method invocation with external synchronization of the users' choosing.
  */
 public class ComputerThinking {
+    /**
+     * The default number of empty cells below which the rest of the game is searched exactly
+     */
+    public static final int DEFAULT_ENDGAME_THRESHOLD = 18;
+    
+    private static final int WIN_VALUE = 20000000;
+    private static final int WORKER_TABLE_SIZE_BITS = 14;
+    private static final int MAX_MTDF_PASSES = 64;
+    private static final ConcurrentMap<Integer, ForkJoinPool> POOLS = 
+            new ConcurrentHashMap<Integer, ForkJoinPool>();
+    
     private final int rows;
     private final int columns;
     private final int[] nextPlace;
     private final int[][] state;
+    private final BitBoard board;
+    private TranspositionTable table;
+    private boolean defaultTable = true;
+    private boolean defaultEvaluator = true;
+    private TranspositionTable privateTable;
+    private MoveOrdering ordering;
+    private int[][] moves = new int[0][];
+    private int rootColumn = -1;
     private int maxDepth = 2;
-    private int[] block;
+    private final int[] block;
+    private final int[][] placeState;
+    private final int[][] nextState;
+    private final int[] bordValue;
+    private long nodes;
+    private boolean timed;
+    private long deadline;
+    private boolean timeUp;
+    private volatile boolean cancelled;
+    private int parallelism = 1;
+    private boolean deterministic;
+    private ComputerThinking[] workers;
+    private EndgameSolver solver;
+    private OpeningBook book;
+    private Evaluator evaluator;
+    private int endgameThreshold = DEFAULT_ENDGAME_THRESHOLD;
+    private SearchDriver driver = SearchDriver.ALPHA_BETA;
+    private final Map<ComputerLevel, SearchDriver> levelDrivers = 
+            new EnumMap<ComputerLevel, SearchDriver>(ComputerLevel.class);
+    private final Map<ComputerLevel, Integer> levelThresholds = 
+            new EnumMap<ComputerLevel, Integer>(ComputerLevel.class);
+    private int guess;
+    private MoveSelector selector = new MoveSelector();
 
     /**
      * Initializes a newly created {@code ComputerThinking} object so that it records chess map information 
@@ -38,7 +120,394 @@ public class ComputerThinking {
         this.columns = columns;
         this.state = state;
         this.nextPlace = nextPlace;
-        block = new int[8];
+        this.board = BitBoard.fits(rows, columns) ? new BitBoard(rows, columns) : null;
+        this.ordering = new KillerHistoryMoveOrdering();
+        this.book = OpeningBook.getDefault();
+        this.block = new int[8];
+        this.placeState = new int[2][8];
+        this.nextState = new int[2][8];
+        this.bordValue = new int[2];
+    }
+    
+    /**
+     * Returns the number of positions visited by the last search of {@link #bestValue(int, int)} or 
+     * {@link #bestValueWithin(long, int)}, including the ones answered by the transposition table.
+     * <p>
+     * @return the number of visited positions
+     */
+    public long getNodeCount() {
+        return nodes;
+    }
+    
+    /**
+     * Cancels the search running on this object, if any, from any thread. The search gives up within a 
+     * thousand positions and returns -1. Searches started afterwards are not affected.
+     */
+    public void cancel() {
+        cancelled = true;
+        ComputerThinking[] workers = this.workers;
+        if (workers != null) {
+            for (ComputerThinking worker : workers) {
+                if (worker != null) {
+                    worker.cancelled = true;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Returns the state of the search. True if it has been cancelled since it started, false if it's not. 
+     * The search checks it every thousand positions, so a subclass may stop the search on conditions of its 
+     * own, such as a cancellation which could come before the search starts.
+     * <p>
+     * @return true if the search should give up, otherwise false
+     */
+    protected boolean isCancelled() {
+        return cancelled;
+    }
+    
+    /**
+     * Returns the evaluator valuing the positions at which the search stops, or {@code null} if the chess map
+     * evaluation of this object is used. Unless another evaluator has been set, a {@link WindowEvaluator} is
+     * created the first time it is needed.
+     * <p>
+     * @return the evaluator
+     */
+    public Evaluator getEvaluator() {
+        createDefaultEvaluator();
+        return evaluator;
+    }
+    
+    /**
+     * Sets the evaluator valuing the positions at which the search stops; a {@link WindowEvaluator} by 
+     * default. {@code null} uses the former chess map evaluation of this object, which rescans the playable 
+     * cells at every leaf.
+     * <p>
+     * @param evaluator the evaluator
+     */
+    public void setEvaluator(Evaluator evaluator) {
+        this.evaluator = evaluator;
+        defaultEvaluator = false;
+    }
+    
+    /**
+     * Creates the default evaluator, if no evaluator has been set or created yet.
+     */
+    private void createDefaultEvaluator() {
+        if (defaultEvaluator) {
+            evaluator = new WindowEvaluator(rows, columns);
+            defaultEvaluator = false;
+        }
+    }
+    
+    /**
+     * Returns the opening book consulted before searching, or {@code null} if there is none.
+     * <p>
+     * @return the opening book
+     */
+    public OpeningBook getOpeningBook() {
+        return book;
+    }
+    
+    /**
+     * Sets the opening book consulted by {@link #bestValue(int, int)} and {@link #bestValueWithin(long, int)}
+     * before searching; {@code null} always searches. By default the book shipped with the game is used.
+     * <p>
+     * @param book the opening book
+     */
+    public void setOpeningBook(OpeningBook book) {
+        this.book = book;
+    }
+    
+    /**
+     * Returns the number of empty cells at or below which {@link #bestValue(int, int)} and 
+     * {@link #bestValueWithin(long, int)} search the rest of the game exactly.
+     * <p>
+     * @return the endgame threshold
+     */
+    public int getEndgameThreshold() {
+        return endgameThreshold;
+    }
+    
+    /**
+     * Sets the number of empty cells at or below which {@link #bestValue(int, int)} and 
+     * {@link #bestValueWithin(long, int)} search the rest of the game exactly; 0 never does. The exact 
+     * search is only used on chess maps that fit in a {@link BitBoard}.
+     * <p>
+     * @param endgameThreshold the endgame threshold
+     */
+    public void setEndgameThreshold(int endgameThreshold) {
+        assert endgameThreshold >= 0;
+        
+        this.endgameThreshold = endgameThreshold;
+    }
+    
+    /**
+     * Returns the number of empty cells at or below which {@link #bestValue(ComputerLevel, int)} searches the 
+     * rest of the game exactly at the specified computer level. Unless the level has a threshold of its own, 
+     * the levels with a move budget use the threshold of {@link #getEndgameThreshold()} and the levels 
+     * searching to a fixed degree never search exactly, so that the weaker levels keep their mistakes.
+     * <p>
+     * @param level the computer level
+     * @return the endgame threshold
+     */
+    public int getEndgameThreshold(ComputerLevel level) {
+        assert level != null;
+        
+        Integer levelThreshold = levelThresholds.get(level);
+        if (levelThreshold != null) {
+            return levelThreshold;
+        }
+        return level.getMoveBudget() > 0 ? endgameThreshold : 0;
+    }
+    
+    /**
+     * Sets the number of empty cells at or below which {@link #bestValue(ComputerLevel, int)} searches the 
+     * rest of the game exactly at the specified computer level; 0 never does. Passing {@code null} gives the
+     * level its default threshold back.
+     * <p>
+     * @param level the computer level
+     * @param endgameThreshold the endgame threshold
+     */
+    public void setEndgameThreshold(ComputerLevel level, Integer endgameThreshold) {
+        assert level != null;
+        assert endgameThreshold == null || endgameThreshold >= 0;
+        
+        if (endgameThreshold == null) {
+            levelThresholds.remove(level);
+        } else {
+            levelThresholds.put(level, endgameThreshold);
+        }
+    }
+    
+    /**
+     * Searches the rest of the game exactly and returns its result for the specified player to move. The 
+     * search may be cancelled by {@link #cancel()}.
+     * <p>
+     * @param player the player index
+     * @return the result of the chess map, or {@code null} if the search is cancelled
+     * @throws IllegalStateException if the chess map does not fit in a {@link BitBoard}
+     */
+    public SolverResult solve(int player) {
+        if (board == null) {
+            throw new IllegalStateException("chess map size: " + rows + "x" + columns);
+        }
+        cancelled = false;
+        return solveUntil(player, false, 0L);
+    }
+    
+    /**
+     * Searches the rest of the game exactly, giving up once the search is cancelled or, if it is timed, once 
+     * the specified deadline has passed.
+     * <p>
+     * @param player the player index
+     * @param timed whether the search has a deadline
+     * @param deadline the deadline, in the time of {@link System#nanoTime()}
+     * @return the result of the chess map, or {@code null} if the search gives up
+     */
+    private SolverResult solveUntil(int player, boolean timed, long deadline) {
+        board.load(nextPlace, state);
+        SolverResult result = timed ? solver().solve(board, player, deadline) : solver().solve(board, player);
+        nodes = solver.getNodeCount();
+        return result;
+    }
+    
+    /**
+     * Returns the endgame solver of this object, created the first time it is needed. The solver gives up 
+     * as soon as this object is cancelled.
+     * <p>
+     * @return the endgame solver
+     */
+    private EndgameSolver solver() {
+        if (solver == null) {
+            solver = new EndgameSolver(rows, columns) {
+                @Override
+                protected boolean isCancelled() {
+                    return ComputerThinking.this.isCancelled();
+                }
+            };
+        }
+        return solver;
+    }
+    
+    /**
+     * Returns the number of threads searching the root columns.
+     * <p>
+     * @return the parallelism
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+    
+    /**
+     * Sets the number of threads searching the root columns. Threads are taken from a pool shared by all 
+     * {@code ComputerThinking} objects with the same parallelism; 1 searches on the calling thread.
+     * <p>
+     * @param parallelism the parallelism
+     */
+    public void setParallelism(int parallelism) {
+        assert parallelism > 0;
+        
+        this.parallelism = parallelism;
+    }
+    
+    /**
+     * Returns the state of the search. True if the same position always gives the same location, false if 
+     * it's not.
+     * <p>
+     * @return true if the search is deterministic, otherwise false
+     */
+    public boolean isDeterministic() {
+        return deterministic;
+    }
+    
+    /**
+     * Returns the move selector breaking ties between columns of the same value at random.
+     * <p>
+     * @return the move selector
+     */
+    public MoveSelector getMoveSelector() {
+        return selector;
+    }
+    
+    /**
+     * Sets the move selector breaking ties between columns of the same value at random. By default each 
+     * {@code ComputerThinking} object has a selector of its own with a seed of its own.
+     * <p>
+     * @param selector the move selector
+     */
+    public void setMoveSelector(MoveSelector selector) {
+        assert selector != null;
+        
+        this.selector = selector;
+    }
+    
+    /**
+     * Sets the seed of the move selector, so that the ties of the searches to a fixed degree which follow are
+     * broken the same way each time the same seed is set.
+     * <p>
+     * @param seed the seed
+     */
+    public void setSeed(long seed) {
+        selector.setSeed(seed);
+    }
+    
+    /**
+     * Sets whether the same position always gives the same location. A deterministic search breaks ties 
+     * towards the center instead of at random, and a parallel deterministic search gives up sharing between 
+     * its workers.
+     * <p>
+     * @param deterministic true if the search is deterministic
+     */
+    public void setDeterministic(boolean deterministic) {
+        this.deterministic = deterministic;
+    }
+    
+    /**
+     * Returns the move ordering used by the search, or {@code null} if columns are searched from left to 
+     * right.
+     * <p>
+     * @return the move ordering
+     */
+    public MoveOrdering getMoveOrdering() {
+        return ordering;
+    }
+    
+    /**
+     * Sets the move ordering used by the search. Passing {@code null} makes the search try the columns from 
+     * left to right, after the best column remembered by the transposition table.
+     * <p>
+     * @param ordering the move ordering
+     */
+    public void setMoveOrdering(MoveOrdering ordering) {
+        this.ordering = ordering;
+    }
+    
+    /**
+     * Returns the driver of the searches of {@link #bestValue(int, int)} and {@link #bestValueWithin(long, int)}.
+     * <p>
+     * @return the search driver
+     */
+    public SearchDriver getSearchDriver() {
+        return driver;
+    }
+    
+    /**
+     * Sets the driver of the searches of {@link #bestValue(int, int)} and {@link #bestValueWithin(long, int)}; 
+     * {@link SearchDriver#ALPHA_BETA} by default. It is also the driver of the computer levels without a 
+     * driver of their own.
+     * <p>
+     * @param driver the search driver
+     */
+    public void setSearchDriver(SearchDriver driver) {
+        assert driver != null;
+        
+        this.driver = driver;
+    }
+    
+    /**
+     * Returns the driver of the searches of {@link #bestValue(ComputerLevel, int)} at the specified computer 
+     * level.
+     * <p>
+     * @param level the computer level
+     * @return the search driver
+     */
+    public SearchDriver getSearchDriver(ComputerLevel level) {
+        assert level != null;
+        
+        SearchDriver levelDriver = levelDrivers.get(level);
+        return levelDriver != null ? levelDriver : driver;
+    }
+    
+    /**
+     * Sets the driver of the searches of {@link #bestValue(ComputerLevel, int)} at the specified computer 
+     * level. Passing {@code null} makes the level use the driver set by {@link #setSearchDriver(SearchDriver)}.
+     * <p>
+     * @param level the computer level
+     * @param driver the search driver
+     */
+    public void setSearchDriver(ComputerLevel level, SearchDriver driver) {
+        assert level != null;
+        
+        if (driver == null) {
+            levelDrivers.remove(level);
+        } else {
+            levelDrivers.put(level, driver);
+        }
+    }
+    
+    /**
+     * Returns the transposition table used by the search, or {@code null} if the search does not use one. 
+     * Unless another table has been set, a default table is created the first time it is needed, either by 
+     * this method or by a search from degree 2.
+     * <p>
+     * @return the transposition table
+     */
+    public TranspositionTable getTranspositionTable() {
+        createDefaultTable();
+        return table;
+    }
+    
+    /**
+     * Sets the transposition table used by the search. Passing {@code null} makes the search remember 
+     * nothing between positions. The table is only used when the chess map fits in a 
+     * {@link BitBoard}.
+     * <p>
+     * @param table the transposition table
+     */
+    public void setTranspositionTable(TranspositionTable table) {
+        this.table = table;
+        defaultTable = false;
+    }
+    
+    /**
+     * Creates the default transposition table, if no table has been set or created yet.
+     */
+    private void createDefaultTable() {
+        if (defaultTable) {
+            table = new TranspositionTable();
+            defaultTable = false;
+        }
     }
     
     /**
@@ -54,7 +523,7 @@ public class ComputerThinking {
         assert column >= 0;
         assert player >= 0;
         
-        int[][] placeValue = getColumnState(row, column);
+        int[][] placeValue = getColumnState(row, column, placeState);
         for (int dir = 0; dir < 4 ; dir++) {
             if (placeValue[player][dir] + placeValue[player][7 - dir] > 2) {
                 return true;
@@ -76,13 +545,16 @@ public class ComputerThinking {
     }
 
     /**
-     * Calculate the best location that computer should place.
+     * Calculate the best location that computer should place. From degree 2, the opening book is consulted 
+     * first, and once the chess map has no more empty cells than the endgame threshold, the rest of the game 
+     * is searched exactly instead.
      * <p>
      * @param degree the degree of computer level
      * @param player the player index
-     * @return the best location
+     * @return the best location, or -1 if the search is cancelled
      */
     public int bestValue(int degree, int player) {
+        cancelled = false;
         int bestValue;
         if (degree == 1) {
             int[] maxValues = new int[columns];
@@ -94,50 +566,670 @@ public class ComputerThinking {
                 }
             }
             if (max >= 100) {
-                for (int i = 0; i < columns * columns * columns; i++) {
-                    bestValue = (int) (Math.random() * columns);
-                    if (nextPlace[bestValue] >= 0 && maxValues[bestValue] / 10 == max / 10) {
-                        return bestValue;
-                    }
-                }
-            } else {
-                for (int i = 0; i < columns * columns * columns; i++){
-                    bestValue = (int) (Math.random() * columns);
-                    if (nextPlace[bestValue] >= 0 && maxValues[bestValue] == max ) {
-                        return bestValue;
-                    }
+                for (int i = 0; i < columns; i++) {
+                    maxValues[i] /= 10;
                 }
+                max /= 10;
+            }
+            bestValue = pickBest(maxValues, max);
+            if (bestValue >= 0) {
+                return bestValue;
             }
         } else if (degree > 1) {
+            int bookValue = bookValue(player);
+            if (bookValue >= 0) {
+                return bookValue;
+            }
+            if (isEndgame()) {
+                SolverResult result = solveUntil(player, false, 0L);
+                return result != null ? result.getColumn() : -1;
+            }
             maxDepth = degree;
+            loadPosition();
             int[] maxValues = new int[columns];
-            int max = miniMax(
-                    maxDepth * 2, Integer.MIN_VALUE, Integer.MAX_VALUE, player, maxValues);
-            for (int i = 0; i < columns * columns * columns; i++) {
-                bestValue = (int) (Math.random() * columns);
-                if (nextPlace[bestValue] >= 0 && maxValues[bestValue] == max ) {
-                    return bestValue;
+            startSearch(maxDepth * 2);
+            int max = searchRoot(player, maxValues);
+            if (timeUp) {
+                timeUp = false;
+                return -1;
+            }
+            bestValue = pickBest(maxValues, max);
+            if (bestValue >= 0) {
+                return bestValue;
+            }
+        }
+        return randomValue();
+    }
+    
+    /**
+     * Calculate the best location that computer should place at the specified computer level, driving the 
+     * search with the driver of the level and searching the endgame exactly below the threshold of the level.
+     * Levels with a move budget are searched by 
+     * {@link #bestValueWithin(long, int)}, the others to their fixed degree.
+     * <p>
+     * @param level the computer level
+     * @param player the player index
+     * @return the best location, or -1 if the search is cancelled
+     */
+    public int bestValue(ComputerLevel level, int player) {
+        assert level != null;
+        
+        SearchDriver defaultDriver = driver;
+        int defaultThreshold = endgameThreshold;
+        driver = getSearchDriver(level);
+        endgameThreshold = getEndgameThreshold(level);
+        try {
+            if (level.getMoveBudget() > 0) {
+                return bestValueWithin(level.getMoveBudget(), player);
+            }
+            return bestValue(level.getDegree(), player);
+        } finally {
+            driver = defaultDriver;
+            endgameThreshold = defaultThreshold;
+        }
+    }
+    
+    /**
+     * Calculate the best location that computer should place within the specified time. The search is 
+     * deepened one move of each player at a time until the move budget runs out or the rest of the game has 
+     * been searched, and the best location of the last completed search is returned. The first search always
+     * completes, so a location is returned even for a very small budget. The opening book is consulted first,
+     * and once the chess map has no more empty cells than the endgame threshold, the rest of the game is 
+     * searched exactly instead, within the same budget; if the exact search runs out of time, the first 
+     * search still gives a location.
+     * <p>
+     * @param moveBudget the move budget in milliseconds
+     * @param player the player index
+     * @return the best location, or -1 if the search is cancelled
+     */
+    public int bestValueWithin(long moveBudget, int player) {
+        return bestValueWithin(moveBudget, Integer.MAX_VALUE, player);
+    }
+    
+    /**
+     * Calculate the best location that computer should place within the specified time, searching no deeper 
+     * than the specified degree, like {@link #bestValueWithin(long, int)}.
+     * <p>
+     * @param moveBudget the move budget in milliseconds
+     * @param maxDegree the largest degree searched
+     * @param player the player index
+     * @return the best location, or -1 if the search is cancelled
+     */
+    public int bestValueWithin(long moveBudget, int maxDegree, int player) {
+        assert moveBudget >= 0;
+        assert maxDegree > 0;
+        
+        cancelled = false;
+        long start = System.nanoTime();
+        int bookValue = bookValue(player);
+        if (bookValue >= 0) {
+            return bookValue;
+        }
+        if (isEndgame()) {
+            SolverResult result = solveUntil(player, true, start + moveBudget * 1000000L);
+            if (result != null) {
+                return result.getColumn();
+            }
+            if (isCancelled()) {
+                return -1;
+            }
+        }
+        loadPosition();
+        int empty = 0;
+        for (int i = 0; i < columns; i++) {
+            empty += nextPlace[i] + 1;
+        }
+        startSearch(Math.max(2, empty + 1));
+        int[] maxValues = new int[columns];
+        int bestValue = -1;
+        for (int degree = 1; degree == 1 || (degree <= maxDegree && (degree - 1) * 2 < empty); degree++) {
+            maxDepth = degree;
+            timed = degree > 1;
+            deadline = start + moveBudget * 1000000L;
+            Arrays.fill(maxValues, Integer.MIN_VALUE);
+            int max = searchRoot(player, maxValues);
+            if (timeUp) {
+                break;
+            }
+            int value = pickBest(maxValues, max);
+            if (value >= 0) {
+                bestValue = value;
+                rootColumn = value;
+            }
+        }
+        timed = false;
+        timeUp = false;
+        if (isCancelled()) {
+            return -1;
+        }
+        return bestValue >= 0 ? bestValue : randomValue();
+    }
+    
+    /**
+     * Returns the score of every column of the chess map for the specified player to move, searched to the 
+     * specified degree. Once the chess map has no more empty cells than the endgame threshold, the result of 
+     * every column is found exactly instead. The opening book is not consulted.
+     * <p>
+     * @param degree the degree of computer level
+     * @param player the player index
+     * @return the analysis, or {@code null} if the search is cancelled
+     */
+    public Analysis analyze(int degree, int player) {
+        assert degree > 0;
+        
+        cancelled = false;
+        if (isEndgame()) {
+            return solveColumns(player, false, 0L);
+        }
+        maxDepth = degree;
+        loadPosition();
+        startSearch(maxDepth * 2);
+        int[] scores = new int[columns];
+        analyzeRoot(player, scores);
+        if (timeUp) {
+            timeUp = false;
+            return null;
+        }
+        return new Analysis(player, degree, scores, nodes);
+    }
+    
+    /**
+     * Returns the score of every column of the chess map for the specified player to move, searched deeper 
+     * and deeper within the specified time like {@link #bestValueWithin(long, int)}. The listener, if any, is
+     * given the analysis of each degree as soon as it is completed, so that the scores could be shown while 
+     * they improve. Once the chess map has no more empty cells than the endgame threshold, the result of 
+     * every column is found exactly instead, and given to the listener once, unless the exact search runs 
+     * out of time.
+     * <p>
+     * @param moveBudget the move budget in milliseconds
+     * @param player the player index
+     * @param listener the listener, or {@code null}
+     * @return the analysis of the deepest degree completed, or {@code null} if the search is cancelled
+     */
+    public Analysis analyzeWithin(long moveBudget, int player, AnalysisListener listener) {
+        assert moveBudget >= 0;
+        
+        cancelled = false;
+        long start = System.nanoTime();
+        Analysis analysis = null;
+        if (isEndgame()) {
+            analysis = solveColumns(player, true, start + moveBudget * 1000000L);
+            if (analysis != null && listener != null) {
+                listener.analysisUpdated(analysis);
+            }
+            if (analysis != null || isCancelled()) {
+                return analysis;
+            }
+        }
+        loadPosition();
+        int empty = 0;
+        for (int i = 0; i < columns; i++) {
+            empty += nextPlace[i] + 1;
+        }
+        startSearch(Math.max(2, empty + 1));
+        int[] scores = new int[columns];
+        for (int degree = 1; degree == 1 || (degree - 1) * 2 < empty; degree++) {
+            maxDepth = degree;
+            timed = degree > 1;
+            deadline = start + moveBudget * 1000000L;
+            analyzeRoot(player, scores);
+            if (timeUp) {
+                break;
+            }
+            analysis = new Analysis(player, degree, scores, nodes);
+            if (listener != null) {
+                listener.analysisUpdated(analysis);
+            }
+        }
+        timed = false;
+        timeUp = false;
+        return isCancelled() ? null : analysis;
+    }
+    
+    /**
+     * Searches every root column with the full window to the current max depth, filling in its value, or 
+     * {@link Analysis#NO_SCORE} for a column which could not be played.
+     * <p>
+     * @param player the computer player index
+     * @param trace the value of each column at the root
+     */
+    private void analyzeRoot(int player, int[] trace) {
+        Arrays.fill(trace, Analysis.NO_SCORE);
+        if (parallelism > 1) {
+            parallelRoot(player, trace, parallelism, true);
+            return;
+        }
+        int depth = maxDepth * 2;
+        nodes++;
+        boolean symmetric = board != null && board.isSymmetric();
+        int[] ranks = CenterMoveOrdering.centerRanks(columns);
+        for (int rank = 0; rank < columns; rank++) {
+            for (int i = 0; i < columns; i++) {
+                if (ranks[i] != rank || nextPlace[i] < 0 || (symmetric && i > columns - 1 - i)) {
+                    continue;
+                }
+                if (isWinningMove(i, player)) {
+                    trace[i] = WIN_VALUE * depth;
+                    continue;
+                }
+                placeChess(i, player);
+                trace[i] = -negaMax(depth - 1, -Integer.MAX_VALUE, Integer.MAX_VALUE, (player + 1) % 2, player, 
+                        null);
+                removeChess(i);
+                if (timeUp) {
+                    return;
+                }
+            }
+        }
+        if (symmetric) {
+            mirrorTrace(trace);
+        }
+    }
+    
+    /**
+     * Finds the exact result of every column of the chess map for the specified player to move, giving up 
+     * once the search is cancelled or, if it is timed, once the specified deadline has passed.
+     * <p>
+     * @param player the player index
+     * @param timed whether the search has a deadline
+     * @param deadline the deadline, in the time of {@link System#nanoTime()}
+     * @return the exact analysis, or {@code null} if the search gives up
+     */
+    private Analysis solveColumns(int player, boolean timed, long deadline) {
+        EndgameSolver solver = solver();
+        board.load(nextPlace, state);
+        SolverResult[] results = new SolverResult[columns];
+        long count = 0;
+        for (int column = 0; column < columns; column++) {
+            if (!board.canPlay(column)) {
+                continue;
+            }
+            if (board.isWinningMove(column, player)) {
+                results[column] = new SolverResult(Outcome.WIN, 1, column);
+                count++;
+                continue;
+            }
+            board.play(column, player);
+            SolverResult reply = timed ? solver.solve(board, 1 - player, deadline) 
+                    : solver.solve(board, 1 - player);
+            board.undo(column);
+            count += solver.getNodeCount();
+            if (reply == null) {
+                nodes = count;
+                return null;
+            }
+            Outcome outcome = reply.getOutcome() == Outcome.WIN ? Outcome.LOSS 
+                    : reply.getOutcome() == Outcome.LOSS ? Outcome.WIN : Outcome.DRAW;
+            results[column] = new SolverResult(outcome, reply.getDistance() + 1, column);
+        }
+        nodes = count;
+        return new Analysis(player, results, count);
+    }
+    
+    /**
+     * Returns the location the opening book gives for the chess map, or -1 if the book does not know it.
+     * <p>
+     * @param player the player index
+     * @return the book location
+     */
+    private int bookValue(int player) {
+        if (book == null || board == null) {
+            return -1;
+        }
+        board.load(nextPlace, state);
+        int bookValue = book.lookup(board, player);
+        if (bookValue >= 0 && nextPlace[bookValue] >= 0) {
+            nodes = 0;
+            return bookValue;
+        }
+        return -1;
+    }
+    
+    /**
+     * Returns the state of the chess map. True if it has a playable column and few enough empty cells to be 
+     * searched exactly, false if it's not.
+     * <p>
+     * @return true if the rest of the game is searched exactly, otherwise false
+     */
+    private boolean isEndgame() {
+        if (board == null) {
+            return false;
+        }
+        int empty = 0;
+        for (int i = 0; i < columns; i++) {
+            empty += nextPlace[i] + 1;
+        }
+        return empty > 0 && empty <= endgameThreshold;
+    }
+    
+    /**
+     * Searches the root position to the current max depth and returns its value, filling in the value of each
+     * root column.
+     * <p>
+     * @param player the computer player index
+     * @param trace the value of each column at the root
+     * @return the value of the root position
+     */
+    private int searchRoot(int player, int[] trace) {
+        if (parallelism > 1) {
+            return parallelRoot(player, trace, parallelism, false);
+        }
+        if (driver == SearchDriver.MTDF) {
+            return mtdf(player, trace);
+        }
+        return negaMax(maxDepth * 2, -Integer.MAX_VALUE, Integer.MAX_VALUE, player, player, trace);
+    }
+    
+    /**
+     * Searches the root position by MTD(f) and returns its value, filling in the value of each root column. 
+     * The null window searches move the bounds of the root value from the first guess until they meet, and 
+     * one last search with a window of three values around the root value then gives every column tying it 
+     * its exact value. Should the bounds not meet within a number of searches, or the last search fall 
+     * outside its window, which a transposition table filled at other depths may cause, the root is searched 
+     * again with the full window.
+     * <p>
+     * @param player the computer player index
+     * @param trace the value of each column at the root
+     * @return the value of the root position
+     */
+    private int mtdf(int player, int[] trace) {
+        int depth = maxDepth * 2;
+        if (table != null && board != null) {
+            long entry = table.probe(board.getCanonicalHash() ^ Zobrist.player(player) ^ Zobrist.side(player));
+            if (entry != TranspositionTable.MISS) {
+                guess = TranspositionTable.value(entry);
+            }
+        }
+        int value = guess;
+        int lower = -Integer.MAX_VALUE;
+        int upper = Integer.MAX_VALUE;
+        for (int pass = 0; lower < upper && pass < MAX_MTDF_PASSES; pass++) {
+            int beta = value == lower ? value + 1 : value;
+            value = negaMax(depth, beta - 1, beta, player, player, trace);
+            if (timeUp) {
+                return 0;
+            }
+            if (value < beta) {
+                upper = value;
+            } else {
+                lower = value;
+            }
+        }
+        if (lower == upper) {
+            int exact = value;
+            value = negaMax(depth, exact - 1, exact + 1, player, player, trace);
+            if (timeUp || value == exact) {
+                guess = value;
+                return value;
+            }
+        }
+        value = negaMax(depth, -Integer.MAX_VALUE, Integer.MAX_VALUE, player, player, trace);
+        guess = value;
+        return value;
+    }
+    
+    /**
+     * Searches the root columns in parallel, one task per column, and returns the value of the root position.
+     * A full search gives every column its exact value; otherwise the search stops at the first winning 
+     * column and, unless it is deterministic, shares the best value so far between the columns.
+     * <p>
+     * @param player the computer player index
+     * @param trace the value of each column at the root
+     * @param threads the number of threads
+     * @param full true if every column is searched with the full window
+     * @return the value of the root position
+     * @throws IllegalStateException if a worker fails
+     */
+    private int parallelRoot(final int player, int[] trace, int threads, boolean full) {
+        final int depth = maxDepth * 2;
+        nodes++;
+        boolean[] won = new boolean[columns];
+        int best = -Integer.MAX_VALUE;
+        for (int i = 0; i < columns; i++) {
+            if (nextPlace[i] >= 0 && isWinningMove(i, player)) {
+                trace[i] = WIN_VALUE * depth;
+                if (!full) {
+                    return trace[i];
+                }
+                won[i] = true;
+                best = trace[i];
+            }
+        }
+        if (workers == null) {
+            workers = new ComputerThinking[columns];
+        }
+        final AtomicInteger alpha = deterministic || full ? null : new AtomicInteger(-Integer.MAX_VALUE);
+        List<Callable<Integer>> tasks = new ArrayList<Callable<Integer>>();
+        List<Integer> columnList = new ArrayList<Integer>();
+        int[] ranks = CenterMoveOrdering.centerRanks(columns);
+        boolean symmetric = board != null && board.isSymmetric();
+        for (int rank = 0; rank < columns; rank++) {
+            for (int i = 0; i < columns; i++) {
+                if (ranks[i] == rank && nextPlace[i] >= 0 && !won[i] && (!symmetric || i <= columns - 1 - i)) {
+                    final ComputerThinking worker = worker(i);
+                    final int column = i;
+                    tasks.add(new Callable<Integer>() {
+                        
+                        @Override
+                        public Integer call() {
+                            return worker.searchColumn(column, depth, player, alpha);
+                        }
+                    });
+                    columnList.add(i);
+                }
+            }
+        }
+        if (tasks.isEmpty()) {
+            if (symmetric) {
+                mirrorTrace(trace);
+            }
+            return best > -Integer.MAX_VALUE ? best : 0;
+        }
+        List<Future<Integer>> results = pool(threads).invokeAll(tasks);
+        for (int k = 0; k < results.size(); k++) {
+            int column = columnList.get(k);
+            try {
+                trace[column] = results.get(k).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("parallel search interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("parallel search failed", e.getCause());
+            }
+            nodes += workers[column].nodes;
+            timeUp |= workers[column].timeUp;
+            best = Math.max(best, trace[column]);
+        }
+        if (symmetric) {
+            mirrorTrace(trace);
+        }
+        return best;
+    }
+    
+    /**
+     * Returns the worker searching the specified root column, with a copy of the chess map of this object 
+     * and the same search settings. A worker never has the default transposition table: it shares the table 
+     * of this object, or, in a deterministic search, uses a small private table of its own kept between 
+     * searches.
+     * <p>
+     * @param column the root column
+     * @return the worker
+     */
+    private ComputerThinking worker(int column) {
+        ComputerThinking worker = workers[column];
+        if (worker == null) {
+            int[][] stateCopy = new int[rows][];
+            for (int i = 0; i < rows; i++) {
+                stateCopy[i] = state[i].clone();
+            }
+            worker = new ComputerThinking(rows, columns, nextPlace.clone(), stateCopy);
+            workers[column] = worker;
+        } else {
+            System.arraycopy(nextPlace, 0, worker.nextPlace, 0, columns);
+            for (int i = 0; i < rows; i++) {
+                System.arraycopy(state[i], 0, worker.state[i], 0, columns);
+            }
+        }
+        worker.defaultTable = false;
+        if (deterministic || table == null) {
+            if (worker.privateTable == null) {
+                worker.privateTable = new TranspositionTable(
+                        WORKER_TABLE_SIZE_BITS, ReplacementPolicy.DEPTH_PREFERRED);
+            }
+            worker.privateTable.clear();
+            worker.table = worker.privateTable;
+        } else {
+            worker.table = table;
+        }
+        worker.defaultEvaluator = false;
+        if (evaluator == null) {
+            worker.evaluator = null;
+        } else if (worker.evaluator == null || worker.evaluator.getClass() != evaluator.getClass()) {
+            worker.evaluator = evaluator.copy();
+        }
+        worker.loadPosition();
+        worker.maxDepth = maxDepth;
+        worker.timed = timed;
+        worker.deadline = deadline;
+        worker.timeUp = false;
+        worker.cancelled = isCancelled();
+        worker.deterministic = deterministic;
+        worker.driver = driver;
+        worker.startSearch(moves.length - 1);
+        return worker;
+    }
+    
+    /**
+     * Searches one root column on this worker and returns its value. When the best value is shared, the 
+     * column is searched with a window one below the best value so far, which is then raised if needed.
+     * <p>
+     * @param column the root column
+     * @param depth the depth of the root
+     * @param player the computer player index
+     * @param alpha the best value of the root so far, or {@code null} if it is not shared
+     * @return the value of the column
+     */
+    private int searchColumn(int column, int depth, int player, AtomicInteger alpha) {
+        int lower = -Integer.MAX_VALUE;
+        if (alpha != null && alpha.get() > -Integer.MAX_VALUE) {
+            lower = alpha.get() - 1;
+        }
+        placeChess(column, player);
+        int value = -negaMax(depth - 1, -Integer.MAX_VALUE, -lower, (player + 1) % 2, player, null);
+        removeChess(column);
+        if (alpha != null) {
+            int best = alpha.get();
+            while (value > best && !alpha.compareAndSet(best, value)) {
+                best = alpha.get();
+            }
+        }
+        return value;
+    }
+    
+    /**
+     * Returns the pool shared by all searches with the specified parallelism.
+     * <p>
+     * @param parallelism the parallelism
+     * @return the pool
+     */
+    private static ForkJoinPool pool(int parallelism) {
+        ForkJoinPool pool = POOLS.get(parallelism);
+        if (pool == null) {
+            pool = new ForkJoinPool(parallelism);
+            ForkJoinPool existing = POOLS.putIfAbsent(parallelism, pool);
+            if (existing != null) {
+                pool.shutdown();
+                pool = existing;
+            }
+        }
+        return pool;
+    }
+    
+    /**
+     * Loads the chess map into the bit board and the evaluator, if any, before a search, creating the default
+     * evaluator if needed.
+     */
+    private void loadPosition() {
+        createDefaultEvaluator();
+        if (board != null) {
+            board.load(nextPlace, state);
+        }
+        if (evaluator != null) {
+            evaluator.load(nextPlace, state);
+        }
+    }
+    
+    /**
+     * Prepares a search reaching at most the specified number of plies below the root: creates the default 
+     * transposition table if needed, resets the node counter and the move ordering and makes room for the 
+     * columns of each ply.
+     * <p>
+     * @param plies the greatest number of plies below the root
+     */
+    private void startSearch(int plies) {
+        createDefaultTable();
+        nodes = 0;
+        rootColumn = -1;
+        guess = 0;
+        if (moves.length < plies + 1) {
+            moves = new int[plies + 1][columns];
+        }
+        if (ordering != null) {
+            ordering.reset(columns, plies);
+        }
+    }
+    
+    /**
+     * Returns a random column whose root value equals the best value, chosen by the move selector, or -1 if 
+     * none is found. A deterministic search returns the one closest to the center.
+     * <p>
+     * @param maxValues the root value of each column
+     * @param max the best value
+     * @return the chosen location, or -1
+     */
+    private int pickBest(int[] maxValues, int max) {
+        int bestValue;
+        if (deterministic) {
+            int[] ranks = CenterMoveOrdering.centerRanks(columns);
+            bestValue = -1;
+            for (int i = 0; i < columns; i++) {
+                if (nextPlace[i] >= 0 && maxValues[i] == max
+                        && (bestValue < 0 || ranks[i] < ranks[bestValue])) {
+                    bestValue = i;
                 }
             }
+            return bestValue;
         }
-        do {
-            bestValue = (int) (Math.random() * columns);
-        } while (nextPlace[bestValue] < 0);
-        return bestValue;
+        return selector.select(maxValues, max, nextPlace);
+    }
+    
+    /**
+     * Returns a random playable column chosen by the move selector, or the one closest to the center for a 
+     * deterministic search.
+     * <p>
+     * @return a random location
+     */
+    private int randomValue() {
+        if (deterministic) {
+            return pickBest(new int[columns], 0);
+        }
+        return selector.select(nextPlace);
     }
 
     /**
-     * Returns the column state.
+     * Returns the column state, filled into the specified buffer, and fills in the block of each direction.
      * <p>
      * @param row the row
      * @param column the column
+     * @param columnState the buffer to fill
      * @return the column state
      */
-    private int[][] getColumnState(int row, int column) {
-        int[][] columnState = new int[2][8];
-        block = new int[8];
+    private int[][] getColumnState(int row, int column, int[][] columnState) {
         int state;
         for (int i = 0; i < 8 ; i++ ) {
+            columnState[0][i] = 0;
+            columnState[1][i] = 0;
+            block[i] = 0;
             state = getBoardState(row, column, i, 1);
             if (state != 2) {
                 int j = 1;
@@ -165,13 +1257,16 @@ public class ComputerThinking {
      */
     private int calValue(int column, int player) {
         int row  = nextPlace[column];
-        int[][] nextValue = new int[2][8];
+        int[][] nextValue = nextState;
         if (row > 0) {
-            nextValue = getColumnState(row - 1, column);
+            getColumnState(row - 1, column, nextValue);
+        } else {
+            Arrays.fill(nextValue[0], 0);
+            Arrays.fill(nextValue[1], 0);
         }
         int colValue = 0;
         if (row >= 0) {
-            int[][] placeValue = getColumnState(row , column);
+            int[][] placeValue = getColumnState(row , column, placeState);
             for (int dir = 0; dir < 4; dir++) {
                 if (placeValue[player][dir] + placeValue[player][7 - dir] >= 3) {
                     return Integer.MAX_VALUE / 2;
@@ -394,87 +1489,262 @@ public class ComputerThinking {
     }
     
     /**
-     * Returns the value after calculating by mini-Max algorithm.
+     * Returns the value of the position for the player to move after calculating by nega-Max algorithm with 
+     * alpha-beta pruning. The value is fail-soft: a value not greater than alpha is an upper bound, a value 
+     * not less than beta is a lower bound, and any value in between is exact. Leaves are valued, by the 
+     * evaluator if there is one, from the point of view of the computer player and negated when the other 
+     * player is to move. A full chess map is worth 0, a draw.
      * <p>
-     * @param depth the depth
-     * @param Alpha alpha
-     * @param Beta beta
-     * @param player the player index
-     * @param trace trace information
-     * @return the value after calculating by mini-Max algorithm
+     * When the chess map fits in a bit board, positions are looked up in the transposition table first. The 
+     * columns are searched in the order given by the move ordering, which is told about the best column 
+     * remembered for the position, or at the root without a transposition table about the best column of the 
+     * former iteration, and about every column causing a cutoff. At the root every column that 
+     * could tie the best value is searched with a window one below alpha, so that all best columns come out 
+     * with their exact value in the trace. With {@link SearchDriver#PVS} every column after the first is 
+     * searched with a null window first, and again with the full window only if its value could be inside 
+     * it. A timed search gives up, without remembering anything, as soon as 
+     * its deadline has passed, and so does a cancelled search.
+     * <p>
+     * @param depth the remaining depth
+     * @param alpha alpha
+     * @param beta beta
+     * @param side the index of the player to move
+     * @param player the computer player index
+     * @param trace the value of each column at the root
+     * @return the value of the position for the player to move
      */
-    private int miniMax(int depth, int Alpha, int Beta, int player, int[] trace) {
-        int MaxMin;
-        if (depth % 2 == 0) {
-            Alpha = Integer.MIN_VALUE;        
-        } else {
-            Beta = Integer.MAX_VALUE; 
+    private int negaMax(int depth, int alpha, int beta, int side, int player, int[] trace) {
+        nodes++;
+        if ((nodes & 0x3ff) == 0 && (isCancelled() || timed && System.nanoTime() - deadline > 0)) {
+            timeUp = true;
+        }
+        if (timeUp) {
+            return 0;
+        }
+        boolean root = depth == maxDepth * 2;
+        int alphaOrig = alpha;
+        long key = 0L;
+        int hashColumn = -1;
+        if (table != null && board != null) {
+            key = board.getCanonicalHash() ^ Zobrist.player(player) ^ Zobrist.side(side);
+            long entry = table.probe(key);
+            if (entry != TranspositionTable.MISS) {
+                hashColumn = board.canonicalColumn(TranspositionTable.column(entry));
+                if (!root && TranspositionTable.depth(entry) >= depth) {
+                    int value = TranspositionTable.value(entry);
+                    Bound bound = TranspositionTable.bound(entry);
+                    if (bound == Bound.EXACT) {
+                        return value;
+                    } else if (bound == Bound.LOWER && value > alpha) {
+                        alpha = value;
+                    } else if (bound == Bound.UPPER && value < beta) {
+                        beta = value;
+                    }
+                    if (alpha >= beta) {
+                        return value;
+                    }
+                }
+            }
         }
         if (depth == 0) {
-            int[] val = calBordValue();
-            MaxMin = val[player] - val[(player+1) % 2] / 10 * 8;
-            return MaxMin;
+            int value;
+            if (evaluator != null) {
+                value = evaluator.evaluate(player);
+            } else {
+                int[] val = calBordValue();
+                value = val[player] - val[(player + 1) % 2] / 10 * 8;
+            }
+            value = side == player ? value : -value;
+            remember(key, depth, value, Bound.EXACT, -1);
+            return value;
         }
+        int ply = maxDepth * 2 - depth;
+        int[] order = moves[ply];
+        int count = 0;
+        boolean symmetric = root && board != null && board.isSymmetric();
         for (int i = 0; i < columns; i++) {
             if (nextPlace[i] >= 0) {
-                if (depth % 2 == 0 && isWin(nextPlace[i], i, player)) {
-                    MaxMin = 20000000 * depth;
-                    if (depth == maxDepth * 2) {
-                        trace[i] = MaxMin;
+                if (isWinningMove(i, side)) {
+                    int value = WIN_VALUE * depth;
+                    if (root) {
+                        trace[i] = value;
                     }
-                    return MaxMin;
-                } else if (((depth & 1) == 1) && isWin(nextPlace[i], i, (player + 1) % 2)) {
-                    MaxMin = -20000000 * depth;
-                    if (depth == maxDepth * 2) {
-                        trace[i] = MaxMin;
-                    }
-                    return MaxMin;
-                } else {
-                    if (depth % 2 == 0) {
-                        state[nextPlace[i]][i] = player;
-                    } else {
-                        state[nextPlace[i]][i] = (player +1) % 2;
-                    }
-                    nextPlace[i]--;
-                    MaxMin =  miniMax(depth - 1, Alpha, Beta, player, trace);
+                    remember(key, depth, value, Bound.EXACT, i);
+                    return value;
                 }
-                if (depth == maxDepth * 2) {
-                    trace[i] = MaxMin;
+                if (!symmetric || i <= columns - 1 - i) {
+                    order[count++] = i;
                 }
-                if (depth % 2 == 0) {
-                    if (MaxMin > Alpha) {
-                        Alpha = MaxMin;
-                    }
-                } else {
-                    if (MaxMin < Beta) {
-                        Beta = MaxMin;
-                    }
+            }
+        }
+        if (count == 0) {
+            remember(key, depth, 0, Bound.EXACT, -1);
+            return 0;
+        }
+        if (root && hashColumn < 0) {
+            hashColumn = rootColumn;
+        }
+        if (symmetric && hashColumn > columns - 1 - hashColumn) {
+            hashColumn = columns - 1 - hashColumn;
+        }
+        orderMoves(ply, side, hashColumn, order, count);
+        int best = -Integer.MAX_VALUE;
+        int bestColumn = -1;
+        for (int k = 0; k < count; k++) {
+            int i = order[k];
+            int lower = root && alpha > -Integer.MAX_VALUE ? alpha - 1 : alpha;
+            placeChess(i, side);
+            int value;
+            if (driver == SearchDriver.PVS && k > 0 && lower > -Integer.MAX_VALUE) {
+                value = -negaMax(depth - 1, -lower - 1, -lower, (side + 1) % 2, player, trace);
+                if (value > lower && value < beta && !timeUp) {
+                    value = -negaMax(depth - 1, -beta, -lower, (side + 1) % 2, player, trace);
                 }
-                nextPlace[i]++;
-                state[nextPlace[i]][i] = -1;
-                if (Alpha > Beta) {
-                    return MaxMin;
+            } else {
+                value = -negaMax(depth - 1, -beta, -lower, (side + 1) % 2, player, trace);
+            }
+            removeChess(i);
+            if (timeUp) {
+                return 0;
+            }
+            if (root) {
+                trace[i] = value;
+            }
+            if (value > best) {
+                best = value;
+                bestColumn = i;
+                if (value > alpha) {
+                    alpha = value;
+                }
+            }
+            if (alpha >= beta) {
+                if (ordering != null) {
+                    ordering.cutoff(ply, side, i, depth);
                 }
+                break;
             }
         }
-        if (depth % 2 == 0) {
-            return Alpha;
-        } else {
-            return Beta;
+        if (symmetric) {
+            mirrorTrace(trace);
+        }
+        Bound bound = best <= alphaOrig ? Bound.UPPER : best >= beta ? Bound.LOWER : Bound.EXACT;
+        remember(key, depth, best, bound, bestColumn);
+        return best;
+    }
+    
+    /**
+     * Reorders the playable columns of a position with the move ordering. Without a move ordering the columns 
+     * stay from left to right, except for the remembered best column which goes first.
+     * <p>
+     * @param ply the number of plies below the root
+     * @param side the index of the player to move
+     * @param hashColumn the best column remembered for the position, or -1 if there is none
+     * @param order the playable columns
+     * @param count the number of playable columns
+     */
+    private void orderMoves(int ply, int side, int hashColumn, int[] order, int count) {
+        if (ordering != null) {
+            ordering.order(ply, side, hashColumn, order, count);
+            return;
+        }
+        for (int k = count - 1; k > 0; k--) {
+            if (order[k] == hashColumn) {
+                order[k] = order[k - 1];
+                order[k - 1] = hashColumn;
+            }
+        }
+    }
+    
+    /**
+     * Stores a search result in the transposition table, if there is one and the chess map fits in a bit 
+     * board.
+     * <p>
+     * @param key the position hash
+     * @param depth the depth
+     * @param value the value
+     * @param bound the bound of the value
+     * @param column the best column, or -1 if there is none
+     */
+    private void remember(long key, int depth, int value, Bound bound, int column) {
+        if (table != null && board != null) {
+            table.store(key, depth, value, bound, board.canonicalColumn(column));
+        }
+    }
+
+    /**
+     * Copies the value of each root column of the left half to its mirror column, for a symmetric root whose
+     * right half is not searched.
+     * <p>
+     * @param trace the value of each column at the root
+     */
+    private void mirrorTrace(int[] trace) {
+        for (int i = 0; i < columns / 2; i++) {
+            trace[columns - 1 - i] = trace[i];
+        }
+    }
+
+    /**
+     * Returns the state of game. True if the player would win by placing a chess on the specified column, 
+     * false if it's not. The bit board is used whenever the chess map fits in one.
+     * <p>
+     * @param column the column
+     * @param player the player index
+     * @return true if the move wins, otherwise false
+     */
+    private boolean isWinningMove(int column, int player) {
+        if (board != null) {
+            return board.isWinningMove(column, player);
+        }
+        return isWin(nextPlace[column], column, player);
+    }
+    
+    /**
+     * Places a chess of the specified player on the specified column, keeping the chess map state and the 
+     * bit board in step.
+     * <p>
+     * @param column the column
+     * @param player the player index
+     */
+    private void placeChess(int column, int player) {
+        state[nextPlace[column]][column] = player;
+        if (evaluator != null) {
+            evaluator.place(nextPlace[column], column, player);
+        }
+        nextPlace[column]--;
+        if (board != null) {
+            board.play(column, player);
+        }
+    }
+    
+    /**
+     * Removes the top chess of the specified column, keeping the chess map state and the bit board in step.
+     * <p>
+     * @param column the column
+     */
+    private void removeChess(int column) {
+        nextPlace[column]++;
+        if (evaluator != null) {
+            evaluator.remove(nextPlace[column], column, state[nextPlace[column]][column]);
+        }
+        state[nextPlace[column]][column] = -1;
+        if (board != null) {
+            board.undo(column);
         }
     }
 
     /**
-     * Returns calculated value.
+     * Returns calculated value. The returned array is reused by the next call, so that evaluating a leaf 
+     * allocates nothing.
      * <p>
      * @return calculated value
      */
     private int[] calBordValue() {
-        int[] bordValue = new int[2];
+        bordValue[0] = 0;
+        bordValue[1] = 0;
         for (int column = 0; column < columns; column++) {
             int row = nextPlace[column];
             if (row >= 0) {
-                int[][] placeValue = getColumnState(row, column);
+                int[][] placeValue = getColumnState(row, column, placeState);
                 for (int player = 0; player < 2; player++) {
                     for (int dir = 0; dir < 4; dir++ ) {
                         if (placeValue[player][dir] + placeValue[player][7 - dir] >= 3) {
@@ -0,0 +1,380 @@
+package edu.nyu.cs.connectfour.game.ai;
+
+/**
+ * @author shenli
+ * <p>
+ * The {@code EndgameSolver} class searches a {@link BitBoard} position to the end of the game and returns its
+ * exact {@link SolverResult}, without the chess map evaluation used by the depth limited search.
+ * <p>
+ * The value of a position depends only on the number of chess on the chess map once the game ends: a game
+ * won when the chess map holds {@code n} chess is worth {@code cells + 1 - n} to the winner and the negation
+ * to the loser, and a drawn game is worth 0. As the number of chess is part of the position, values could be
+ * kept in a {@link TranspositionTable} whatever the move order reaching the position. The search is a
+ * negaMax alpha-beta search which never plays a chess letting the opponent win on the next move, narrows its
+ * window to the values still possible, tries the remembered best column first and then the columns creating
+ * the most winning cells, from the center outwards on ties. Positions are remembered by their canonical hash,
+ * so a position and its mirror image share their entry, and the mirror columns of a symmetric root are not
+ * searched.
+ * <p>
+ * A search may be given a deadline, and may be cancelled from another thread by {@link #cancel()}; it then
+ * gives up within a thousand positions and returns {@code null}, remembering nothing of the positions it had
+ * not finished.
+ * <p>
+ * {@code EndgameSolver} objects are not constant; they remember positions between searches. The
+ * {@code EndgameSolver} object is not thread-safe. To use it concurrently, user must surround each method
+ * invocation with external synchronization of the users' choosing.
+ */
+public class EndgameSolver {
+    /**
+     * The default number of transposition table slots, as a power of two
+     */
+    public static final int DEFAULT_TABLE_SIZE_BITS = 18;
+
+    private final int rows;
+    private final int columns;
+    private final int cells;
+    private final int[] centerOrder;
+    private final int[][] moves;
+    private final int[][] scores;
+    private final TranspositionTable table;
+    private BitBoard board;
+    private long nodes;
+    private boolean timed;
+    private long deadline;
+    private boolean stopped;
+    private volatile boolean cancelled;
+
+    /**
+     * Initializes a newly created {@code EndgameSolver} object for chess maps with the specified rows and
+     * columns, with the default number of transposition table slots.
+     * <p>
+     * @param rows the row
+     * @param columns the column
+     * @throws IllegalArgumentException if the chess map could not be represented by a {@link BitBoard}
+     */
+    public EndgameSolver(int rows, int columns) {
+        this(rows, columns, DEFAULT_TABLE_SIZE_BITS);
+    }
+
+    /**
+     * Initializes a newly created {@code EndgameSolver} object for chess maps with the specified rows and
+     * columns, with {@code 2^tableSizeBits} transposition table slots.
+     * <p>
+     * @param rows the row
+     * @param columns the column
+     * @param tableSizeBits the number of transposition table slots, as a power of two
+     * @throws IllegalArgumentException if the chess map could not be represented by a {@link BitBoard}, or
+     * tableSizeBits is negative or greater than 30
+     */
+    public EndgameSolver(int rows, int columns, int tableSizeBits) {
+        if (!BitBoard.fits(rows, columns)) {
+            throw new IllegalArgumentException("endgame solver size: " + rows + "x" + columns);
+        }
+
+        this.rows = rows;
+        this.columns = columns;
+        this.cells = rows * columns;
+        this.table = new TranspositionTable(tableSizeBits, ReplacementPolicy.DEPTH_PREFERRED);
+        this.centerOrder = new int[columns];
+        int[] ranks = CenterMoveOrdering.centerRanks(columns);
+        for (int i = 0; i < columns; i++) {
+            centerOrder[ranks[i]] = i;
+        }
+        this.moves = new int[cells + 1][columns];
+        this.scores = new int[cells + 1][columns];
+    }
+
+    /**
+     * Cancels the search running on this object, if any, from any thread. Searches started afterwards are not
+     * affected.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Searches the position to the end of the game and returns its exact result for the specified player to
+     * move. The position is left as it was found.
+     * <p>
+     * @param board the position
+     * @param side the index of the player to move
+     * @return the result of the position, or {@code null} if the search is cancelled
+     * @throws IllegalArgumentException if the position has another size than the solver
+     */
+    public SolverResult solve(BitBoard board, int side) {
+        timed = false;
+        return search(board, side);
+    }
+
+    /**
+     * Searches the position to the end of the game like {@link #solve(BitBoard, int)}, giving up once the
+     * specified deadline has passed.
+     * <p>
+     * @param board the position
+     * @param side the index of the player to move
+     * @param deadline the deadline, in the time of {@link System#nanoTime()}
+     * @return the result of the position, or {@code null} if the search is cancelled or runs out of time
+     * @throws IllegalArgumentException if the position has another size than the solver
+     */
+    public SolverResult solve(BitBoard board, int side, long deadline) {
+        timed = true;
+        this.deadline = deadline;
+        return search(board, side);
+    }
+
+    /**
+     * Returns the state of the search. True if it has been cancelled since it started, false if it's not. 
+     * The search checks it every thousand positions, so a subclass may stop the search on conditions of its 
+     * own.
+     * <p>
+     * @return true if the search should give up, otherwise false
+     */
+    protected boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Searches the position to the end of the game and returns its exact result for the specified player to
+     * move, or {@code null} if the search gives up.
+     * <p>
+     * @param board the position
+     * @param side the index of the player to move
+     * @return the result of the position, or {@code null}
+     * @throws IllegalArgumentException if the position has another size than the solver
+     */
+    private SolverResult search(BitBoard board, int side) {
+        if (board.getRows() != rows || board.getColumns() != columns) {
+            throw new IllegalArgumentException("bit board size: " + board.getRows() + "x" + board.getColumns());
+        }
+
+        this.board = board;
+        cancelled = false;
+        stopped = false;
+        nodes = 1;
+        int chessNumber = board.getChessNumber();
+        long possible = board.playableMask();
+        if (possible == 0) {
+            return new SolverResult(Outcome.DRAW, 0, -1);
+        }
+        long own = board.winningCells(side) & possible;
+        if (own != 0) {
+            return new SolverResult(Outcome.WIN, 1, column(own));
+        }
+
+        if (board.isSymmetric()) {
+            for (int column = columns / 2 + columns % 2; column < columns; column++) {
+                possible &= ~columnMask(column);
+            }
+        }
+        int count = orderMoves(chessNumber, side, -1, possible);
+        int best = -Integer.MAX_VALUE;
+        int bestColumn = moves[chessNumber][0];
+        for (int k = 0; k < count; k++) {
+            int column = moves[chessNumber][k];
+            board.play(column, side);
+            int value = -negaMax(-Integer.MAX_VALUE, -best, 1 - side);
+            board.undo(column);
+            if (stopped) {
+                return null;
+            }
+            if (value > best) {
+                best = value;
+                bestColumn = column;
+            }
+        }
+
+        if (best > 0) {
+            return new SolverResult(Outcome.WIN, cells + 1 - best - chessNumber, bestColumn);
+        }
+        if (best < 0) {
+            return new SolverResult(Outcome.LOSS, cells + 1 + best - chessNumber, bestColumn);
+        }
+        return new SolverResult(Outcome.DRAW, cells - chessNumber, bestColumn);
+    }
+
+    /**
+     * Returns the number of positions visited by the last search.
+     * <p>
+     * @return the node count
+     */
+    public long getNodeCount() {
+        return nodes;
+    }
+
+    /**
+     * Returns the transposition table remembering the positions searched.
+     * <p>
+     * @return the transposition table
+     */
+    public TranspositionTable getTranspositionTable() {
+        return table;
+    }
+
+    /**
+     * Searches the position to the end of the game and returns its value for the player to move, exact if it
+     * lies strictly between alpha and beta, otherwise a bound on the same side of the window. Once the search
+     * is cancelled or its deadline has passed, it stops and its values are meaningless.
+     * <p>
+     * @param alpha the value the player to move is already sure of
+     * @param beta the value the opponent is already sure of
+     * @param side the index of the player to move
+     * @return the value of the position
+     */
+    private int negaMax(int alpha, int beta, int side) {
+        nodes++;
+        if ((nodes & 0x3ff) == 0 && (isCancelled() || timed && System.nanoTime() - deadline > 0)) {
+            stopped = true;
+        }
+        if (stopped) {
+            return 0;
+        }
+        int chessNumber = board.getChessNumber();
+        long possible = board.playableMask();
+        if (possible == 0) {
+            return 0;
+        }
+        if ((board.winningCells(side) & possible) != 0) {
+            return cells - chessNumber;
+        }
+
+        long threats = board.winningCells(1 - side);
+        long forced = possible & threats;
+        if (forced != 0) {
+            if ((forced & (forced - 1)) != 0) {
+                return chessNumber + 1 - cells;
+            }
+            possible = forced;
+        }
+        possible &= ~(threats >>> 1);
+        if (possible == 0) {
+            return chessNumber + 1 - cells;
+        }
+        if (chessNumber >= cells - 2) {
+            return 0;
+        }
+
+        int max = cells - chessNumber - 2;
+        if (beta > max) {
+            beta = max;
+            if (alpha >= beta) {
+                return beta;
+            }
+        }
+        int min = chessNumber + 3 - cells;
+        if (alpha < min) {
+            alpha = min;
+            if (alpha >= beta) {
+                return alpha;
+            }
+        }
+
+        long key = board.getCanonicalHash() ^ Zobrist.side(side);
+        long entry = table.probe(key);
+        int hashColumn = -1;
+        if (entry != TranspositionTable.MISS) {
+            int value = TranspositionTable.value(entry);
+            Bound bound = TranspositionTable.bound(entry);
+            if (bound == Bound.EXACT) {
+                return value;
+            }
+            if (bound == Bound.LOWER) {
+                alpha = Math.max(alpha, value);
+            } else {
+                beta = Math.min(beta, value);
+            }
+            if (alpha >= beta) {
+                return value;
+            }
+            hashColumn = board.canonicalColumn(TranspositionTable.column(entry));
+        }
+
+        int alphaOrig = alpha;
+        int count = orderMoves(chessNumber, side, hashColumn, possible);
+        int best = -Integer.MAX_VALUE;
+        int bestColumn = -1;
+        for (int k = 0; k < count; k++) {
+            int column = moves[chessNumber][k];
+            board.play(column, side);
+            int value = -negaMax(-beta, -alpha, 1 - side);
+            board.undo(column);
+            if (stopped) {
+                return 0;
+            }
+            if (value > best) {
+                best = value;
+                bestColumn = column;
+                if (value > alpha) {
+                    alpha = value;
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        Bound bound = best <= alphaOrig ? Bound.UPPER : best >= beta ? Bound.LOWER : Bound.EXACT;
+        table.store(key, cells - chessNumber, best, bound, board.canonicalColumn(bestColumn));
+        return best;
+    }
+
+    /**
+     * Fills the move buffer of the ply with the columns of the specified cells, the remembered best column
+     * first and the others by the number of winning cells they leave the player to move, and returns their
+     * number.
+     * <p>
+     * @param ply the number of chess on the chess map
+     * @param side the index of the player to move
+     * @param hashColumn the remembered best column, or -1 if there is none
+     * @param possible the mask of the cells to place a chess on
+     * @return the number of columns
+     */
+    private int orderMoves(int ply, int side, int hashColumn, long possible) {
+        int[] order = moves[ply];
+        int[] score = scores[ply];
+        int count = 0;
+        for (int i = 0; i < columns; i++) {
+            int column = centerOrder[i];
+            if ((possible & columnMask(column)) == 0) {
+                continue;
+            }
+            int value;
+            if (column == hashColumn) {
+                value = Integer.MAX_VALUE;
+            } else {
+                board.play(column, side);
+                value = Long.bitCount(board.winningCells(side));
+                board.undo(column);
+            }
+            int j = count++;
+            while (j > 0 && score[j - 1] < value) {
+                order[j] = order[j - 1];
+                score[j] = score[j - 1];
+                j--;
+            }
+            order[j] = column;
+            score[j] = value;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the mask of all cells of the specified column.
+     * <p>
+     * @param column the column
+     * @return the column mask
+     */
+    private long columnMask(int column) {
+        return ((1L << rows) - 1) << (column * (rows + 1));
+    }
+
+    /**
+     * Returns the column of the lowest cell of the mask.
+     * <p>
+     * @param cells the cell mask, not empty
+     * @return the column
+     */
+    private int column(long cells) {
+        return Long.numberOfTrailingZeros(cells) / (rows + 1);
+    }
+
+}
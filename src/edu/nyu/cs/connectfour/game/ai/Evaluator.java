@@ -0,0 +1,57 @@
+package edu.nyu.cs.connectfour.game.ai;
+
+/**
+ * @author shenli
+ * <p>
+ * A class can implement the {@code Evaluator} interface when it wants to value the positions at which 
+ * {@link ComputerThinking} stops searching. Evaluators are told about every chess placed and removed by the 
+ * search, so they could keep what they need up to date as the search goes instead of rescanning the chess map
+ * at every leaf.
+ * <p>
+ * The values must stay well below the value of a won game, 20000000. The evaluator of one search is only used
+ * by one thread at a time; a parallel search gets a copy for each of its workers.
+ */
+public interface Evaluator {
+    
+    /**
+     * This method is called before each search starts, with the chess map to be searched.
+     * <p>
+     * @param nextPlace the next chess place location on each column
+     * @param state the chess map state
+     */
+    public void load(int[] nextPlace, int[][] state);
+    
+    /**
+     * This method is called after the search placed a chess.
+     * <p>
+     * @param row the row of the chess
+     * @param column the column of the chess
+     * @param player the player index
+     */
+    public void place(int row, int column, int player);
+    
+    /**
+     * This method is called after the search removed a chess.
+     * <p>
+     * @param row the row of the chess
+     * @param column the column of the chess
+     * @param player the player index
+     */
+    public void remove(int row, int column, int player);
+    
+    /**
+     * Returns the value of the current chess map for the specified player, higher values being better.
+     * <p>
+     * @param player the player index
+     * @return the value of the chess map
+     */
+    public int evaluate(int player);
+    
+    /**
+     * Returns a new evaluator of the same kind and for the same chess map size, for another search to use.
+     * <p>
+     * @return the new evaluator
+     */
+    public Evaluator copy();
+    
+}
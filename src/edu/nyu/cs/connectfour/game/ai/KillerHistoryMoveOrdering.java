@@ -0,0 +1,137 @@
+package edu.nyu.cs.connectfour.game.ai;
+
+import java.util.Arrays;
+
+/**
+ * @author shenli
+ * <p>
+ * The {@code KillerHistoryMoveOrdering} class orders columns by what the search has learned so far. The best
+ * column remembered for the position goes first, then the two latest columns that caused a cutoff at the same
+ * ply (the killer moves), then the other columns by how often and how deep they caused cutoffs for the player
+ * to move (the history table). Columns the search knows nothing about are ordered from the center outwards.
+ * Killer moves and the history table could each be turned off.
+ * <p>
+ * {@code KillerHistoryMoveOrdering} objects are not constant; they learn from the search using them. The
+ * {@code KillerHistoryMoveOrdering} object is not thread-safe, each search needs its own.
+ */
+public class KillerHistoryMoveOrdering implements MoveOrdering {
+    private static final int KILLER_NUMBER = 2;
+    private static final int PLAYER_NUMBER = 2;
+    private static final int HISTORY_LIMIT = 1 << 30;
+
+    private final boolean killers;
+    private final boolean history;
+    private int[] ranks = new int[0];
+    private int[][] killerMoves = new int[0][KILLER_NUMBER];
+    private int[][] historyTable = new int[PLAYER_NUMBER][0];
+    private int[] scores = new int[0];
+
+    /**
+     * Initializes a newly created {@code KillerHistoryMoveOrdering} object using both killer moves and the
+     * history table.
+     */
+    public KillerHistoryMoveOrdering() {
+        this(true, true);
+    }
+
+    /**
+     * Initializes a newly created {@code KillerHistoryMoveOrdering} object.
+     * <p>
+     * @param killers true if killer moves are tried early
+     * @param history true if columns are ordered by the history table
+     */
+    public KillerHistoryMoveOrdering(boolean killers, boolean history) {
+        this.killers = killers;
+        this.history = history;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void reset(int columns, int plies) {
+        if (ranks.length != columns) {
+            ranks = CenterMoveOrdering.centerRanks(columns);
+            historyTable = new int[PLAYER_NUMBER][columns];
+            scores = new int[columns];
+        }
+        if (killerMoves.length < plies + 1) {
+            killerMoves = new int[plies + 1][KILLER_NUMBER];
+        }
+        for (int[] killer : killerMoves) {
+            Arrays.fill(killer, -1);
+        }
+        for (int[] table : historyTable) {
+            Arrays.fill(table, 0);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void order(int ply, int side, int hashColumn, int[] moves, int count) {
+        for (int k = 0; k < count; k++) {
+            scores[k] = score(ply, side, hashColumn, moves[k]);
+        }
+        for (int k = 1; k < count; k++) {
+            int column = moves[k];
+            int score = scores[k];
+            int j = k - 1;
+            while (j >= 0 && (scores[j] < score
+                    || (scores[j] == score && ranks[moves[j]] > ranks[column]))) {
+                moves[j + 1] = moves[j];
+                scores[j + 1] = scores[j];
+                j--;
+            }
+            moves[j + 1] = column;
+            scores[j + 1] = score;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void cutoff(int ply, int side, int column, int depth) {
+        if (killers && ply < killerMoves.length && killerMoves[ply][0] != column) {
+            killerMoves[ply][1] = killerMoves[ply][0];
+            killerMoves[ply][0] = column;
+        }
+        if (history) {
+            historyTable[side][column] += depth * depth;
+            if (historyTable[side][column] > HISTORY_LIMIT) {
+                for (int[] table : historyTable) {
+                    for (int i = 0; i < table.length; i++) {
+                        table[i] /= 2;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the score of the column, higher scores being searched first.
+     * <p>
+     * @param ply the number of plies below the root
+     * @param side the index of the player to move
+     * @param hashColumn the best column remembered for the position, or -1 if there is none
+     * @param column the column
+     * @return the score of the column
+     */
+    private int score(int ply, int side, int hashColumn, int column) {
+        if (column == hashColumn) {
+            return Integer.MAX_VALUE;
+        }
+        if (killers && ply < killerMoves.length) {
+            if (killerMoves[ply][0] == column) {
+                return Integer.MAX_VALUE - 1;
+            }
+            if (killerMoves[ply][1] == column) {
+                return Integer.MAX_VALUE - 2;
+            }
+        }
+        return history ? historyTable[side][column] : 0;
+    }
+
+}
@@ -0,0 +1,21 @@
+package edu.nyu.cs.connectfour.game.ai;
+
+import java.util.concurrent.Future;
+
+/**
+ * @author shenli
+ * <p>
+ * A class can implement the {@code MoveListener} interface when it wants to be informed that a move it
+ * submitted to a {@link MoveScheduler} has been searched.
+ */
+public interface MoveListener {
+
+    /**
+     * This method is called on the worker thread once the move has been searched, or its search has failed.
+     * It is not called for a move that has been cancelled.
+     * <p>
+     * @param move the finished move, whose location {@link Future#get()} returns at once
+     */
+    public void moveDone(Future<Integer> move);
+
+}
@@ -0,0 +1,47 @@
+package edu.nyu.cs.connectfour.game.ai;
+
+/**
+ * @author shenli
+ * <p>
+ * A class can implement the {@code MoveOrdering} interface when it wants to decide in which order 
+ * {@link ComputerThinking} searches the columns of a position. Alpha-beta pruning cuts off most of the search
+ * when the best column is tried first, so a good ordering makes the search much faster without changing its 
+ * result.
+ * <p>
+ * Orderings are told about the start of every search and about every column that caused a cutoff, so they 
+ * could learn from the search as it goes. The ordering of one search is only used by one thread at a time.
+ */
+public interface MoveOrdering {
+    
+    /**
+     * This method is called before each search starts. Anything learned from a former search may be 
+     * forgotten.
+     * <p>
+     * @param columns the number of columns of the chess map
+     * @param plies the greatest number of plies the search may go below the root
+     */
+    public void reset(int columns, int plies);
+    
+    /**
+     * Reorders the playable columns of a position in the order they should be searched. The column the 
+     * search found best the last time it saw the position, if any, is usually tried first.
+     * <p>
+     * @param ply the number of plies below the root
+     * @param side the index of the player to move
+     * @param hashColumn the best column remembered for the position, or -1 if there is none
+     * @param moves the playable columns, reordered in place
+     * @param count the number of playable columns
+     */
+    public void order(int ply, int side, int hashColumn, int[] moves, int count);
+    
+    /**
+     * This method is called whenever a column was good enough to cut off the search of its position.
+     * <p>
+     * @param ply the number of plies below the root
+     * @param side the index of the player to move
+     * @param column the column
+     * @param depth the remaining depth of the position
+     */
+    public void cutoff(int ply, int side, int column, int depth);
+    
+}
@@ -0,0 +1,456 @@
+package edu.nyu.cs.connectfour.game.ai;
+
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+import edu.nyu.cs.connectfour.game.utils.ComputerLevel;
+import edu.nyu.cs.connectfour.utils.ParameterChecker;
+
+/**
+ * @author shenli
+ * <p>
+ * The {@code MoveScheduler} class searches the computer moves of many games on a bounded pool of workers,
+ * each with an engine of its own, instead of on the threads of the games.
+ * <p>
+ * Waiting moves are ordered by level, the cheaper levels first, so that a few deep searches could not hold
+ * up many shallow ones. A move is ranked by the time it was submitted plus the aging step times its level
+ * ordinal, so a move of a higher level only gives way to the moves of lower levels submitted up to that
+ * many steps after it, and is never starved. Every search is bounded by a time budget, the one given with
+ * the move or the default one of the scheduler, and levels with a move budget of their own never search
+ * longer than it. Once as many moves are waiting as the capacity allows, further moves are rejected.
+ * <p>
+ * The scheduler counts the moves submitted, completed and rejected, and measures how long moves wait in the
+ * queue, for all levels and for each of them.
+ * <p>
+ * {@code MoveScheduler} objects are not constant; their values could be changed after they are created. The
+ * {@code MoveScheduler} object is thread-safe.
+ */
+public class MoveScheduler {
+    private static final int LEVEL_NUMBER = ComputerLevel.values().length;
+
+    private final int rows;
+    private final int columns;
+    private final int capacity;
+    private final long agingNanos;
+    private final long defaultBudget;
+    private final ThreadPoolExecutor pool;
+    private final ThreadLocal<Worker> workers;
+    private final AtomicInteger depth = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong[] waitNanos = new AtomicLong[LEVEL_NUMBER];
+    private final AtomicLong[] started = new AtomicLong[LEVEL_NUMBER];
+
+    /**
+     * Initializes a newly created {@code MoveScheduler} object searching moves for chess maps with the
+     * specified rows and columns.
+     * <p>
+     * @param rows the chess map row
+     * @param columns the chess map column
+     * @param workers the number of workers
+     * @param capacity the largest number of moves waiting at the same time
+     * @param agingStep the time in milliseconds a move waits longer for each level above the lowest one
+     * @param defaultBudget the time budget in milliseconds of the moves submitted without one
+     * @throws IllegalArgumentException if rows, columns, agingStep is negative, or workers, capacity or
+     * defaultBudget is not positive
+     */
+    public MoveScheduler(int rows, int columns, int workers, int capacity, long agingStep,
+            long defaultBudget) {
+        ParameterChecker.rangeCheck(rows, "chess map row");
+        ParameterChecker.rangeCheck(columns, "chess map column");
+        ParameterChecker.rangeCheck(workers - 1, "move scheduler workers");
+        ParameterChecker.rangeCheck(capacity - 1, "move scheduler capacity");
+        if (agingStep < 0 || defaultBudget <= 0) {
+            throw new IllegalArgumentException("move scheduler budget: " + agingStep + "," + defaultBudget);
+        }
+
+        this.rows = rows;
+        this.columns = columns;
+        this.capacity = capacity;
+        this.agingNanos = TimeUnit.MILLISECONDS.toNanos(agingStep);
+        this.defaultBudget = defaultBudget;
+        for (int i = 0; i < LEVEL_NUMBER; i++) {
+            waitNanos[i] = new AtomicLong();
+            started[i] = new AtomicLong();
+        }
+        this.workers = new ThreadLocal<Worker>() {
+            @Override
+            protected Worker initialValue() {
+                return new Worker(MoveScheduler.this.rows, MoveScheduler.this.columns);
+            }
+        };
+        final AtomicInteger threadNumber = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<Runnable>(), new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable r) {
+                        Thread t = new Thread(r, "move-scheduler-" + threadNumber.incrementAndGet());
+                        t.setDaemon(true);
+                        return t;
+                    }
+                });
+    }
+
+    /**
+     * Submits the search of the computer location on the specified chess map, which is copied.
+     * <p>
+     * @param nextPlace the next chess place location on each column
+     * @param state the chess map state
+     * @param player the computer player index
+     * @param level the computer level
+     * @param budget the time budget in milliseconds, 0 for the default budget
+     * @param listener the listener told when the move has been searched, or {@code null}
+     * @return the move, which could be cancelled
+     * @throws NullPointerException if nextPlace, state or level is {@code null}
+     * @throws IllegalArgumentException if budget is negative
+     * @throws RejectedExecutionException if as many moves are waiting as the capacity allows, or the
+     * scheduler is shut down
+     */
+    public Future<Integer> submit(int[] nextPlace, int[][] state, int player, ComputerLevel level,
+            long budget, MoveListener listener) {
+        ParameterChecker.nullCheck(nextPlace, "next place");
+        ParameterChecker.nullCheck(state, "chess map state");
+        ParameterChecker.nullCheck(level, "computer level");
+        if (budget < 0) {
+            throw new IllegalArgumentException("move budget: " + budget);
+        }
+
+        if (depth.incrementAndGet() > capacity) {
+            depth.decrementAndGet();
+            rejected.incrementAndGet();
+            throw new RejectedExecutionException("move scheduler saturated: " + capacity);
+        }
+        int[][] stateCopy = new int[rows][];
+        for (int i = 0; i < rows; i++) {
+            stateCopy[i] = state[i].clone();
+        }
+        Move move = new Move(nextPlace.clone(), stateCopy, player, level,
+                budget > 0 ? budget : defaultBudget, listener);
+        submitted.incrementAndGet();
+        try {
+            pool.execute(move);
+        } catch (RejectedExecutionException e) {
+            move.dequeue();
+            submitted.decrementAndGet();
+            rejected.incrementAndGet();
+            throw e;
+        }
+        return move;
+    }
+
+    /**
+     * Searches the specified move on the engine of the calling worker, exactly in the endgame only if its 
+     * level does.
+     * <p>
+     * @param move the move
+     * @param engine the engine
+     * @return the location
+     */
+    private static int search(Move move, ComputerThinking engine) {
+        ComputerLevel level = move.level;
+        if (level.getDegree() < 2) {
+            return engine.bestValue(level, move.player);
+        }
+        long budget = move.budget;
+        int maxDegree = level.getDegree();
+        if (level.getMoveBudget() > 0) {
+            budget = Math.min(budget, level.getMoveBudget());
+            maxDegree = Integer.MAX_VALUE;
+        }
+        int threshold = engine.getEndgameThreshold();
+        engine.setEndgameThreshold(engine.getEndgameThreshold(level));
+        try {
+            return engine.bestValueWithin(budget, maxDegree, move.player);
+        } finally {
+            engine.setEndgameThreshold(threshold);
+        }
+    }
+
+    /**
+     * Returns the number of moves waiting to be searched.
+     * <p>
+     * @return the queue depth
+     */
+    public int getQueueDepth() {
+        return depth.get();
+    }
+
+    /**
+     * Returns the largest number of moves waiting at the same time.
+     * <p>
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of moves submitted and accepted.
+     * <p>
+     * @return the number of moves submitted
+     */
+    public long getSubmittedCount() {
+        return submitted.get();
+    }
+
+    /**
+     * Returns the number of moves searched, successfully or not.
+     * <p>
+     * @return the number of moves completed
+     */
+    public long getCompletedCount() {
+        return completed.get();
+    }
+
+    /**
+     * Returns the number of moves rejected.
+     * <p>
+     * @return the number of moves rejected
+     */
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    /**
+     * Returns the average time in milliseconds the moves started so far have waited in the queue.
+     * <p>
+     * @return the average wait time
+     */
+    public double getAverageWaitMillis() {
+        long nanos = 0L;
+        long count = 0L;
+        for (int i = 0; i < LEVEL_NUMBER; i++) {
+            nanos += waitNanos[i].get();
+            count += started[i].get();
+        }
+        return count == 0 ? 0.0 : nanos / 1e6 / count;
+    }
+
+    /**
+     * Returns the average time in milliseconds the moves of the specified level started so far have waited in
+     * the queue.
+     * <p>
+     * @param level the computer level
+     * @return the average wait time
+     */
+    public double getAverageWaitMillis(ComputerLevel level) {
+        ParameterChecker.nullCheck(level, "computer level");
+
+        long count = started[level.ordinal()].get();
+        return count == 0 ? 0.0 : waitNanos[level.ordinal()].get() / 1e6 / count;
+    }
+
+    /**
+     * Returns the longest time in milliseconds a move has waited in the queue.
+     * <p>
+     * @return the longest wait time
+     */
+    public double getMaxWaitMillis() {
+        return maxWaitNanos.get() / 1e6;
+    }
+
+    /**
+     * Stops the workers once the moves submitted have been searched; no more moves are accepted.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Returns string representation of this {@code MoveScheduler} object. The string representation consists
+     * of the number of workers, the capacity, the queue depth and the number of moves submitted, completed and
+     * rejected. Each fields are separated by the characters "," (comma).
+     * <p>
+     * @return a string representation of this {@code MoveScheduler} object
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(pool.getCorePoolSize());
+        sb.append("," + capacity);
+        sb.append("," + getQueueDepth());
+        sb.append("," + getSubmittedCount());
+        sb.append("," + getCompletedCount());
+        sb.append("," + getRejectedCount());
+        return sb.toString();
+    }
+
+    /**
+     * The {@code Move} class is a move waiting in the queue of the scheduler, or being searched.
+     */
+    private class Move extends FutureTask<Integer> implements Comparable<Move> {
+        private final int[] nextPlace;
+        private final int[][] state;
+        private final int player;
+        private final ComputerLevel level;
+        private final long budget;
+        private final MoveListener listener;
+        private final long submitNanos;
+        private final long rank;
+        private final long order;
+        private final AtomicBoolean queued = new AtomicBoolean(true);
+
+        /**
+         * Creates a move searching the specified chess map.
+         * <p>
+         * @param nextPlace the next chess place location on each column
+         * @param state the chess map state
+         * @param player the computer player index
+         * @param level the computer level
+         * @param budget the time budget in milliseconds
+         * @param listener the listener, or {@code null}
+         */
+        Move(int[] nextPlace, int[][] state, int player, ComputerLevel level, long budget,
+                MoveListener listener) {
+            super(new Callable<Integer>() {
+                @Override
+                public Integer call() {
+                    throw new AssertionError();
+                }
+            });
+            this.nextPlace = nextPlace;
+            this.state = state;
+            this.player = player;
+            this.level = level;
+            this.budget = budget;
+            this.listener = listener;
+            this.submitNanos = System.nanoTime();
+            this.rank = submitNanos + level.ordinal() * agingNanos;
+            this.order = sequence.getAndIncrement();
+        }
+
+        /**
+         * Takes this move off the queue depth, once.
+         * <p>
+         * @return true if this call took it off, otherwise false
+         */
+        boolean dequeue() {
+            if (queued.compareAndSet(true, false)) {
+                depth.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Searches this move on the engine of the calling worker.
+         */
+        @Override
+        public void run() {
+            if (!dequeue() || isDone()) {
+                return;
+            }
+            long wait = System.nanoTime() - submitNanos;
+            waitNanos[level.ordinal()].addAndGet(wait);
+            started[level.ordinal()].incrementAndGet();
+            long max = maxWaitNanos.get();
+            while (wait > max && !maxWaitNanos.compareAndSet(max, wait)) {
+                max = maxWaitNanos.get();
+            }
+            Worker worker = workers.get();
+            worker.move = this;
+            Integer location = null;
+            Throwable failure = null;
+            try {
+                if (isCancelled()) {
+                    return;
+                }
+                for (int i = 0; i < rows; i++) {
+                    System.arraycopy(state[i], 0, worker.state[i], 0, columns);
+                }
+                System.arraycopy(nextPlace, 0, worker.nextPlace, 0, columns);
+                location = search(this, worker.engine);
+            } catch (RuntimeException | Error e) {
+                failure = e;
+            } finally {
+                worker.move = null;
+                completed.incrementAndGet();
+            }
+            if (failure != null) {
+                setException(failure);
+            } else {
+                set(location);
+            }
+        }
+
+        /**
+         * Cancels this move, taking it off the queue or stopping its search. The engine of the worker checks
+         * whether the move it is searching has been cancelled, so cancelling a move never stops the search of
+         * another one the worker has gone on to.
+         * <p>
+         * @param mayInterruptIfRunning ignored, the search is stopped by its engine
+         * @return true if this move has been cancelled
+         */
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(false);
+            if (cancelled && pool.remove(this)) {
+                dequeue();
+            }
+            return cancelled;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected void done() {
+            if (listener != null && !isCancelled()) {
+                listener.moveDone(this);
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int compareTo(Move other) {
+            if (rank != other.rank) {
+                return rank < other.rank ? -1 : 1;
+            }
+            return order < other.order ? -1 : (order == other.order ? 0 : 1);
+        }
+    }
+
+    /**
+     * The {@code Worker} class is the chess map and the engine a worker thread searches the moves on. The
+     * engine gives up as soon as the move being searched is cancelled.
+     */
+    private static class Worker {
+        private final int[] nextPlace;
+        private final int[][] state;
+        private final ComputerThinking engine;
+        private volatile Move move;
+
+        /**
+         * Creates a worker for chess maps with the specified rows and columns.
+         * <p>
+         * @param rows the chess map row
+         * @param columns the chess map column
+         */
+        Worker(int rows, int columns) {
+            this.nextPlace = new int[columns];
+            this.state = new int[rows][columns];
+            this.engine = new ComputerThinking(rows, columns, nextPlace, state) {
+                @Override
+                protected boolean isCancelled() {
+                    Move move = Worker.this.move;
+                    return super.isCancelled() || move != null && move.isCancelled();
+                }
+            };
+        }
+    }
+
+}
@@ -0,0 +1,142 @@
+package edu.nyu.cs.connectfour.game.ai;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author shenli
+ * <p>
+ * The {@code MoveSelector} class chooses one column among the playable columns sharing the best value, each
+ * with the same probability, in a single pass over the columns: the k-th tied column found replaces the one
+ * chosen so far with probability 1/k.
+ * <p>
+ * The random numbers come from a generator of its own, the SplitMix64 generator, which adds a constant to a
+ * 64-bit state and mixes the result, so a selector neither shares a generator with other threads nor depends
+ * on anything but its seed. Two selectors with the same seed make the same choices; selectors created without
+ * a seed are given distinct seeds.
+ * <p>
+ * {@code MoveSelector} objects are not constant; their values can be changed after they are created. The
+ * {@code MoveSelector} object is not thread-safe. To use it concurrently, user must surround each method
+ * invocation with external synchronization of the users' choosing.
+ */
+public class MoveSelector {
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private static final AtomicLong SEEDS = new AtomicLong(mix(System.currentTimeMillis() ^ System.nanoTime()));
+
+    private long state;
+
+    /**
+     * Initializes a newly created {@code MoveSelector} object with a seed of its own.
+     */
+    public MoveSelector() {
+        this(mix(SEEDS.getAndAdd(2 * GOLDEN_GAMMA)));
+    }
+
+    /**
+     * Initializes a newly created {@code MoveSelector} object with the specified seed.
+     * <p>
+     * @param seed the seed
+     */
+    public MoveSelector(long seed) {
+        this.state = seed;
+    }
+
+    /**
+     * Starts the choices again from the specified seed.
+     * <p>
+     * @param seed the seed
+     */
+    public void setSeed(long seed) {
+        this.state = seed;
+    }
+
+    /**
+     * Returns a random playable column whose value equals the specified best value, or -1 if there is none.
+     * <p>
+     * @param values the value of each column
+     * @param best the best value
+     * @param nextPlace the next chess place location on each column, negative for a full column
+     * @return the chosen column, or -1
+     */
+    public int select(int[] values, int best, int[] nextPlace) {
+        int chosen = -1;
+        int ties = 0;
+        for (int column = 0; column < nextPlace.length; column++) {
+            if (nextPlace[column] >= 0 && values[column] == best && nextInt(++ties) == 0) {
+                chosen = column;
+            }
+        }
+        return chosen;
+    }
+
+    /**
+     * Returns a random playable column, or -1 if every column is full.
+     * <p>
+     * @param nextPlace the next chess place location on each column, negative for a full column
+     * @return the chosen column, or -1
+     */
+    public int select(int[] nextPlace) {
+        int chosen = -1;
+        int playable = 0;
+        for (int column = 0; column < nextPlace.length; column++) {
+            if (nextPlace[column] >= 0 && nextInt(++playable) == 0) {
+                chosen = column;
+            }
+        }
+        return chosen;
+    }
+
+    /**
+     * Returns the next random number, uniformly distributed over the values of a {@code long}.
+     * <p>
+     * @return the random number
+     */
+    public long nextLong() {
+        state += GOLDEN_GAMMA;
+        return mix(state);
+    }
+
+    /**
+     * Returns the next random number, uniformly distributed from 0 inclusive to the specified bound exclusive.
+     * <p>
+     * @param bound the bound
+     * @return the random number
+     */
+    public int nextInt(int bound) {
+        assert bound > 0;
+
+        if (bound == 1) {
+            return 0;
+        }
+        long limit = Long.MAX_VALUE - Long.MAX_VALUE % bound;
+        long value;
+        do {
+            value = nextLong() >>> 1;
+        } while (value >= limit);
+        return (int) (value % bound);
+    }
+
+    /**
+     * Returns the mix of the specified value by the finalizer of SplitMix64, every bit of which depends on
+     * every bit of the value.
+     * <p>
+     * @param z the value
+     * @return the mixed value
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Returns string representation of this {@code MoveSelector} object. The string representation consists
+     * of the state of the generator.
+     * <p>
+     * @return a string representation of this {@code MoveSelector} object
+     */
+    @Override
+    public String toString() {
+        return Long.toHexString(state);
+    }
+
+}
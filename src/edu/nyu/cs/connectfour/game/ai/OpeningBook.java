@@ -0,0 +1,286 @@
+package edu.nyu.cs.connectfour.game.ai;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import edu.nyu.cs.connectfour.utils.ParameterChecker;
+
+/**
+ * @author shenli
+ * <p>
+ * The {@code OpeningBook} class remembers the best column of the positions met in the first plies of a game,
+ * so that they need not be searched again. Books are built offline by the {@link OpeningBookGenerator}.
+ * <p>
+ * A position is looked up by a {@link Zobrist} hash taken from the point of view of the player to move, the
+ * chess of that player hashed as the first player's and the others as the second player's, so the same book
+ * serves whichever player started the game. Books are stored in a compact binary format, big-endian: the
+ * magic number {@code "C4OB"}, the format version, the rows, the columns, the number of plies covered and
+ * the number of entries as {@code int}s, followed by the entries sorted by hash, each one a {@code long}
+ * hash and a {@code byte} column. Lookups are binary searches over the sorted hashes, of the position and then
+ * of its mirror image, reflected left to right, whose column is mirrored back, so a book needs to hold only
+ * one of them.
+ * <p>
+ * {@code OpeningBook} objects are constant; their values could not be changed after they are created.
+ * Because {@code OpeningBook} objects are immutable they could be shared.
+ */
+public class OpeningBook {
+    /**
+     * The path of the book shipped with the game
+     */
+    public static final String DEFAULT_PATH = "res/openingbook.bin";
+
+    private static final int MAGIC = 0x43344f42;
+    private static final int VERSION = 1;
+
+    private final int rows;
+    private final int columns;
+    private final int plies;
+    private final long[] keys;
+    private final byte[] moves;
+
+    /**
+     * Initializes a newly created {@code OpeningBook} object with the specified entries, sorted by hash.
+     * <p>
+     * @param rows the row
+     * @param columns the column
+     * @param plies the number of plies covered by the book
+     * @param keys the position hashes, sorted in ascending order
+     * @param moves the best column of each position
+     */
+    OpeningBook(int rows, int columns, int plies, long[] keys, byte[] moves) {
+        assert keys.length == moves.length;
+
+        this.rows = rows;
+        this.columns = columns;
+        this.plies = plies;
+        this.keys = keys;
+        this.moves = moves;
+    }
+
+    /**
+     * Returns the book shipped with the game, loaded from {@link #DEFAULT_PATH} the first time it is asked
+     * for. The book is empty if the file could not be read.
+     * <p>
+     * @return the default book
+     */
+    public static OpeningBook getDefault() {
+        return DefaultHolder.BOOK;
+    }
+
+    /**
+     * Reads a book from the specified file.
+     * <p>
+     * @param path the file path
+     * @return the book
+     * @throws IOException if the file could not be read or is not a book
+     */
+    public static OpeningBook load(String path) throws IOException {
+        ParameterChecker.nullCheck(path, "opening book path");
+
+        InputStream in = new FileInputStream(path);
+        try {
+            return read(in);
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Reads a book from the specified stream, which is left open.
+     * <p>
+     * @param in the input stream
+     * @return the book
+     * @throws IOException if the stream could not be read or does not hold a book
+     */
+    public static OpeningBook read(InputStream in) throws IOException {
+        ParameterChecker.nullCheck(in, "opening book stream");
+
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        if (data.readInt() != MAGIC) {
+            throw new IOException("not an opening book");
+        }
+        int version = data.readInt();
+        if (version != VERSION) {
+            throw new IOException("opening book version: " + version);
+        }
+        int rows = data.readInt();
+        int columns = data.readInt();
+        int plies = data.readInt();
+        int count = data.readInt();
+        if (!BitBoard.fits(rows, columns) || plies < 0 || count < 0) {
+            throw new IOException("opening book header: " + rows + "," + columns + "," + plies + "," + count);
+        }
+        long[] keys = new long[count];
+        byte[] moves = new byte[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = data.readLong();
+            moves[i] = data.readByte();
+            if ((i > 0 && keys[i] <= keys[i - 1]) || moves[i] < 0 || moves[i] >= columns) {
+                throw new IOException("opening book entry: " + i);
+            }
+        }
+        return new OpeningBook(rows, columns, plies, keys, moves);
+    }
+
+    /**
+     * Writes this book to the specified stream, which is flushed and left open.
+     * <p>
+     * @param out the output stream
+     * @throws IOException if the stream could not be written
+     */
+    public void write(OutputStream out) throws IOException {
+        ParameterChecker.nullCheck(out, "opening book stream");
+
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(rows);
+        data.writeInt(columns);
+        data.writeInt(plies);
+        data.writeInt(keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            data.writeLong(keys[i]);
+            data.writeByte(moves[i]);
+        }
+        data.flush();
+    }
+
+    /**
+     * Returns the best column of the position for the specified player to move, or -1 if the book does not
+     * know the position.
+     * <p>
+     * @param board the position
+     * @param side the index of the player to move
+     * @return the best column
+     */
+    public int lookup(BitBoard board, int side) {
+        if (board.getRows() != rows || board.getColumns() != columns || board.getChessNumber() >= plies) {
+            return -1;
+        }
+        int index = Arrays.binarySearch(keys, key(board, side, false));
+        if (index >= 0) {
+            return moves[index];
+        }
+        index = Arrays.binarySearch(keys, key(board, side, true));
+        return index >= 0 ? columns - 1 - moves[index] : -1;
+    }
+
+    /**
+     * Returns the hash of the position from the point of view of the specified player to move.
+     * <p>
+     * @param board the position
+     * @param side the index of the player to move
+     * @return the position hash
+     */
+    static long key(BitBoard board, int side) {
+        return key(board, side, false);
+    }
+
+    /**
+     * Returns the hash of the position, or of its mirror image, from the point of view of the specified player
+     * to move.
+     * <p>
+     * @param board the position
+     * @param side the index of the player to move
+     * @param mirrored true for the hash of the mirror image, otherwise false
+     * @return the position hash
+     */
+    static long key(BitBoard board, int side, boolean mirrored) {
+        int height = board.getRows() + 1;
+        long key = 0L;
+        for (int player = 0; player < 2; player++) {
+            long discs = board.getDiscs(player == 0 ? side : 1 - side);
+            while (discs != 0) {
+                int bit = Long.numberOfTrailingZeros(discs);
+                if (mirrored) {
+                    bit = (board.getColumns() - 1 - bit / height) * height + bit % height;
+                }
+                key ^= Zobrist.key(player, bit);
+                discs &= discs - 1;
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Returns the number of rows of the chess maps covered by the book.
+     * <p>
+     * @return the row
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns the number of columns of the chess maps covered by the book.
+     * <p>
+     * @return the column
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Returns the number of plies covered by the book; only positions with fewer chess are looked up.
+     * <p>
+     * @return the number of plies
+     */
+    public int getPlies() {
+        return plies;
+    }
+
+    /**
+     * Returns the number of positions in the book.
+     * <p>
+     * @return the number of positions
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * Returns string representation of this {@code OpeningBook} object. The string representation consists
+     * of row, column number, the number of plies and the number of positions. Each fields are separated by
+     * the characters "," (comma).
+     * <p>
+     * @return string representation of this {@code OpeningBook} object
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(rows);
+        sb.append("," + columns);
+        sb.append("," + plies);
+        sb.append("," + size());
+        return sb.toString();
+    }
+
+    /**
+     * The {@code DefaultHolder} class loads the default book when it is first used.
+     */
+    private static class DefaultHolder {
+        private static final OpeningBook BOOK = loadDefault();
+
+        /**
+         * Returns the book read from {@link OpeningBook#DEFAULT_PATH}, or an empty book if it could not be
+         * read.
+         * <p>
+         * @return the default book
+         */
+        private static OpeningBook loadDefault() {
+            try {
+                return load(DEFAULT_PATH);
+            } catch (IOException e) {
+                return new OpeningBook(6, 7, 0, new long[0], new byte[0]);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,177 @@
+package edu.nyu.cs.connectfour.game.ai;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * @author shenli
+ * <p>
+ * The {@code OpeningBookGenerator} class builds an {@link OpeningBook} offline with the engine itself.
+ * <p>
+ * The generator plays the engine, as either player, against every possible opponent reply for the first plies
+ * of a game. Whenever the engine is to move, its position is searched by a deterministic
+ * {@link ComputerThinking} to the given degree and the column found is both stored and played, so the book
+ * holds exactly the positions a game following the book could reach, up to their mirror images: a position
+ * whose mirror image is stored already is not stored again, and the opponent replies of a symmetric position
+ * are only followed on its left half and center, as the book looks up mirror images too. Games won within
+ * the plies are not followed any further.
+ * <p>
+ * Run it as {@code java edu.nyu.cs.connectfour.game.ai.OpeningBookGenerator [path [plies [degree]]]}, by
+ * default writing a book of 6 plies searched to degree 5 to {@link OpeningBook#DEFAULT_PATH}.
+ * <p>
+ * {@code OpeningBookGenerator} objects are not constant; they collect the positions they generate. The
+ * {@code OpeningBookGenerator} object is not thread-safe. To use it concurrently, user must surround each
+ * method invocation with external synchronization of the users' choosing.
+ */
+public class OpeningBookGenerator {
+    private static final int DEFAULT_ROWS = 6;
+    private static final int DEFAULT_COLUMNS = 7;
+    private static final int DEFAULT_PLIES = 6;
+    private static final int DEFAULT_DEGREE = 5;
+
+    private final int rows;
+    private final int columns;
+    private final int plies;
+    private final int degree;
+    private final int[] nextPlace;
+    private final int[][] state;
+    private final BitBoard board;
+    private final ComputerThinking engine;
+    private final Map<Long, Byte> entries = new TreeMap<Long, Byte>();
+
+    /**
+     * Initializes a newly created {@code OpeningBookGenerator} object.
+     * <p>
+     * @param rows the row
+     * @param columns the column
+     * @param plies the number of plies covered by the book
+     * @param degree the degree the engine searches each position to
+     * @throws IllegalArgumentException if the chess map could not be represented by a {@link BitBoard}, or
+     * plies is negative or degree is less than 2
+     */
+    public OpeningBookGenerator(int rows, int columns, int plies, int degree) {
+        if (!BitBoard.fits(rows, columns) || plies < 0 || degree < 2) {
+            throw new IllegalArgumentException(
+                    "opening book generator: " + rows + "," + columns + "," + plies + "," + degree);
+        }
+
+        this.rows = rows;
+        this.columns = columns;
+        this.plies = plies;
+        this.degree = degree;
+        this.nextPlace = new int[columns];
+        this.state = new int[rows][columns];
+        Arrays.fill(nextPlace, rows - 1);
+        for (int[] row : state) {
+            Arrays.fill(row, -1);
+        }
+        this.board = new BitBoard(rows, columns);
+        this.engine = new ComputerThinking(rows, columns, nextPlace, state);
+        engine.setOpeningBook(null);
+        engine.setEndgameThreshold(0);
+        engine.setDeterministic(true);
+    }
+
+    /**
+     * Generates the book, with the engine playing first and then second.
+     * <p>
+     * @return the book
+     */
+    public OpeningBook generate() {
+        entries.clear();
+        walk(0, true);
+        walk(0, false);
+        long[] keys = new long[entries.size()];
+        byte[] moves = new byte[entries.size()];
+        int i = 0;
+        for (Map.Entry<Long, Byte> entry : entries.entrySet()) {
+            keys[i] = entry.getKey();
+            moves[i] = entry.getValue();
+            i++;
+        }
+        return new OpeningBook(rows, columns, plies, keys, moves);
+    }
+
+    /**
+     * Visits the positions reachable from the current one within the plies, the engine playing its book
+     * move and the opponent every column.
+     * <p>
+     * @param side the index of the player to move
+     * @param engineToMove true if the engine is to move
+     */
+    private void walk(int side, boolean engineToMove) {
+        if (board.getChessNumber() >= plies) {
+            return;
+        }
+        if (engineToMove) {
+            long key = OpeningBook.key(board, side);
+            Byte move = entries.get(key);
+            if (move == null) {
+                Byte mirror = entries.get(OpeningBook.key(board, side, true));
+                if (mirror != null) {
+                    move = (byte) (columns - 1 - mirror);
+                }
+            }
+            if (move == null) {
+                move = (byte) engine.bestValue(degree, side);
+                entries.put(key, move);
+            }
+            follow(move, side, false);
+        } else {
+            boolean symmetric = board.isSymmetric();
+            for (int column = 0; column < columns; column++) {
+                if (board.canPlay(column) && (!symmetric || column <= columns - 1 - column)) {
+                    follow(column, side, true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Places a chess on the column, visits the positions reachable from there unless the chess wins, and
+     * removes the chess again.
+     * <p>
+     * @param column the column
+     * @param side the index of the player placing the chess
+     * @param engineToMove true if the engine is to move next
+     */
+    private void follow(int column, int side, boolean engineToMove) {
+        if (board.isWinningMove(column, side)) {
+            return;
+        }
+        board.play(column, side);
+        state[nextPlace[column]][column] = side;
+        nextPlace[column]--;
+        walk(1 - side, engineToMove);
+        nextPlace[column]++;
+        state[nextPlace[column]][column] = -1;
+        board.undo(column);
+    }
+
+    /**
+     * Generates a book and writes it to a file.
+     * <p>
+     * @param args the file path, the number of plies and the degree, each optional
+     * @throws IOException if the file could not be written
+     */
+    public static void main(String[] args) throws IOException {
+        String path = args.length > 0 ? args[0] : OpeningBook.DEFAULT_PATH;
+        int plies = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PLIES;
+        int degree = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_DEGREE;
+
+        long start = System.currentTimeMillis();
+        OpeningBook book = new OpeningBookGenerator(DEFAULT_ROWS, DEFAULT_COLUMNS, plies, degree).generate();
+        OutputStream out = new FileOutputStream(path);
+        try {
+            book.write(out);
+        } finally {
+            out.close();
+        }
+        System.out.println(path + ": " + book + " in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+}
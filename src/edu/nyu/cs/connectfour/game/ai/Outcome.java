@@ -0,0 +1,26 @@
+package edu.nyu.cs.connectfour.game.ai;
+
+/**
+ * @author shenli
+ * <p>
+ * The {@code Outcome} enum represents the result of a game under perfect play, from the point of view of the 
+ * player to move.
+ * <p>
+ * {@code Outcome} are constant; their values could not be changed after they are created. Because
+ * {@code Outcome} objects are immutable they could be shared.
+ */
+public enum Outcome {
+    /**
+     * The player to move wins
+     */
+    WIN,
+    /**
+     * The chess map is filled without four in a row
+     */
+    DRAW,
+    /**
+     * The player to move loses
+     */
+    LOSS;
+    
+}
@@ -0,0 +1,248 @@
+package edu.nyu.cs.connectfour.game.ai;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import edu.nyu.cs.connectfour.game.utils.ComputerLevel;
+
+/**
+ * @author shenli
+ * <p>
+ * The {@code Ponderer} class searches on the opponent's time. Once the computer has moved, it plays every
+ * reply of the opponent in turn, the one it expects first and then from the center out, and searches the
+ * computer location for each of them at the computer level, keeping the locations found in a reply cache.
+ * When the opponent then plays any of the replies already searched, the computer location is looked up
+ * instead of being searched again.
+ * <p>
+ * Replies are cached by the canonical {@link Zobrist} hash of the chess map they lead to, shared with its
+ * mirror image, and only for the last position and level pondered; when that position is its own mirror
+ * image, the replies of its right half are answered by the mirror of their left half counterparts. The 
+ * expected reply is the location a search to degree 2 gives the opponent.
+ * <p>
+ * A pondering is started with a token taken by {@link #getToken()} when it is scheduled. {@link #cancel()}
+ * makes every token taken before it stale, so a pondering scheduled before a cancellation gives up even if it
+ * only starts running afterwards.
+ * <p>
+ * {@code Ponderer} objects are not constant; their values can be changed after they are created. The
+ * {@code Ponderer} object is thread-safe as long as only one thread ponders at a time: the replies could be
+ * looked up, and the pondering cancelled, from other threads while it runs.
+ */
+public class Ponderer {
+    private static final int EXPECTED_REPLY_DEGREE = 2;
+
+    private final int rows;
+    private final int columns;
+    private final int[] nextPlace;
+    private final int[][] state;
+    private final ComputerThinking engine;
+    private final BitBoard board;
+    private final BitBoard probe;
+    private final int[] ranks;
+    private final ConcurrentMap<Long, Integer> replies = new ConcurrentHashMap<Long, Integer>();
+    private final AtomicInteger generation = new AtomicInteger();
+    private volatile int token;
+    private volatile ComputerLevel level;
+
+    /**
+     * Initializes a newly created {@code Ponderer} object for chess maps with the specified rows and columns.
+     * <p>
+     * @param rows the row
+     * @param columns the column
+     * @throws IllegalArgumentException if the chess map could not be represented by a {@link BitBoard}
+     */
+    public Ponderer(int rows, int columns) {
+        if (!BitBoard.fits(rows, columns)) {
+            throw new IllegalArgumentException("ponderer: " + rows + "," + columns);
+        }
+
+        this.rows = rows;
+        this.columns = columns;
+        this.nextPlace = new int[columns];
+        this.state = new int[rows][columns];
+        this.engine = new ComputerThinking(rows, columns, nextPlace, state) {
+            @Override
+            protected boolean isCancelled() {
+                return super.isCancelled() || Ponderer.this.isCancelled();
+            }
+        };
+        this.board = new BitBoard(rows, columns);
+        this.probe = new BitBoard(rows, columns);
+        this.ranks = CenterMoveOrdering.centerRanks(columns);
+    }
+
+    /**
+     * Returns the engine searching the replies, so that it could be set up like the one searching the moves.
+     * <p>
+     * @return the engine
+     */
+    public ComputerThinking getEngine() {
+        return engine;
+    }
+
+    /**
+     * Returns the token of a pondering scheduled now, which stays valid until the next {@link #cancel()}.
+     * <p>
+     * @return the token
+     */
+    public int getToken() {
+        return generation.get();
+    }
+
+    /**
+     * Searches the computer location for every reply of the opponent to the specified chess map, until all
+     * of them are searched or the pondering is cancelled. The replies of the former position are forgotten.
+     * Only a cancellation while it runs stops it.
+     * <p>
+     * @param nextPlace the next chess place location on each column
+     * @param state the chess map state
+     * @param player the computer player index, the opponent being to move
+     * @param level the computer level
+     */
+    public void ponder(int[] nextPlace, int[][] state, int player, ComputerLevel level) {
+        ponder(getToken(), nextPlace, state, player, level);
+    }
+
+    /**
+     * Searches the computer location for every reply of the opponent to the specified chess map, like 
+     * {@link #ponder(int[], int[][], int, ComputerLevel)}, unless the pondering has been cancelled since the
+     * token was taken, in which case it returns at once.
+     * <p>
+     * @param token the token taken when the pondering was scheduled
+     * @param nextPlace the next chess place location on each column
+     * @param state the chess map state
+     * @param player the computer player index, the opponent being to move
+     * @param level the computer level
+     */
+    public synchronized void ponder(int token, int[] nextPlace, int[][] state, int player, ComputerLevel level) {
+        assert nextPlace != null;
+        assert state != null;
+        assert level != null;
+
+        this.token = token;
+        if (isCancelled()) {
+            return;
+        }
+        replies.clear();
+        this.level = level;
+        System.arraycopy(nextPlace, 0, this.nextPlace, 0, columns);
+        for (int i = 0; i < rows; i++) {
+            System.arraycopy(state[i], 0, this.state[i], 0, columns);
+        }
+        board.load(this.nextPlace, this.state);
+        int opponent = 1 - player;
+        int expected = engine.bestValue(EXPECTED_REPLY_DEGREE, opponent);
+        boolean symmetric = board.isSymmetric();
+        if (symmetric && expected > columns - 1 - expected) {
+            expected = columns - 1 - expected;
+        }
+        if (expected >= 0 && !isCancelled()) {
+            ponder(expected, player, level);
+        }
+        for (int rank = 0; rank < columns && !isCancelled(); rank++) {
+            for (int column = 0; column < columns; column++) {
+                if (ranks[column] == rank && column != expected
+                        && (!symmetric || column <= columns - 1 - column)) {
+                    ponder(column, player, level);
+                }
+            }
+        }
+    }
+
+    /**
+     * Searches the computer location after the opponent plays the specified column, unless the reply wins,
+     * fills the chess map or could not be played.
+     * <p>
+     * @param column the reply column
+     * @param player the computer player index
+     * @param level the computer level
+     */
+    private void ponder(int column, int player, ComputerLevel level) {
+        int opponent = 1 - player;
+        if (isCancelled() || !board.canPlay(column) || board.isWinningMove(column, opponent)
+                || board.getChessNumber() + 1 == rows * columns) {
+            return;
+        }
+        board.play(column, opponent);
+        state[nextPlace[column]][column] = opponent;
+        nextPlace[column]--;
+        int value = engine.bestValue(level, player);
+        if (value >= 0 && !isCancelled()) {
+            replies.put(board.getCanonicalHash() ^ Zobrist.side(player), board.canonicalColumn(value));
+        }
+        nextPlace[column]++;
+        state[nextPlace[column]][column] = -1;
+        board.undo(column);
+    }
+
+    /**
+     * Returns the computer location pondered for the specified chess map, or -1 if it has not been searched
+     * at the level.
+     * <p>
+     * @param nextPlace the next chess place location on each column
+     * @param state the chess map state
+     * @param player the computer player index, the computer being to move
+     * @param level the computer level
+     * @return the pondered location
+     */
+    public int lookup(int[] nextPlace, int[][] state, int player, ComputerLevel level) {
+        if (level != this.level) {
+            return -1;
+        }
+        Integer reply;
+        synchronized (probe) {
+            probe.load(nextPlace, state);
+            reply = replies.get(probe.getCanonicalHash() ^ Zobrist.side(player));
+            if (reply != null) {
+                reply = probe.canonicalColumn(reply);
+            }
+        }
+        return reply != null && nextPlace[reply] >= 0 ? reply : -1;
+    }
+
+    /**
+     * Cancels the pondering, if any, from any thread, along with every pondering scheduled with a token taken
+     * before. A running pondering stops within a thousand positions, keeping the replies searched so far.
+     */
+    public void cancel() {
+        generation.incrementAndGet();
+        engine.cancel();
+    }
+
+    /**
+     * Returns the state of the pondering. True if it has been cancelled since its token was taken, false if 
+     * it's not.
+     * <p>
+     * @return true if the pondering is cancelled, otherwise false
+     */
+    private boolean isCancelled() {
+        return token != generation.get();
+    }
+
+    /**
+     * Returns the number of replies in the reply cache.
+     * <p>
+     * @return the number of replies
+     */
+    public int getReplyNumber() {
+        return replies.size();
+    }
+
+    /**
+     * Returns string representation of this {@code Ponderer} object. The string representation consists of
+     * row, column number, the level pondered and the number of replies. Each fields are separated by the
+     * characters "," (comma).
+     * <p>
+     * @return string representation of this {@code Ponderer} object
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(rows);
+        sb.append("," + columns);
+        sb.append("," + level);
+        sb.append("," + getReplyNumber());
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,45 @@
+package edu.nyu.cs.connectfour.game.ai;
+
+/**
+ * @author shenli
+ * <p>
+ * The {@code ReplacementPolicy} enum represents how a {@link TranspositionTable} decides whether a new entry 
+ * replaces the entry already stored in its slot.
+ * <p>
+ * {@code ReplacementPolicy} are constant; their values could not be changed after they are created. Because
+ * {@code ReplacementPolicy} objects are immutable they could be shared.
+ */
+public enum ReplacementPolicy {
+    /**
+     * The new entry always replaces the stored one
+     */
+    ALWAYS {
+        
+        @Override
+        boolean replaces(boolean sameKey, int storedDepth, int depth) {
+            return true;
+        }
+    },
+    /**
+     * The new entry replaces the stored one only if it is for the same position or it was searched at least 
+     * as deep
+     */
+    DEPTH_PREFERRED {
+        
+        @Override
+        boolean replaces(boolean sameKey, int storedDepth, int depth) {
+            return sameKey || depth >= storedDepth;
+        }
+    };
+    
+    /**
+     * Returns the state of the slot. True if the new entry should replace the stored one, false if it's not.
+     * <p>
+     * @param sameKey true if both entries are for the same position
+     * @param storedDepth the depth of the stored entry
+     * @param depth the depth of the new entry
+     * @return true if the stored entry is replaced, otherwise false
+     */
+    abstract boolean replaces(boolean sameKey, int storedDepth, int depth);
+    
+}
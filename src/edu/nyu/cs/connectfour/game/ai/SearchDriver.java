@@ -0,0 +1,31 @@
+package edu.nyu.cs.connectfour.game.ai;
+
+/**
+ * @author shenli
+ * <p>
+ * The {@code SearchDriver} enum represents how {@link ComputerThinking} drives its nega-Max search over the
+ * windows of alpha and beta. Every driver finds the same best columns; they differ in how many positions
+ * they visit to find them.
+ * <p>
+ * {@code SearchDriver} are constant; their values could not be changed after they are created. Because
+ * {@code SearchDriver} objects are immutable they could be shared.
+ */
+public enum SearchDriver {
+    /**
+     * Every column is searched with the full window left by the columns before it
+     */
+    ALPHA_BETA,
+    /**
+     * Principal variation search: the first column of a position is searched with the full window, the
+     * others with a null window proving they are no better, and searched again with the full window only
+     * when they are
+     */
+    PVS,
+    /**
+     * MTD(f): the root is searched with null windows only, each one moving a bound of its value towards
+     * a first guess, until the bounds meet; the transposition table keeps the passes from repeating each
+     * other's work
+     */
+    MTDF
+
+}
@@ -0,0 +1,146 @@
+package edu.nyu.cs.connectfour.game.ai;
+
+import java.util.Arrays;
+
+/**
+ * @author shenli
+ * <p>
+ * The {@code SearchDriverBenchmark} class compares the {@link SearchDriver}s on a fixed suite of positions, by
+ * the number of positions each one visits and the time it takes to search them to the same degree.
+ * <p>
+ * Every position of the suite is searched by a deterministic {@link ComputerThinking} of its own, without the
+ * opening book and the endgame search and with a transposition table of its own, so every driver starts from
+ * the same state and the best columns found by the drivers can be compared with each other. The positions of
+ * the suite are given by the columns played from the empty classic chess map, the first player moving first.
+ * The suite is searched once by every driver before it is measured, so that no driver is timed while the
+ * virtual machine is still compiling the search.
+ * <p>
+ * Run it as {@code java edu.nyu.cs.connectfour.game.ai.SearchDriverBenchmark [degree]}, by default searching
+ * to degree 5.
+ * <p>
+ * {@code SearchDriverBenchmark} objects are constant; their values could not be changed after they are
+ * created. Because {@code SearchDriverBenchmark} objects are immutable they could be shared.
+ */
+public class SearchDriverBenchmark {
+    /**
+     * The columns played to reach each position of the suite
+     */
+    static final String[] POSITIONS = {"", "3", "3323", "32435", "3232", "3344", "23344", "3432", "3443",
+            "3341"};
+
+    private static final int ROWS = 6;
+    private static final int COLUMNS = 7;
+    private static final int DEFAULT_DEGREE = 5;
+
+    private final int degree;
+
+    /**
+     * Initializes a newly created {@code SearchDriverBenchmark} object.
+     * <p>
+     * @param degree the degree each position is searched to
+     * @throws IllegalArgumentException if degree is less than 2
+     */
+    public SearchDriverBenchmark(int degree) {
+        if (degree < 2) {
+            throw new IllegalArgumentException("search driver benchmark degree: " + degree);
+        }
+
+        this.degree = degree;
+    }
+
+    /**
+     * Searches the position reached by the specified columns with the specified driver.
+     * <p>
+     * @param driver the search driver
+     * @param position the columns played from the empty chess map
+     * @return the best column, the number of positions visited and the time taken in nanoseconds
+     */
+    public long[] run(SearchDriver driver, String position) {
+        int[] nextPlace = new int[COLUMNS];
+        int[][] state = new int[ROWS][COLUMNS];
+        Arrays.fill(nextPlace, ROWS - 1);
+        for (int[] row : state) {
+            Arrays.fill(row, -1);
+        }
+        for (int i = 0; i < position.length(); i++) {
+            int column = position.charAt(i) - '0';
+            state[nextPlace[column]--][column] = i % 2;
+        }
+        ComputerThinking engine = new ComputerThinking(ROWS, COLUMNS, nextPlace, state);
+        engine.setOpeningBook(null);
+        engine.setEndgameThreshold(0);
+        engine.setDeterministic(true);
+        engine.setSearchDriver(driver);
+        long start = System.nanoTime();
+        int column = engine.bestValue(degree, position.length() % 2);
+        long elapsed = System.nanoTime() - start;
+        return new long[] {column, engine.getNodeCount(), elapsed};
+    }
+
+    /**
+     * Returns a report of the suite searched with each of the specified drivers for people to read, one line
+     * for each position with the best column and the number of positions visited by each driver, then one line
+     * with the totals and the time taken by each driver.
+     * <p>
+     * @param drivers the search drivers
+     * @return the report
+     */
+    public String report(SearchDriver... drivers) {
+        long[] totalNodes = new long[drivers.length];
+        long[] totalTimes = new long[drivers.length];
+        for (SearchDriver driver : drivers) {
+            for (String position : POSITIONS) {
+                run(driver, position);
+            }
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-10s", "position"));
+        for (SearchDriver driver : drivers) {
+            sb.append(String.format(" %22s", driver));
+        }
+        sb.append(String.format("%n"));
+        for (String position : POSITIONS) {
+            sb.append(String.format("%-10s", position.isEmpty() ? "-" : position));
+            for (int k = 0; k < drivers.length; k++) {
+                long[] result = run(drivers[k], position);
+                totalNodes[k] += result[1];
+                totalTimes[k] += result[2];
+                sb.append(String.format(" %4d %17d", result[0], result[1]));
+            }
+            sb.append(String.format("%n"));
+        }
+        sb.append(String.format("%-10s", "total"));
+        for (int k = 0; k < drivers.length; k++) {
+            sb.append(String.format(" %9d %9d ms", totalNodes[k], totalTimes[k] / 1000000L));
+        }
+        sb.append(String.format("%n"));
+        return sb.toString();
+    }
+
+    /**
+     * Returns string representation of this {@code SearchDriverBenchmark} object. The string representation
+     * consists of the degree and the number of positions of the suite. Each fields are separated by the
+     * characters "," (comma).
+     * <p>
+     * @return a string representation of this {@code SearchDriverBenchmark} object
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(degree);
+        sb.append("," + POSITIONS.length);
+        return sb.toString();
+    }
+
+    /**
+     * Searches the suite with every driver and prints the report.
+     * <p>
+     * @param args the degree, optional
+     */
+    public static void main(String[] args) {
+        int degree = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_DEGREE;
+
+        System.out.print(new SearchDriverBenchmark(degree).report(SearchDriver.values()));
+    }
+
+}
@@ -0,0 +1,117 @@
+package edu.nyu.cs.connectfour.game.ai;
+
+/**
+ * @author shenli
+ * <p>
+ * The {@code SolverResult} class represents an exact result found by the {@link EndgameSolver}: the 
+ * {@link Outcome} of the game for the player to move, the number of chess still to be placed until the game 
+ * ends, and the column to place the next chess on.
+ * <p>
+ * When both players play perfectly, the winner ends the game as soon as possible and the loser as late as 
+ * possible, so the distance of a win is the least and the distance of a loss the most number of chess the 
+ * game could last. A drawn game lasts until the chess map is full.
+ * <p>
+ * {@code SolverResult} objects are constant; their values could not be changed after they are created. 
+ * Because {@code SolverResult} objects are immutable they could be shared.
+ */
+public class SolverResult {
+    private final Outcome outcome;
+    private final int distance;
+    private final int column;
+    
+    /**
+     * Initializes a newly created {@code SolverResult} object.
+     * <p>
+     * @param outcome the outcome for the player to move
+     * @param distance the number of chess until the game ends
+     * @param column the column to place the next chess on, or -1 if the chess map is full
+     */
+    public SolverResult(Outcome outcome, int distance, int column) {
+        assert outcome != null;
+        assert distance >= 0;
+        
+        this.outcome = outcome;
+        this.distance = distance;
+        this.column = column;
+    }
+    
+    /**
+     * Returns the outcome of the game for the player to move.
+     * <p>
+     * @return the outcome
+     */
+    public Outcome getOutcome() {
+        return outcome;
+    }
+    
+    /**
+     * Returns the number of chess still to be placed, by both players, until the game ends.
+     * <p>
+     * @return the distance to the end of the game
+     */
+    public int getDistance() {
+        return distance;
+    }
+    
+    /**
+     * Returns the column to place the next chess on, or -1 if the chess map is full.
+     * <p>
+     * @return the column
+     */
+    public int getColumn() {
+        return column;
+    }
+    
+    /**
+     * Compares the specified object with this {@code SolverResult} object for equality. Returns true if and 
+     * only if the specified object is also a {@code SolverResult} object, both objects have the same outcome,
+     * distance and column.
+     * <p>
+     * @param o the object to be compared for equality with this {@code SolverResult} object
+     * @return true if the specified object is equal to this {@code SolverResult} object
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (! (o instanceof SolverResult)) {
+            return false;
+        }
+        SolverResult sr = (SolverResult) o;
+        return outcome == sr.outcome
+                && distance == sr.distance
+                && column == sr.column;
+    }
+    
+    /**
+     * Returns the hash code value for this {@code SolverResult} object.
+     * <p>
+     * @return the hash code value for this {@code SolverResult} object
+     */
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int hashCode = 17;
+        hashCode = hashCode * prime + outcome.hashCode();
+        hashCode = hashCode * prime + distance;
+        hashCode = hashCode * prime + column;
+        return hashCode;
+    }
+    
+    /**
+     * Returns string representation of this {@code SolverResult} object. The string representation consists 
+     * of outcome, distance and column. Each fields are separated by the characters "," (comma).
+     * <p>
+     * @return string representation of this {@code SolverResult} object
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(outcome);
+        sb.append("," + distance);
+        sb.append("," + column);
+        return sb.toString();
+    }
+    
+}
@@ -0,0 +1,222 @@
+package edu.nyu.cs.connectfour.game.ai;
+
+import java.util.Arrays;
+
+import edu.nyu.cs.connectfour.utils.ParameterChecker;
+
+/**
+ * @author shenli
+ * <p>
+ * The {@code TranspositionTable} class is used to remember search results of positions, keyed by their
+ * {@link Zobrist} hash, so that a position reached again through a different move order need not be searched
+ * again.
+ * <p>
+ * The table has a fixed number of slots, a power of two, and each position maps to exactly one slot. An
+ * entry records the search depth, the value, the {@link Bound} of the value and the best column, packed in
+ * one {@code long}; which of two positions keeps a slot is decided by the {@link ReplacementPolicy}.
+ * {@link #probe(long)} returns the packed entry, or {@link #MISS}, and the static accessors unpack it, so
+ * that neither storing nor probing allocates.
+ * <p>
+ * {@code TranspositionTable} objects are not constant; their values can be changed after they are created.
+ * The slots are written without locking, but the key of each slot is stored exclusive-or'ed with its entry,
+ * so an entry torn by concurrent writers never matches a probe; the probe and hit counters are only
+ * approximate when the table is shared by several threads.
+ */
+public class TranspositionTable {
+    /**
+     * The value returned by {@link #probe(long)} when the position is not in the table
+     */
+    public static final long MISS = 0L;
+    /**
+     * The default number of slots, as a power of two
+     */
+    public static final int DEFAULT_SIZE_BITS = 16;
+
+    private static final long VALID = 1L << 63;
+    private static final int DEPTH_SHIFT = 32;
+    private static final int BOUND_SHIFT = 40;
+    private static final int COLUMN_SHIFT = 42;
+    private static final Bound[] BOUNDS = Bound.values();
+
+    private final long[] keys;
+    private final long[] data;
+    private final int mask;
+    private final ReplacementPolicy policy;
+    private long probes;
+    private long hits;
+
+    /**
+     * Initializes a newly created {@code TranspositionTable} object with the default number of slots and the
+     * {@link ReplacementPolicy#DEPTH_PREFERRED} replacement policy.
+     */
+    public TranspositionTable() {
+        this(DEFAULT_SIZE_BITS, ReplacementPolicy.DEPTH_PREFERRED);
+    }
+
+    /**
+     * Initializes a newly created {@code TranspositionTable} object with {@code 2^sizeBits} slots and the
+     * specified replacement policy.
+     * <p>
+     * @param sizeBits the number of slots, as a power of two
+     * @param policy the replacement policy
+     * @throws IllegalArgumentException if sizeBits is negative or greater than 30
+     */
+    public TranspositionTable(int sizeBits, ReplacementPolicy policy) {
+        ParameterChecker.rangeCheck(sizeBits, "transposition table size bits");
+        ParameterChecker.nullCheck(policy, "replacement policy");
+        if (sizeBits > 30) {
+            throw new IllegalArgumentException("transposition table size bits: " + sizeBits);
+        }
+
+        this.keys = new long[1 << sizeBits];
+        this.data = new long[1 << sizeBits];
+        this.mask = (1 << sizeBits) - 1;
+        this.policy = policy;
+    }
+
+    /**
+     * Stores a search result of the specified position.
+     * <p>
+     * @param key the position hash
+     * @param depth the search depth, from 0 to 255
+     * @param value the value
+     * @param bound the bound of the value
+     * @param column the best column, or -1 if there is none
+     */
+    public void store(long key, int depth, int value, Bound bound, int column) {
+        int slot = (int) key & mask;
+        long stored = data[slot];
+        if (stored != MISS
+                && !policy.replaces((keys[slot] ^ stored) == key, depth(stored), depth)) {
+            return;
+        }
+        long entry = VALID
+                | (value & 0xffffffffL)
+                | ((long) depth & 0xff) << DEPTH_SHIFT
+                | ((long) bound.ordinal()) << BOUND_SHIFT
+                | ((long) (column + 1) & 0xff) << COLUMN_SHIFT;
+        keys[slot] = key ^ entry;
+        data[slot] = entry;
+    }
+
+    /**
+     * Returns the entry stored for the specified position, or {@link #MISS} if there is none.
+     * <p>
+     * @param key the position hash
+     * @return the packed entry
+     */
+    public long probe(long key) {
+        int slot = (int) key & mask;
+        long entry = data[slot];
+        probes++;
+        if (entry != MISS && (keys[slot] ^ entry) == key) {
+            hits++;
+            return entry;
+        }
+        return MISS;
+    }
+
+    /**
+     * Returns the value of a packed entry.
+     * <p>
+     * @param entry the packed entry
+     * @return the value
+     */
+    public static int value(long entry) {
+        return (int) entry;
+    }
+
+    /**
+     * Returns the search depth of a packed entry.
+     * <p>
+     * @param entry the packed entry
+     * @return the search depth
+     */
+    public static int depth(long entry) {
+        return (int) (entry >>> DEPTH_SHIFT) & 0xff;
+    }
+
+    /**
+     * Returns the bound of a packed entry.
+     * <p>
+     * @param entry the packed entry
+     * @return the bound
+     */
+    public static Bound bound(long entry) {
+        return BOUNDS[(int) (entry >>> BOUND_SHIFT) & 0x3];
+    }
+
+    /**
+     * Returns the best column of a packed entry, or -1 if there is none.
+     * <p>
+     * @param entry the packed entry
+     * @return the best column
+     */
+    public static int column(long entry) {
+        return ((int) (entry >>> COLUMN_SHIFT) & 0xff) - 1;
+    }
+
+    /**
+     * Removes all entries and resets the counters.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(data, MISS);
+        probes = 0;
+        hits = 0;
+    }
+
+    /**
+     * Returns the number of slots.
+     * <p>
+     * @return the number of slots
+     */
+    public int size() {
+        return data.length;
+    }
+
+    /**
+     * Returns the replacement policy.
+     * <p>
+     * @return the replacement policy
+     */
+    public ReplacementPolicy getReplacementPolicy() {
+        return policy;
+    }
+
+    /**
+     * Returns the number of probes since the table was created or cleared.
+     * <p>
+     * @return the number of probes
+     */
+    public long getProbes() {
+        return probes;
+    }
+
+    /**
+     * Returns the number of probes that found their position since the table was created or cleared.
+     * <p>
+     * @return the number of hits
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns string representation of this {@code TranspositionTable} object. The string representation
+     * consists of the number of slots, the replacement policy, the number of probes and the number of hits.
+     * Each fields are separated by the characters "," (comma).
+     * <p>
+     * @return string representation of this {@code TranspositionTable} object
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(size());
+        sb.append("," + policy);
+        sb.append("," + probes);
+        sb.append("," + hits);
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,167 @@
+package edu.nyu.cs.connectfour.game.ai;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author shenli
+ * <p>
+ * The {@code WindowEvaluator} class values a chess map by its windows, the lines of four cells in the vertical,
+ * horizontal and diagonal directions that could still make four in a row; a 6x7 chess map has 69 of them. A
+ * window only counts for a player as long as the other player has no chess in it, and it is worth more the
+ * more chess of the player it holds. The value of the chess map for a player is the worth of the player's
+ * windows minus the worth of the other player's windows.
+ * <p>
+ * The number of chess each player has in each window is kept up to date as chess are placed and removed,
+ * along with the worth of the windows of both players, so that placing or removing a chess only updates the
+ * windows through its cell and evaluating a leaf takes constant time.
+ * <p>
+ * {@code WindowEvaluator} objects are not constant; their values can be changed after they are created. The
+ * {@code WindowEvaluator} object is not thread-safe, each search needs its own.
+ */
+public class WindowEvaluator implements Evaluator {
+    private static final int LENGTH = 4;
+    private static final int PLAYER_NUMBER = 2;
+    private static final int[] WORTHS = {0, 1, 4, 32, 1024};
+    private static final int[][] DIRECTIONS = {{1, 0}, {0, 1}, {1, 1}, {-1, 1}};
+
+    private final int rows;
+    private final int columns;
+    private final int[][] cellWindows;
+    private final int[][] counts;
+    private final int[] worths;
+
+    /**
+     * Initializes a newly created {@code WindowEvaluator} object for chess maps with the specified rows and
+     * columns, all cells empty.
+     * <p>
+     * @param rows the row
+     * @param columns the column
+     */
+    public WindowEvaluator(int rows, int columns) {
+        assert rows > 0;
+        assert columns > 0;
+
+        this.rows = rows;
+        this.columns = columns;
+        List<int[]> windows = new ArrayList<int[]>();
+        for (int[] direction : DIRECTIONS) {
+            for (int row = 0; row < rows; row++) {
+                for (int column = 0; column < columns; column++) {
+                    int lastRow = row + (LENGTH - 1) * direction[0];
+                    int lastColumn = column + (LENGTH - 1) * direction[1];
+                    if (lastRow < 0 || lastRow >= rows || lastColumn >= columns) {
+                        continue;
+                    }
+                    int[] cells = new int[LENGTH];
+                    for (int k = 0; k < LENGTH; k++) {
+                        cells[k] = (row + k * direction[0]) * columns + column + k * direction[1];
+                    }
+                    windows.add(cells);
+                }
+            }
+        }
+        int[] windowNumbers = new int[rows * columns];
+        for (int[] cells : windows) {
+            for (int cell : cells) {
+                windowNumbers[cell]++;
+            }
+        }
+        this.cellWindows = new int[rows * columns][];
+        for (int cell = 0; cell < cellWindows.length; cell++) {
+            cellWindows[cell] = new int[windowNumbers[cell]];
+        }
+        for (int window = 0; window < windows.size(); window++) {
+            for (int cell : windows.get(window)) {
+                cellWindows[cell][--windowNumbers[cell]] = window;
+            }
+        }
+        this.counts = new int[PLAYER_NUMBER][windows.size()];
+        this.worths = new int[PLAYER_NUMBER];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void load(int[] nextPlace, int[][] state) {
+        for (int[] count : counts) {
+            Arrays.fill(count, 0);
+        }
+        Arrays.fill(worths, 0);
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                if (state[row][column] >= 0) {
+                    place(row, column, state[row][column]);
+                }
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void place(int row, int column, int player) {
+        update(row, column, player, 1);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void remove(int row, int column, int player) {
+        update(row, column, player, -1);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int evaluate(int player) {
+        return worths[player] - worths[1 - player];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Evaluator copy() {
+        return new WindowEvaluator(rows, columns);
+    }
+
+    /**
+     * Returns the number of windows of the chess map.
+     * <p>
+     * @return the number of windows
+     */
+    public int getWindowNumber() {
+        return counts[0].length;
+    }
+
+    /**
+     * Adds the specified number of chess of the player to every window through the cell, updating the worth
+     * of the windows of both players.
+     * <p>
+     * @param row the row
+     * @param column the column
+     * @param player the player index
+     * @param delta 1 if a chess is placed, -1 if it is removed
+     */
+    private void update(int row, int column, int player, int delta) {
+        int[] own = counts[player];
+        int[] other = counts[1 - player];
+        for (int window : cellWindows[row * columns + column]) {
+            if (other[window] == 0) {
+                worths[player] += WORTHS[own[window] + delta] - WORTHS[own[window]];
+            } else if (own[window] + delta == 0) {
+                worths[1 - player] += WORTHS[other[window]];
+            } else if (own[window] == 0) {
+                worths[1 - player] -= WORTHS[other[window]];
+            }
+            own[window] += delta;
+        }
+    }
+
+}
@@ -0,0 +1,87 @@
+package edu.nyu.cs.connectfour.game.ai;
+
+/**
+ * @author shenli
+ * <p>
+ * A non-instantiability {@code Zobrist} object is used to provide the random keys of Zobrist hashing.
+ * <p>
+ * There is one key per player and per bit of a {@link BitBoard}, so a position hash is the exclusive or of 
+ * the keys of all its chess and could be updated incrementally when a chess is placed or removed. The keys 
+ * are generated from a fixed seed, so the hash of a position is the same in every run of the program and 
+ * could be stored in files.
+ * <p>
+ * NOTE: the {@code Zobrist} object is thread-safe.
+ */
+public class Zobrist {
+    private static final long SEED = 0x436f6e6e656374L;
+    private static final int PLAYER_NUMBER = 2;
+    private static final long[][] KEYS = new long[PLAYER_NUMBER][Long.SIZE];
+    private static final long[] PLAYER_KEYS = new long[PLAYER_NUMBER];
+    private static final long[] SIDE_KEYS = new long[PLAYER_NUMBER];
+    
+    static {
+        long seed = SEED;
+        for (int player = 0; player < PLAYER_NUMBER; player++) {
+            for (int bit = 0; bit < Long.SIZE; bit++) {
+                seed += 0x9e3779b97f4a7c15L;
+                KEYS[player][bit] = mix(seed);
+            }
+        }
+        seed += 0x9e3779b97f4a7c15L;
+        PLAYER_KEYS[1] = mix(seed);
+        seed += 0x9e3779b97f4a7c15L;
+        SIDE_KEYS[1] = mix(seed);
+    }
+    
+    /**
+     * Suppress default constructor for non-instantiable
+     */
+    private Zobrist() {
+        throw new AssertionError();
+    }
+    
+    /**
+     * Returns the key of a chess of the specified player on the specified bit.
+     * <p>
+     * @param player the player index
+     * @param bit the bit index of the cell in the {@link BitBoard}
+     * @return the key
+     */
+    public static long key(int player, int bit) {
+        return KEYS[player][bit];
+    }
+    
+    /**
+     * Returns the key of the specified player, used to tell apart searches done on behalf of different 
+     * players on the same position. The key of the first player is zero.
+     * <p>
+     * @param player the player index
+     * @return the key
+     */
+    public static long player(int player) {
+        return PLAYER_KEYS[player];
+    }
+    
+    /**
+     * Returns the key of the player to move. The key of the first player is zero.
+     * <p>
+     * @param side the index of the player to move
+     * @return the key
+     */
+    public static long side(int side) {
+        return SIDE_KEYS[side];
+    }
+    
+    /**
+     * Returns the SplitMix64 finalization of the specified value.
+     * <p>
+     * @param z the value
+     * @return the mixed value
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+    
+}
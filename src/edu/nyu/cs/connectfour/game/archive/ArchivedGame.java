@@ -0,0 +1,215 @@
+package edu.nyu.cs.connectfour.game.archive;
+
+import java.util.Arrays;
+
+import edu.nyu.cs.connectfour.game.Game;
+import edu.nyu.cs.connectfour.utils.ParameterChecker;
+
+/**
+ * @author shenli
+ * <p>
+ * The {@code ArchivedGame} class represents a game as it is stored in a game archive: the player who moved
+ * first, the columns played in order and the result. The chess map is not stored; it is rebuilt by
+ * {@link #replay(int, int)} when needed.
+ * <p>
+ * {@code ArchivedGame} objects are constant; their values could not be changed after they are created.
+ * Because {@code ArchivedGame} objects are immutable they could be shared.
+ */
+public class ArchivedGame {
+    private final int offensive;
+    private final int winner;
+    private final boolean over;
+    private final byte[] moves;
+
+    /**
+     * Initializes a newly created {@code ArchivedGame} object.
+     * <p>
+     * @param offensive the index of the player who moved first
+     * @param moves the columns played, in order
+     * @param winner the index of the player who won, or -1 if the game is a draw or not over
+     * @param over true if the game is over, otherwise false
+     * @throws NullPointerException if moves is {@code null}
+     * @throws IllegalArgumentException if offensive is not a player index, winner is neither -1 nor a player
+     * index, a game not over has a winner, a column is negative or there are more than 255 moves
+     */
+    public ArchivedGame(int offensive, byte[] moves, int winner, boolean over) {
+        ParameterChecker.nullCheck(moves, "archived moves");
+        if (offensive < 0 || offensive > 1 || winner < -1 || winner > 1 || (winner >= 0 && !over)
+                || moves.length > GameArchive.MAX_MOVES) {
+            throw new IllegalArgumentException("archived game: " + offensive + "," + winner + "," + over + ","
+                    + moves.length);
+        }
+        for (byte move : moves) {
+            ParameterChecker.rangeCheck(move, "archived move");
+        }
+
+        this.offensive = offensive;
+        this.winner = winner;
+        this.over = over;
+        this.moves = moves.clone();
+    }
+
+    /**
+     * Returns the archived form of the game played on a chess map with the specified rows and columns, the
+     * result being found by replaying the moves.
+     * <p>
+     * @param rows the chess map row
+     * @param columns the chess map column
+     * @param offensive the index of the player who moved first
+     * @param moves the columns played, in order
+     * @return the archived game
+     * @throws NullPointerException if moves is {@code null}
+     * @throws IllegalArgumentException if offensive is not a player index
+     * @throws IllegalStateException if a move could not be played
+     */
+    public static ArchivedGame of(int rows, int columns, int offensive, byte[] moves) {
+        ParameterChecker.nullCheck(moves, "archived moves");
+
+        Game game = replay(rows, columns, offensive, moves);
+        return new ArchivedGame(offensive, moves, game.getWinner(), game.isOver());
+    }
+
+    /**
+     * Replays the moves of a game.
+     * <p>
+     * @param rows the chess map row
+     * @param columns the chess map column
+     * @param offensive the index of the player who moved first
+     * @param moves the columns played, in order
+     * @return the game after the last move
+     * @throws IllegalStateException if a move could not be played
+     */
+    private static Game replay(int rows, int columns, int offensive, byte[] moves) {
+        Game game = new Game(rows, columns, offensive);
+        for (byte move : moves) {
+            game.place(move);
+        }
+        return game;
+    }
+
+    /**
+     * Replays this game on a chess map with the specified rows and columns.
+     * <p>
+     * @param rows the chess map row
+     * @param columns the chess map column
+     * @return the game after the last move
+     * @throws IllegalStateException if a move could not be played
+     */
+    public Game replay(int rows, int columns) {
+        return replay(rows, columns, offensive, moves);
+    }
+
+    /**
+     * Returns the index of the player who moved first.
+     * <p>
+     * @return the offensive player index
+     */
+    public int getOffensive() {
+        return offensive;
+    }
+
+    /**
+     * Returns the index of the player who won, or -1 if the game is a draw or not over.
+     * <p>
+     * @return the winner index
+     */
+    public int getWinner() {
+        return winner;
+    }
+
+    /**
+     * Returns the state of the game. True if it is over, false if it's not.
+     * <p>
+     * @return true if the game is over, otherwise false
+     */
+    public boolean isOver() {
+        return over;
+    }
+
+    /**
+     * Returns the number of moves played.
+     * <p>
+     * @return the move number
+     */
+    public int getMoveNumber() {
+        return moves.length;
+    }
+
+    /**
+     * Returns the column of the specified move.
+     * <p>
+     * @param index the move index, from 0
+     * @return the column
+     */
+    public int getMove(int index) {
+        return moves[index];
+    }
+
+    /**
+     * Returns the columns played, in order.
+     * <p>
+     * @return a copy of the moves
+     */
+    public byte[] getMoves() {
+        return moves.clone();
+    }
+
+    /**
+     * Compares the specified object with this {@code ArchivedGame} object for equality. Returns true if and
+     * only if the specified object is also an {@code ArchivedGame} object and both objects have the same
+     * offensive player, result and moves.
+     * <p>
+     * @param o the object to be compared for equality with this {@code ArchivedGame} object
+     * @return true if the specified object is equal to this {@code ArchivedGame} object
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (! (o instanceof ArchivedGame)) {
+            return false;
+        }
+        ArchivedGame ag = (ArchivedGame) o;
+        return offensive == ag.offensive
+                && winner == ag.winner
+                && over == ag.over
+                && Arrays.equals(moves, ag.moves);
+    }
+
+    /**
+     * Returns the hash code value for this {@code ArchivedGame} object.
+     * <p>
+     * @return the hash code value for this {@code ArchivedGame} object
+     */
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int hashCode = 17;
+        hashCode = hashCode * prime + offensive;
+        hashCode = hashCode * prime + winner;
+        hashCode = hashCode * prime + (over ? 1 : 0);
+        hashCode = hashCode * prime + Arrays.hashCode(moves);
+        return hashCode;
+    }
+
+    /**
+     * Returns string representation of this {@code ArchivedGame} object. The string representation consists
+     * of the offensive player, the winner, the game over flag and the moves. Each fields are separated by the
+     * characters "," (comma).
+     * <p>
+     * @return a string representation of this {@code ArchivedGame} object
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(offensive);
+        sb.append("," + winner);
+        sb.append("," + over);
+        for (byte move : moves) {
+            sb.append("," + move);
+        }
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,143 @@
+package edu.nyu.cs.connectfour.game.archive;
+
+import java.io.IOException;
+
+/**
+ * @author shenli
+ * <p>
+ * A non-instantiability {@code GameArchive} object describes the binary format of game archives, written by
+ * {@link GameArchiveWriter} and read by {@link GameArchiveReader}.
+ * <p>
+ * An archive starts with a header of 7 bytes: the magic number {@code "C4GA"}, the format version, the rows
+ * and the columns of the chess map, each an unsigned byte. Games follow one after another, each one a byte of
+ * flags, a byte of move number and the columns played, packed big-endian in as few bits each as the columns
+ * need, 3 for the classic 7 columns, padded with zeros to a whole byte. The lowest bit of the flags is the
+ * index of the player who moved first and the next two bits are the result: 0 if the game is not over, 1 if it
+ * is a draw, 2 if the first player won and 3 if the second player won. A classic game of 21 moves takes 10
+ * bytes.
+ */
+public class GameArchive {
+    /**
+     * The largest number of moves of an archived game
+     */
+    public static final int MAX_MOVES = 255;
+    /**
+     * The largest number of columns of an archived chess map
+     */
+    public static final int MAX_COLUMNS = 16;
+
+    static final int MAGIC = 0x43344741;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 7;
+
+    private static final int RESULT_SHIFT = 1;
+
+    /**
+     * Suppress default constructor for non-instantiable
+     */
+    private GameArchive() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Checks the specified chess map could be archived.
+     * <p>
+     * @param rows the chess map row
+     * @param columns the chess map column
+     * @throws IllegalArgumentException if the chess map is empty, has more than {@link #MAX_COLUMNS} columns or
+     * more than {@link #MAX_MOVES} cells
+     */
+    static void checkMap(int rows, int columns) {
+        if (rows <= 0 || columns <= 0 || columns > MAX_COLUMNS || rows * columns > MAX_MOVES) {
+            throw new IllegalArgumentException("archived chess map: " + rows + "," + columns);
+        }
+    }
+
+    /**
+     * Returns the number of bits a move takes on a chess map with the specified columns.
+     * <p>
+     * @param columns the chess map column
+     * @return the number of bits per move
+     */
+    static int bitsPerMove(int columns) {
+        return Math.max(1, 32 - Integer.numberOfLeadingZeros(columns - 1));
+    }
+
+    /**
+     * Returns the number of bytes the specified number of moves takes.
+     * <p>
+     * @param moveNumber the number of moves
+     * @param bits the number of bits per move
+     * @return the number of bytes
+     */
+    static int moveBytes(int moveNumber, int bits) {
+        return (moveNumber * bits + 7) >>> 3;
+    }
+
+    /**
+     * Encodes the specified game into the specified buffer.
+     * <p>
+     * @param game the game
+     * @param bits the number of bits per move
+     * @param buffer the buffer, large enough for the longest game
+     * @return the number of bytes of the encoded game
+     */
+    static int encode(ArchivedGame game, int bits, byte[] buffer) {
+        int result = game.isOver() ? game.getWinner() + 2 : 0;
+        buffer[0] = (byte) (game.getOffensive() | result << RESULT_SHIFT);
+        buffer[1] = (byte) game.getMoveNumber();
+        int length = 2;
+        int acc = 0;
+        int accBits = 0;
+        for (int i = 0; i < game.getMoveNumber(); i++) {
+            acc = acc << bits | game.getMove(i);
+            accBits += bits;
+            if (accBits >= 8) {
+                accBits -= 8;
+                buffer[length++] = (byte) (acc >>> accBits);
+                acc &= (1 << accBits) - 1;
+            }
+        }
+        if (accBits > 0) {
+            buffer[length++] = (byte) (acc << (8 - accBits));
+        }
+        return length;
+    }
+
+    /**
+     * Decodes a game from the specified bytes.
+     * <p>
+     * @param flags the flags byte
+     * @param packed the packed moves, from the third byte of the game
+     * @param moveNumber the number of moves
+     * @param bits the number of bits per move
+     * @param columns the chess map column
+     * @return the game
+     * @throws IOException if the game is corrupt
+     */
+    static ArchivedGame decode(int flags, byte[] packed, int moveNumber, int bits, int columns)
+            throws IOException {
+        int result = (flags >>> RESULT_SHIFT) & 3;
+        if ((flags & ~7) != 0) {
+            throw new IOException("archived game flags: " + flags);
+        }
+        byte[] moves = new byte[moveNumber];
+        int acc = 0;
+        int accBits = 0;
+        int k = 0;
+        for (int i = 0; i < moveNumber; i++) {
+            if (accBits < bits) {
+                acc = acc << 8 | (packed[k++] & 0xff);
+                accBits += 8;
+            }
+            accBits -= bits;
+            int move = (acc >>> accBits) & ((1 << bits) - 1);
+            if (move >= columns) {
+                throw new IOException("archived move: " + move);
+            }
+            moves[i] = (byte) move;
+        }
+        return new ArchivedGame(flags & 1, moves, result >= 2 ? result - 2 : -1, result != 0);
+    }
+
+}
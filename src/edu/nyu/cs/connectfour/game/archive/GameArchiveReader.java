@@ -0,0 +1,228 @@
+package edu.nyu.cs.connectfour.game.archive;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import edu.nyu.cs.connectfour.utils.ParameterChecker;
+
+/**
+ * @author shenli
+ * <p>
+ * The {@code GameArchiveReader} class reads the games of a game archive file, in the format described by
+ * {@link GameArchive}, either one after another or at the offsets they were found at before. The file is
+ * memory-mapped a window at a time rather than read through a stream, so scanning an archive costs no more
+ * than decoding its games, and archives larger than a mapping could be are read as well.
+ * <p>
+ * {@code GameArchiveReader} objects are not constant; their values could be changed after they are created.
+ * The {@code GameArchiveReader} object is not thread-safe. To use it concurrently, user must surround each
+ * method invocation with external synchronization of the users' choosing.
+ */
+public class GameArchiveReader implements Closeable {
+    private static final long DEFAULT_WINDOW = 1L << 30;
+
+    private final FileChannel channel;
+    private final long size;
+    private final long window;
+    private final int rows;
+    private final int columns;
+    private final int bits;
+    private final byte[] packed;
+    private MappedByteBuffer buffer;
+    private long base;
+    private long position;
+    private long offset = -1L;
+
+    /**
+     * Initializes a newly created {@code GameArchiveReader} object reading the specified archive file from its
+     * first game.
+     * <p>
+     * @param file the archive file
+     * @throws IOException if the file could not be opened or is not a game archive
+     * @throws NullPointerException if file is {@code null}
+     */
+    public GameArchiveReader(File file) throws IOException {
+        this(file, DEFAULT_WINDOW);
+    }
+
+    /**
+     * Initializes a newly created {@code GameArchiveReader} object reading the specified archive file from its
+     * first game, mapping it the specified number of bytes at a time.
+     * <p>
+     * @param file the archive file
+     * @param window the number of bytes mapped at a time, large enough for the header and the longest game
+     * @throws IOException if the file could not be opened or is not a game archive
+     */
+    GameArchiveReader(File file, long window) throws IOException {
+        ParameterChecker.nullCheck(file, "game archive file");
+
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        this.size = channel.size();
+        this.window = window;
+        try {
+            if (size < GameArchive.HEADER_BYTES) {
+                throw new IOException("not a game archive: " + file);
+            }
+            remap(0L);
+            if (buffer.getInt(0) != GameArchive.MAGIC) {
+                throw new IOException("not a game archive: " + file);
+            }
+            int version = buffer.get(4) & 0xff;
+            if (version != GameArchive.VERSION) {
+                throw new IOException("game archive version: " + version);
+            }
+            this.rows = buffer.get(5) & 0xff;
+            this.columns = buffer.get(6) & 0xff;
+            GameArchive.checkMap(rows, columns);
+        } catch (IOException | IllegalArgumentException e) {
+            channel.close();
+            throw e instanceof IOException ? (IOException) e : new IOException(e.getMessage());
+        }
+        this.bits = GameArchive.bitsPerMove(columns);
+        this.packed = new byte[GameArchive.moveBytes(rows * columns, bits)];
+        assert window >= GameArchive.HEADER_BYTES + 2 + packed.length;
+        this.position = GameArchive.HEADER_BYTES;
+    }
+
+    /**
+     * Returns the state of the reader. True if there are games left after the last one read, false if
+     * there are not.
+     * <p>
+     * @return true if there is a next game, otherwise false
+     */
+    public boolean hasNext() {
+        return position < size;
+    }
+
+    /**
+     * Reads the next game.
+     * <p>
+     * @return the game, or {@code null} if there are no more games
+     * @throws IOException if the game is corrupt or truncated
+     */
+    public ArchivedGame next() throws IOException {
+        if (!hasNext()) {
+            return null;
+        }
+        return read(position);
+    }
+
+    /**
+     * Reads the game at the specified offset, which the next game is read after.
+     * <p>
+     * @param offset the offset of the game in the file, as returned by {@link #getOffset()}
+     * @return the game
+     * @throws IOException if there is no game at the offset, or it is corrupt or truncated
+     */
+    public ArchivedGame read(long offset) throws IOException {
+        if (offset < GameArchive.HEADER_BYTES || offset + 2 > size) {
+            throw new IOException("game archive offset: " + offset);
+        }
+        ensure(offset, 2);
+        int flags = buffer.get((int) (offset - base)) & 0xff;
+        int moveNumber = buffer.get((int) (offset - base + 1)) & 0xff;
+        if (moveNumber > rows * columns) {
+            throw new IOException("archived move number: " + moveNumber + " at " + offset);
+        }
+        int length = GameArchive.moveBytes(moveNumber, bits);
+        if (offset + 2 + length > size) {
+            throw new IOException("truncated game archive at " + offset);
+        }
+        ensure(offset, 2 + length);
+        buffer.position((int) (offset - base + 2));
+        buffer.get(packed, 0, length);
+        ArchivedGame game = GameArchive.decode(flags, packed, moveNumber, bits, columns);
+        this.offset = offset;
+        this.position = offset + 2 + length;
+        return game;
+    }
+
+    /**
+     * Maps the window holding the specified bytes, unless it is mapped already.
+     * <p>
+     * @param offset the offset of the first byte
+     * @param length the number of bytes
+     * @throws IOException if the file could not be mapped
+     */
+    private void ensure(long offset, int length) throws IOException {
+        if (offset < base || offset + length > base + buffer.limit()) {
+            remap(offset);
+        }
+    }
+
+    /**
+     * Maps the window starting at the specified offset.
+     * <p>
+     * @param offset the offset of the window
+     * @throws IOException if the file could not be mapped
+     */
+    private void remap(long offset) throws IOException {
+        base = offset;
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, base, Math.min(window, size - base));
+    }
+
+    /**
+     * Returns the offset of the last game read, or -1 if no game has been read.
+     * <p>
+     * @return the offset
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * Returns the number of rows of the archived chess map.
+     * <p>
+     * @return the row
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns the number of columns of the archived chess map.
+     * <p>
+     * @return the column
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Returns the size of the archive file in bytes.
+     * <p>
+     * @return the size
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Returns string representation of this {@code GameArchiveReader} object. The string representation
+     * consists of row, column number, the size of the file and the offset of the next game. Each fields are
+     * separated by the characters "," (comma).
+     * <p>
+     * @return a string representation of this {@code GameArchiveReader} object
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(rows);
+        sb.append("," + columns);
+        sb.append("," + size);
+        sb.append("," + position);
+        return sb.toString();
+    }
+
+}
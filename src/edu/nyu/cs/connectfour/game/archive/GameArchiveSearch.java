@@ -0,0 +1,218 @@
+package edu.nyu.cs.connectfour.game.archive;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import edu.nyu.cs.connectfour.game.ai.BitBoard;
+import edu.nyu.cs.connectfour.utils.ParameterChecker;
+
+/**
+ * @author shenli
+ * <p>
+ * The {@code GameArchiveSearch} class finds the games of a game archive which reached a position, whatever the
+ * order of the moves which reached it, through the {@link PositionIndex} built by the {@link GameIndexer}.
+ * <p>
+ * The index gives the offsets of the games whose position had the same hash, found by binary search, and each
+ * one is read from the archive and replayed to the number of moves of the position to be compared with it, so
+ * the games found are exact even if two positions share a hash. A search costs the logarithm of the size of
+ * the index plus the games it finds, however many games the archive holds.
+ * <p>
+ * {@code GameArchiveSearch} objects are not constant; their values could be changed after they are created.
+ * The {@code GameArchiveSearch} object is not thread-safe. To use it concurrently, user must surround each
+ * method invocation with external synchronization of the users' choosing.
+ */
+public class GameArchiveSearch implements Closeable {
+    /**
+     * The index of the count of games the first player to move won, in {@link #countResults(byte[])}
+     */
+    public static final int FIRST_WINS = 0;
+    /**
+     * The index of the count of games the second player to move won, in {@link #countResults(byte[])}
+     */
+    public static final int SECOND_WINS = 1;
+    /**
+     * The index of the count of drawn games, in {@link #countResults(byte[])}
+     */
+    public static final int DRAWS = 2;
+    /**
+     * The index of the count of games not over, in {@link #countResults(byte[])}
+     */
+    public static final int NOT_OVER = 3;
+
+    private final GameArchiveReader reader;
+    private final PositionIndex index;
+
+    /**
+     * Initializes a newly created {@code GameArchiveSearch} object searching the specified archive through the
+     * specified index.
+     * <p>
+     * @param archive the archive file
+     * @param index the position index file of the archive
+     * @throws IOException if a file could not be opened
+     * @throws NullPointerException if archive or index is {@code null}
+     */
+    public GameArchiveSearch(File archive, File index) throws IOException {
+        this.reader = new GameArchiveReader(archive);
+        try {
+            this.index = new PositionIndex(index);
+        } catch (IOException | RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the archive offsets of the games which reached the position of the specified moves, in ascending
+     * order.
+     * <p>
+     * @param moves the columns played from the first player to move, at least one
+     * @return the offsets
+     * @throws IOException if a game could not be read
+     * @throws NullPointerException if moves is {@code null}
+     * @throws IllegalArgumentException if there are no moves or a move could not be played
+     */
+    public long[] findOffsets(byte[] moves) throws IOException {
+        BitBoard position = position(moves);
+        long[] candidates = index.lookup(position.getHash());
+        long[] offsets = new long[candidates.length];
+        int size = 0;
+        for (long offset : candidates) {
+            if (reached(reader.read(offset), position)) {
+                offsets[size++] = offset;
+            }
+        }
+        return size == offsets.length ? offsets : Arrays.copyOf(offsets, size);
+    }
+
+    /**
+     * Returns the games which reached the position of the specified moves, in archive order.
+     * <p>
+     * @param moves the columns played from the first player to move, at least one
+     * @param limit the largest number of games returned
+     * @return the games
+     * @throws IOException if a game could not be read
+     * @throws NullPointerException if moves is {@code null}
+     * @throws IllegalArgumentException if there are no moves, a move could not be played or limit is negative
+     */
+    public List<ArchivedGame> findGames(byte[] moves, int limit) throws IOException {
+        ParameterChecker.rangeCheck(limit, "limit");
+        BitBoard position = position(moves);
+
+        List<ArchivedGame> games = new ArrayList<ArchivedGame>();
+        for (long offset : index.lookup(position.getHash())) {
+            if (games.size() == limit) {
+                break;
+            }
+            ArchivedGame game = reader.read(offset);
+            if (reached(game, position)) {
+                games.add(game);
+            }
+        }
+        return games;
+    }
+
+    /**
+     * Returns the results of the games which reached the position of the specified moves, counted at the
+     * indices {@link #FIRST_WINS}, {@link #SECOND_WINS}, {@link #DRAWS} and {@link #NOT_OVER}.
+     * <p>
+     * @param moves the columns played from the first player to move, at least one
+     * @return the counts of each result
+     * @throws IOException if a game could not be read
+     * @throws NullPointerException if moves is {@code null}
+     * @throws IllegalArgumentException if there are no moves or a move could not be played
+     */
+    public long[] countResults(byte[] moves) throws IOException {
+        BitBoard position = position(moves);
+
+        long[] results = new long[4];
+        for (long offset : index.lookup(position.getHash())) {
+            ArchivedGame game = reader.read(offset);
+            if (!reached(game, position)) {
+                continue;
+            }
+            if (!game.isOver()) {
+                results[NOT_OVER]++;
+            } else if (game.getWinner() < 0) {
+                results[DRAWS]++;
+            } else {
+                results[game.getWinner() == game.getOffensive() ? FIRST_WINS : SECOND_WINS]++;
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Returns the position of the specified moves on the chess map of the archive.
+     * <p>
+     * @param moves the columns played from the first player to move
+     * @return the position
+     * @throws IllegalArgumentException if there are no moves or a move could not be played
+     */
+    private BitBoard position(byte[] moves) {
+        ParameterChecker.nullCheck(moves, "moves");
+        if (moves.length == 0) {
+            throw new IllegalArgumentException("the initial position is not indexed");
+        }
+        return PositionIndex.position(reader.getRows(), reader.getColumns(), moves);
+    }
+
+    /**
+     * Returns the state of the specified game. True if it reached the specified position, false if it's not.
+     * <p>
+     * @param game the game
+     * @param position the position
+     * @return true if the game reached the position, otherwise false
+     */
+    private boolean reached(ArchivedGame game, BitBoard position) {
+        int chessNumber = position.getChessNumber();
+        if (game.getMoveNumber() < chessNumber) {
+            return false;
+        }
+        BitBoard board = new BitBoard(reader.getRows(), reader.getColumns());
+        for (int i = 0; i < chessNumber; i++) {
+            board.play(game.getMove(i), i & 1);
+        }
+        return board.equals(position);
+    }
+
+    /**
+     * Returns the position index searched.
+     * <p>
+     * @return the position index
+     */
+    public PositionIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            index.close();
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Returns string representation of this {@code GameArchiveSearch} object. The string representation
+     * consists of the archive reader and the position index. Each fields are separated by the characters ","
+     * (comma).
+     * <p>
+     * @return a string representation of this {@code GameArchiveSearch} object
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(reader);
+        sb.append("," + index);
+        return sb.toString();
+    }
+
+}
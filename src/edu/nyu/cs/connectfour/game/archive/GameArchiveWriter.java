@@ -0,0 +1,191 @@
+package edu.nyu.cs.connectfour.game.archive;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import edu.nyu.cs.connectfour.utils.ParameterChecker;
+
+/**
+ * @author shenli
+ * <p>
+ * The {@code GameArchiveWriter} class writes games one after another to a game archive, in the format
+ * described by {@link GameArchive}. The games are buffered, so the writer must be flushed or closed for them
+ * to reach the stream.
+ * <p>
+ * {@code GameArchiveWriter} objects are not constant; their values could be changed after they are created.
+ * The {@code GameArchiveWriter} object is not thread-safe. To use it concurrently, user must surround each
+ * method invocation with external synchronization of the users' choosing.
+ */
+public class GameArchiveWriter implements Closeable, Flushable {
+    private final DataOutputStream out;
+    private final int rows;
+    private final int columns;
+    private final int bits;
+    private final byte[] buffer;
+    private long count;
+
+    /**
+     * Initializes a newly created {@code GameArchiveWriter} object starting a new archive on the specified
+     * stream.
+     * <p>
+     * @param out the output stream
+     * @param rows the chess map row
+     * @param columns the chess map column
+     * @throws IOException if the header could not be written
+     * @throws NullPointerException if out is {@code null}
+     * @throws IllegalArgumentException if the chess map could not be archived
+     */
+    public GameArchiveWriter(OutputStream out, int rows, int columns) throws IOException {
+        this(out, rows, columns, true);
+    }
+
+    /**
+     * Initializes a newly created {@code GameArchiveWriter} object writing to the specified stream.
+     * <p>
+     * @param out the output stream
+     * @param rows the chess map row
+     * @param columns the chess map column
+     * @param header true if the archive header is to be written first
+     * @throws IOException if the header could not be written
+     */
+    private GameArchiveWriter(OutputStream out, int rows, int columns, boolean header) throws IOException {
+        ParameterChecker.nullCheck(out, "game archive stream");
+        GameArchive.checkMap(rows, columns);
+
+        this.out = new DataOutputStream(new BufferedOutputStream(out));
+        this.rows = rows;
+        this.columns = columns;
+        this.bits = GameArchive.bitsPerMove(columns);
+        this.buffer = new byte[2 + GameArchive.moveBytes(rows * columns, bits)];
+        if (header) {
+            this.out.writeInt(GameArchive.MAGIC);
+            this.out.writeByte(GameArchive.VERSION);
+            this.out.writeByte(rows);
+            this.out.writeByte(columns);
+        }
+    }
+
+    /**
+     * Opens the specified archive file to append games to it, starting it if it is empty or does not exist.
+     * <p>
+     * @param file the archive file
+     * @param rows the chess map row
+     * @param columns the chess map column
+     * @return the writer
+     * @throws IOException if the file could not be opened, or holds an archive of another version or chess
+     * map
+     * @throws NullPointerException if file is {@code null}
+     * @throws IllegalArgumentException if the chess map could not be archived
+     */
+    public static GameArchiveWriter append(File file, int rows, int columns) throws IOException {
+        ParameterChecker.nullCheck(file, "game archive file");
+        GameArchive.checkMap(rows, columns);
+
+        boolean header = !file.exists() || file.length() == 0;
+        if (!header) {
+            DataInputStream in = new DataInputStream(new FileInputStream(file));
+            try {
+                if (in.readInt() != GameArchive.MAGIC || in.readUnsignedByte() != GameArchive.VERSION
+                        || in.readUnsignedByte() != rows || in.readUnsignedByte() != columns) {
+                    throw new IOException("game archive header: " + file);
+                }
+            } finally {
+                in.close();
+            }
+        }
+        return new GameArchiveWriter(new FileOutputStream(file, true), rows, columns, header);
+    }
+
+    /**
+     * Writes the specified game.
+     * <p>
+     * @param game the game
+     * @throws IOException if the game could not be written
+     * @throws NullPointerException if game is {@code null}
+     * @throws IllegalArgumentException if the game has more moves than the chess map has cells, or a column
+     * out of the chess map
+     */
+    public void write(ArchivedGame game) throws IOException {
+        ParameterChecker.nullCheck(game, "archived game");
+        if (game.getMoveNumber() > rows * columns) {
+            throw new IllegalArgumentException("archived move number: " + game.getMoveNumber());
+        }
+        for (int i = 0; i < game.getMoveNumber(); i++) {
+            if (game.getMove(i) >= columns) {
+                throw new IllegalArgumentException("archived move: " + game.getMove(i));
+            }
+        }
+
+        out.write(buffer, 0, GameArchive.encode(game, bits, buffer));
+        count++;
+    }
+
+    /**
+     * Returns the number of rows of the archived chess map.
+     * <p>
+     * @return the row
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns the number of columns of the archived chess map.
+     * <p>
+     * @return the column
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Returns the number of games written by this writer.
+     * <p>
+     * @return the number of games
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    /**
+     * Returns string representation of this {@code GameArchiveWriter} object. The string representation
+     * consists of row, column number, the bits per move and the number of games written. Each fields are
+     * separated by the characters "," (comma).
+     * <p>
+     * @return a string representation of this {@code GameArchiveWriter} object
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(rows);
+        sb.append("," + columns);
+        sb.append("," + bits);
+        sb.append("," + count);
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,426 @@
+package edu.nyu.cs.connectfour.game.archive;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import edu.nyu.cs.connectfour.game.ai.BitBoard;
+import edu.nyu.cs.connectfour.utils.ParameterChecker;
+
+/**
+ * @author shenli
+ * <p>
+ * The {@code GameIndexer} class imports games from move lists into a game archive and builds the
+ * {@link PositionIndex} of an archive, the file of every position its games reached with the offset of the
+ * game which reached it.
+ * <p>
+ * Each game is replayed on a {@link BitBoard}, the hash of the position after each move kept with the offset of
+ * the game, and the entries are sorted by an external merge sort: runs of a bounded number of entries are
+ * sorted in memory and written to temporary files, then merged into the index file. The archive is read through
+ * a {@link GameArchiveReader} and the runs are merged a buffer at a time, so the heap used does not grow with
+ * the number of games, only the temporary space on disk, which is the size of the index.
+ * <p>
+ * {@code GameIndexer} objects are constant; their values could not be changed after they are created. The
+ * {@code GameIndexer} object is thread-safe; each {@link #index(File, File)} uses its own runs.
+ */
+public class GameIndexer {
+    private static final int DEFAULT_RUN_ENTRIES = 1 << 22;
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    private final File tempDirectory;
+    private final int runEntries;
+
+    /**
+     * Initializes a newly created {@code GameIndexer} object sorting runs of 4M entries in the default
+     * temporary directory.
+     */
+    public GameIndexer() {
+        this(new File(System.getProperty("java.io.tmpdir")), DEFAULT_RUN_ENTRIES);
+    }
+
+    /**
+     * Initializes a newly created {@code GameIndexer} object.
+     * <p>
+     * @param tempDirectory the directory of the temporary run files
+     * @param runEntries the number of entries sorted in memory at a time
+     * @throws NullPointerException if tempDirectory is {@code null}
+     * @throws IllegalArgumentException if runEntries is not positive
+     */
+    public GameIndexer(File tempDirectory, int runEntries) {
+        ParameterChecker.nullCheck(tempDirectory, "temporary directory");
+        ParameterChecker.rangeCheck(runEntries - 1, "run entries");
+
+        this.tempDirectory = tempDirectory;
+        this.runEntries = runEntries;
+    }
+
+    /**
+     * Imports the games of the specified move lists, one game a line with the column of each move as a digit,
+     * or a letter from column 10, from the first player to move. Blank lines are skipped.
+     * <p>
+     * @param in the move lists
+     * @param out the archive the games are written to
+     * @return the number of games imported
+     * @throws IOException if the move lists could not be read, a line is not a legal game or the games could
+     * not be written
+     * @throws NullPointerException if in or out is {@code null}
+     */
+    public static long importMoveLists(Reader in, GameArchiveWriter out) throws IOException {
+        ParameterChecker.nullCheck(in, "move lists");
+        ParameterChecker.nullCheck(out, "game archive writer");
+
+        BufferedReader reader = new BufferedReader(in);
+        long count = 0L;
+        long lineNumber = 0L;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            byte[] moves = new byte[line.length()];
+            for (int i = 0; i < moves.length; i++) {
+                int column = Character.digit(line.charAt(i), Character.MAX_RADIX);
+                if (column < 0 || column >= out.getColumns()) {
+                    throw new IOException("malformed move list at line " + lineNumber + ": " + line);
+                }
+                moves[i] = (byte) column;
+            }
+            try {
+                out.write(ArchivedGame.of(out.getRows(), out.getColumns(), 0, moves));
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                throw new IOException("illegal game at line " + lineNumber + ": " + line);
+            }
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Builds the position index of the specified archive.
+     * <p>
+     * @param archive the archive file
+     * @param index the index file, replaced if it exists
+     * @return the number of entries of the index
+     * @throws IOException if the archive could not be read or the index could not be written
+     * @throws NullPointerException if archive or index is {@code null}
+     * @throws IllegalArgumentException if the chess map of the archive could not be represented by a
+     * {@link BitBoard}
+     */
+    public long index(File archive, File index) throws IOException {
+        ParameterChecker.nullCheck(archive, "game archive file");
+        ParameterChecker.nullCheck(index, "position index file");
+
+        List<File> runs = new ArrayList<File>();
+        try {
+            long count = sortRuns(archive, runs);
+            mergeRuns(runs, index, count);
+            return count;
+        } finally {
+            for (File run : runs) {
+                run.delete();
+            }
+        }
+    }
+
+    /**
+     * Replays the games of the specified archive and writes their positions in sorted runs.
+     * <p>
+     * @param archive the archive file
+     * @param runs the list the run files are added to
+     * @return the number of entries
+     * @throws IOException if the archive could not be read or a run could not be written
+     */
+    private long sortRuns(File archive, List<File> runs) throws IOException {
+        long[] hashes = new long[runEntries];
+        long[] offsets = new long[runEntries];
+        int size = 0;
+        long count = 0L;
+        GameArchiveReader reader = new GameArchiveReader(archive);
+        try {
+            BitBoard board = new BitBoard(reader.getRows(), reader.getColumns());
+            ArchivedGame game;
+            while ((game = reader.next()) != null) {
+                long offset = reader.getOffset();
+                for (int i = 0; i < game.getMoveNumber(); i++) {
+                    board.play(game.getMove(i), i & 1);
+                    if (size == runEntries) {
+                        runs.add(writeRun(hashes, offsets, size));
+                        size = 0;
+                    }
+                    hashes[size] = board.getHash();
+                    offsets[size] = offset;
+                    size++;
+                    count++;
+                }
+                for (int i = game.getMoveNumber() - 1; i >= 0; i--) {
+                    board.undo(game.getMove(i));
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        if (size > 0) {
+            runs.add(writeRun(hashes, offsets, size));
+        }
+        return count;
+    }
+
+    /**
+     * Sorts the specified entries and writes them to a new run file.
+     * <p>
+     * @param hashes the hashes of the entries
+     * @param offsets the offsets of the entries
+     * @param size the number of entries
+     * @return the run file
+     * @throws IOException if the run could not be written
+     */
+    private File writeRun(long[] hashes, long[] offsets, int size) throws IOException {
+        sort(hashes, offsets, 0, size - 1);
+        File run = File.createTempFile("positions", ".run", tempDirectory);
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(run)));
+        try {
+            for (int i = 0; i < size; i++) {
+                out.writeLong(hashes[i]);
+                out.writeLong(offsets[i]);
+            }
+        } finally {
+            out.close();
+        }
+        return run;
+    }
+
+    /**
+     * Merges the specified sorted runs into the index file.
+     * <p>
+     * @param runs the run files
+     * @param index the index file
+     * @param count the number of entries
+     * @throws IOException if a run could not be read or the index could not be written
+     */
+    private static void mergeRuns(List<File> runs, File index, long count) throws IOException {
+        PriorityQueue<Run> queue = new PriorityQueue<Run>(Math.max(1, runs.size()));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(index), 1 << 16));
+        try {
+            for (File run : runs) {
+                Run r = new Run(run);
+                if (r.advance()) {
+                    queue.add(r);
+                } else {
+                    r.close();
+                }
+            }
+            out.writeInt(PositionIndex.MAGIC);
+            out.writeInt(PositionIndex.VERSION);
+            out.writeLong(count);
+            while (!queue.isEmpty()) {
+                Run r = queue.poll();
+                out.writeLong(r.hash);
+                out.writeLong(r.offset);
+                if (r.advance()) {
+                    queue.add(r);
+                } else {
+                    r.close();
+                }
+            }
+            out.flush();
+        } finally {
+            for (Run r : queue) {
+                r.close();
+            }
+            out.close();
+        }
+    }
+
+    /**
+     * Sorts the specified entries by hash then by offset, between the specified indices inclusive.
+     * <p>
+     * @param hashes the hashes of the entries
+     * @param offsets the offsets of the entries
+     * @param low the first index
+     * @param high the last index
+     */
+    static void sort(long[] hashes, long[] offsets, int low, int high) {
+        while (high - low >= INSERTION_SORT_THRESHOLD) {
+            int middle = (low + high) >>> 1;
+            long pivotHash = hashes[middle];
+            long pivotOffset = offsets[middle];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (compare(hashes[i], offsets[i], pivotHash, pivotOffset) < 0) {
+                    i++;
+                }
+                while (compare(hashes[j], offsets[j], pivotHash, pivotOffset) > 0) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(hashes, offsets, i++, j--);
+                }
+            }
+            if (j - low < high - i) {
+                sort(hashes, offsets, low, j);
+                low = i;
+            } else {
+                sort(hashes, offsets, i, high);
+                high = j;
+            }
+        }
+        for (int i = low + 1; i <= high; i++) {
+            for (int j = i; j > low && compare(hashes[j - 1], offsets[j - 1], hashes[j], offsets[j]) > 0; j--) {
+                swap(hashes, offsets, j - 1, j);
+            }
+        }
+    }
+
+    /**
+     * Compares two entries by hash then by offset.
+     * <p>
+     * @param hash1 the hash of the first entry
+     * @param offset1 the offset of the first entry
+     * @param hash2 the hash of the second entry
+     * @param offset2 the offset of the second entry
+     * @return a negative integer, zero, or a positive integer as the first entry is less than, equal to, or
+     * greater than the second
+     */
+    private static int compare(long hash1, long offset1, long hash2, long offset2) {
+        if (hash1 != hash2) {
+            return hash1 < hash2 ? -1 : 1;
+        }
+        return offset1 < offset2 ? -1 : (offset1 == offset2 ? 0 : 1);
+    }
+
+    /**
+     * Swaps two entries.
+     * <p>
+     * @param hashes the hashes of the entries
+     * @param offsets the offsets of the entries
+     * @param i the index of the first entry
+     * @param j the index of the second entry
+     */
+    private static void swap(long[] hashes, long[] offsets, int i, int j) {
+        long hash = hashes[i];
+        hashes[i] = hashes[j];
+        hashes[j] = hash;
+        long offset = offsets[i];
+        offsets[i] = offsets[j];
+        offsets[j] = offset;
+    }
+
+    /**
+     * Returns string representation of this {@code GameIndexer} object. The string representation consists of
+     * the temporary directory and the number of entries of a run. Each fields are separated by the characters
+     * "," (comma).
+     * <p>
+     * @return a string representation of this {@code GameIndexer} object
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(tempDirectory);
+        sb.append("," + runEntries);
+        return sb.toString();
+    }
+
+    /**
+     * Imports the specified move list files into an archive of the classic chess map and indexes it.
+     * <p>
+     * @param args the archive file, the index file and the move list files
+     * @throws IOException if a file could not be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: GameIndexer archive index [movelists...]");
+            return;
+        }
+        File archive = new File(args[0]);
+        GameArchiveWriter writer = GameArchiveWriter.append(archive, 6, 7);
+        try {
+            for (int i = 2; i < args.length; i++) {
+                FileReader in = new FileReader(args[i]);
+                try {
+                    System.out.println(args[i] + ": " + importMoveLists(in, writer) + " games");
+                } finally {
+                    in.close();
+                }
+            }
+        } finally {
+            writer.close();
+        }
+        long start = System.nanoTime();
+        long count = new GameIndexer().index(archive, new File(args[1]));
+        System.out.println(count + " positions indexed in " + (System.nanoTime() - start) / 1000000L + " ms");
+    }
+
+    /**
+     * @author shenli
+     * <p>
+     * The {@code Run} class reads the entries of a sorted run file one after another, in the order of the merge.
+     * <p>
+     * {@code Run} objects are not constant; their values could be changed after they are created. The
+     * {@code Run} object is not thread-safe.
+     */
+    private static class Run implements Comparable<Run> {
+        private final DataInputStream in;
+        private long hash;
+        private long offset;
+
+        /**
+         * Initializes a newly created {@code Run} object reading the specified run file.
+         * <p>
+         * @param file the run file
+         * @throws IOException if the file could not be opened
+         */
+        Run(File file) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16));
+        }
+
+        /**
+         * Reads the next entry.
+         * <p>
+         * @return true if an entry was read, false if the run is exhausted
+         * @throws IOException if the run could not be read
+         */
+        boolean advance() throws IOException {
+            try {
+                hash = in.readLong();
+            } catch (EOFException e) {
+                return false;
+            }
+            offset = in.readLong();
+            return true;
+        }
+
+        /**
+         * Closes the run file.
+         * <p>
+         * @throws IOException if the file could not be closed
+         */
+        void close() throws IOException {
+            in.close();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int compareTo(Run r) {
+            return compare(hash, offset, r.hash, r.offset);
+        }
+
+    }
+
+}
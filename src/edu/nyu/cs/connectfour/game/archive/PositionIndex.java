@@ -0,0 +1,242 @@
+package edu.nyu.cs.connectfour.game.archive;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import edu.nyu.cs.connectfour.game.ai.BitBoard;
+import edu.nyu.cs.connectfour.utils.ParameterChecker;
+
+/**
+ * @author shenli
+ * <p>
+ * The {@code PositionIndex} class looks up the games of a game archive which reached a position, in an index
+ * file built by the {@link GameIndexer}.
+ * <p>
+ * A position is known by the {@link edu.nyu.cs.connectfour.game.ai.Zobrist} hash of a {@link BitBoard} on
+ * which the first player to move placed the chess of player 0 and the other player those of player 1, so a
+ * position is the same whichever player index moved first. The index file starts with a header of 16 bytes,
+ * the magic number {@code "C4PI"}, the format version and the number of entries as a {@code long}, followed
+ * by the entries sorted by hash then by offset, each one the {@code long} hash of a position and the
+ * {@code long} offset in the archive of a game which reached it. The file is memory-mapped a segment at a time
+ * and searched by binary search, so an index of any size is searched without being loaded on the heap.
+ * <p>
+ * {@code PositionIndex} objects are constant; their values could not be changed after they are created. The
+ * {@code PositionIndex} object is thread-safe.
+ */
+public class PositionIndex implements Closeable {
+    static final int MAGIC = 0x43345049;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int ENTRY_BYTES = 16;
+
+    private static final int DEFAULT_SEGMENT_ENTRIES = 1 << 26;
+
+    private final FileChannel channel;
+    private final long count;
+    private final int segmentEntries;
+    private final MappedByteBuffer[] segments;
+
+    /**
+     * Initializes a newly created {@code PositionIndex} object reading the specified index file.
+     * <p>
+     * @param file the index file
+     * @throws IOException if the file could not be opened or is not a position index
+     * @throws NullPointerException if file is {@code null}
+     */
+    public PositionIndex(File file) throws IOException {
+        this(file, DEFAULT_SEGMENT_ENTRIES);
+    }
+
+    /**
+     * Initializes a newly created {@code PositionIndex} object reading the specified index file, mapping it
+     * the specified number of entries at a time.
+     * <p>
+     * @param file the index file
+     * @param segmentEntries the number of entries mapped at a time
+     * @throws IOException if the file could not be opened or is not a position index
+     */
+    PositionIndex(File file, int segmentEntries) throws IOException {
+        ParameterChecker.nullCheck(file, "position index file");
+        assert segmentEntries > 0;
+
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        this.segmentEntries = segmentEntries;
+        try {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                throw new IOException("not a position index: " + file);
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0L, HEADER_BYTES);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IOException("not a position index: " + file);
+            }
+            this.count = header.getLong(8);
+            if (count < 0 || HEADER_BYTES + count * ENTRY_BYTES != size) {
+                throw new IOException("position index size: " + count + "," + size);
+            }
+            this.segments = new MappedByteBuffer[(int) ((count + segmentEntries - 1) / segmentEntries)];
+            for (int i = 0; i < segments.length; i++) {
+                long first = (long) i * segmentEntries;
+                long entries = Math.min(segmentEntries, count - first);
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES + first * ENTRY_BYTES,
+                        entries * ENTRY_BYTES);
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the hash of the position reached by the specified moves, as the index knows it.
+     * <p>
+     * @param rows the chess map row
+     * @param columns the chess map column
+     * @param moves the columns played, in order
+     * @return the position hash
+     * @throws NullPointerException if moves is {@code null}
+     * @throws IllegalArgumentException if the chess map could not be represented by a {@link BitBoard}, or a
+     * move could not be played
+     */
+    public static long hash(int rows, int columns, byte[] moves) {
+        return position(rows, columns, moves).getHash();
+    }
+
+    /**
+     * Returns the position reached by the specified moves, the first player to move placing the chess of
+     * player 0.
+     * <p>
+     * @param rows the chess map row
+     * @param columns the chess map column
+     * @param moves the columns played, in order
+     * @return the position
+     * @throws NullPointerException if moves is {@code null}
+     * @throws IllegalArgumentException if the chess map could not be represented by a {@link BitBoard}, or a
+     * move could not be played
+     */
+    static BitBoard position(int rows, int columns, byte[] moves) {
+        ParameterChecker.nullCheck(moves, "moves");
+
+        BitBoard board = new BitBoard(rows, columns);
+        for (int i = 0; i < moves.length; i++) {
+            if (moves[i] < 0 || moves[i] >= columns || !board.canPlay(moves[i])) {
+                throw new IllegalArgumentException("move could not be played: " + moves[i]);
+            }
+            board.play(moves[i], i & 1);
+        }
+        return board;
+    }
+
+    /**
+     * Returns the archive offsets of the games which reached the position with the specified hash, in
+     * ascending order.
+     * <p>
+     * @param hash the position hash
+     * @return the offsets
+     */
+    public long[] lookup(long hash) {
+        long first = lowerBound(hash);
+        long[] offsets = new long[(int) (upperBound(hash) - first)];
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = offsetAt(first + i);
+        }
+        return offsets;
+    }
+
+    /**
+     * Returns the number of games which reached the position with the specified hash.
+     * <p>
+     * @param hash the position hash
+     * @return the number of games
+     */
+    public long count(long hash) {
+        return upperBound(hash) - lowerBound(hash);
+    }
+
+    /**
+     * Returns the index of the first entry whose hash is not less than the specified hash.
+     * <p>
+     * @param hash the hash
+     * @return the entry index, or the number of entries if there is no such entry
+     */
+    private long lowerBound(long hash) {
+        long low = 0L;
+        long high = count;
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            if (hashAt(middle) < hash) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the index of the first entry whose hash is greater than the specified hash.
+     * <p>
+     * @param hash the hash
+     * @return the entry index, or the number of entries if there is no such entry
+     */
+    private long upperBound(long hash) {
+        return hash == Long.MAX_VALUE ? count : lowerBound(hash + 1);
+    }
+
+    /**
+     * Returns the hash of the specified entry.
+     * <p>
+     * @param entry the entry index
+     * @return the hash
+     */
+    private long hashAt(long entry) {
+        return segments[(int) (entry / segmentEntries)].getLong((int) (entry % segmentEntries) * ENTRY_BYTES);
+    }
+
+    /**
+     * Returns the offset of the specified entry.
+     * <p>
+     * @param entry the entry index
+     * @return the offset
+     */
+    private long offsetAt(long entry) {
+        return segments[(int) (entry / segmentEntries)].getLong((int) (entry % segmentEntries) * ENTRY_BYTES + 8);
+    }
+
+    /**
+     * Returns the number of entries of the index.
+     * <p>
+     * @return the number of entries
+     */
+    public long getEntryCount() {
+        return count;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Returns string representation of this {@code PositionIndex} object. The string representation consists
+     * of the number of entries and of segments mapped. Each fields are separated by the characters ","
+     * (comma).
+     * <p>
+     * @return a string representation of this {@code PositionIndex} object
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(count);
+        sb.append("," + segments.length);
+        return sb.toString();
+    }
+
+}
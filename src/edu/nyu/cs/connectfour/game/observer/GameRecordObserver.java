@@ -22,4 +22,17 @@ public interface GameRecordObserver {
      */
     public void updateGameRecord(PlayerInfo playerInfo, int row, int column);
     
+    /**
+     * This method is called whenever a chess of the observed object is taken back. An application calls a
+     * {@link edu.nyu.cs.connectfour.game.subject.GameRecordSubject} object's 
+     * {@code notifyUndoGameRecordObservers} method to have all the object's observers notified of the chess 
+     * taken back.
+     * <p>
+     * @param playerInfo the {@link edu.nyu.cs.connectfour.player.subject.impl.PlayerInfo} object whose chess is 
+     * taken back, the player to move again
+     * @param row the row number of the chess taken back
+     * @param column the column number of the chess taken back
+     */
+    public void undoGameRecord(PlayerInfo playerInfo, int row, int column);
+    
 }
\ No newline at end of file
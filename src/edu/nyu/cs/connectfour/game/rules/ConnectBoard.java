@@ -0,0 +1,200 @@
+package edu.nyu.cs.connectfour.game.rules;
+
+import java.util.Arrays;
+
+/**
+ * @author shenli
+ * <p>
+ * The {@code ConnectBoard} class represents the chess map of a game of connect N under the given
+ * {@link ConnectRules}, as a set of chess of each player. A board is created by
+ * {@link ConnectRules#newBoard()}, which keeps the chess of each player in a single {@code long} when the
+ * chess map fits in one, and in several words otherwise. Heights are counted from the bottom of each column.
+ * <p>
+ * {@code ConnectBoard} objects are not constant; their values can be changed after they are created. The
+ * {@code ConnectBoard} object is not thread-safe. To use it concurrently, user must surround each method
+ * invocation with external synchronization of the users' choosing.
+ */
+public abstract class ConnectBoard {
+    private final ConnectRules rules;
+    private final int[] heights;
+    private int chessNumber;
+
+    /**
+     * Initializes a newly created {@code ConnectBoard} object with an empty chess map.
+     * <p>
+     * @param rules the rules
+     */
+    ConnectBoard(ConnectRules rules) {
+        this.rules = rules;
+        this.heights = new int[rules.getColumns()];
+    }
+
+    /**
+     * Returns the rules of the board.
+     * <p>
+     * @return the rules
+     */
+    public ConnectRules getRules() {
+        return rules;
+    }
+
+    /**
+     * Empties the chess map.
+     */
+    public void clear() {
+        Arrays.fill(heights, 0);
+        chessNumber = 0;
+        clearChess();
+    }
+
+    /**
+     * Returns the state of the column. True if a chess could be placed on the column, false if it's full.
+     * <p>
+     * @param column the column
+     * @return true if the column is playable, otherwise false
+     */
+    public boolean canPlay(int column) {
+        return heights[column] < rules.getRows();
+    }
+
+    /**
+     * Places a chess of the specified player on top of the specified column. The column must be playable.
+     * <p>
+     * @param column the column
+     * @param player the player index
+     */
+    public void play(int column, int player) {
+        assert canPlay(column);
+
+        setChess(column, heights[column], player);
+        heights[column]++;
+        chessNumber++;
+    }
+
+    /**
+     * Removes the top chess of the specified column. The column must not be empty.
+     * <p>
+     * @param column the column
+     */
+    public void undo(int column) {
+        assert heights[column] > 0;
+
+        heights[column]--;
+        chessNumber--;
+        clearChess(column, heights[column], getChess(heights[column], column));
+    }
+
+    /**
+     * Returns the state of game. True if the player would win by placing a chess on the specified column,
+     * false if it's not. The column must be playable.
+     * <p>
+     * @param column the column
+     * @param player the player index
+     * @return true if the move wins, otherwise false
+     */
+    public boolean isWinningMove(int column, int player) {
+        assert canPlay(column);
+
+        return completesRow(column, heights[column], player);
+    }
+
+    /**
+     * Returns the state of game. True if the player already has N chess in a row, false if it's not.
+     * <p>
+     * @param player the player index
+     * @return true if player is win, otherwise false
+     */
+    public abstract boolean isWin(int player);
+
+    /**
+     * Returns the index of the player whose chess is on the specified cell, or -1 if the cell is empty.
+     * <p>
+     * @param height the height, 0 being the bottom of the column
+     * @param column the column
+     * @return the player index
+     */
+    public abstract int getChess(int height, int column);
+
+    /**
+     * Returns the number of chess on the specified column.
+     * <p>
+     * @param column the column
+     * @return the height of the column
+     */
+    public int getHeight(int column) {
+        return heights[column];
+    }
+
+    /**
+     * Returns the number of chess on the chess map.
+     * <p>
+     * @return the chess number
+     */
+    public int getChessNumber() {
+        return chessNumber;
+    }
+
+    /**
+     * Returns the state of the chess map. True if no more chess could be placed, false if it's not.
+     * <p>
+     * @return true if the chess map is full, otherwise false
+     */
+    public boolean isFull() {
+        return chessNumber == rules.getRows() * rules.getColumns();
+    }
+
+    /**
+     * Puts a chess of the specified player on the specified empty cell.
+     * <p>
+     * @param column the column
+     * @param height the height
+     * @param player the player index
+     */
+    abstract void setChess(int column, int height, int player);
+
+    /**
+     * Takes the chess of the specified player off the specified cell.
+     * <p>
+     * @param column the column
+     * @param height the height
+     * @param player the player index
+     */
+    abstract void clearChess(int column, int height, int player);
+
+    /**
+     * Takes every chess off the chess map.
+     */
+    abstract void clearChess();
+
+    /**
+     * Returns the state of the chess map. True if a chess of the specified player on the specified empty cell
+     * would make N in a row, false if it's not.
+     * <p>
+     * @param column the column
+     * @param height the height
+     * @param player the player index
+     * @return true if the chess completes a row, otherwise false
+     */
+    abstract boolean completesRow(int column, int height, int player);
+
+    /**
+     * Returns string representation of this {@code ConnectBoard} object. The string representation consists
+     * of the rules, the chess number and the chess map, row by row from the top, -1 marking an empty cell.
+     * Each fields are separated by the characters "," (comma).
+     * <p>
+     * @return a string representation of this {@code ConnectBoard} object
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(rules);
+        sb.append("," + chessNumber);
+        for (int height = rules.getRows() - 1; height >= 0; height--) {
+            for (int column = 0; column < rules.getColumns(); column++) {
+                sb.append("," + getChess(height, column));
+            }
+        }
+        return sb.toString();
+    }
+
+}
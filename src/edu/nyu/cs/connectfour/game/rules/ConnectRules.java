@@ -0,0 +1,262 @@
+package edu.nyu.cs.connectfour.game.rules;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import edu.nyu.cs.connectfour.utils.ParameterChecker;
+
+/**
+ * @author shenli
+ * <p>
+ * The {@code ConnectRules} class represents the rules of a game of connect N: a chess map of the given rows
+ * and columns, on which chess fall to the lowest empty cell of their column, won by the first player with N
+ * chess in a row in the vertical, horizontal or diagonal directions. Connect four on 6x7 is one of them.
+ * <p>
+ * The rules hold the line tables of their size: every window, the line of N cells which could make N in a
+ * row, with the windows through each cell and the mask of each window in the words of a
+ * {@link ConnectBoard} too large for a single {@code long}. The tables only depend on the size, so the rules
+ * of each size are built once by {@link #of(int, int, int)} and shared by every board of that size. A cell
+ * is known by its index {@code column * rows + height}, height 0 being the bottom of the column.
+ * <p>
+ * {@code ConnectRules} objects are constant; their values could not be changed after they are created.
+ * Because {@code ConnectRules} objects are immutable they could be shared.
+ */
+public final class ConnectRules {
+    private static final int[][] DIRECTIONS = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+    private static final ConcurrentMap<String, ConnectRules> RULES = new ConcurrentHashMap<String, ConnectRules>();
+
+    private final int rows;
+    private final int columns;
+    private final int length;
+    private final int[][] windows;
+    private final int[][] cellWindows;
+    private final int[][] windowWords;
+    private final long[][] windowMasks;
+
+    /**
+     * Initializes a newly created {@code ConnectRules} object and builds its line tables.
+     * <p>
+     * @param rows the chess map row
+     * @param columns the chess map column
+     * @param length the number of chess in a row winning the game
+     */
+    private ConnectRules(int rows, int columns, int length) {
+        this.rows = rows;
+        this.columns = columns;
+        this.length = length;
+        List<int[]> windowList = new ArrayList<int[]>();
+        for (int[] direction : DIRECTIONS) {
+            for (int column = 0; column < columns; column++) {
+                for (int height = 0; height < rows; height++) {
+                    int lastColumn = column + (length - 1) * direction[0];
+                    int lastHeight = height + (length - 1) * direction[1];
+                    if (lastColumn >= columns || lastHeight < 0 || lastHeight >= rows) {
+                        continue;
+                    }
+                    int[] cells = new int[length];
+                    for (int k = 0; k < length; k++) {
+                        cells[k] = cell(column + k * direction[0], height + k * direction[1]);
+                    }
+                    windowList.add(cells);
+                }
+            }
+            if (length == 1) {
+                break;
+            }
+        }
+        this.windows = windowList.toArray(new int[windowList.size()][]);
+        int[] windowNumbers = new int[rows * columns];
+        for (int[] cells : windows) {
+            for (int cell : cells) {
+                windowNumbers[cell]++;
+            }
+        }
+        this.cellWindows = new int[rows * columns][];
+        for (int cell = 0; cell < cellWindows.length; cell++) {
+            cellWindows[cell] = new int[windowNumbers[cell]];
+        }
+        this.windowWords = new int[windows.length][];
+        this.windowMasks = new long[windows.length][];
+        for (int window = 0; window < windows.length; window++) {
+            int[] cells = windows[window];
+            for (int cell : cells) {
+                cellWindows[cell][--windowNumbers[cell]] = window;
+            }
+            int first = cells[0] >>> 6;
+            int last = cells[cells.length - 1] >>> 6;
+            int[] words = new int[last - first + 1];
+            long[] masks = new long[words.length];
+            for (int k = 0; k < words.length; k++) {
+                words[k] = first + k;
+            }
+            for (int cell : cells) {
+                masks[(cell >>> 6) - first] |= 1L << cell;
+            }
+            int used = 0;
+            for (int k = 0; k < words.length; k++) {
+                if (masks[k] != 0L) {
+                    words[used] = words[k];
+                    masks[used++] = masks[k];
+                }
+            }
+            windowWords[window] = Arrays.copyOf(words, used);
+            windowMasks[window] = Arrays.copyOf(masks, used);
+        }
+    }
+
+    /**
+     * Returns the rules of connect N on a chess map of the specified size, built the first time they are asked
+     * for and shared afterwards.
+     * <p>
+     * @param rows the chess map row
+     * @param columns the chess map column
+     * @param length the number of chess in a row winning the game
+     * @return the rules
+     * @throws IllegalArgumentException if rows or columns is negative, or length is not positive
+     */
+    public static ConnectRules of(int rows, int columns, int length) {
+        ParameterChecker.rangeCheck(rows, "chess map row");
+        ParameterChecker.rangeCheck(columns, "chess map column");
+        ParameterChecker.rangeCheck(length - 1, "connect length");
+
+        String key = rows + "x" + columns + "x" + length;
+        ConnectRules rules = RULES.get(key);
+        if (rules == null) {
+            rules = new ConnectRules(rows, columns, length);
+            ConnectRules existing = RULES.putIfAbsent(key, rules);
+            if (existing != null) {
+                rules = existing;
+            }
+        }
+        return rules;
+    }
+
+    /**
+     * Returns a new empty chess map for these rules, in a single {@code long} per player if it fits and in
+     * several words per player otherwise.
+     * <p>
+     * @return the chess map
+     */
+    public ConnectBoard newBoard() {
+        if (fitsInLong()) {
+            return new LongConnectBoard(this);
+        }
+        return new MultiWordConnectBoard(this);
+    }
+
+    /**
+     * Returns the state of the chess map size. True if the chess of a player, with a sentinel cell on top of
+     * each column, fit in a single {@code long}, false if it's not.
+     * <p>
+     * @return true if a chess map fits in a {@code long}, otherwise false
+     */
+    public boolean fitsInLong() {
+        return (rows + 1L) * columns <= Long.SIZE;
+    }
+
+    /**
+     * Returns the index of the specified cell.
+     * <p>
+     * @param column the column
+     * @param height the height, 0 being the bottom of the column
+     * @return the cell index
+     */
+    public int cell(int column, int height) {
+        return column * rows + height;
+    }
+
+    /**
+     * Returns the number of rows of the chess map.
+     * <p>
+     * @return the row
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns the number of columns of the chess map.
+     * <p>
+     * @return the column
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Returns the number of chess in a row winning the game.
+     * <p>
+     * @return the connect length
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Returns the number of windows of the chess map, the lines of cells which could make a row.
+     * <p>
+     * @return the number of windows
+     */
+    public int getWindowNumber() {
+        return windows.length;
+    }
+
+    /**
+     * Returns the cells of the specified window.
+     * <p>
+     * @param window the window index
+     * @return the cell indexes of the window
+     */
+    public int[] getWindow(int window) {
+        return windows[window].clone();
+    }
+
+    /**
+     * Returns the windows through the specified cell, shared with the boards.
+     * <p>
+     * @param cell the cell index
+     * @return the window indexes
+     */
+    int[] cellWindows(int cell) {
+        return cellWindows[cell];
+    }
+
+    /**
+     * Returns the words holding the cells of the specified window, shared with the boards.
+     * <p>
+     * @param window the window index
+     * @return the word indexes
+     */
+    int[] windowWords(int window) {
+        return windowWords[window];
+    }
+
+    /**
+     * Returns the masks of the cells of the specified window in each of its words, shared with the boards.
+     * <p>
+     * @param window the window index
+     * @return the word masks
+     */
+    long[] windowMasks(int window) {
+        return windowMasks[window];
+    }
+
+    /**
+     * Returns string representation of this {@code ConnectRules} object. The string representation consists
+     * of row, column number and the connect length. Each fields are separated by the characters "," (comma).
+     * <p>
+     * @return a string representation of this {@code ConnectRules} object
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(rows);
+        sb.append("," + columns);
+        sb.append("," + length);
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,135 @@
+package edu.nyu.cs.connectfour.game.rules;
+
+/**
+ * @author shenli
+ * <p>
+ * The {@code LongConnectBoard} class represents a {@link ConnectBoard} whose chess of each player fit in a
+ * single {@code long}, like {@link edu.nyu.cs.connectfour.game.ai.BitBoard}: bit {@code column * (rows + 1)
+ * + height} holds the cell, the extra bit on top of each column being always empty. A row of N is found by
+ * shifting the chess of a player onto themselves in each direction, doubling the length of the rows found
+ * at each shift, so checking a row takes a number of shifts logarithmic in N.
+ * <p>
+ * {@code LongConnectBoard} objects are not constant; their values can be changed after they are created. The
+ * {@code LongConnectBoard} object is not thread-safe. To use it concurrently, user must surround each method
+ * invocation with external synchronization of the users' choosing.
+ */
+final class LongConnectBoard extends ConnectBoard {
+    private static final int PLAYER_NUMBER = 2;
+
+    private final int height;
+    private final int length;
+    private final long[] discs;
+
+    /**
+     * Initializes a newly created {@code LongConnectBoard} object with an empty chess map.
+     * <p>
+     * @param rules the rules, whose chess map fits in a {@code long}
+     */
+    LongConnectBoard(ConnectRules rules) {
+        super(rules);
+        assert rules.fitsInLong();
+
+        this.height = rules.getRows() + 1;
+        this.length = rules.getLength();
+        this.discs = new long[PLAYER_NUMBER];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isWin(int player) {
+        return hasRow(discs[player]);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getChess(int height, int column) {
+        long bit = 1L << (column * this.height + height);
+        if ((discs[0] & bit) != 0L) {
+            return 0;
+        }
+        return (discs[1] & bit) != 0L ? 1 : -1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    void setChess(int column, int height, int player) {
+        discs[player] |= 1L << (column * this.height + height);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    void clearChess(int column, int height, int player) {
+        discs[player] &= ~(1L << (column * this.height + height));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    void clearChess() {
+        discs[0] = 0L;
+        discs[1] = 0L;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    boolean completesRow(int column, int height, int player) {
+        return hasRow(discs[player] | 1L << (column * this.height + height));
+    }
+
+    /**
+     * Returns the state of the chess mask. True if the mask contains N chess in a row in any of the vertical,
+     * horizontal or diagonal directions, false if it's not.
+     * <p>
+     * @param mask the chess mask
+     * @return true if the mask contains a row, otherwise false
+     */
+    private boolean hasRow(long mask) {
+        return hasRow(mask, 1)
+                || hasRow(mask, height)
+                || hasRow(mask, height - 1)
+                || hasRow(mask, height + 1);
+    }
+
+    /**
+     * Returns the state of the chess mask in one direction. Each shift keeps the cells starting a row twice as
+     * long as before, until the last shift completes a row of N from two overlapping shorter ones. The
+     * sentinel bit on top of each column guarantees that shifted lines never wrap from one column into the
+     * next.
+     * <p>
+     * @param mask the chess mask
+     * @param shift the bit distance between two adjacent cells in the direction
+     * @return true if the mask contains a row in the direction, otherwise false
+     */
+    private boolean hasRow(long mask, int shift) {
+        int run = 1;
+        while (run * 2 <= length && mask != 0L) {
+            mask &= shiftRight(mask, run * shift);
+            run *= 2;
+        }
+        return (mask & shiftRight(mask, (length - run) * shift)) != 0L;
+    }
+
+    /**
+     * Returns the chess mask shifted right by the specified number of bits, which is empty from 64 bits on
+     * rather than shifted by the distance modulo 64.
+     * <p>
+     * @param mask the chess mask
+     * @param bits the number of bits
+     * @return the shifted mask
+     */
+    private static long shiftRight(long mask, int bits) {
+        return bits < Long.SIZE ? mask >>> bits : 0L;
+    }
+
+}
@@ -0,0 +1,130 @@
+package edu.nyu.cs.connectfour.game.rules;
+
+import java.util.Arrays;
+
+/**
+ * @author shenli
+ * <p>
+ * The {@code MultiWordConnectBoard} class represents a {@link ConnectBoard} whose chess of each player take
+ * several {@code long} words, cell {@code column * rows + height} being bit {@code cell % 64} of word
+ * {@code cell / 64}. A row of N is found with the line tables of the {@link ConnectRules}: a chess completes
+ * a row if every word mask of one of the windows through its cell is covered by the chess of its player, so
+ * a move is checked in a time depending on N and not on the size of the chess map.
+ * <p>
+ * {@code MultiWordConnectBoard} objects are not constant; their values can be changed after they are
+ * created. The {@code MultiWordConnectBoard} object is not thread-safe. To use it concurrently, user must
+ * surround each method invocation with external synchronization of the users' choosing.
+ */
+final class MultiWordConnectBoard extends ConnectBoard {
+    private static final int PLAYER_NUMBER = 2;
+
+    private final long[][] discs;
+
+    /**
+     * Initializes a newly created {@code MultiWordConnectBoard} object with an empty chess map.
+     * <p>
+     * @param rules the rules
+     */
+    MultiWordConnectBoard(ConnectRules rules) {
+        super(rules);
+
+        this.discs = new long[PLAYER_NUMBER][(rules.getRows() * rules.getColumns() + Long.SIZE - 1) / Long.SIZE];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isWin(int player) {
+        for (int window = 0; window < getRules().getWindowNumber(); window++) {
+            if (covers(discs[player], window)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getChess(int height, int column) {
+        int cell = getRules().cell(column, height);
+        for (int player = 0; player < PLAYER_NUMBER; player++) {
+            if ((discs[player][cell >>> 6] & 1L << cell) != 0L) {
+                return player;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    void setChess(int column, int height, int player) {
+        int cell = getRules().cell(column, height);
+        discs[player][cell >>> 6] |= 1L << cell;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    void clearChess(int column, int height, int player) {
+        int cell = getRules().cell(column, height);
+        discs[player][cell >>> 6] &= ~(1L << cell);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    void clearChess() {
+        for (long[] words : discs) {
+            Arrays.fill(words, 0L);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    boolean completesRow(int column, int height, int player) {
+        int cell = getRules().cell(column, height);
+        long[] words = discs[player];
+        long bit = 1L << cell;
+        long saved = words[cell >>> 6];
+        words[cell >>> 6] = saved | bit;
+        try {
+            for (int window : getRules().cellWindows(cell)) {
+                if (covers(words, window)) {
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            words[cell >>> 6] = saved;
+        }
+    }
+
+    /**
+     * Returns the state of the window. True if every cell of the window holds one of the specified chess,
+     * false if it's not.
+     * <p>
+     * @param words the chess of a player
+     * @param window the window index
+     * @return true if the window is covered, otherwise false
+     */
+    private boolean covers(long[] words, int window) {
+        int[] windowWords = getRules().windowWords(window);
+        long[] windowMasks = getRules().windowMasks(window);
+        for (int k = 0; k < windowWords.length; k++) {
+            if ((words[windowWords[k]] & windowMasks[k]) != windowMasks[k]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
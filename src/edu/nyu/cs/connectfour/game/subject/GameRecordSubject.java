@@ -50,4 +50,11 @@ public interface GameRecordSubject {
      */
     public void notifyGameRecordObservers(int column);
     
+    /**
+     * If a chess of this object has been taken back, then notify all of its observers. 
+     * <p>
+     * @param column the column number
+     */
+    public void notifyUndoGameRecordObservers(int column);
+    
 }
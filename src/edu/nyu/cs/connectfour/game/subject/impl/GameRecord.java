@@ -2,9 +2,20 @@ package edu.nyu.cs.connectfour.game.subject.impl;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.swing.SwingUtilities;
 
 import edu.nyu.cs.connectfour.game.ai.ComputerThinking;
+import edu.nyu.cs.connectfour.game.ai.MoveListener;
+import edu.nyu.cs.connectfour.game.ai.MoveScheduler;
+import edu.nyu.cs.connectfour.game.ai.Ponderer;
 import edu.nyu.cs.connectfour.game.observer.GameRecordObserver;
 import edu.nyu.cs.connectfour.game.observer.GameResultObserver;
 import edu.nyu.cs.connectfour.game.observer.GameStatusObserver;
@@ -21,6 +32,19 @@ import edu.nyu.cs.connectfour.utils.ParameterChecker;
  * <p>
  * The {@code GameRecord} class represents chess map state information
  * <p>
+ * The computer move is searched on the calling thread, unless a search executor is set. Then it is searched 
+ * in the background on a copy of the chess map, and the location found is placed on the Swing event dispatch 
+ * thread, so the observers are always told about it there. A background search is cancelled as soon as the 
+ * game stops playing, by a pause or a resign. A move scheduler shared by many games could be set instead of the 
+ * search executor, and the move is then searched by one of its workers, the same way.
+ * <p>
+ * Every column played is appended to a move log, a byte each, so that the last moves could be taken back 
+ * and played again, each in constant time. Placing a chess after taking moves back forgets the moves which 
+ * could have been played again.
+ * <p>
+ * With pondering on as well, the computer keeps searching in the background once it has moved, finding its 
+ * location for the replies of the human player, so that the replies searched so far are answered at once.
+ * <p>
  * {@code GameRecord} objects are not constant; their values could be changed after they are created. The 
  * {@code GameRecord} object is not thread-safe. To use it concurrently, user must surround each method 
  * invocation with external synchronization of the users' choosing.
@@ -37,9 +61,21 @@ public class GameRecord implements GameRecordSubject, GameResultSubject, GameSta
     private PlayerInfo turn = GameUtility.INSTANCE.getOffensive();
     
     private final ComputerThinking computerThink;
+    private ComputerThinking searcher;
+    private int[] searchPlace;
+    private int[][] searchState;
+    private Executor searchExecutor;
+    private MoveScheduler moveScheduler;
+    private volatile Future<Integer> search;
+    private final AtomicInteger searchGeneration = new AtomicInteger();
+    private volatile int searchToken;
+    private Ponderer ponderer;
+    private volatile Future<?> ponderTask;
     private final int rows;
     private final int columns;
     private int chessNumber = 0;
+    private final byte[] moves;
+    private int moveLimit = 0;
     private int[] nextPlace;
     private int[][] state;
     
@@ -48,10 +84,15 @@ public class GameRecord implements GameRecordSubject, GameResultSubject, GameSta
      * <p>
      * @param rows the chess map row
      * @param columns the chess map column
+     * @throws IllegalArgumentException if rows or columns is negative, or columns is greater than 
+     * {@link Byte#MAX_VALUE}, so that the columns could not be logged a byte each
      */
     public GameRecord(int rows, int columns) {
         ParameterChecker.rangeCheck(rows, "chess map row");
         ParameterChecker.rangeCheck(columns, "chess map column");
+        if (columns > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("chess map column: " + columns);
+        }
         
         this.rows = rows;
         this.columns = columns;
@@ -63,6 +104,7 @@ public class GameRecord implements GameRecordSubject, GameResultSubject, GameSta
             }
             this.nextPlace[j] = this.rows - 1;
         }
+        this.moves = new byte[this.rows * this.columns];
         this.computerThink = new ComputerThinking(this.rows, this.columns, nextPlace, state);
         this.gameStatus.registerGameStatusObserver(this);
     }
@@ -75,6 +117,21 @@ public class GameRecord implements GameRecordSubject, GameResultSubject, GameSta
     public void place(int column) {
         ParameterChecker.rangeCheck(column, "place column");
         
+        moves[chessNumber] = (byte) column;
+        moveLimit = chessNumber + 1;
+        if (makeMove(column)) {
+            nextPlay();
+        }
+    }
+    
+    /**
+     * Places a chess of the player to move on the specific column and either ends the game or passes the turn 
+     * to the other player, without logging the column.
+     * <p>
+     * @param column the column
+     * @return true if the game goes on, otherwise false
+     */
+    private boolean makeMove(int column) {
         int i = turn.ordinal() % PLAYER_NUMBER;
         state[nextPlace[column]][column] = i;
         chessNumber++;
@@ -84,36 +141,412 @@ public class GameRecord implements GameRecordSubject, GameResultSubject, GameSta
         if (computerThink.isWin(nextPlace[column] + 1, column, i)) {
             GameUtility.INSTANCE.setGameStatus(false, true);
             notifyGameResultObservers(turn.getName() + " wins!");
-            return;
+            return false;
         } else if (computerThink.isDraw(chessNumber)) {
             GameUtility.INSTANCE.setGameStatus(false, true);
             notifyGameResultObservers("Game Draw!");
-            return;
+            return false;
         }
         
         int j = (i + 1) % PLAYER_NUMBER;
         PlayerInfo pi = PlayerInfo.values()[j];
         GameUtility.INSTANCE.setPlayerTurn(pi);
-        nextPlay();
+        return true;
     }
     
     /**
-     * Update chess map state information after the next player place a chess on the map.
+     * Takes back the last chess placed, cancelling the search of the computer move if any. The player whose 
+     * chess is taken back is to move again, and a game which was over is played again. The computer does not 
+     * move by itself afterwards.
      * <p>
+     * @return the column of the chess taken back
+     * @throws IllegalStateException if no chess has been placed
+     */
+    public int undo() {
+        if (!canUndo()) {
+            throw new IllegalStateException("no move to undo");
+        }
+        
+        cancelSearch();
+        chessNumber--;
+        int column = moves[chessNumber];
+        nextPlace[column]++;
+        int i = state[nextPlace[column]][column];
+        state[nextPlace[column]][column] = -1;
+        if (GameUtility.INSTANCE.isGameOver()) {
+            GameUtility.INSTANCE.setGameStatus(true, false);
+            notifyGameResultObservers("");
+        }
+        GameUtility.INSTANCE.setPlayerTurn(PlayerInfo.values()[i]);
+        notifyUndoGameRecordObservers(column);
+        return column;
+    }
+    
+    /**
+     * Places again the last chess taken back, for the player who placed it. The computer does not move by 
+     * itself afterwards.
+     * <p>
+     * @return the column of the chess placed again
+     * @throws IllegalStateException if no chess has been taken back since the last chess placed
+     */
+    public int redo() {
+        if (!canRedo()) {
+            throw new IllegalStateException("no move to redo");
+        }
+        
+        cancelSearch();
+        int column = moves[chessNumber];
+        makeMove(column);
+        return column;
+    }
+    
+    /**
+     * Returns the state of the move log. True if a chess could be taken back, false if it couldn't.
+     * <p>
+     * @return true if a chess could be taken back, otherwise false
+     */
+    public boolean canUndo() {
+        return chessNumber > 0;
+    }
+    
+    /**
+     * Returns the state of the move log. True if a chess taken back could be placed again, false if it 
+     * couldn't.
+     * <p>
+     * @return true if a chess could be placed again, otherwise false
+     */
+    public boolean canRedo() {
+        return chessNumber < moveLimit;
+    }
+    
+    /**
+     * Returns the columns played so far, in the order they were played.
+     * <p>
+     * @return a copy of the move log
+     */
+    public byte[] getMoves() {
+        return Arrays.copyOf(moves, chessNumber);
+    }
+    
+    /**
+     * Update chess map state information after the next player place a chess on the map. When the computer 
+     * is to move, its location is searched and placed, at once without a search executor, or later on the 
+     * Swing event dispatch thread with one.
+     * <p>
+     * @return the search of the computer location, which could be cancelled, or {@code null} if the computer
+     * is not to move
      * @throws IllegalArgumentException - if no specific play mode
+     * @throws java.util.concurrent.RejectedExecutionException if the move scheduler is saturated
      */
-    public void nextPlay() {
+    public Future<Integer> nextPlay() {
         switch (mode) {
             case HUMAN_VS_COMPUTER:
                 if (turn == PlayerInfo.PLAYER_TWO) {
-                    place(computerThink.bestValue(level.getDegree(), turn.ordinal()));
+                    return startSearch();
                 }
-                return;
+                return null;
             case HUMAN_VS_HUMAN:
-                return;
+                return null;
         }
         throw new IllegalArgumentException("No such play mode!");
     }
+    
+    /**
+     * Returns the search executor, or {@code null} if the computer move is searched on the calling thread.
+     * <p>
+     * @return the search executor
+     */
+    public Executor getSearchExecutor() {
+        return searchExecutor;
+    }
+    
+    /**
+     * Sets the executor the computer move is searched on, or {@code null} to search it on the calling thread.
+     * <p>
+     * @param searchExecutor the search executor
+     */
+    public void setSearchExecutor(Executor searchExecutor) {
+        this.searchExecutor = searchExecutor;
+    }
+    
+    /**
+     * Returns the move scheduler, or {@code null} if the computer move is not searched by a scheduler.
+     * <p>
+     * @return the move scheduler
+     */
+    public MoveScheduler getMoveScheduler() {
+        return moveScheduler;
+    }
+    
+    /**
+     * Sets the scheduler the computer move is searched by, or {@code null} to search it on the search 
+     * executor or the calling thread. The scheduler is used in preference to the search executor.
+     * <p>
+     * @param moveScheduler the move scheduler
+     */
+    public void setMoveScheduler(MoveScheduler moveScheduler) {
+        this.moveScheduler = moveScheduler;
+    }
+    
+    /**
+     * Returns the state of pondering. True if the computer searches its replies on the human player's time, 
+     * false if it's not.
+     * <p>
+     * @return true if the computer ponders, otherwise false
+     */
+    public boolean isPondering() {
+        return ponderer != null;
+    }
+    
+    /**
+     * Sets the state of pondering. The computer only ponders when its moves are searched on a search 
+     * executor, on which the pondering runs too.
+     * <p>
+     * @param pondering true if the computer searches its replies on the human player's time
+     * @throws IllegalArgumentException if the chess map is too large to ponder
+     */
+    public void setPondering(boolean pondering) {
+        if (!pondering) {
+            stopPondering();
+            ponderer = null;
+        } else if (ponderer == null) {
+            ponderer = new Ponderer(rows, columns);
+        }
+    }
+    
+    /**
+     * Returns the state of the computer move. True if it is being searched in the background, false if it's 
+     * not.
+     * <p>
+     * @return true if the computer is thinking, otherwise false
+     */
+    public boolean isThinking() {
+        return search != null;
+    }
+    
+    /**
+     * Cancels the background search of the computer move and the pondering, if any. The search stops as soon 
+     * as possible and its location is never placed. A search on the search executor takes a token when it is 
+     * submitted, so cancelling it before its engine starts stops it too.
+     */
+    public void cancelSearch() {
+        stopPondering();
+        Future<Integer> task = search;
+        if (task != null) {
+            search = null;
+            task.cancel(false);
+            if (task instanceof SearchTask) {
+                searchGeneration.incrementAndGet();
+            }
+        }
+    }
+    
+    /**
+     * Releases this object once its game is given up: cancels the background search and the pondering, stops 
+     * pondering and stops observing the game status, so that the object and its engines could be collected.
+     */
+    public void dispose() {
+        cancelSearch();
+        setPondering(false);
+        gameStatus.removeGameStatusObserver(this);
+    }
+    
+    /**
+     * Starts the search of the computer location, placing it at once without a search executor or when it 
+     * has been pondered.
+     * <p>
+     * @return the search
+     */
+    private Future<Integer> startSearch() {
+        final int player = turn.ordinal();
+        final ComputerLevel level = this.level;
+        cancelSearch();
+        if (ponderer != null) {
+            final int reply = ponderer.lookup(nextPlace, state, player, level);
+            if (reply >= 0) {
+                return placeNow(new Callable<Integer>() {
+                    
+                    @Override
+                    public Integer call() {
+                        return reply;
+                    }
+                });
+            }
+        }
+        if (moveScheduler != null) {
+            MoveListener listener = new MoveListener() {
+                
+                @Override
+                public void moveDone(Future<Integer> move) {
+                    publishLater(move);
+                }
+            };
+            Future<Integer> move = moveScheduler.submit(nextPlace, state, player, level, 0L, listener);
+            search = move;
+            if (move.isDone()) {
+                // the listener may have been told before the search was recorded
+                publishLater(move);
+            }
+            return move;
+        }
+        if (searchExecutor == null) {
+            return placeNow(new Callable<Integer>() {
+                
+                @Override
+                public Integer call() {
+                    return computerThink.bestValue(level, player);
+                }
+            });
+        }
+        if (searcher == null) {
+            searchPlace = new int[columns];
+            searchState = new int[rows][columns];
+            searcher = new ComputerThinking(rows, columns, searchPlace, searchState) {
+                @Override
+                protected boolean isCancelled() {
+                    return super.isCancelled() || searchToken != searchGeneration.get();
+                }
+            };
+        }
+        final int[] placeCopy = nextPlace.clone();
+        final int[][] stateCopy = copyState();
+        final int token = searchGeneration.get();
+        SearchTask task = new SearchTask(new Callable<Integer>() {
+            
+            @Override
+            public Integer call() {
+                synchronized (searcher) {
+                    searchToken = token;
+                    if (token != searchGeneration.get()) {
+                        return -1;
+                    }
+                    System.arraycopy(placeCopy, 0, searchPlace, 0, columns);
+                    for (int i = 0; i < rows; i++) {
+                        System.arraycopy(stateCopy[i], 0, searchState[i], 0, columns);
+                    }
+                    return searcher.bestValue(level, player);
+                }
+            }
+        });
+        search = task;
+        searchExecutor.execute(task);
+        return task;
+    }
+    
+    /**
+     * Runs the specified search of the computer location on the calling thread, places the location and 
+     * starts pondering.
+     * <p>
+     * @param callable the search
+     * @return the finished search
+     */
+    private Future<Integer> placeNow(Callable<Integer> callable) {
+        FutureTask<Integer> task = new FutureTask<Integer>(callable);
+        task.run();
+        place(getColumn(task));
+        startPondering();
+        return task;
+    }
+    
+    /**
+     * Starts pondering on the search executor, if the computer ponders and the human player is to move. The 
+     * pondering token is taken now, so that stopping the pondering before the task runs stops it too.
+     */
+    private void startPondering() {
+        if (ponderer == null || searchExecutor == null 
+                || mode != GameMode.HUMAN_VS_COMPUTER || turn != PlayerInfo.PLAYER_ONE) {
+            return;
+        }
+        final Ponderer ponderer = this.ponderer;
+        final int[] placeCopy = nextPlace.clone();
+        final int[][] stateCopy = copyState();
+        final int player = PlayerInfo.PLAYER_TWO.ordinal();
+        final ComputerLevel level = this.level;
+        final int token = ponderer.getToken();
+        FutureTask<Void> task = new FutureTask<Void>(new Runnable() {
+            
+            @Override
+            public void run() {
+                ponderer.ponder(token, placeCopy, stateCopy, player, level);
+            }
+        }, null);
+        ponderTask = task;
+        searchExecutor.execute(task);
+    }
+    
+    /**
+     * Stops pondering, if the computer is pondering, keeping the replies searched so far.
+     */
+    private void stopPondering() {
+        Future<?> task = ponderTask;
+        if (task != null) {
+            ponderTask = null;
+            task.cancel(false);
+            ponderer.cancel();
+        }
+    }
+    
+    /**
+     * Returns a copy of the chess map state.
+     * <p>
+     * @return the copy
+     */
+    private int[][] copyState() {
+        int[][] stateCopy = new int[rows][];
+        for (int i = 0; i < rows; i++) {
+            stateCopy[i] = state[i].clone();
+        }
+        return stateCopy;
+    }
+    
+    /**
+     * Places the location found by the specified background search, unless it has been cancelled or another 
+     * search has been started since. This is called on the Swing event dispatch thread.
+     * <p>
+     * @param task the finished search
+     */
+    private void publish(Future<Integer> task) {
+        if (task != search || task.isCancelled()) {
+            return;
+        }
+        search = null;
+        place(getColumn(task));
+        startPondering();
+    }
+    
+    /**
+     * Places the location found by the specified background search on the Swing event dispatch thread, as 
+     * {@link #publish(Future)} does.
+     * <p>
+     * @param task the finished search
+     */
+    private void publishLater(final Future<Integer> task) {
+        SwingUtilities.invokeLater(new Runnable() {
+            
+            @Override
+            public void run() {
+                publish(task);
+            }
+        });
+    }
+    
+    /**
+     * Returns the location found by the specified finished search.
+     * <p>
+     * @param task the finished search
+     * @return the location
+     * @throws IllegalStateException if the search failed
+     */
+    private static int getColumn(Future<Integer> task) {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("computer search interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("computer search failed", e.getCause());
+        }
+    }
 
     /**
      * {@inheritDoc}
@@ -148,6 +581,18 @@ public class GameRecord implements GameRecordSubject, GameResultSubject, GameSta
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void notifyUndoGameRecordObservers(int column) {
+        ParameterChecker.rangeCheck(column, "place column");
+        
+        for (GameRecordObserver pro : playRecordObservers) {
+            pro.undoGameRecord(turn, nextPlace[column], column);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -208,7 +653,9 @@ public class GameRecord implements GameRecordSubject, GameResultSubject, GameSta
      */
     @Override
     public void updateGameStatus(boolean playing, boolean gameOver) {
-        
+        if (!playing) {
+            cancelSearch();
+        }
     }
     
     /**
@@ -293,4 +740,30 @@ public class GameRecord implements GameRecordSubject, GameResultSubject, GameSta
         return sb.toString();
     }
 
+    /**
+     * The {@code SearchTask} class is a background search of the computer location, which hands the location
+     * over to the Swing event dispatch thread when it finishes.
+     */
+    private class SearchTask extends FutureTask<Integer> {
+        
+        /**
+         * Creates a search running the specified callable.
+         * <p>
+         * @param callable the search
+         */
+        SearchTask(Callable<Integer> callable) {
+            super(callable);
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected void done() {
+            if (!isCancelled()) {
+                publishLater(this);
+            }
+        }
+    }
+
 }
@@ -194,6 +194,15 @@ public enum GameUtility implements GameStatusSubject {
         }
     }
 
+    /**
+     * Returns the number of game status observers registered.
+     * <p>
+     * @return the number of game status observers
+     */
+    public int getGameStatusObserverCount() {
+        return gameStatusObservers.size();
+    }
+
     /**
      * {@inheritDoc}
      */
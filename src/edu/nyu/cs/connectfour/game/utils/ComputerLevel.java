@@ -3,7 +3,8 @@ package edu.nyu.cs.connectfour.game.utils;
 /**
  * @author shenli
  * <p>
- * The {@code ComputerLevel} enum represents computer level.
+ * The {@code ComputerLevel} enum represents computer level. A level either searches to a fixed degree, or, 
+ * when it has a move budget, keeps searching deeper until the budget in milliseconds runs out.
  * <p>
  * {@code ComputerLevel} are constant; their values could not be changed after they are created. Because
  * {@code ComputerLevel} objects are immutable they could be shared.
@@ -28,9 +29,10 @@ public enum ComputerLevel {
     /**
      * Abnormal level
      */
-    ABNORMAL(4);
+    ABNORMAL(4, 1000L);
     
     private final int degree;
+    private final long moveBudget;
     
     /**
      * Initializes a newly created {@code ComputerLevel} object so that it records level degree.
@@ -38,9 +40,22 @@ public enum ComputerLevel {
      * @param degree the computer level degree
      */
     private ComputerLevel(int degree) {
+        this(degree, 0L);
+    }
+    
+    /**
+     * Initializes a newly created {@code ComputerLevel} object so that it records level degree and move 
+     * budget.
+     * <p>
+     * @param degree the computer level degree
+     * @param moveBudget the move budget in milliseconds, 0 if the level searches to a fixed degree
+     */
+    private ComputerLevel(int degree, long moveBudget) {
         assert degree >= 0;
+        assert moveBudget >= 0;
         
         this.degree = degree;
+        this.moveBudget = moveBudget;
     }
 
     /**
@@ -52,4 +67,14 @@ public enum ComputerLevel {
         return degree;
     }
     
+    /**
+     * Returns the time the computer may think about a move, in milliseconds. 0 if the level searches to a 
+     * fixed degree instead.
+     * <p>
+     * @return the move budget in milliseconds
+     */
+    public long getMoveBudget() {
+        return moveBudget;
+    }
+    
 }
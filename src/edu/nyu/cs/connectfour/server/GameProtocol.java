@@ -0,0 +1,190 @@
+package edu.nyu.cs.connectfour.server;
+
+import java.util.Locale;
+
+import edu.nyu.cs.connectfour.game.Game;
+import edu.nyu.cs.connectfour.game.GameSessionManager;
+import edu.nyu.cs.connectfour.game.ai.Analysis;
+import edu.nyu.cs.connectfour.game.utils.ComputerLevel;
+import edu.nyu.cs.connectfour.utils.ParameterChecker;
+
+/**
+ * @author shenli
+ * <p>
+ * The {@code GameProtocol} class answers the requests of the line protocol the {@link GameServer} speaks,
+ * playing the sessions of a {@link GameSessionManager}. A request is one line of words separated by spaces,
+ * the command first, and is answered by one line, {@code OK} followed by the result or {@code ERR} followed
+ * by the reason the request failed:
+ * <ul>
+ * <li>{@code NEW offensive} creates a game between two human players. The answer is the session id.</li>
+ * <li>{@code NEW offensive computer level} creates a game against the computer at the named level. The
+ * answer is the session id and the column the computer opened on, or -1 if it does not move first.</li>
+ * <li>{@code PLAY id column} places a chess of the player to move. The answer is the column the computer
+ * answered on, or -1 if it did not move.</li>
+ * <li>{@code SHOW id} shows a game. The answer is the row and column number, the chess number, the player
+ * turn, the winner, 1 if the game is over or 0 if it's not, and the chess map from the top row, a character
+ * each cell: {@code .} if it is empty, otherwise the index of the player.</li>
+ * <li>{@code ANALYZE id level} scores the columns for the player to move as the computer would search them
+ * at the named level, without playing. The answer is the best column, the degree searched to or 0 if the
+ * scores are exact, and the score of each column, {@code -} for a column which could not be played.</li>
+ * <li>{@code END id} ends a session.</li>
+ * <li>{@code STATS} answers the number of live sessions, and of sessions created and evicted.</li>
+ * <li>{@code QUIT} is answered by {@code BYE}, after which the server closes the connection.</li>
+ * </ul>
+ * Commands and level names are case insensitive.
+ * <p>
+ * {@code GameProtocol} objects are constant; their values could not be changed after they are created. The
+ * {@code GameProtocol} object is thread-safe as its manager is.
+ */
+public class GameProtocol {
+    /**
+     * The answer to {@code QUIT}
+     */
+    public static final String BYE = "BYE";
+
+    private final GameSessionManager manager;
+
+    /**
+     * Initializes a newly created {@code GameProtocol} object playing the sessions of the specified manager.
+     * <p>
+     * @param manager the session manager
+     * @throws NullPointerException if manager is {@code null}
+     */
+    public GameProtocol(GameSessionManager manager) {
+        ParameterChecker.nullCheck(manager, "game session manager");
+
+        this.manager = manager;
+    }
+
+    /**
+     * Answers the specified request.
+     * <p>
+     * @param line the request, without its line terminator
+     * @return the answer, without its line terminator
+     */
+    public String handle(String line) {
+        String[] words = line.trim().split(" +");
+        try {
+            switch (words[0].toUpperCase(Locale.ROOT)) {
+                case "NEW":
+                    return create(words);
+                case "PLAY":
+                    checkLength(words, 3);
+                    return "OK " + manager.play(Long.parseLong(words[1]), Integer.parseInt(words[2]));
+                case "SHOW":
+                    checkLength(words, 2);
+                    return show(Long.parseLong(words[1]));
+                case "ANALYZE":
+                    checkLength(words, 3);
+                    return analyze(Long.parseLong(words[1]),
+                            ComputerLevel.valueOf(words[2].toUpperCase(Locale.ROOT)));
+                case "END":
+                    checkLength(words, 2);
+                    if (!manager.evict(Long.parseLong(words[1]))) {
+                        return "ERR no such session: " + words[1];
+                    }
+                    return "OK";
+                case "STATS":
+                    checkLength(words, 1);
+                    return "OK " + manager.size() + " " + manager.getCreatedCount() + " "
+                            + manager.getEvictedCount();
+                case "QUIT":
+                    return BYE;
+                default:
+                    return "ERR unknown command: " + words[0];
+            }
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return "ERR " + e.getMessage();
+        }
+    }
+
+    /**
+     * Answers a {@code NEW} request.
+     * <p>
+     * @param words the words of the request
+     * @return the answer
+     */
+    private String create(String[] words) {
+        if (words.length == 2) {
+            return "OK " + manager.create(Integer.parseInt(words[1]));
+        }
+        checkLength(words, 4);
+        int offensive = Integer.parseInt(words[1]);
+        int computer = Integer.parseInt(words[2]);
+        ComputerLevel level = ComputerLevel.valueOf(words[3].toUpperCase(Locale.ROOT));
+        int[] opening = new int[1];
+        long id = manager.create(offensive, computer, level, opening);
+        return "OK " + id + " " + opening[0];
+    }
+
+    /**
+     * Answers an {@code ANALYZE} request.
+     * <p>
+     * @param id the session id
+     * @param level the computer level
+     * @return the answer
+     */
+    private String analyze(long id, ComputerLevel level) {
+        Analysis analysis = manager.analyze(id, level);
+        StringBuilder sb = new StringBuilder("OK");
+        sb.append(" " + analysis.getBestColumn());
+        sb.append(" " + analysis.getDegree());
+        for (int j = 0; j < analysis.getColumns(); j++) {
+            sb.append(analysis.isPlayable(j) ? " " + analysis.getScore(j) : " -");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Answers a {@code SHOW} request.
+     * <p>
+     * @param id the session id
+     * @return the answer
+     */
+    private String show(long id) {
+        Game game = manager.lookup(id);
+        if (game == null) {
+            return "ERR no such session: " + id;
+        }
+        StringBuilder sb = new StringBuilder("OK");
+        sb.append(" " + game.getRows());
+        sb.append(" " + game.getColumns());
+        sb.append(" " + game.getChessNumber());
+        sb.append(" " + game.getTurn());
+        sb.append(" " + game.getWinner());
+        sb.append(" " + (game.isOver() ? 1 : 0));
+        sb.append(' ');
+        for (int i = 0; i < game.getRows(); i++) {
+            for (int j = 0; j < game.getColumns(); j++) {
+                int chess = game.getChess(i, j);
+                sb.append(chess < 0 ? '.' : (char) ('0' + chess));
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Checks the number of words of a request.
+     * <p>
+     * @param words the words of the request
+     * @param length the number of words expected
+     * @throws IllegalArgumentException if the request does not have that many words
+     */
+    private static void checkLength(String[] words, int length) {
+        if (words.length != length) {
+            throw new IllegalArgumentException("malformed request: " + words[0]);
+        }
+    }
+
+    /**
+     * Returns string representation of this {@code GameProtocol} object. The string representation is the
+     * one of its session manager.
+     * <p>
+     * @return a string representation of this {@code GameProtocol} object
+     */
+    @Override
+    public String toString() {
+        return manager.toString();
+    }
+
+}
@@ -0,0 +1,393 @@
+package edu.nyu.cs.connectfour.server;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.Charset;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import edu.nyu.cs.connectfour.game.GameSessionManager;
+import edu.nyu.cs.connectfour.utils.ParameterChecker;
+
+/**
+ * @author shenli
+ * <p>
+ * The {@code GameServer} class serves games to remote clients over TCP on the loopback address, speaking the
+ * line protocol of {@link GameProtocol}, so that front ends need not embed the Swing user interface.
+ * <p>
+ * One selector thread accepts the connections and reads and writes them without blocking. The requests read
+ * are answered on a pool of workers, since answering a move may search the computer reply, and a connection
+ * is answered by one worker at a time, so its answers come back in the order of its requests even when a
+ * client sends many requests without waiting. Lines longer than {@link #MAX_LINE} characters close the
+ * connection.
+ * <p>
+ * {@code GameServer} objects are not constant; their values could be changed after they are created. The
+ * {@code GameServer} object is thread-safe.
+ */
+public class GameServer {
+    /**
+     * The longest request line accepted, in characters
+     */
+    public static final int MAX_LINE = 256;
+
+    private static final int DEFAULT_ROWS = 6;
+    private static final int DEFAULT_COLUMNS = 7;
+    private static final int DEFAULT_PORT = 4444;
+    private static final long DEFAULT_IDLE_TIMEOUT = 600000L;
+    private static final Charset ASCII = Charset.forName("US-ASCII");
+
+    private final GameProtocol protocol;
+    private final ExecutorService workers;
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final Queue<Connection> writable = new ConcurrentLinkedQueue<>();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicInteger connections = new AtomicInteger();
+    private volatile boolean running = true;
+    private final Thread thread;
+
+    /**
+     * Initializes a newly created {@code GameServer} object listening on the specified port of the loopback
+     * address, and starts it.
+     * <p>
+     * @param protocol the protocol answering the requests
+     * @param port the port, 0 for any free port
+     * @param workers the number of workers answering the requests
+     * @throws IOException if the port could not be listened on
+     * @throws NullPointerException if protocol is {@code null}
+     * @throws IllegalArgumentException if port is negative or workers is not positive
+     */
+    public GameServer(GameProtocol protocol, int port, int workers) throws IOException {
+        ParameterChecker.nullCheck(protocol, "game protocol");
+        ParameterChecker.rangeCheck(port, "server port");
+        ParameterChecker.rangeCheck(workers - 1, "server workers");
+
+        this.protocol = protocol;
+        this.workers = Executors.newFixedThreadPool(workers, new ThreadFactory() {
+            private final AtomicInteger threadNumber = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "game-server-worker-" + threadNumber.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }
+        });
+        this.selector = Selector.open();
+        this.server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+        this.thread = new Thread(new Runnable() {
+
+            @Override
+            public void run() {
+                serve();
+            }
+        }, "game-server");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Runs the selector loop until the server is closed.
+     */
+    private void serve() {
+        try {
+            while (running) {
+                selector.select();
+                Connection connection;
+                while ((connection = writable.poll()) != null) {
+                    if (connection.key.isValid()) {
+                        connection.key.interestOps(connection.key.interestOps() | SelectionKey.OP_WRITE);
+                    }
+                }
+                Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                while (it.hasNext()) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    try {
+                        if (key.isAcceptable()) {
+                            accept();
+                        } else {
+                            if (key.isReadable()) {
+                                ((Connection) key.attachment()).read();
+                            }
+                            if (key.isValid() && key.isWritable()) {
+                                ((Connection) key.attachment()).write();
+                            }
+                        }
+                    } catch (IOException e) {
+                        if (key.attachment() != null) {
+                            ((Connection) key.attachment()).close();
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            running = false;
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                closeQuietly(key);
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                // already closing
+            }
+        }
+    }
+
+    /**
+     * Accepts the pending connection, if any.
+     * <p>
+     * @throws IOException if it could not be accepted
+     */
+    private void accept() throws IOException {
+        SocketChannel channel = server.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+        key.attach(new Connection(channel, key));
+        connections.incrementAndGet();
+    }
+
+    /**
+     * Closes the channel of the specified key.
+     * <p>
+     * @param key the key
+     */
+    private static void closeQuietly(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException e) {
+            // nothing more to do
+        }
+    }
+
+    /**
+     * Returns the port the server listens on.
+     * <p>
+     * @return the port
+     */
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    /**
+     * Returns the number of requests answered since the server was started.
+     * <p>
+     * @return the number of requests
+     */
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    /**
+     * Returns the number of connections open.
+     * <p>
+     * @return the number of connections
+     */
+    public int getConnectionCount() {
+        return connections.get();
+    }
+
+    /**
+     * Returns the state of the server. True if it is serving, false if it has been closed.
+     * <p>
+     * @return true if the server is running, otherwise false
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Closes the server and all of its connections, waiting for the selector thread to stop.
+     * <p>
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void close() throws InterruptedException {
+        running = false;
+        selector.wakeup();
+        thread.join();
+        workers.shutdown();
+    }
+
+    /**
+     * Returns string representation of this {@code GameServer} object. The string representation consists of
+     * the port, the number of connections open and of requests answered. Each fields are separated by the
+     * characters "," (comma).
+     * <p>
+     * @return a string representation of this {@code GameServer} object
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(getPort());
+        sb.append("," + getConnectionCount());
+        sb.append("," + getRequestCount());
+        return sb.toString();
+    }
+
+    /**
+     * Serves the games of a session manager with the default chess map.
+     * <p>
+     * @param args the port and the number of workers, each optional
+     * @throws IOException if the port could not be listened on
+     * @throws InterruptedException if interrupted while serving
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int workers = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        GameSessionManager manager = new GameSessionManager(DEFAULT_ROWS, DEFAULT_COLUMNS, DEFAULT_IDLE_TIMEOUT);
+        GameServer server = new GameServer(new GameProtocol(manager), port, workers);
+        System.out.println("listening on " + server.getPort());
+        while (server.isRunning()) {
+            Thread.sleep(DEFAULT_IDLE_TIMEOUT);
+            manager.evictIdle();
+        }
+    }
+
+    /**
+     * The {@code Connection} class is a client connection: the part of a request line read so far, the
+     * requests waiting for an answer and the answers waiting to be written.
+     */
+    private class Connection implements Runnable {
+        private final SocketChannel channel;
+        private final SelectionKey key;
+        private final ByteBuffer in = ByteBuffer.allocate(MAX_LINE + 1);
+        private final Queue<String> pending = new ConcurrentLinkedQueue<>();
+        private final Queue<ByteBuffer> out = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean answering = new AtomicBoolean();
+        private volatile boolean closing;
+
+        /**
+         * Creates a connection over the specified channel.
+         * <p>
+         * @param channel the channel
+         * @param key the selection key of the channel
+         */
+        Connection(SocketChannel channel, SelectionKey key) {
+            this.channel = channel;
+            this.key = key;
+        }
+
+        /**
+         * Reads what the client sent and hands the complete lines over to the workers. Called on the selector
+         * thread.
+         * <p>
+         * @throws IOException if the channel could not be read
+         */
+        void read() throws IOException {
+            if (channel.read(in) < 0) {
+                close();
+                return;
+            }
+            in.flip();
+            int start = 0;
+            for (int i = in.position(); i < in.limit(); i++) {
+                if (in.get(i) == '\n') {
+                    int end = i > start && in.get(i - 1) == '\r' ? i - 1 : i;
+                    byte[] line = new byte[end - start];
+                    for (int j = start; j < end; j++) {
+                        line[j - start] = in.get(j);
+                    }
+                    pending.add(new String(line, ASCII));
+                    start = i + 1;
+                }
+            }
+            in.position(start);
+            in.compact();
+            if (!in.hasRemaining()) {
+                close();
+                return;
+            }
+            if (!pending.isEmpty() && answering.compareAndSet(false, true)) {
+                workers.execute(this);
+            }
+        }
+
+        /**
+         * Answers the waiting requests. Called on a worker, by one worker at a time. A request failing
+         * unexpectedly is answered by {@code ERR}, and the connection is handed back either way, so that its
+         * later requests are still answered.
+         */
+        @Override
+        public void run() {
+            while (true) {
+                try {
+                    String line;
+                    while (!closing && (line = pending.poll()) != null) {
+                        String answer;
+                        try {
+                            answer = protocol.handle(line);
+                        } catch (RuntimeException e) {
+                            answer = "ERR " + e;
+                        }
+                        requests.incrementAndGet();
+                        out.add(ASCII.encode(answer + "\n"));
+                        if (GameProtocol.BYE.equals(answer)) {
+                            closing = true;
+                        }
+                    }
+                } finally {
+                    writable.add(this);
+                    selector.wakeup();
+                    answering.set(false);
+                }
+                if (closing || pending.isEmpty() || !answering.compareAndSet(false, true)) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Writes the waiting answers. Called on the selector thread.
+         * <p>
+         * @throws IOException if the channel could not be written
+         */
+        void write() throws IOException {
+            ByteBuffer buffer;
+            while ((buffer = out.peek()) != null) {
+                channel.write(buffer);
+                if (buffer.hasRemaining()) {
+                    return;
+                }
+                out.poll();
+            }
+            if (closing) {
+                close();
+            } else {
+                key.interestOps(SelectionKey.OP_READ);
+            }
+        }
+
+        /**
+         * Closes this connection. Called on the selector thread.
+         */
+        void close() {
+            if (key.isValid()) {
+                closeQuietly(key);
+                connections.decrementAndGet();
+            }
+        }
+    }
+
+}
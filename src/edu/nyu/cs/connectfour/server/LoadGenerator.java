@@ -0,0 +1,247 @@
+package edu.nyu.cs.connectfour.server;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import edu.nyu.cs.connectfour.game.Game;
+import edu.nyu.cs.connectfour.game.utils.ComputerLevel;
+import edu.nyu.cs.connectfour.utils.ParameterChecker;
+
+/**
+ * @author shenli
+ * <p>
+ * The {@code LoadGenerator} class measures the throughput of a {@link GameServer} on the loopback address.
+ * Each of its clients opens a connection of its own and plays games against the computer one after another,
+ * placing its chess on random columns and following the games on a {@link Game} of its own, then ends each
+ * session. The generator counts the requests answered and the time they took.
+ * <p>
+ * Run it as {@code java edu.nyu.cs.connectfour.server.LoadGenerator [port [clients [games [level]]]]}, by
+ * default 4 clients playing 25 games each at the beginner level against port 4444.
+ * <p>
+ * {@code LoadGenerator} objects are not constant; they collect the measures of their runs. The
+ * {@code LoadGenerator} object is thread-safe.
+ */
+public class LoadGenerator {
+    private static final int DEFAULT_PORT = 4444;
+    private static final int DEFAULT_CLIENTS = 4;
+    private static final int DEFAULT_GAMES = 25;
+
+    private final int port;
+    private final int clients;
+    private final int games;
+    private final ComputerLevel level;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong gamesPlayed = new AtomicLong();
+    private final AtomicLong latencyNanos = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private volatile long elapsedNanos;
+
+    /**
+     * Initializes a newly created {@code LoadGenerator} object.
+     * <p>
+     * @param port the port of the server
+     * @param clients the number of clients
+     * @param games the number of games each client plays
+     * @param level the computer level
+     * @throws IllegalArgumentException if port or games is negative, or clients is not positive
+     * @throws NullPointerException if level is {@code null}
+     */
+    public LoadGenerator(int port, int clients, int games, ComputerLevel level) {
+        ParameterChecker.rangeCheck(port, "server port");
+        ParameterChecker.rangeCheck(clients - 1, "load generator clients");
+        ParameterChecker.rangeCheck(games, "load generator games");
+        ParameterChecker.nullCheck(level, "computer level");
+
+        this.port = port;
+        this.clients = clients;
+        this.games = games;
+        this.level = level;
+    }
+
+    /**
+     * Runs the clients until each has played its games.
+     * <p>
+     * @throws InterruptedException if interrupted while waiting for the clients
+     */
+    public void run() throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < clients; i++) {
+            final long seed = i;
+            Thread t = new Thread(new Runnable() {
+
+                @Override
+                public void run() {
+                    try {
+                        play(new Random(seed));
+                    } catch (IOException e) {
+                        errors.incrementAndGet();
+                    }
+                }
+            }, "load-generator-" + i);
+            threads.add(t);
+            t.start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        elapsedNanos += System.nanoTime() - start;
+    }
+
+    /**
+     * Plays the games of one client.
+     * <p>
+     * @param random the source of the columns played
+     * @throws IOException if the connection failed
+     */
+    private void play(Random random) throws IOException {
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+        try {
+            socket.setTcpNoDelay(true);
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), "US-ASCII"));
+            Writer out = new OutputStreamWriter(socket.getOutputStream(), "US-ASCII");
+            for (int g = 0; g < games; g++) {
+                int offensive = random.nextInt(2);
+                String[] words = request(in, out, "NEW " + offensive + " 1 " + level);
+                long id = Long.parseLong(words[1]);
+                String[] shown = request(in, out, "SHOW " + id);
+                Game game = new Game(Integer.parseInt(shown[1]), Integer.parseInt(shown[2]), offensive);
+                if (Integer.parseInt(words[2]) >= 0) {
+                    game.place(Integer.parseInt(words[2]));
+                }
+                while (!game.isOver()) {
+                    int column;
+                    do {
+                        column = random.nextInt(game.getColumns());
+                    } while (!game.canPlace(column));
+                    game.place(column);
+                    int reply = Integer.parseInt(request(in, out, "PLAY " + id + " " + column)[1]);
+                    if (reply >= 0) {
+                        game.place(reply);
+                    }
+                }
+                request(in, out, "END " + id);
+                gamesPlayed.incrementAndGet();
+            }
+            request(in, out, "QUIT");
+        } finally {
+            socket.close();
+        }
+    }
+
+    /**
+     * Sends the specified request and waits for its answer.
+     * <p>
+     * @param in the reader of the answers
+     * @param out the writer of the requests
+     * @param line the request
+     * @return the words of the answer
+     * @throws IOException if the connection failed or the request was refused
+     */
+    private String[] request(BufferedReader in, Writer out, String line) throws IOException {
+        long start = System.nanoTime();
+        out.write(line + "\n");
+        out.flush();
+        String answer = in.readLine();
+        latencyNanos.addAndGet(System.nanoTime() - start);
+        requests.incrementAndGet();
+        if (answer == null || answer.startsWith("ERR")) {
+            throw new IOException(line + ": " + answer);
+        }
+        return answer.split(" ");
+    }
+
+    /**
+     * Returns the number of requests answered.
+     * <p>
+     * @return the number of requests
+     */
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    /**
+     * Returns the number of games played to the end.
+     * <p>
+     * @return the number of games
+     */
+    public long getGameCount() {
+        return gamesPlayed.get();
+    }
+
+    /**
+     * Returns the number of clients which failed.
+     * <p>
+     * @return the number of errors
+     */
+    public long getErrorCount() {
+        return errors.get();
+    }
+
+    /**
+     * Returns the number of requests answered per second.
+     * <p>
+     * @return the throughput
+     */
+    public double getThroughput() {
+        long nanos = elapsedNanos;
+        return nanos == 0 ? 0.0 : requests.get() * 1e9 / nanos;
+    }
+
+    /**
+     * Returns the average time in milliseconds a request took to be answered.
+     * <p>
+     * @return the average latency
+     */
+    public double getAverageLatencyMillis() {
+        long count = requests.get();
+        return count == 0 ? 0.0 : latencyNanos.get() / 1e6 / count;
+    }
+
+    /**
+     * Returns string representation of this {@code LoadGenerator} object. The string representation consists
+     * of the number of clients, of games per client, the computer level, the number of games played, of
+     * requests answered and of errors. Each fields are separated by the characters "," (comma).
+     * <p>
+     * @return a string representation of this {@code LoadGenerator} object
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(clients);
+        sb.append("," + games);
+        sb.append("," + level);
+        sb.append("," + getGameCount());
+        sb.append("," + getRequestCount());
+        sb.append("," + getErrorCount());
+        return sb.toString();
+    }
+
+    /**
+     * Runs a load generator against a server on the loopback address.
+     * <p>
+     * @param args the port, the number of clients, the number of games per client and the level, each optional
+     * @throws InterruptedException if interrupted while waiting for the clients
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_CLIENTS;
+        int games = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_GAMES;
+        ComputerLevel level = args.length > 3 ? ComputerLevel.valueOf(args[3]) : ComputerLevel.BEGINNER;
+
+        LoadGenerator generator = new LoadGenerator(port, clients, games, level);
+        generator.run();
+        System.out.println(generator + ": " + String.format("%.0f requests/s, %.3f ms/request",
+                generator.getThroughput(), generator.getAverageLatencyMillis()));
+    }
+
+}
@@ -6,6 +6,9 @@ import java.awt.GridLayout;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
 import javax.swing.JButton;
 import javax.swing.JPanel;
@@ -34,6 +37,10 @@ import edu.nyu.cs.connectfour.utils.ParameterChecker;
  * object may be obtains by calls on {@link edu.nyu.cs.connectfour.ui.factory.PanelFactory#getPanel(edu.nyu.cs.connectfour.ui.type.PanelType)} 
  * factory methods. These will return the singleton {@code ChessPanel}.
  * <p>
+ * The computer moves are searched on a background thread, so the panel keeps responding while the computer is
+ * thinking; the chess clicked meanwhile are ignored. The computer ponders its replies while the human player
+ * thinks.
+ * <p>
  * <b>Warning:</b> Swing is not thread safe.
  */
 public enum ChessPanel implements GetContainerable<JPanel>, GameStatusObserver, GameRecordObserver {
@@ -48,6 +55,7 @@ public enum ChessPanel implements GetContainerable<JPanel>, GameStatusObserver,
     private final int rows;
     private final int columns;
     private final boolean[][] flag;
+    private final ExecutorService searchExecutor;
     private GameRecordSubject gameRecord;
     
     /**
@@ -80,12 +88,21 @@ public enum ChessPanel implements GetContainerable<JPanel>, GameStatusObserver,
             b.addActionListener(new ActionListener() {
                 @Override
                 public void actionPerformed(ActionEvent e) {
-                    ((GameRecord) gameRecord).place(
-                            chessList.indexOf(
-                                    (JButton) e.getSource()) % ChessPanel.this.columns);
+                    GameRecord gr = getGameRecord();
+                    if (!gr.isThinking()) {
+                        gr.place(chessList.indexOf((JButton) e.getSource()) % ChessPanel.this.columns);
+                    }
                 }
             });
         }
+        this.searchExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "computer-search");
+                t.setDaemon(true);
+                return t;
+            }
+        });
         this.gameStatus = GameUtility.INSTANCE;
         this.gameStatus.registerGameStatusObserver(this);
         setGameRecord(new GameRecord(this.rows, this.columns));
@@ -104,6 +121,7 @@ public enum ChessPanel implements GetContainerable<JPanel>, GameStatusObserver,
      * Resign this object to start a new game.
      */
     public synchronized void resignChessPanel() {
+        ((GameRecord) gameRecord).dispose();
         setGameRecord(new GameRecord(rows, columns));
         ResultLabel.INSTANCE.setGameResultSubject((GameResultSubject) gameRecord);
         for (int i = 0; i < rows; i++) {
@@ -126,6 +144,8 @@ public enum ChessPanel implements GetContainerable<JPanel>, GameStatusObserver,
     private synchronized void setGameRecord(GameRecord gameRecord) {
         assert gameRecord != null;
         
+        gameRecord.setSearchExecutor(searchExecutor);
+        gameRecord.setPondering(true);
         this.gameRecord = gameRecord;
         this.gameRecord.registerGameRecordObserver(this);
     }
@@ -153,6 +173,21 @@ public enum ChessPanel implements GetContainerable<JPanel>, GameStatusObserver,
         b.setEnabled(flag[row][column]);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void undoGameRecord(PlayerInfo pi, int row, int column) {
+        ParameterChecker.nullCheck(pi, "player information");
+        ParameterChecker.rangeCheck(row, "game row number");
+        ParameterChecker.rangeCheck(column, "game column number");
+        
+        flag[row][column] = true;
+        JButton b = chessList.get(row * this.columns + column);
+        b.setBackground(Color.WHITE);
+        b.setEnabled(GameUtility.INSTANCE.isPlaying());
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -0,0 +1,242 @@
+package edu.nyu.cs.connectfour.game;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.nyu.cs.connectfour.game.ai.Analysis;
+import edu.nyu.cs.connectfour.game.utils.ComputerLevel;
+
+public class GameSessionManagerTest {
+    private GameSessionManager manager;
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @Before
+    public void setUp() throws Exception {
+        manager = new GameSessionManager(6, 7, 60000L);
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.GameSessionManager#GameSessionManager(int, int, long)}.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testGameSessionManagerWithTooLargeMap() {
+        new GameSessionManager(7, 7, 0L);
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.GameSessionManager#GameSessionManager(int, int, long)}.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testGameSessionManagerWithNegativeTimeout() {
+        new GameSessionManager(6, 7, -1L);
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.GameSessionManager#create(int)}.
+     */
+    @Test
+    public void testCreate() {
+        long first = manager.create(0);
+        long second = manager.create(1);
+        assertTrue(first != second);
+        assertEquals(2, manager.size());
+        assertEquals(2, manager.getCreatedCount());
+        assertEquals(new Game(6, 7, 1), manager.lookup(second));
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.GameSessionManager#create(int, int, ComputerLevel)}.
+     */
+    @Test
+    public void testCreateWithComputerMovingFirst() {
+        long id = manager.create(1, 1, ComputerLevel.REGULAR);
+        Game game = manager.lookup(id);
+        assertEquals(1, game.getChessNumber());
+        assertEquals(0, game.getTurn());
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.GameSessionManager#create(int, int, ComputerLevel, int[])}.
+     */
+    @Test
+    public void testCreateWithOpening() {
+        int[] opening = {7};
+        long id = manager.create(0, 1, ComputerLevel.AMATEUR, opening);
+        assertEquals(-1, opening[0]);
+        assertEquals(0, manager.lookup(id).getChessNumber());
+        id = manager.create(1, 1, ComputerLevel.REGULAR, opening);
+        assertTrue(opening[0] >= 0 && opening[0] < 7);
+        assertEquals(4, manager.lookup(id).getNextRow(opening[0]));
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.GameSessionManager#analyze(long, ComputerLevel)}.
+     */
+    @Test
+    public void testAnalyze() {
+        long id = manager.create(0);
+        for (int column : new int[] {0, 6, 0, 6, 0, 6}) {
+            manager.play(id, column);
+        }
+        Game before = manager.lookup(id);
+        for (ComputerLevel level : ComputerLevel.values()) {
+            Analysis analysis = manager.analyze(id, level);
+            assertEquals(0, analysis.getPlayer());
+            assertEquals(0, analysis.getBestColumn());
+        }
+        assertEquals(before, manager.lookup(id));
+        manager.play(id, 0);
+        try {
+            manager.analyze(id, ComputerLevel.AMATEUR);
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("the game is over", e.getMessage());
+        }
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.GameSessionManager#analyze(long, ComputerLevel)}.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testAnalyzeWithUnknownSession() {
+        manager.analyze(12345L, ComputerLevel.AMATEUR);
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.GameSessionManager#play(long, int)}.
+     */
+    @Test
+    public void testPlay() {
+        long id = manager.create(0);
+        Game expected = new Game(6, 7);
+        for (int column : new int[] {3, 3, 4, 2, 6, 0, 0}) {
+            assertEquals(-1, manager.play(id, column));
+            expected.place(column);
+        }
+        assertEquals(expected, manager.lookup(id));
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.GameSessionManager#play(long, int)}.
+     */
+    @Test
+    public void testPlayAgainstComputer() {
+        long id = manager.create(0, 1, ComputerLevel.AMATEUR);
+        while (!manager.lookup(id).isOver()) {
+            Game game = manager.lookup(id);
+            int column = 0;
+            while (!game.canPlace(column)) {
+                column++;
+            }
+            int answer = manager.play(id, column);
+            assertTrue(answer >= -1 && answer < 7);
+        }
+        Game game = manager.lookup(id);
+        assertTrue(game.getChessNumber() <= 42);
+        assertTrue(game.getWinner() >= 0 || game.getChessNumber() == 42);
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.GameSessionManager#play(long, int)}.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testPlayWithUnknownSession() {
+        manager.play(12345L, 3);
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.GameSessionManager#play(long, int)}.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testPlayOnFullColumn() {
+        long id = manager.create(0);
+        for (int i = 0; i < 7; i++) {
+            manager.play(id, 5);
+        }
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.GameSessionManager#evict(long)}.
+     */
+    @Test
+    public void testEvict() {
+        long id = manager.create(0);
+        assertTrue(manager.evict(id));
+        assertFalse(manager.evict(id));
+        assertNull(manager.lookup(id));
+        assertEquals(0, manager.size());
+        assertEquals(1, manager.getEvictedCount());
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.GameSessionManager#evictIdle(long)}.
+     */
+    @Test
+    public void testEvictIdle() {
+        long idle = manager.create(0);
+        long now = System.currentTimeMillis();
+        assertEquals(0, manager.evictIdle(now));
+        long later = manager.create(0);
+        assertEquals(2, manager.evictIdle(now + 60001L + 1000L));
+        assertNull(manager.lookup(idle));
+        assertNull(manager.lookup(later));
+        assertEquals(2, manager.getEvictedCount());
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.GameSessionManager#lookup(long)}.
+     */
+    @Test
+    public void testLookupEvictsIdleSession() throws Exception {
+        GameSessionManager m = new GameSessionManager(6, 7, 1L);
+        long id = m.create(0);
+        Thread.sleep(10);
+        assertNull(m.lookup(id));
+        assertEquals(0, m.size());
+        assertEquals(1, m.getEvictedCount());
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.GameSessionManager#getMemoryEstimate()}.
+     */
+    @Test
+    public void testGetMemoryEstimate() {
+        int count = 200000;
+        long before = usedMemory();
+        for (int i = 0; i < count; i++) {
+            manager.create(i % 2);
+        }
+        long measured = (usedMemory() - before) / count;
+        assertTrue(measured + " bytes", measured > GameSessionManager.SESSION_BYTES / 2 
+                && measured < GameSessionManager.SESSION_BYTES * 2);
+        assertEquals((long) count * GameSessionManager.SESSION_BYTES, manager.getMemoryEstimate());
+    }
+    
+    /**
+     * Returns the number of bytes used on the heap, after collecting the garbage.
+     * <p>
+     * @return the number of used bytes
+     */
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.GameSessionManager#toString()}.
+     */
+    @Test
+    public void testToString() {
+        manager.evict(manager.create(0));
+        manager.create(1);
+        assertEquals("6,7,60000,1,2,1", manager.toString());
+    }
+
+}
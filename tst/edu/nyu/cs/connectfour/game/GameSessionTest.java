@@ -0,0 +1,154 @@
+package edu.nyu.cs.connectfour.game;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.nyu.cs.connectfour.game.rules.ConnectRules;
+import edu.nyu.cs.connectfour.game.utils.ComputerLevel;
+
+public class GameSessionTest {
+    private GameSession session;
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @Before
+    public void setUp() throws Exception {
+        session = new GameSession(42L, new Game(6, 7), 1, ComputerLevel.REGULAR);
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.GameSession#GameSession(long, Game, int, ComputerLevel)}.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testGameSessionWithNullLevel() {
+        new GameSession(1L, new Game(6, 7), 0, null);
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.GameSession#GameSession(long, Game, int, ComputerLevel)}.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testGameSessionWithIllegalComputer() {
+        new GameSession(1L, new Game(6, 7), 2, ComputerLevel.REGULAR);
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.GameSession#GameSession(long, Game, int, ComputerLevel)}.
+     */
+    @Test
+    public void testGameSessionWithOtherRules() {
+        Game game = new Game(ConnectRules.of(6, 7, 5), 0);
+        try {
+            new GameSession(1L, game, 1, ComputerLevel.REGULAR);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("computer connect length: 5", e.getMessage());
+        }
+        GameSession s = new GameSession(1L, game);
+        assertEquals(-1, s.play(3));
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.GameSession#GameSession(long, Game, int, ComputerLevel)}.
+     */
+    @Test
+    public void testGameSessionWithComputerMovingFirst() {
+        GameSession s = new GameSession(1L, new Game(6, 7), 0, ComputerLevel.REGULAR);
+        assertEquals(1, s.getGame().getChessNumber());
+        assertEquals(1, s.getGame().getTurn());
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.GameSession#play(int)}.
+     */
+    @Test
+    public void testPlay() {
+        int column = session.play(3);
+        assertTrue(column >= 0 && column < 7);
+        Game game = session.getGame();
+        assertEquals(2, game.getChessNumber());
+        assertEquals(0, game.getTurn());
+        assertEquals(1, game.getChess(game.getNextRow(column) + 1, column));
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.GameSession#play(int)}.
+     */
+    @Test
+    public void testPlayBetweenHumans() {
+        GameSession s = new GameSession(7L, new Game(6, 7));
+        assertEquals(-1, s.play(3));
+        assertEquals(-1, s.play(3));
+        assertEquals(2, s.getGame().getChessNumber());
+        assertNull(s.getLevel());
+        assertEquals(-1, s.getComputer());
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.GameSession#play(int)}.
+     */
+    @Test
+    public void testPlayUntilOver() {
+        while (!session.getGame().isOver()) {
+            int column = 0;
+            while (!session.getGame().canPlace(column)) {
+                column++;
+            }
+            session.play(column);
+        }
+        assertNotNull(session.getResult());
+        try {
+            session.play(0);
+            fail();
+        } catch (IllegalStateException e) {
+            assertTrue(session.getGame().isOver());
+        }
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.GameSession#getResult()}.
+     */
+    @Test
+    public void testGetResult() {
+        GameSession s = new GameSession(7L, new Game(6, 7));
+        s.setPlayerName(0, "Ann");
+        assertNull(s.getResult());
+        for (int column : new int[] {0, 0, 1, 1, 2, 2, 3}) {
+            s.play(column);
+        }
+        assertEquals("Ann wins!", s.getResult());
+        assertEquals("Ann", s.getPlayerName(0));
+        assertEquals("Computer", s.getPlayerName(1));
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.GameSession#setPlayerName(int, String)}.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetPlayerNameWithIllegalPlayer() {
+        session.setPlayerName(-1, "Ann");
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.GameSession#getLastActive()}.
+     */
+    @Test
+    public void testGetLastActive() throws Exception {
+        long created = session.getLastActive();
+        Thread.sleep(5);
+        session.play(3);
+        assertTrue(session.getLastActive() > created);
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.GameSession#toString()}.
+     */
+    @Test
+    public void testToString() {
+        assertEquals("42,Me,Computer,1,REGULAR," + session.getGame(), session.toString());
+    }
+
+}
@@ -0,0 +1,185 @@
+package edu.nyu.cs.connectfour.game;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.nyu.cs.connectfour.game.rules.ConnectRules;
+
+public class GameTest {
+    private Game game;
+    private List<String> events;
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @Before
+    public void setUp() throws Exception {
+        game = new Game(6, 7);
+        events = new ArrayList<>();
+        game.addGameListener(new GameListener() {
+            @Override
+            public void chessPlaced(Game game, int player, int row, int column) {
+                events.add(player + "@" + row + "," + column);
+            }
+
+            @Override
+            public void gameOver(Game game, int winner) {
+                events.add("over " + winner);
+            }
+        });
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.Game#Game(int, int, int)}.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testGameWithNegativeValue() {
+        new Game(-6, 7, 0);
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.Game#Game(int, int, int)}.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testGameWithIllegalOffensive() {
+        new Game(6, 7, 2);
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.Game#place(int)}.
+     */
+    @Test
+    public void testPlace() {
+        assertEquals(5, game.place(3));
+        assertEquals(4, game.place(3));
+        assertEquals(0, game.getChess(5, 3));
+        assertEquals(1, game.getChess(4, 3));
+        assertEquals(-1, game.getChess(3, 3));
+        assertEquals(3, game.getNextRow(3));
+        assertEquals(2, game.getChessNumber());
+        assertEquals(0, game.getTurn());
+        assertEquals("[0@5,3, 1@4,3]", events.toString());
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.Game#place(int)}.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testPlaceWithNegativeValue() {
+        game.place(-1);
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.Game#place(int)}.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testPlaceOnFullColumn() {
+        for (int i = 0; i < 7; i++) {
+            game.place(0);
+        }
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.Game#place(int)}.
+     */
+    @Test
+    public void testPlaceWinning() {
+        for (int j = 0; j < 3; j++) {
+            game.place(j);
+            game.place(j);
+        }
+        assertFalse(game.isOver());
+        game.place(3);
+        assertTrue(game.isOver());
+        assertEquals(0, game.getWinner());
+        assertEquals("over 0", events.get(events.size() - 1));
+        assertFalse(game.canPlace(4));
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.Game#place(int)}.
+     */
+    @Test
+    public void testPlaceDiagonal() {
+        Game g = new Game(6, 7, 1);
+        for (int column : new int[] {0, 1, 1, 2, 2, 3, 2, 3, 3, 5, 3}) {
+            g.place(column);
+        }
+        assertTrue(g.isOver());
+        assertEquals(1, g.getWinner());
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.Game#place(int)}.
+     */
+    @Test
+    public void testPlaceDraw() {
+        Game g = new Game(2, 2);
+        for (int column : new int[] {0, 0, 1, 1}) {
+            g.place(column);
+        }
+        assertTrue(g.isOver());
+        assertEquals(-1, g.getWinner());
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.Game#canPlace(int)}.
+     */
+    @Test
+    public void testCanPlace() {
+        assertTrue(game.canPlace(0));
+        assertFalse(game.canPlace(7));
+        assertFalse(game.canPlace(-1));
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.Game#equals(java.lang.Object)}.
+     */
+    @Test
+    public void testEquals() {
+        Game g = new Game(6, 7);
+        assertEquals(g, game);
+        assertEquals(g.hashCode(), game.hashCode());
+        g.place(3);
+        assertFalse(g.equals(game));
+        game.place(3);
+        assertEquals(g, game);
+        assertFalse(game.equals(null));
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.Game#Game(ConnectRules, int)}.
+     */
+    @Test
+    public void testGameWithConnectRules() {
+        Game g = new Game(ConnectRules.of(9, 9, 5), 1);
+        assertSame(ConnectRules.of(9, 9, 5), g.getRules());
+        assertEquals(1, g.getTurn());
+        for (int column = 0; column < 4; column++) {
+            g.place(column);
+            g.place(column);
+        }
+        assertFalse(g.isOver());
+        g.place(4);
+        assertTrue(g.isOver());
+        assertEquals(1, g.getWinner());
+        assertFalse(g.equals(new Game(9, 9, 1)));
+        assertSame(ConnectRules.of(6, 7, 4), game.getRules());
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.Game#toString()}.
+     */
+    @Test
+    public void testToString() {
+        Game g = new Game(1, 2);
+        g.place(1);
+        assertEquals("1,2,1,1,-1,-1,0", g.toString());
+    }
+
+}
@@ -0,0 +1,133 @@
+package edu.nyu.cs.connectfour.game;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.nyu.cs.connectfour.game.ai.ComputerThinking;
+import edu.nyu.cs.connectfour.game.utils.ComputerLevel;
+
+public class TournamentTest {
+    private Tournament tournament;
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @Before
+    public void setUp() throws Exception {
+        tournament = new Tournament(new Contestant("amateur", ComputerLevel.AMATEUR),
+                new Contestant("beginner", ComputerLevel.BEGINNER));
+        tournament.setThreads(2);
+        tournament.setSeed(7L);
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.Tournament#play(int)}.
+     * @throws Exception
+     */
+    @Test
+    public void testPlay() throws Exception {
+        TournamentResult result = tournament.play(10);
+        assertEquals(10, result.getGames());
+        assertEquals(10, result.getWins() + result.getDraws() + result.getLosses());
+        assertTrue(result.getWins() > result.getLosses());
+        assertTrue(result.getMoveCount(0) > 0);
+        assertTrue(result.getMoveCount(1) > 0);
+        assertTrue(result.getLatencyPercentile(0, 50) <= result.getLatencyPercentile(0, 100));
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.Tournament#play(int)}.
+     * @throws Exception
+     */
+    @Test
+    public void testPlayRoundsUpToPairs() throws Exception {
+        assertEquals(4, tournament.play(3).getGames());
+        assertEquals(0, tournament.play(0).getGames());
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.Tournament#play(int)}.
+     * @throws Exception
+     */
+    @Test
+    public void testPlayConfiguresEngines() throws Exception {
+        final AtomicInteger configured = new AtomicInteger();
+        Contestant contestant = new Contestant("configured", ComputerLevel.BEGINNER) {
+            @Override
+            protected void configure(ComputerThinking engine) {
+                engine.setOpeningBook(null);
+                configured.incrementAndGet();
+            }
+        };
+        new Tournament(contestant, new Contestant("beginner", ComputerLevel.BEGINNER)).play(6);
+        assertEquals(6, configured.get());
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.Tournament#opening(int)}.
+     */
+    @Test
+    public void testOpening() {
+        tournament.setOpeningPlies(8);
+        int[] opening = tournament.opening(3);
+        assertEquals(8, opening.length);
+        assertArrayEquals(opening, tournament.opening(3));
+        Game game = new Game(6, 7);
+        for (int column : opening) {
+            game.place(column);
+        }
+        assertFalse(game.isOver());
+        tournament.setOpeningPlies(0);
+        assertEquals(0, tournament.opening(3).length);
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.Tournament#setThreads(int)}.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetThreadsWithZero() {
+        tournament.setThreads(0);
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.TournamentResult#getEloDifference()}.
+     */
+    @Test
+    public void testEloDifference() {
+        long[][] latencies = {new long[0], new long[0]};
+        Contestant a = new Contestant("a", ComputerLevel.BEGINNER);
+        Contestant b = new Contestant("b", ComputerLevel.BEGINNER);
+        assertEquals(0.0, new TournamentResult(a, b, 2, 4, 2, latencies, 0L).getEloDifference(), 1e-9);
+        assertEquals(190.85, new TournamentResult(a, b, 3, 0, 1, latencies, 0L).getEloDifference(), 0.01);
+        assertEquals(Double.POSITIVE_INFINITY,
+                new TournamentResult(a, b, 5, 0, 0, latencies, 0L).getEloDifference(), 0.0);
+        TournamentResult result = new TournamentResult(a, b, 30, 20, 10, latencies, 0L);
+        double[] interval = result.getEloInterval(TournamentResult.Z_95);
+        assertTrue(interval[0] < result.getEloDifference());
+        assertTrue(interval[1] > result.getEloDifference());
+        assertTrue(interval[0] > 0);
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.TournamentResult#getLatencyPercentile(int, double)}.
+     */
+    @Test
+    public void testLatencyPercentile() {
+        long[] moves = new long[100];
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = (100 - i) * 1000000L;
+        }
+        TournamentResult result = new TournamentResult(new Contestant("a", ComputerLevel.BEGINNER),
+                new Contestant("b", ComputerLevel.BEGINNER), 1, 0, 0, new long[][] {moves, new long[0]}, 0L);
+        assertEquals(50.0, result.getLatencyPercentile(0, 50), 1e-9);
+        assertEquals(99.0, result.getLatencyPercentile(0, 99), 1e-9);
+        assertEquals(100.0, result.getLatencyPercentile(0, 100), 1e-9);
+        assertEquals(1.0, result.getLatencyPercentile(0, 0), 1e-9);
+        assertEquals(0.0, result.getLatencyPercentile(1, 50), 1e-9);
+    }
+
+}
@@ -0,0 +1,52 @@
+package edu.nyu.cs.connectfour.game.ai;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class AnalysisTest {
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.Analysis#getBestColumn()}.
+     */
+    @Test
+    public void testGetBestColumn() {
+        int[] scores = {5, 9, Analysis.NO_SCORE, 3, 9, Analysis.NO_SCORE, 9};
+        Analysis analysis = new Analysis(1, 3, scores, 100L);
+        assertEquals(4, analysis.getBestColumn());
+        scores[4] = 0;
+        assertEquals(9, analysis.getScore(4));
+        assertFalse(analysis.isPlayable(2));
+        assertNull(analysis.getResult(0));
+        assertEquals(-1, new Analysis(0, 1, new int[] {Analysis.NO_SCORE}, 0L).getBestColumn());
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.Analysis#Analysis(int, SolverResult[], long)}.
+     */
+    @Test
+    public void testExactScores() {
+        SolverResult[] results = {new SolverResult(Outcome.LOSS, 8, 0), new SolverResult(Outcome.WIN, 7, 1),
+                new SolverResult(Outcome.DRAW, 9, 2), new SolverResult(Outcome.WIN, 3, 3), null,
+                new SolverResult(Outcome.LOSS, 2, 5)};
+        Analysis analysis = new Analysis(0, results, 42L);
+        assertTrue(analysis.isExact());
+        assertEquals(0, analysis.getDegree());
+        assertEquals(3, analysis.getBestColumn());
+        assertTrue(analysis.getScore(1) > 20000000 * 42);
+        assertTrue(analysis.getScore(0) > analysis.getScore(5));
+        assertTrue(analysis.getScore(5) < -20000000 * 42);
+        assertEquals(0, analysis.getScore(2));
+        assertFalse(analysis.isPlayable(4));
+        assertEquals(results[3], analysis.getResult(3));
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.Analysis#toString()}.
+     */
+    @Test
+    public void testToString() {
+        assertEquals("1,2,4,-2147483648,-4", new Analysis(1, 2, new int[] {4, Analysis.NO_SCORE, -4}, 9L).toString());
+    }
+
+}
@@ -0,0 +1,356 @@
+package edu.nyu.cs.connectfour.game.ai;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class BitBoardTest {
+    private BitBoard board;
+    private int row = 6;
+    private int column = 7;
+    private int[] next = new int[column];
+    private int[][] state = new int[row][column];
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @Before
+    public void setUp() throws Exception {
+        for (int j = 0; j < column; j++) {
+            for (int i = 0; i < row; i++) {
+                state[i][j] = -1;
+            }
+            next[j] = row - 1;
+        }
+        board = new BitBoard(row, column);
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.BitBoard#BitBoard(int, int)}.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testBitBoardWithNegativeValues() {
+        new BitBoard(-6, 7);
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.BitBoard#BitBoard(int, int)}.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testBitBoardWithTooLargeValues() {
+        new BitBoard(8, 8);
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.BitBoard#fits(int, int)}.
+     */
+    @Test
+    public void testFits() {
+        assertTrue(BitBoard.fits(6, 7));
+        assertTrue(BitBoard.fits(7, 8));
+        assertFalse(BitBoard.fits(8, 8));
+        assertFalse(BitBoard.fits(0, 7));
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.BitBoard#play(int, int)}.
+     */
+    @Test
+    public void testPlayAndUndo() {
+        board.play(3, 0);
+        board.play(3, 1);
+        assertEquals(2, board.getHeight(3));
+        assertEquals(2, board.getChessNumber());
+        assertEquals(1L << 21, board.getDiscs(0));
+        assertEquals(1L << 22, board.getDiscs(1));
+        board.undo(3);
+        board.undo(3);
+        assertEquals(new BitBoard(row, column), board);
+        assertTrue(board.canPlay(3));
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.BitBoard#canPlay(int)}.
+     */
+    @Test
+    public void testCanPlay() {
+        for (int i = 0; i < row; i++) {
+            assertTrue(board.canPlay(0));
+            board.play(0, i % 2);
+        }
+        assertFalse(board.canPlay(0));
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.BitBoard#isWin(int)}.
+     */
+    @Test
+    public void testIsWin() {
+        for (int i = 0; i < 3; i++) {
+            board.play(i, 0);
+            assertFalse(board.isWin(0));
+        }
+        board.play(3, 0);
+        assertTrue(board.isWin(0));
+        assertFalse(board.isWin(1));
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.BitBoard#isWinningMove(int, int)}.
+     */
+    @Test
+    public void testIsWinningMoveDoesNotWrapColumns() {
+        for (int i = 0; i < 3; i++) {
+            board.play(0, 1);
+        }
+        for (int i = 0; i < 3; i++) {
+            board.play(0, 0);
+        }
+        assertFalse(board.isWinningMove(1, 0));
+        board.play(1, 0);
+        assertFalse(board.isWin(0));
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.BitBoard#isWinningMove(int, int)}.
+     */
+    @Test
+    public void testIsWinningMoveAgreesWithComputerThinking() throws Exception {
+        ComputerThinking ct = new ComputerThinking(row, column, next, state);
+        Random random = new Random(42);
+        for (int game = 0; game < 200; game++) {
+            setUp();
+            int player = 0;
+            boolean over = false;
+            while (!over) {
+                int c = random.nextInt(column);
+                if (next[c] < 0) {
+                    continue;
+                }
+                board.load(next, state);
+                for (int p = 0; p < 2; p++) {
+                    for (int j = 0; j < column; j++) {
+                        if (next[j] >= 0) {
+                            assertEquals(ct.isWin(next[j], j, p), board.isWinningMove(j, p));
+                        }
+                    }
+                }
+                over = ct.isWin(next[c], c, player);
+                state[next[c]][c] = player;
+                next[c]--;
+                player = (player + 1) % 2;
+                over |= board.getChessNumber() + 1 == row * column;
+            }
+        }
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.BitBoard#playableMask()}.
+     */
+    @Test
+    public void testPlayableMask() {
+        long bottom = 0L;
+        for (int j = 0; j < column; j++) {
+            bottom |= 1L << (j * (row + 1));
+        }
+        assertEquals(bottom, board.playableMask());
+        board.play(2, 0);
+        assertEquals(bottom & ~(1L << 14) | 1L << 15, board.playableMask());
+        for (int i = 1; i < row; i++) {
+            board.play(2, i % 2);
+        }
+        assertEquals(bottom & ~(1L << 14), board.playableMask());
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.BitBoard#winningCells(int)}.
+     */
+    @Test
+    public void testWinningCells() {
+        assertEquals(0L, board.winningCells(0));
+        board.play(0, 0);
+        board.play(1, 0);
+        board.play(3, 0);
+        assertEquals(1L << 14, board.winningCells(0));
+        assertEquals(0L, board.winningCells(1));
+        board.play(6, 1);
+        board.play(6, 1);
+        board.play(6, 1);
+        assertEquals(1L << 45, board.winningCells(1));
+        board.play(6, 0);
+        assertEquals(0L, board.winningCells(1));
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.BitBoard#winningCells(int)}.
+     */
+    @Test
+    public void testWinningCellsAgreesWithIsWinningMove() {
+        Random random = new Random(42);
+        for (int game = 0; game < 200; game++) {
+            board = new BitBoard(row, column);
+            int player = 0;
+            while (board.getChessNumber() < row * column) {
+                int c = random.nextInt(column);
+                if (!board.canPlay(c)) {
+                    continue;
+                }
+                for (int p = 0; p < 2; p++) {
+                    long cells = board.winningCells(p) & board.playableMask();
+                    for (int j = 0; j < column; j++) {
+                        if (board.canPlay(j)) {
+                            long cell = 1L << (j * (row + 1) + board.getHeight(j));
+                            assertEquals(board.isWinningMove(j, p), (cells & cell) != 0);
+                        }
+                    }
+                }
+                if (board.isWinningMove(c, player)) {
+                    break;
+                }
+                board.play(c, player);
+                player = 1 - player;
+            }
+        }
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.BitBoard#load(int[], int[][])}.
+     */
+    @Test
+    public void testLoad() {
+        state[5][3] = 0;
+        state[4][3] = 1;
+        next[3] = 3;
+        state[5][0] = 1;
+        next[0] = 4;
+        board.load(next, state);
+
+        BitBoard bb = new BitBoard(row, column);
+        bb.play(3, 0);
+        bb.play(3, 1);
+        bb.play(0, 1);
+        assertEquals(bb, board);
+        assertEquals(3, board.getChessNumber());
+        assertEquals(2, board.getHeight(3));
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.BitBoard#getHash()}.
+     */
+    @Test
+    public void testGetHash() {
+        assertEquals(0L, board.getHash());
+        board.play(3, 0);
+        board.play(2, 1);
+        long hash = board.getHash();
+        assertTrue(hash != 0L);
+        board.undo(2);
+        board.undo(3);
+        assertEquals(0L, board.getHash());
+        
+        board.play(2, 1);
+        board.play(3, 0);
+        assertEquals(hash, board.getHash());
+        
+        state[5][3] = 0;
+        state[5][2] = 1;
+        next[3] = 4;
+        next[2] = 4;
+        BitBoard bb = new BitBoard(row, column);
+        bb.load(next, state);
+        assertEquals(hash, bb.getHash());
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.BitBoard#getMirrorHash()}.
+     */
+    @Test
+    public void testGetMirrorHash() {
+        Random random = new Random(21);
+        for (int columns = 1; columns <= 8; columns++) {
+            BitBoard left = new BitBoard(5, columns);
+            BitBoard right = new BitBoard(5, columns);
+            for (int k = 0; k < 3 * columns; k++) {
+                int j = random.nextInt(columns);
+                if (left.canPlay(j)) {
+                    left.play(j, k & 1);
+                    right.play(columns - 1 - j, k & 1);
+                    assertEquals(left.getHash(), right.getMirrorHash());
+                    assertEquals(left.getMirrorHash(), right.getHash());
+                    assertEquals(left.getCanonicalHash(), right.getCanonicalHash());
+                }
+            }
+            BitBoard loaded = new BitBoard(5, columns);
+            int[] nextPlace = new int[columns];
+            int[][] cells = new int[5][columns];
+            for (int j = 0; j < columns; j++) {
+                nextPlace[j] = 4 - left.getHeight(j);
+                for (int i = 0; i < 5; i++) {
+                    long cell = 1L << (j * 6 + 4 - i);
+                    cells[i][j] = (left.getDiscs(0) & cell) != 0 ? 0 : (left.getDiscs(1) & cell) != 0 ? 1 : -1;
+                }
+            }
+            loaded.load(nextPlace, cells);
+            assertEquals(left.getMirrorHash(), loaded.getMirrorHash());
+        }
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.BitBoard#isSymmetric()}.
+     */
+    @Test
+    public void testIsSymmetric() {
+        assertTrue(board.isSymmetric());
+        board.play(3, 0);
+        assertTrue(board.isSymmetric());
+        board.play(2, 1);
+        assertFalse(board.isSymmetric());
+        board.play(4, 1);
+        assertTrue(board.isSymmetric());
+        board.undo(4);
+        board.play(4, 0);
+        assertFalse(board.isSymmetric());
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.BitBoard#canonicalColumn(int)}.
+     */
+    @Test
+    public void testCanonicalColumn() {
+        board.play(0, 0);
+        BitBoard mirror = new BitBoard(row, column);
+        mirror.play(6, 0);
+        assertTrue(board.isMirrored() != mirror.isMirrored());
+        assertEquals(board.canonicalColumn(1), mirror.canonicalColumn(5));
+        assertEquals(-1, board.canonicalColumn(-1));
+        BitBoard canonical = board.isMirrored() ? mirror : board;
+        assertEquals(2, canonical.canonicalColumn(2));
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.BitBoard#equals(Object)}.
+     */
+    @Test
+    public void testEquals() {
+        assertFalse(board.equals(null));
+        assertTrue(board.equals(board));
+        assertFalse(board.equals(new String("Test")));
+        assertTrue(board.equals(new BitBoard(row, column)));
+        assertFalse(board.equals(new BitBoard(row, 8)));
+        board.play(0, 0);
+        assertFalse(board.equals(new BitBoard(row, column)));
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.BitBoard#toString()}.
+     */
+    @Test
+    public void testToString() {
+        board.play(0, 1);
+        assertEquals("6,7,0,1,1,0,0,0,0,0,0", board.toString());
+    }
+
+}
@@ -0,0 +1,62 @@
+package edu.nyu.cs.connectfour.game.ai;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class CenterMoveOrderingTest {
+    private CenterMoveOrdering ordering;
+    
+    /**
+     * @throws java.lang.Exception
+     */
+    @Before
+    public void setUp() throws Exception {
+        ordering = new CenterMoveOrdering();
+        ordering.reset(7, 8);
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.CenterMoveOrdering#order(int, int, int, int[], int)}.
+     */
+    @Test
+    public void testOrder() {
+        int[] moves = {0, 1, 2, 3, 4, 5, 6};
+        ordering.order(0, 0, -1, moves, moves.length);
+        assertArrayEquals(new int[] {3, 2, 4, 1, 5, 0, 6}, moves);
+    }
+    
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.CenterMoveOrdering#order(int, int, int, int[], int)}.
+     */
+    @Test
+    public void testOrderWithHashColumn() {
+        int[] moves = {0, 1, 2, 4, 6, -1, -1};
+        ordering.order(3, 1, 6, moves, 5);
+        assertArrayEquals(new int[] {6, 2, 4, 1, 0, -1, -1}, moves);
+    }
+    
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.CenterMoveOrdering#reset(int, int)}.
+     */
+    @Test
+    public void testResetWithEvenColumns() {
+        ordering.reset(8, 8);
+        int[] moves = {0, 1, 2, 3, 4, 5, 6, 7};
+        ordering.order(0, 0, -1, moves, moves.length);
+        assertArrayEquals(new int[] {3, 4, 2, 5, 1, 6, 0, 7}, moves);
+    }
+    
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.CenterMoveOrdering#cutoff(int, int, int, int)}.
+     */
+    @Test
+    public void testCutoff() {
+        ordering.cutoff(0, 0, 6, 8);
+        int[] moves = {5, 6, 3};
+        ordering.order(0, 0, -1, moves, moves.length);
+        assertArrayEquals(new int[] {3, 5, 6}, moves);
+    }
+
+}
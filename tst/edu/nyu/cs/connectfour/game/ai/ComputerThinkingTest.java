@@ -2,10 +2,27 @@ package edu.nyu.cs.connectfour.game.ai;
 
 import static org.junit.Assert.*;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 import org.junit.Before;
 import org.junit.Test;
 
+import edu.nyu.cs.connectfour.game.utils.ComputerLevel;
+
 public class ComputerThinkingTest {
+    /**
+     * Nodes visited without a transposition table by the former mini-Max search, which reset alpha or beta 
+     * at every node, to the given degree on the empty chess map and on the positions reached by the move 
+     * sequences "3323" and "32435".
+     */
+    private static final long EMPTY_MAP_DEGREE_4_NODES = 785285;
+    private static final long POSITION_3323_DEGREE_4_NODES = 178608;
+    private static final long POSITION_32435_DEGREE_4_NODES = 2498802;
+    
     private ComputerThinking computerThink;
     private int row = 6;
     private int column = 7;
@@ -24,6 +41,7 @@ public class ComputerThinkingTest {
             next[j] = row - 1;
         }
         computerThink = new ComputerThinking(row, column, next, state);
+        computerThink.setOpeningBook(null);
     }
 
     /**
@@ -143,11 +161,504 @@ public class ComputerThinkingTest {
      */
     @Test
     public void testBestValue() {
+        computerThink.setDeterministic(true);
         assertEquals(3, computerThink.bestValue(2, 0));
         assertEquals(3, computerThink.bestValue(3, 0));
         assertEquals(3, computerThink.bestValue(4, 0));
     }
     
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.ComputerThinking#getNodeCount()}.
+     */
+    @Test
+    public void testGetNodeCountOnEmptyMap() {
+        computerThink.setTranspositionTable(null);
+        assertEquals(0, computerThink.getNodeCount());
+        assertEquals(3, computerThink.bestValue(4, 0));
+        assertTrue(computerThink.getNodeCount() > 0);
+        assertTrue(computerThink.getNodeCount() < EMPTY_MAP_DEGREE_4_NODES / 2);
+    }
+    
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.ComputerThinking#getNodeCount()}.
+     */
+    @Test
+    public void testGetNodeCountWithTiedColumns() {
+        play("3323");
+        computerThink.setTranspositionTable(null);
+        int column = computerThink.bestValue(4, 0);
+        assertTrue(column == 1 || column == 4);
+        assertTrue(computerThink.getNodeCount() < POSITION_3323_DEGREE_4_NODES / 10);
+    }
+    
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.ComputerThinking#getNodeCount()}.
+     */
+    @Test
+    public void testGetNodeCountInMiddleGame() {
+        play("32435");
+        computerThink.setTranspositionTable(null);
+        assertEquals(6, computerThink.bestValue(4, 1));
+        assertTrue(computerThink.getNodeCount() < POSITION_32435_DEGREE_4_NODES / 10);
+    }
+    
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.ComputerThinking#bestValue(int, int)}.
+     */
+    @Test
+    public void testBestValueDoesNotAllocatePerLeaf() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            return;
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            return;
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+        play("32435");
+        computerThink.setTranspositionTable(null);
+        assertEquals(6, computerThink.bestValue(4, 1));
+        
+        long id = Thread.currentThread().getId();
+        long allocated = threads.getThreadAllocatedBytes(id);
+        assertEquals(6, computerThink.bestValue(4, 1));
+        allocated = threads.getThreadAllocatedBytes(id) - allocated;
+        assertTrue(computerThink.getNodeCount() > 1000);
+        assertTrue("allocated " + allocated + " bytes", allocated < 1024);
+    }
+    
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.ComputerThinking#setMoveOrdering(MoveOrdering)}.
+     */
+    @Test
+    public void testSetMoveOrdering() {
+        play("32435");
+        computerThink.setTranspositionTable(null);
+        assertTrue(computerThink.getMoveOrdering() instanceof KillerHistoryMoveOrdering);
+        assertEquals(6, computerThink.bestValue(4, 1));
+        long killerHistoryNodes = computerThink.getNodeCount();
+        
+        computerThink.setMoveOrdering(new CenterMoveOrdering());
+        assertEquals(6, computerThink.bestValue(4, 1));
+        long centerNodes = computerThink.getNodeCount();
+        
+        computerThink.setMoveOrdering(null);
+        assertNull(computerThink.getMoveOrdering());
+        assertEquals(6, computerThink.bestValue(4, 1));
+        long naturalNodes = computerThink.getNodeCount();
+        
+        assertTrue(centerNodes < naturalNodes);
+        assertTrue(killerHistoryNodes * 3 < naturalNodes);
+    }
+    
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.ComputerThinking#bestValue(ComputerLevel, int)}.
+     */
+    @Test
+    public void testBestValueWithComputerLevel() {
+        computerThink.setDeterministic(true);
+        assertEquals(3, computerThink.bestValue(ComputerLevel.REGULAR, 0));
+        int column = computerThink.bestValue(ComputerLevel.ABNORMAL, 0);
+        assertTrue(column >= 2 && column <= 4);
+    }
+    
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.ComputerThinking#bestValueWithin(long, int)}.
+     */
+    @Test
+    public void testBestValueWithin() {
+        computerThink.setEvaluator(null);
+        long start = System.currentTimeMillis();
+        assertEquals(3, computerThink.bestValueWithin(300, 0));
+        assertTrue(System.currentTimeMillis() - start < 1000);
+        
+        start = System.currentTimeMillis();
+        int column = computerThink.bestValueWithin(0, 1);
+        assertTrue(column >= 0 && column < this.column);
+        assertTrue(System.currentTimeMillis() - start < 1000);
+    }
+    
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.ComputerThinking#bestValueWithin(long, int)}.
+     */
+    @Test
+    public void testBestValueWithinTakesWinningMove() {
+        for (int i = 0; i < 3; i++) {
+            state[row - 1][i] = 0;
+            next[i]--;
+            state[row - 1 - i][6] = 1;
+        }
+        next[6] -= 3;
+        assertEquals(3, computerThink.bestValueWithin(100, 0));
+        assertEquals(6, computerThink.bestValueWithin(100, 1));
+    }
+    
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.ComputerThinking#setParallelism(int)}.
+     */
+    @Test
+    public void testSetParallelism() {
+        computerThink.setEvaluator(null);
+        assertEquals(1, computerThink.getParallelism());
+        computerThink.setParallelism(4);
+        assertEquals(4, computerThink.getParallelism());
+        assertEquals(3, computerThink.bestValue(4, 0));
+        assertTrue(computerThink.getNodeCount() > 0);
+        assertEquals(3, computerThink.bestValueWithin(200, 0));
+        
+        play("32435");
+        assertEquals(6, computerThink.bestValue(4, 1));
+        computerThink.setParallelism(1);
+        assertEquals(6, computerThink.bestValue(4, 1));
+    }
+    
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.ComputerThinking#setSearchDriver(SearchDriver)}.
+     */
+    @Test
+    public void testSetSearchDriver() {
+        play("32435");
+        computerThink.setDeterministic(true);
+        assertEquals(SearchDriver.ALPHA_BETA, computerThink.getSearchDriver());
+        for (SearchDriver driver : SearchDriver.values()) {
+            computerThink.setSearchDriver(driver);
+            computerThink.setTranspositionTable(null);
+            assertEquals(6, computerThink.bestValue(4, 1));
+            computerThink.setTranspositionTable(new TranspositionTable());
+            assertEquals(6, computerThink.bestValue(4, 1));
+            assertEquals(6, computerThink.bestValueWithin(200, 4, 1));
+            computerThink.setParallelism(2);
+            assertEquals(6, computerThink.bestValue(4, 1));
+            computerThink.setParallelism(1);
+        }
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.ComputerThinking#setSearchDriver(ComputerLevel, SearchDriver)}.
+     */
+    @Test
+    public void testSetSearchDriverWithComputerLevel() {
+        computerThink.setDeterministic(true);
+        computerThink.setSearchDriver(ComputerLevel.REGULAR, SearchDriver.MTDF);
+        assertEquals(SearchDriver.MTDF, computerThink.getSearchDriver(ComputerLevel.REGULAR));
+        assertEquals(SearchDriver.ALPHA_BETA, computerThink.getSearchDriver(ComputerLevel.PROFESSION));
+        computerThink.setSearchDriver(SearchDriver.PVS);
+        assertEquals(SearchDriver.PVS, computerThink.getSearchDriver(ComputerLevel.PROFESSION));
+
+        assertEquals(3, computerThink.bestValue(ComputerLevel.REGULAR, 0));
+        assertEquals(SearchDriver.PVS, computerThink.getSearchDriver());
+        computerThink.setSearchDriver(ComputerLevel.REGULAR, null);
+        assertEquals(SearchDriver.PVS, computerThink.getSearchDriver(ComputerLevel.REGULAR));
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.ComputerThinking#analyze(int, int)}.
+     */
+    @Test
+    public void testAnalyze() {
+        play("32435");
+        computerThink.setTranspositionTable(null);
+        computerThink.setDeterministic(true);
+        Analysis analysis = computerThink.analyze(4, 1);
+        assertEquals(1, analysis.getPlayer());
+        assertEquals(4, analysis.getDegree());
+        assertFalse(analysis.isExact());
+        assertEquals(6, analysis.getBestColumn());
+        assertEquals(computerThink.bestValue(4, 1), analysis.getBestColumn());
+        
+        computerThink.setParallelism(2);
+        Analysis parallel = computerThink.analyze(4, 1);
+        for (int i = 0; i < column; i++) {
+            assertTrue(analysis.isPlayable(i));
+            assertEquals(analysis.getScore(i), parallel.getScore(i));
+        }
+    }
+    
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.ComputerThinking#analyze(int, int)}.
+     */
+    @Test
+    public void testAnalyzeTakesWinningMoves() {
+        for (int i = 0; i < 3; i++) {
+            state[row - 1][i] = 0;
+            next[i]--;
+        }
+        for (int i = 0; i < row; i++) {
+            state[i][6] = i % 2;
+        }
+        next[6] = -1;
+        Analysis analysis = computerThink.analyze(3, 0);
+        assertEquals(3, analysis.getBestColumn());
+        assertFalse(analysis.isPlayable(6));
+        assertEquals(Analysis.NO_SCORE, analysis.getScore(6));
+        assertTrue(analysis.getScore(3) > analysis.getScore(4));
+        assertTrue(analysis.getScore(4) > Analysis.NO_SCORE);
+    }
+    
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.ComputerThinking#analyze(int, int)}.
+     */
+    @Test
+    public void testAnalyzeEndgame() {
+        play("156245435421442634125326536532");
+        Analysis analysis = computerThink.analyze(2, 0);
+        assertTrue(analysis.isExact());
+        assertEquals(0, analysis.getDegree());
+        SolverResult result = computerThink.solve(0);
+        SolverResult best = analysis.getResult(analysis.getBestColumn());
+        assertEquals(result.getOutcome(), best.getOutcome());
+        assertEquals(result.getDistance(), best.getDistance());
+        for (int i = 0; i < column; i++) {
+            assertEquals(next[i] >= 0, analysis.isPlayable(i));
+            if (analysis.isPlayable(i)) {
+                assertEquals(i, analysis.getResult(i).getColumn());
+            }
+        }
+    }
+    
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.ComputerThinking#analyzeWithin(long, int, AnalysisListener)}.
+     */
+    @Test
+    public void testAnalyzeWithin() {
+        play("3323");
+        final List<Analysis> analyses = new ArrayList<Analysis>();
+        Analysis analysis = computerThink.analyzeWithin(200, 0, new AnalysisListener() {
+            @Override
+            public void analysisUpdated(Analysis analysis) {
+                analyses.add(analysis);
+            }
+        });
+        assertTrue(analyses.size() >= 2);
+        for (int i = 0; i < analyses.size(); i++) {
+            assertEquals(i + 1, analyses.get(i).getDegree());
+        }
+        assertSame(analyses.get(analyses.size() - 1), analysis);
+        assertTrue(analysis.getNodeCount() > analyses.get(0).getNodeCount());
+        
+        assertTrue(computerThink.analyzeWithin(0, 0, null).getDegree() >= 1);
+    }
+    
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.ComputerThinking#setParallelism(int)}.
+     */
+    @Test
+    public void testSetParallelismTakesWinningMove() {
+        for (int i = 0; i < 3; i++) {
+            state[row - 1][i] = 0;
+            next[i]--;
+        }
+        computerThink.setParallelism(4);
+        assertEquals(3, computerThink.bestValue(4, 0));
+    }
+    
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.ComputerThinking#cancel()}.
+     */
+    @Test
+    public void testCancel() throws Exception {
+        for (int parallelism = 1; parallelism <= 2; parallelism++) {
+            computerThink.setParallelism(parallelism);
+            Thread canceller = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        Thread.sleep(100);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    computerThink.cancel();
+                }
+            };
+            canceller.start();
+            assertEquals(-1, computerThink.bestValue(12, 0));
+            canceller.join();
+            assertEquals(3, computerThink.bestValue(4, 0));
+        }
+    }
+    
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.ComputerThinking#setDeterministic(boolean)}.
+     */
+    @Test
+    public void testSetDeterministic() {
+        play("3323");
+        assertFalse(computerThink.isDeterministic());
+        computerThink.setDeterministic(true);
+        assertTrue(computerThink.isDeterministic());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(4, computerThink.bestValue(4, 0));
+        }
+        
+        computerThink.setParallelism(4);
+        assertEquals(4, computerThink.bestValue(4, 0));
+        long nodes = computerThink.getNodeCount();
+        for (int i = 0; i < 5; i++) {
+            assertEquals(4, computerThink.bestValue(4, 0));
+            assertEquals(nodes, computerThink.getNodeCount());
+        }
+    }
+    
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.ComputerThinking#setSeed(long)}.
+     */
+    @Test
+    public void testSetSeed() {
+        play("3");
+        int[] locations = new int[20];
+        computerThink.setSeed(42);
+        for (int i = 0; i < locations.length; i++) {
+            locations[i] = computerThink.bestValue(1, 1);
+        }
+        computerThink.setSeed(42);
+        for (int i = 0; i < locations.length; i++) {
+            assertEquals(locations[i], computerThink.bestValue(1, 1));
+        }
+        
+        MoveSelector selector = new MoveSelector(42);
+        computerThink.setMoveSelector(selector);
+        assertSame(selector, computerThink.getMoveSelector());
+        assertEquals(locations[0], computerThink.bestValue(1, 1));
+    }
+    
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.ComputerThinking#solve(int)}.
+     */
+    @Test
+    public void testSolve() throws Exception {
+        play("001122");
+        assertEquals(new SolverResult(Outcome.WIN, 1, 3), computerThink.solve(0));
+        assertEquals(1, computerThink.getNodeCount());
+        
+        setUp();
+        for (int i = 0; i < row; i++) {
+            for (int j = 0; j < column; j++) {
+                state[i][j] = (i / 2 + j) % 2;
+            }
+        }
+        state[0][0] = -1;
+        Arrays.fill(next, -1);
+        next[0] = 0;
+        assertEquals(new SolverResult(Outcome.DRAW, 1, 0), computerThink.solve(1));
+    }
+    
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.ComputerThinking#setEndgameThreshold(int)}.
+     */
+    @Test
+    public void testSetEndgameThreshold() {
+        assertEquals(ComputerThinking.DEFAULT_ENDGAME_THRESHOLD, computerThink.getEndgameThreshold());
+        play("24561545400600600636");
+        assertEquals(new SolverResult(Outcome.WIN, 17, 4), computerThink.solve(0));
+        computerThink.setEndgameThreshold(22);
+        assertEquals(4, computerThink.bestValue(2, 0));
+        assertEquals(4, computerThink.bestValueWithin(60000, 0));
+    }
+    
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.ComputerThinking#setEndgameThreshold(ComputerLevel, Integer)}.
+     */
+    @Test
+    public void testSetEndgameThresholdWithComputerLevel() {
+        for (ComputerLevel level : ComputerLevel.values()) {
+            int threshold = level.getMoveBudget() > 0 ? ComputerThinking.DEFAULT_ENDGAME_THRESHOLD : 0;
+            assertEquals(threshold, computerThink.getEndgameThreshold(level));
+        }
+        computerThink.setEndgameThreshold(ComputerLevel.REGULAR, 22);
+        assertEquals(22, computerThink.getEndgameThreshold(ComputerLevel.REGULAR));
+        play("24561545400600600636");
+        assertEquals(4, computerThink.bestValue(ComputerLevel.REGULAR, 0));
+        assertEquals(ComputerThinking.DEFAULT_ENDGAME_THRESHOLD, computerThink.getEndgameThreshold());
+        computerThink.setEndgameThreshold(ComputerLevel.REGULAR, null);
+        assertEquals(0, computerThink.getEndgameThreshold(ComputerLevel.REGULAR));
+        computerThink.setEndgameThreshold(10);
+        assertEquals(10, computerThink.getEndgameThreshold(ComputerLevel.ABNORMAL));
+    }
+    
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.ComputerThinking#solve(int)}.
+     */
+    @Test
+    public void testSolveCancelled() throws Exception {
+        Thread canceller = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                computerThink.cancel();
+            }
+        };
+        canceller.start();
+        assertNull(computerThink.solve(0));
+        canceller.join();
+        
+        computerThink.setEndgameThreshold(row * column);
+        long start = System.nanoTime();
+        int location = computerThink.bestValueWithin(50, 0);
+        assertTrue(location >= 0 && location < column);
+        assertTrue(System.nanoTime() - start < 5000000000L);
+    }
+    
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.ComputerThinking#setEvaluator(Evaluator)}.
+     */
+    @Test
+    public void testSetEvaluator() {
+        assertTrue(computerThink.getEvaluator() instanceof WindowEvaluator);
+        play("32435");
+        computerThink.setEvaluator(null);
+        assertNull(computerThink.getEvaluator());
+        assertEquals(6, computerThink.bestValue(4, 1));
+        computerThink.setEvaluator(new WindowEvaluator(row, column));
+        assertEquals(6, computerThink.bestValue(4, 1));
+        assertEquals(6, computerThink.bestValueWithin(100, 1));
+        computerThink.setParallelism(2);
+        assertEquals(6, computerThink.bestValue(4, 1));
+        assertEquals("32435".length(), countChess());
+    }
+    
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.ComputerThinking#setOpeningBook(OpeningBook)}.
+     */
+    @Test
+    public void testSetOpeningBook() {
+        assertNull(computerThink.getOpeningBook());
+        BitBoard board = new BitBoard(row, column);
+        board.play(3, 0);
+        long[] keys = {OpeningBook.key(board, 1)};
+        computerThink.setOpeningBook(new OpeningBook(row, column, 2, keys, new byte[] {5}));
+        
+        play("3");
+        assertEquals(5, computerThink.bestValue(2, 1));
+        assertEquals(0, computerThink.getNodeCount());
+        assertEquals(5, computerThink.bestValueWithin(100, 1));
+        
+        computerThink.setOpeningBook(new OpeningBook(row, column, 1, keys, new byte[] {5}));
+        int value = computerThink.bestValue(4, 1);
+        assertTrue(value == 2 || value == 4);
+        assertTrue(computerThink.getNodeCount() > 0);
+    }
+    
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.ComputerThinking#setTranspositionTable(TranspositionTable)}.
+     */
+    @Test
+    public void testSetTranspositionTable() {
+        assertNotNull(computerThink.getTranspositionTable());
+        computerThink.setTranspositionTable(null);
+        assertNull(computerThink.getTranspositionTable());
+        assertEquals(3, computerThink.bestValue(3, 0));
+        
+        TranspositionTable table = new TranspositionTable(10, ReplacementPolicy.ALWAYS);
+        computerThink.setTranspositionTable(table);
+        assertEquals(3, computerThink.bestValue(3, 0));
+        assertTrue(table.getHits() > 0);
+    }
+    
     /**
      * Test method for {@link edu.nyu.cs.connectfour.game.ai.ComputerThinking#equals(Object)}.
      */
@@ -218,4 +729,34 @@ public class ComputerThinkingTest {
         assertEquals(sb.toString(), computerThink.toString());
     }
     
+    /**
+     * Returns the number of chess on the chess map.
+     * <p>
+     * @return the chess number
+     */
+    private int countChess() {
+        int chessNumber = 0;
+        for (int[] row : state) {
+            for (int cell : row) {
+                if (cell >= 0) {
+                    chessNumber++;
+                }
+            }
+        }
+        return chessNumber;
+    }
+    
+    /**
+     * Places chess on the chess map, the players taking turns and the first player starting.
+     * <p>
+     * @param moves the columns, one digit per chess
+     */
+    private void play(String moves) {
+        for (int i = 0; i < moves.length(); i++) {
+            int c = moves.charAt(i) - '0';
+            state[next[c]][c] = i % 2;
+            next[c]--;
+        }
+    }
+    
 }
@@ -0,0 +1,274 @@
+package edu.nyu.cs.connectfour.game.ai;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class EndgameSolverTest {
+    private EndgameSolver solver;
+    private BitBoard board;
+    private int row = 6;
+    private int column = 7;
+    private int cells = row * column;
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @Before
+    public void setUp() throws Exception {
+        solver = new EndgameSolver(row, column, 12);
+        board = new BitBoard(row, column);
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.EndgameSolver#EndgameSolver(int, int)}.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testEndgameSolverWithTooLargeValues() {
+        new EndgameSolver(8, 8);
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.EndgameSolver#solve(BitBoard, int)}.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testSolveWithOtherSize() {
+        solver.solve(new BitBoard(5, 7), 0);
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.EndgameSolver#solve(BitBoard, int)}.
+     */
+    @Test
+    public void testSolveWithWinningMove() {
+        for (int i = 0; i < 3; i++) {
+            board.play(i, 0);
+            board.play(i, 1);
+        }
+        assertEquals(new SolverResult(Outcome.WIN, 1, 3), solver.solve(board, 0));
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.EndgameSolver#solve(BitBoard, int)}.
+     */
+    @Test
+    public void testSolveWithTwoThreats() {
+        for (int i = 1; i < 4; i++) {
+            board.play(i, 1);
+            board.play(i, 0);
+        }
+        SolverResult result = solver.solve(board, 0);
+        assertEquals(Outcome.LOSS, result.getOutcome());
+        assertEquals(2, result.getDistance());
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.EndgameSolver#solve(BitBoard, int)}.
+     */
+    @Test
+    public void testSolveWithFullAndAlmostFullMap() {
+        for (int c = 0; c < column; c++) {
+            for (int h = 0; h < row; h++) {
+                if (c > 0 || h < row - 1) {
+                    board.play(c, ((row - 1 - h) / 2 + c) % 2);
+                }
+            }
+        }
+        assertEquals(new SolverResult(Outcome.DRAW, 1, 0), solver.solve(board, 1));
+        board.play(0, 1);
+        assertEquals(new SolverResult(Outcome.DRAW, 0, -1), solver.solve(board, 0));
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.EndgameSolver#solve(BitBoard, int)}.
+     */
+    @Test
+    public void testSolveAgreesWithFullSearch() {
+        Random random = new Random(42);
+        int solved = 0;
+        while (solved < 100) {
+            board = new BitBoard(row, column);
+            int side = playRandomly(random, 4 + random.nextInt(6));
+            if (side < 0) {
+                continue;
+            }
+            String position = board.toString();
+            int value = fullSearch(side);
+            SolverResult result = solver.solve(board, side);
+            assertEquals(position, board.toString());
+
+            int chessNumber = board.getChessNumber();
+            if (value > 0) {
+                assertEquals(new SolverResult(
+                        Outcome.WIN, cells + 1 - value - chessNumber, result.getColumn()), result);
+            } else if (value < 0) {
+                assertEquals(new SolverResult(
+                        Outcome.LOSS, cells + 1 + value - chessNumber, result.getColumn()), result);
+            } else {
+                assertEquals(new SolverResult(Outcome.DRAW, cells - chessNumber, result.getColumn()), result);
+            }
+            assertEquals(value, columnValue(result.getColumn(), side));
+            solved++;
+        }
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.EndgameSolver#solve(BitBoard, int)}.
+     */
+    @Test
+    public void testSolveMirror() {
+        Random random = new Random(11);
+        int solved = 0;
+        while (solved < 20) {
+            board = new BitBoard(row, column);
+            int side = playRandomly(random, 14);
+            if (side < 0) {
+                continue;
+            }
+            BitBoard mirror = new BitBoard(row, column);
+            for (int j = 0; j < column; j++) {
+                for (int h = 0; h < board.getHeight(j); h++) {
+                    long cell = 1L << (j * (row + 1) + h);
+                    mirror.play(column - 1 - j, (board.getDiscs(0) & cell) != 0 ? 0 : 1);
+                }
+            }
+            EndgameSolver fresh = new EndgameSolver(row, column, 12);
+            SolverResult expected = fresh.solve(mirror, side);
+            solver.solve(board, side);
+            SolverResult result = solver.solve(mirror, side);
+            assertEquals(expected.getOutcome(), result.getOutcome());
+            assertEquals(expected.getDistance(), result.getDistance());
+            assertTrue(solver.getNodeCount() <= fresh.getNodeCount());
+            solved++;
+        }
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.EndgameSolver#getNodeCount()}.
+     */
+    @Test
+    public void testGetNodeCount() {
+        assertEquals(0, solver.getNodeCount());
+        for (int i = 0; i < 3; i++) {
+            board.play(i, 0);
+            board.play(i, 1);
+        }
+        solver.solve(board, 0);
+        assertEquals(1, solver.getNodeCount());
+
+        board = new BitBoard(row, column);
+        for (int i = 1; i < 4; i++) {
+            board.play(i, 1);
+            board.play(i, 0);
+        }
+        solver.solve(board, 0);
+        assertEquals(1 + column, solver.getNodeCount());
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.EndgameSolver#solve(BitBoard, int, long)}.
+     */
+    @Test
+    public void testSolveWithDeadline() {
+        assertNull(solver.solve(board, 0, System.nanoTime()));
+        assertTrue(solver.getNodeCount() <= 1024);
+        for (int i = 0; i < 3; i++) {
+            board.play(i, 0);
+            board.play(i, 1);
+        }
+        assertEquals(new SolverResult(Outcome.WIN, 1, 3), solver.solve(board, 0, System.nanoTime()));
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.EndgameSolver#cancel()}.
+     */
+    @Test
+    public void testCancel() throws Exception {
+        Thread canceller = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                solver.cancel();
+            }
+        };
+        canceller.start();
+        assertNull(solver.solve(board, 0));
+        canceller.join();
+        Random random = new Random(3);
+        int side;
+        do {
+            board = new BitBoard(row, column);
+            side = playRandomly(random, 16);
+        } while (side < 0);
+        assertNotNull(solver.solve(board, side));
+    }
+
+    /**
+     * Places chess on random columns, the players taking turns, until the specified number of cells is left
+     * empty, and returns the index of the player to move, or -1 if a player has won on the way.
+     * <p>
+     * @param random the random number generator
+     * @param empty the number of empty cells to leave
+     * @return the index of the player to move, or -1 if the game is over
+     */
+    private int playRandomly(Random random, int empty) {
+        int side = 0;
+        while (cells - board.getChessNumber() > empty) {
+            int c = random.nextInt(column);
+            if (!board.canPlay(c)) {
+                continue;
+            }
+            if (board.isWinningMove(c, side)) {
+                return -1;
+            }
+            board.play(c, side);
+            side = 1 - side;
+        }
+        return side;
+    }
+
+    /**
+     * Returns the value of the position for the player to move, searching every move to the end of the game.
+     * <p>
+     * @param side the index of the player to move
+     * @return the value of the position
+     */
+    private int fullSearch(int side) {
+        if (board.getChessNumber() == cells) {
+            return 0;
+        }
+        int best = -Integer.MAX_VALUE;
+        for (int c = 0; c < column; c++) {
+            if (board.canPlay(c)) {
+                best = Math.max(best, columnValue(c, side));
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the value of the position for the player to move once a chess is placed on the column,
+     * searching every move to the end of the game.
+     * <p>
+     * @param c the column
+     * @param side the index of the player to move
+     * @return the value of the column
+     */
+    private int columnValue(int c, int side) {
+        if (board.isWinningMove(c, side)) {
+            return cells - board.getChessNumber();
+        }
+        board.play(c, side);
+        int value = -fullSearch(1 - side);
+        board.undo(c);
+        return value;
+    }
+
+}
@@ -0,0 +1,73 @@
+package edu.nyu.cs.connectfour.game.ai;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class KillerHistoryMoveOrderingTest {
+    private KillerHistoryMoveOrdering ordering;
+    
+    /**
+     * @throws java.lang.Exception
+     */
+    @Before
+    public void setUp() throws Exception {
+        ordering = new KillerHistoryMoveOrdering();
+        ordering.reset(7, 8);
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.KillerHistoryMoveOrdering#order(int, int, int, int[], int)}.
+     */
+    @Test
+    public void testOrderWithoutKnowledge() {
+        int[] moves = {0, 1, 2, 3, 4, 5, 6};
+        ordering.order(0, 0, -1, moves, moves.length);
+        assertArrayEquals(new int[] {3, 2, 4, 1, 5, 0, 6}, moves);
+    }
+    
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.KillerHistoryMoveOrdering#cutoff(int, int, int, int)}.
+     */
+    @Test
+    public void testOrderWithKillerMoves() {
+        ordering.cutoff(2, 0, 6, 1);
+        ordering.cutoff(2, 0, 0, 1);
+        int[] moves = {0, 1, 2, 3, 4, 5, 6};
+        ordering.order(2, 1, 5, moves, moves.length);
+        assertArrayEquals(new int[] {5, 0, 6, 3, 2, 4, 1}, moves);
+        
+        moves = new int[] {0, 1, 2, 3, 4, 5, 6};
+        ordering.order(3, 1, -1, moves, moves.length);
+        assertArrayEquals(new int[] {3, 2, 4, 1, 5, 0, 6}, moves);
+    }
+    
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.KillerHistoryMoveOrdering#cutoff(int, int, int, int)}.
+     */
+    @Test
+    public void testOrderWithHistory() {
+        KillerHistoryMoveOrdering historyOnly = new KillerHistoryMoveOrdering(false, true);
+        historyOnly.reset(7, 8);
+        historyOnly.cutoff(1, 0, 1, 2);
+        historyOnly.cutoff(3, 0, 5, 3);
+        historyOnly.cutoff(3, 1, 0, 6);
+        int[] moves = {0, 1, 2, 3, 4, 5, 6};
+        historyOnly.order(5, 0, -1, moves, moves.length);
+        assertArrayEquals(new int[] {5, 1, 3, 2, 4, 0, 6}, moves);
+    }
+    
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.KillerHistoryMoveOrdering#reset(int, int)}.
+     */
+    @Test
+    public void testReset() {
+        ordering.cutoff(0, 0, 6, 5);
+        ordering.reset(7, 8);
+        int[] moves = {6, 3};
+        ordering.order(0, 0, -1, moves, moves.length);
+        assertArrayEquals(new int[] {3, 6}, moves);
+    }
+
+}
@@ -0,0 +1,232 @@
+package edu.nyu.cs.connectfour.game.ai;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.nyu.cs.connectfour.game.utils.ComputerLevel;
+
+public class MoveSchedulerTest {
+    private MoveScheduler scheduler;
+    private int row = 6;
+    private int column = 7;
+    private int[] next = new int[column];
+    private int[][] state = new int[row][column];
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @Before
+    public void setUp() throws Exception {
+        for (int j = 0; j < column; j++) {
+            for (int i = 0; i < row; i++) {
+                state[i][j] = -1;
+            }
+            next[j] = row - 1;
+        }
+        scheduler = new MoveScheduler(row, column, 1, 4, 100L, 50L);
+    }
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @After
+    public void tearDown() throws Exception {
+        scheduler.shutdown();
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.MoveScheduler#MoveScheduler(int, int, int, int, long, long)}.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testMoveSchedulerWithoutWorkers() {
+        new MoveScheduler(row, column, 0, 4, 100L, 50L);
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.MoveScheduler#MoveScheduler(int, int, int, int, long, long)}.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testMoveSchedulerWithoutBudget() {
+        new MoveScheduler(row, column, 1, 4, 100L, 0L);
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.MoveScheduler#submit(int[], int[][], int, ComputerLevel, long, MoveListener)}.
+     * @throws Exception
+     */
+    @Test
+    public void testSubmit() throws Exception {
+        final List<Future<Integer>> done = new ArrayList<>();
+        final CountDownLatch latch = new CountDownLatch(1);
+        Future<Integer> move = scheduler.submit(next, state, 1, ComputerLevel.REGULAR, 0L, new MoveListener() {
+            @Override
+            public void moveDone(Future<Integer> move) {
+                done.add(move);
+                latch.countDown();
+            }
+        });
+        int location = move.get();
+        assertTrue(location >= 0 && location < column);
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals(1, done.size());
+        assertSame(move, done.get(0));
+        assertEquals(0, scheduler.getQueueDepth());
+        assertEquals(1L, scheduler.getSubmittedCount());
+        assertEquals(1L, scheduler.getCompletedCount());
+        assertEquals(0L, scheduler.getRejectedCount());
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.MoveScheduler#submit(int[], int[][], int, ComputerLevel, long, MoveListener)}.
+     * @throws Exception
+     */
+    @Test
+    public void testSubmitFindsTheWin() throws Exception {
+        for (int j = 0; j < 3; j++) {
+            state[5][j] = 1;
+            next[j] = 4;
+            state[5 - j][6] = 0;
+        }
+        next[6] = 2;
+        for (ComputerLevel level : new ComputerLevel[] {ComputerLevel.AMATEUR, ComputerLevel.ABNORMAL}) {
+            assertEquals(3, scheduler.submit(next, state, 1, level, 0L, null).get().intValue());
+        }
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.MoveScheduler#submit(int[], int[][], int, ComputerLevel, long, MoveListener)}.
+     * @throws Exception
+     */
+    @Test
+    public void testSubmitWhenSaturated() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            state[5 - i][0] = 0;
+            state[5 - i][6] = 1;
+        }
+        next[0] = 3;
+        next[6] = 3;
+        Future<Integer> running = scheduler.submit(next, state, 1, ComputerLevel.ABNORMAL, 5000L, null);
+        while (scheduler.getQueueDepth() > 0) {
+            Thread.sleep(1);
+        }
+        List<Future<Integer>> waiting = new ArrayList<>();
+        try {
+            for (int i = 0; i < 5; i++) {
+                waiting.add(scheduler.submit(next, state, 1, ComputerLevel.AMATEUR, 0L, null));
+            }
+            fail();
+        } catch (RejectedExecutionException e) {
+            assertEquals(1L, scheduler.getRejectedCount());
+        }
+        assertEquals(scheduler.getCapacity(), scheduler.getQueueDepth());
+        assertEquals(scheduler.getCapacity(), waiting.size());
+        for (Future<Integer> move : waiting) {
+            assertTrue(move.cancel(false));
+        }
+        assertTrue(running.cancel(false));
+        assertEquals(0, scheduler.getQueueDepth());
+        scheduler.submit(next, state, 1, ComputerLevel.AMATEUR, 0L, null).get();
+    }
+
+    /**
+     * Test method for {@link java.util.concurrent.Future#cancel(boolean)}.
+     * @throws Exception
+     */
+    @Test
+    public void testCancelWhileAnotherMoveIsQueued() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            state[5 - i][0] = 0;
+            state[5 - i][6] = 1;
+        }
+        next[0] = 3;
+        next[6] = 3;
+        Future<Integer> running = scheduler.submit(next, state, 1, ComputerLevel.ABNORMAL, 5000L, null);
+        while (scheduler.getQueueDepth() > 0) {
+            Thread.sleep(1);
+        }
+        Future<Integer> queued = scheduler.submit(next, state, 1, ComputerLevel.REGULAR, 200L, null);
+        Future<Integer> cancelled = scheduler.submit(next, state, 1, ComputerLevel.REGULAR, 200L, null);
+        assertTrue(cancelled.cancel(false));
+        assertFalse(running.isDone());
+        assertTrue(running.cancel(false));
+        int location = queued.get();
+        assertTrue(location >= 0 && location < column);
+        assertFalse(running.cancel(false));
+        Future<Integer> later = scheduler.submit(next, state, 1, ComputerLevel.REGULAR, 200L, null);
+        location = later.get();
+        assertTrue(location >= 0 && location < column);
+        assertEquals(0, scheduler.getQueueDepth());
+        assertEquals(4L, scheduler.getSubmittedCount());
+        assertEquals(3L, scheduler.getCompletedCount());
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.MoveScheduler#getAverageWaitMillis(ComputerLevel)}.
+     * @throws Exception
+     */
+    @Test
+    public void testLowerLevelsGoFirst() throws Exception {
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<ComputerLevel> order = new ArrayList<>();
+        scheduler.submit(next, state, 1, ComputerLevel.BEGINNER, 0L, new MoveListener() {
+            @Override
+            public void moveDone(Future<Integer> move) {
+                blocked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        assertTrue(blocked.await(10, TimeUnit.SECONDS));
+        List<Future<Integer>> moves = new ArrayList<>();
+        for (final ComputerLevel level : new ComputerLevel[] {ComputerLevel.REGULAR, ComputerLevel.AMATEUR}) {
+            moves.add(scheduler.submit(next, state, 1, level, 0L, new MoveListener() {
+                @Override
+                public void moveDone(Future<Integer> move) {
+                    synchronized (order) {
+                        order.add(level);
+                    }
+                }
+            }));
+        }
+        release.countDown();
+        for (Future<Integer> move : moves) {
+            move.get();
+        }
+        Thread.sleep(100);
+        synchronized (order) {
+            assertEquals(ComputerLevel.AMATEUR, order.get(0));
+            assertEquals(ComputerLevel.REGULAR, order.get(1));
+        }
+        assertTrue(scheduler.getAverageWaitMillis(ComputerLevel.REGULAR)
+                >= scheduler.getAverageWaitMillis(ComputerLevel.AMATEUR));
+        assertTrue(scheduler.getMaxWaitMillis() >= scheduler.getAverageWaitMillis());
+        assertEquals(0.0, scheduler.getAverageWaitMillis(ComputerLevel.PROFESSION), 0.0);
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.MoveScheduler#toString()}.
+     * @throws Exception
+     */
+    @Test
+    public void testToString() throws Exception {
+        assertEquals("1,4,0,0,0,0", scheduler.toString());
+        scheduler.submit(next, state, 1, ComputerLevel.AMATEUR, 0L, null).get();
+        Thread.sleep(50);
+        assertEquals("1,4,0,1,1,0", scheduler.toString());
+    }
+
+}
@@ -0,0 +1,85 @@
+package edu.nyu.cs.connectfour.game.ai;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class MoveSelectorTest {
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.MoveSelector#setSeed(long)}.
+     */
+    @Test
+    public void testSetSeed() {
+        MoveSelector selector = new MoveSelector(7);
+        MoveSelector other = new MoveSelector(7);
+        long[] values = new long[10];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = selector.nextLong();
+            assertEquals(values[i], other.nextLong());
+        }
+        selector.setSeed(7);
+        for (long value : values) {
+            assertEquals(value, selector.nextLong());
+        }
+        assertFalse(new MoveSelector().nextLong() == new MoveSelector().nextLong());
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.MoveSelector#select(int[], int, int[])}.
+     */
+    @Test
+    public void testSelectAmongTies() {
+        MoveSelector selector = new MoveSelector(3);
+        int[] values = {5, 9, 2, 9, 9, 9, 1};
+        int[] nextPlace = {5, 5, 5, 0, -1, 3, 5};
+        int[] counts = new int[values.length];
+        for (int i = 0; i < 30000; i++) {
+            counts[selector.select(values, 9, nextPlace)]++;
+        }
+        for (int column : new int[] {0, 2, 4, 6}) {
+            assertEquals(0, counts[column]);
+        }
+        for (int column : new int[] {1, 3, 5}) {
+            assertTrue(Math.abs(counts[column] - 10000) < 500);
+        }
+        assertEquals(-1, selector.select(values, 4, nextPlace));
+        assertEquals(-1, selector.select(values, 9, new int[] {-1, -1, -1, -1, -1, -1, -1}));
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.MoveSelector#select(int[])}.
+     */
+    @Test
+    public void testSelect() {
+        MoveSelector selector = new MoveSelector(5);
+        int[] nextPlace = {-1, 2, -1, 0, 4};
+        int[] counts = new int[nextPlace.length];
+        for (int i = 0; i < 30000; i++) {
+            counts[selector.select(nextPlace)]++;
+        }
+        assertEquals(0, counts[0]);
+        assertEquals(0, counts[2]);
+        for (int column : new int[] {1, 3, 4}) {
+            assertTrue(Math.abs(counts[column] - 10000) < 500);
+        }
+        assertEquals(-1, selector.select(new int[] {-1, -1}));
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.MoveSelector#nextInt(int)}.
+     */
+    @Test
+    public void testNextInt() {
+        MoveSelector selector = new MoveSelector(11);
+        int[] counts = new int[7];
+        for (int i = 0; i < 70000; i++) {
+            counts[selector.nextInt(7)]++;
+        }
+        for (int count : counts) {
+            assertTrue(Math.abs(count - 10000) < 500);
+        }
+        assertEquals(0, selector.nextInt(1));
+    }
+
+}
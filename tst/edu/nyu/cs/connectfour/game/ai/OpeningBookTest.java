@@ -0,0 +1,140 @@
+package edu.nyu.cs.connectfour.game.ai;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class OpeningBookTest {
+    private OpeningBook book;
+    private BitBoard board;
+    private int row = 6;
+    private int column = 7;
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @Before
+    public void setUp() throws Exception {
+        book = new OpeningBookGenerator(row, column, 2, 2).generate();
+        board = new BitBoard(row, column);
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.OpeningBookGenerator#generate()}.
+     */
+    @Test
+    public void testGenerate() {
+        assertEquals(1 + (column + 1) / 2, book.size());
+        assertEquals(2, book.getPlies());
+        assertEquals("6,7,2,5", book.toString());
+        assertEquals(3, book.lookup(board, 0));
+        for (int j = 0; j < column; j++) {
+            board.play(j, 0);
+            int move = book.lookup(board, 1);
+            assertTrue(move >= 0 && move < column);
+            board.undo(j);
+        }
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.OpeningBookGenerator#OpeningBookGenerator(int, int, int, int)}.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testOpeningBookGeneratorWithTooLowDegree() {
+        new OpeningBookGenerator(row, column, 2, 1);
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.OpeningBook#lookup(BitBoard, int)}.
+     */
+    @Test
+    public void testLookup() {
+        board.play(2, 0);
+        int move = book.lookup(board, 1);
+        BitBoard swapped = new BitBoard(row, column);
+        swapped.play(2, 1);
+        assertEquals(move, book.lookup(swapped, 0));
+
+        board.play(move, 1);
+        assertEquals(-1, book.lookup(board, 0));
+        assertEquals(-1, book.lookup(new BitBoard(5, 7), 0));
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.OpeningBook#lookup(BitBoard, int)}.
+     */
+    @Test
+    public void testLookupMirror() {
+        board.play(1, 0);
+        int move = book.lookup(board, 1);
+        board.undo(1);
+        board.play(5, 0);
+        assertEquals(column - 1 - move, book.lookup(board, 1));
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.OpeningBook#read(java.io.InputStream)}.
+     */
+    @Test
+    public void testWriteAndRead() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        book.write(out);
+        assertEquals(6 * 4 + book.size() * 9, out.size());
+
+        OpeningBook copy = OpeningBook.read(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(book.toString(), copy.toString());
+        for (int j = 0; j < column; j++) {
+            board.play(j, 1);
+            assertEquals(book.lookup(board, 0), copy.lookup(board, 0));
+            board.undo(j);
+        }
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.OpeningBook#read(java.io.InputStream)}.
+     */
+    @Test(expected = IOException.class)
+    public void testReadWithBadMagic() throws IOException {
+        OpeningBook.read(new ByteArrayInputStream(new byte[24]));
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.OpeningBook#read(java.io.InputStream)}.
+     */
+    @Test(expected = IOException.class)
+    public void testReadWithTruncatedBook() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        book.write(out);
+        byte[] bytes = out.toByteArray();
+        OpeningBook.read(new ByteArrayInputStream(bytes, 0, bytes.length - 1));
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.OpeningBook#read(java.io.InputStream)}.
+     */
+    @Test(expected = IOException.class)
+    public void testReadWithUnsortedEntries() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new OpeningBook(row, column, 2, new long[] {2L, 1L}, new byte[] {3, 3}).write(out);
+        OpeningBook.read(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.OpeningBook#getDefault()}.
+     */
+    @Test
+    public void testGetDefault() {
+        OpeningBook book = OpeningBook.getDefault();
+        assertSame(book, OpeningBook.getDefault());
+        assertEquals(row, book.getRows());
+        assertEquals(column, book.getColumns());
+        assertTrue(book.size() > 0);
+        assertEquals(3, book.lookup(board, 0));
+    }
+
+}
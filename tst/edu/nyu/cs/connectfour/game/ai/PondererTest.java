@@ -0,0 +1,172 @@
+package edu.nyu.cs.connectfour.game.ai;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.nyu.cs.connectfour.game.utils.ComputerLevel;
+
+public class PondererTest {
+    private Ponderer ponderer;
+    private int row = 6;
+    private int column = 7;
+    private int[] next = new int[column];
+    private int[][] state = new int[row][column];
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @Before
+    public void setUp() throws Exception {
+        for (int j = 0; j < column; j++) {
+            for (int i = 0; i < row; i++) {
+                state[i][j] = -1;
+            }
+            next[j] = row - 1;
+        }
+        ponderer = new Ponderer(row, column);
+        ponderer.getEngine().setOpeningBook(null);
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.Ponderer#Ponderer(int, int)}.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testPondererWithTooLargeMap() {
+        new Ponderer(8, 8);
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.Ponderer#ponder(int[], int[][], int, ComputerLevel)}.
+     */
+    @Test
+    public void testPonder() {
+        ponderer.getEngine().setDeterministic(true);
+        ponderer.getEngine().setTranspositionTable(null);
+        ComputerThinking reference = new ComputerThinking(row, column, next, state);
+        reference.setOpeningBook(null);
+        reference.setDeterministic(true);
+        reference.setTranspositionTable(null);
+
+        play(3, 0);
+        play(3, 1);
+        ponderer.ponder(next, state, 1, ComputerLevel.REGULAR);
+        assertEquals((column + 1) / 2, ponderer.getReplyNumber());
+        for (int j = 0; j < column; j++) {
+            int mirror = column - 1 - j;
+            play(Math.min(j, mirror), 0);
+            int expected = reference.bestValue(ComputerLevel.REGULAR, 1);
+            undo(Math.min(j, mirror));
+            play(j, 0);
+            assertEquals(j <= mirror ? expected : column - 1 - expected,
+                    ponderer.lookup(next, state, 1, ComputerLevel.REGULAR));
+            undo(j);
+        }
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.Ponderer#ponder(int[], int[][], int, ComputerLevel)}.
+     */
+    @Test
+    public void testPonderSkipsWinningReplies() {
+        for (int j = 0; j < 3; j++) {
+            play(j, 0);
+            play(6, 1);
+        }
+        ponderer.ponder(next, state, 1, ComputerLevel.AMATEUR);
+        assertEquals(column - 1, ponderer.getReplyNumber());
+        play(3, 0);
+        assertEquals(-1, ponderer.lookup(next, state, 1, ComputerLevel.AMATEUR));
+        undo(3);
+        play(6, 0);
+        assertTrue(ponderer.lookup(next, state, 1, ComputerLevel.AMATEUR) >= 0);
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.Ponderer#lookup(int[], int[][], int, ComputerLevel)}.
+     */
+    @Test
+    public void testLookup() {
+        assertEquals(-1, ponderer.lookup(next, state, 1, ComputerLevel.REGULAR));
+        ponderer.ponder(next, state, 1, ComputerLevel.REGULAR);
+        play(2, 0);
+        assertTrue(ponderer.lookup(next, state, 1, ComputerLevel.REGULAR) >= 0);
+        assertEquals(-1, ponderer.lookup(next, state, 1, ComputerLevel.PROFESSION));
+        assertEquals(-1, ponderer.lookup(next, state, 0, ComputerLevel.REGULAR));
+        play(2, 1);
+        assertEquals(-1, ponderer.lookup(next, state, 1, ComputerLevel.REGULAR));
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.Ponderer#cancel()}.
+     */
+    @Test
+    public void testCancel() throws Exception {
+        Thread canceller = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                ponderer.cancel();
+            }
+        };
+        long start = System.currentTimeMillis();
+        canceller.start();
+        ponderer.ponder(next, state, 1, ComputerLevel.ABNORMAL);
+        canceller.join();
+        assertTrue(System.currentTimeMillis() - start < ComputerLevel.ABNORMAL.getMoveBudget() * column / 2);
+        assertTrue(ponderer.getReplyNumber() < column);
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.Ponderer#ponder(int, int[], int[][], int, ComputerLevel)}.
+     */
+    @Test
+    public void testPonderWithStaleToken() {
+        int token = ponderer.getToken();
+        ponderer.cancel();
+        long start = System.currentTimeMillis();
+        ponderer.ponder(token, next, state, 1, ComputerLevel.ABNORMAL);
+        assertTrue(System.currentTimeMillis() - start < ComputerLevel.ABNORMAL.getMoveBudget() / 2);
+        assertEquals(0, ponderer.getReplyNumber());
+        
+        ponderer.ponder(ponderer.getToken(), next, state, 1, ComputerLevel.REGULAR);
+        assertEquals(4, ponderer.getReplyNumber());
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.Ponderer#toString()}.
+     */
+    @Test
+    public void testToString() {
+        assertEquals("6,7,null,0", ponderer.toString());
+        ponderer.ponder(next, state, 1, ComputerLevel.AMATEUR);
+        assertEquals("6,7,AMATEUR,4", ponderer.toString());
+    }
+
+    /**
+     * Places a chess of the player on the column.
+     * <p>
+     * @param j the column
+     * @param player the player index
+     */
+    private void play(int j, int player) {
+        state[next[j]][j] = player;
+        next[j]--;
+    }
+
+    /**
+     * Removes the top chess of the column.
+     * <p>
+     * @param j the column
+     */
+    private void undo(int j) {
+        next[j]++;
+        state[next[j]][j] = -1;
+    }
+
+}
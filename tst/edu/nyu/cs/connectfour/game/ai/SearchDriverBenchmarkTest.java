@@ -0,0 +1,59 @@
+package edu.nyu.cs.connectfour.game.ai;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class SearchDriverBenchmarkTest {
+    private SearchDriverBenchmark benchmark;
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @Before
+    public void setUp() throws Exception {
+        benchmark = new SearchDriverBenchmark(3);
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.SearchDriverBenchmark#run(SearchDriver, String)}.
+     */
+    @Test
+    public void testRun() {
+        for (String position : SearchDriverBenchmark.POSITIONS) {
+            long[] alphaBeta = benchmark.run(SearchDriver.ALPHA_BETA, position);
+            assertTrue(alphaBeta[1] > 0);
+            assertEquals(position, alphaBeta[0], benchmark.run(SearchDriver.PVS, position)[0]);
+            assertEquals(position, alphaBeta[0], benchmark.run(SearchDriver.MTDF, position)[0]);
+        }
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.SearchDriverBenchmark#report(SearchDriver...)}.
+     */
+    @Test
+    public void testReport() {
+        String[] lines = benchmark.report(SearchDriver.ALPHA_BETA, SearchDriver.MTDF).split("\n");
+        assertEquals(SearchDriverBenchmark.POSITIONS.length + 2, lines.length);
+        assertTrue(lines[0].contains("MTDF"));
+        assertTrue(lines[lines.length - 1].startsWith("total"));
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.SearchDriverBenchmark#SearchDriverBenchmark(int)}.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testSearchDriverBenchmarkWithSmallDegree() {
+        new SearchDriverBenchmark(1);
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.SearchDriverBenchmark#toString()}.
+     */
+    @Test
+    public void testToString() {
+        assertEquals("3,10", benchmark.toString());
+    }
+
+}
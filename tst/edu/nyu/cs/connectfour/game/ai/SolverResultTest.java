@@ -0,0 +1,53 @@
+package edu.nyu.cs.connectfour.game.ai;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class SolverResultTest {
+    private SolverResult result;
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @Before
+    public void setUp() throws Exception {
+        result = new SolverResult(Outcome.WIN, 5, 3);
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.SolverResult#SolverResult(Outcome, int, int)}.
+     */
+    @Test
+    public void testSolverResult() {
+        assertEquals(Outcome.WIN, result.getOutcome());
+        assertEquals(5, result.getDistance());
+        assertEquals(3, result.getColumn());
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.SolverResult#equals(Object)}.
+     */
+    @Test
+    public void testEquals() {
+        assertFalse(result.equals(null));
+        assertTrue(result.equals(result));
+        assertFalse(result.equals(new String("Test")));
+        assertTrue(result.equals(new SolverResult(Outcome.WIN, 5, 3)));
+        assertEquals(new SolverResult(Outcome.WIN, 5, 3).hashCode(), result.hashCode());
+        assertFalse(result.equals(new SolverResult(Outcome.LOSS, 5, 3)));
+        assertFalse(result.equals(new SolverResult(Outcome.WIN, 7, 3)));
+        assertFalse(result.equals(new SolverResult(Outcome.WIN, 5, 2)));
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.SolverResult#toString()}.
+     */
+    @Test
+    public void testToString() {
+        assertEquals("WIN,5,3", result.toString());
+        assertEquals("DRAW,0,-1", new SolverResult(Outcome.DRAW, 0, -1).toString());
+    }
+
+}
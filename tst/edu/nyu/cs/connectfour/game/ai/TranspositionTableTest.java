@@ -0,0 +1,131 @@
+package edu.nyu.cs.connectfour.game.ai;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class TranspositionTableTest {
+    private TranspositionTable table;
+    
+    /**
+     * @throws java.lang.Exception
+     */
+    @Before
+    public void setUp() throws Exception {
+        table = new TranspositionTable(4, ReplacementPolicy.DEPTH_PREFERRED);
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.TranspositionTable#TranspositionTable(int, ReplacementPolicy)}.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testTranspositionTableWithNegativeValue() {
+        new TranspositionTable(-1, ReplacementPolicy.ALWAYS);
+    }
+    
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.TranspositionTable#TranspositionTable(int, ReplacementPolicy)}.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testTranspositionTableWithTooLargeValue() {
+        new TranspositionTable(31, ReplacementPolicy.ALWAYS);
+    }
+    
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.TranspositionTable#TranspositionTable(int, ReplacementPolicy)}.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testTranspositionTableWithNullValue() {
+        new TranspositionTable(4, null);
+    }
+    
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.TranspositionTable#size()}.
+     */
+    @Test
+    public void testSize() {
+        assertEquals(16, table.size());
+        assertEquals(1 << TranspositionTable.DEFAULT_SIZE_BITS, new TranspositionTable().size());
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.TranspositionTable#store(long, int, int, Bound, int)}.
+     */
+    @Test
+    public void testStoreAndProbe() {
+        assertEquals(TranspositionTable.MISS, table.probe(0x1234L));
+        table.store(0x1234L, 7, -123456789, Bound.UPPER, 6);
+        long entry = table.probe(0x1234L);
+        assertTrue(entry != TranspositionTable.MISS);
+        assertEquals(7, TranspositionTable.depth(entry));
+        assertEquals(-123456789, TranspositionTable.value(entry));
+        assertEquals(Bound.UPPER, TranspositionTable.bound(entry));
+        assertEquals(6, TranspositionTable.column(entry));
+        assertEquals(TranspositionTable.MISS, table.probe(0x1244L));
+        assertEquals(3, table.getProbes());
+        assertEquals(1, table.getHits());
+    }
+    
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.TranspositionTable#store(long, int, int, Bound, int)}.
+     */
+    @Test
+    public void testStoreWithoutColumn() {
+        table.store(0L, 0, 0, Bound.EXACT, -1);
+        long entry = table.probe(0L);
+        assertTrue(entry != TranspositionTable.MISS);
+        assertEquals(-1, TranspositionTable.column(entry));
+        assertEquals(Bound.EXACT, TranspositionTable.bound(entry));
+    }
+    
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.TranspositionTable#store(long, int, int, Bound, int)}.
+     */
+    @Test
+    public void testStoreWithDepthPreferredPolicy() {
+        table.store(0x01L, 6, 1, Bound.EXACT, 0);
+        table.store(0x11L, 4, 2, Bound.EXACT, 1);
+        assertEquals(TranspositionTable.MISS, table.probe(0x11L));
+        assertEquals(1, TranspositionTable.value(table.probe(0x01L)));
+        table.store(0x01L, 2, 3, Bound.LOWER, 2);
+        assertEquals(3, TranspositionTable.value(table.probe(0x01L)));
+        table.store(0x11L, 6, 4, Bound.EXACT, 3);
+        assertEquals(TranspositionTable.MISS, table.probe(0x01L));
+        assertEquals(4, TranspositionTable.value(table.probe(0x11L)));
+    }
+    
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.TranspositionTable#store(long, int, int, Bound, int)}.
+     */
+    @Test
+    public void testStoreWithAlwaysPolicy() {
+        TranspositionTable tt = new TranspositionTable(4, ReplacementPolicy.ALWAYS);
+        tt.store(0x01L, 6, 1, Bound.EXACT, 0);
+        tt.store(0x11L, 4, 2, Bound.EXACT, 1);
+        assertEquals(TranspositionTable.MISS, tt.probe(0x01L));
+        assertEquals(2, TranspositionTable.value(tt.probe(0x11L)));
+    }
+    
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.TranspositionTable#clear()}.
+     */
+    @Test
+    public void testClear() {
+        table.store(0x1234L, 7, 5, Bound.EXACT, 6);
+        table.probe(0x1234L);
+        table.clear();
+        assertEquals(0, table.getProbes());
+        assertEquals(TranspositionTable.MISS, table.probe(0x1234L));
+    }
+    
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.TranspositionTable#toString()}.
+     */
+    @Test
+    public void testToString() {
+        table.probe(0L);
+        assertEquals("16,DEPTH_PREFERRED,1,0", table.toString());
+    }
+
+}
@@ -0,0 +1,99 @@
+package edu.nyu.cs.connectfour.game.ai;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class WindowEvaluatorTest {
+    private WindowEvaluator evaluator;
+    private int row = 6;
+    private int column = 7;
+    private int[] next = new int[column];
+    private int[][] state = new int[row][column];
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @Before
+    public void setUp() throws Exception {
+        for (int j = 0; j < column; j++) {
+            for (int i = 0; i < row; i++) {
+                state[i][j] = -1;
+            }
+            next[j] = row - 1;
+        }
+        evaluator = new WindowEvaluator(row, column);
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.WindowEvaluator#getWindowNumber()}.
+     */
+    @Test
+    public void testGetWindowNumber() {
+        assertEquals(69, evaluator.getWindowNumber());
+        assertEquals(10, new WindowEvaluator(4, 4).getWindowNumber());
+        assertEquals(0, new WindowEvaluator(3, 3).getWindowNumber());
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.WindowEvaluator#evaluate(int)}.
+     */
+    @Test
+    public void testEvaluate() {
+        assertEquals(0, evaluator.evaluate(0));
+        evaluator.place(row - 1, 0, 0);
+        assertEquals(3, evaluator.evaluate(0));
+        assertEquals(-3, evaluator.evaluate(1));
+        evaluator.place(row - 1, 3, 1);
+        assertEquals(2 - 6, evaluator.evaluate(0));
+        evaluator.remove(row - 1, 3, 1);
+        evaluator.remove(row - 1, 0, 0);
+        assertEquals(0, evaluator.evaluate(0));
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.WindowEvaluator#place(int, int, int)}.
+     */
+    @Test
+    public void testPlaceAgreesWithLoad() {
+        Random random = new Random(42);
+        WindowEvaluator loaded = new WindowEvaluator(row, column);
+        for (int n = 0; n < row * column; n++) {
+            int c = random.nextInt(column);
+            if (next[c] < 0) {
+                continue;
+            }
+            state[next[c]][c] = n % 2;
+            evaluator.place(next[c], c, n % 2);
+            next[c]--;
+            loaded.load(next, state);
+            assertEquals(loaded.evaluate(0), evaluator.evaluate(0));
+            assertEquals(-evaluator.evaluate(0), evaluator.evaluate(1));
+        }
+        for (int c = 0; c < column; c++) {
+            while (next[c] < row - 1) {
+                next[c]++;
+                evaluator.remove(next[c], c, state[next[c]][c]);
+                state[next[c]][c] = -1;
+                loaded.load(next, state);
+                assertEquals(loaded.evaluate(1), evaluator.evaluate(1));
+            }
+        }
+        assertEquals(0, evaluator.evaluate(0));
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.ai.WindowEvaluator#copy()}.
+     */
+    @Test
+    public void testCopy() {
+        evaluator.place(row - 1, 3, 0);
+        Evaluator copy = evaluator.copy();
+        assertTrue(copy instanceof WindowEvaluator);
+        assertEquals(0, copy.evaluate(0));
+    }
+
+}
@@ -0,0 +1,56 @@
+package edu.nyu.cs.connectfour.game.archive;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import edu.nyu.cs.connectfour.game.Game;
+
+public class ArchivedGameTest {
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.archive.ArchivedGame#ArchivedGame(int, byte[], int, boolean)}.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testArchivedGameWithWinnerNotOver() {
+        new ArchivedGame(0, new byte[] {3}, 1, false);
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.archive.ArchivedGame#ArchivedGame(int, byte[], int, boolean)}.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testArchivedGameWithNegativeMove() {
+        new ArchivedGame(0, new byte[] {3, -1}, -1, false);
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.archive.ArchivedGame#of(int, int, int, byte[])}.
+     */
+    @Test
+    public void testOf() {
+        ArchivedGame game = ArchivedGame.of(6, 7, 1, new byte[] {0, 6, 1, 6, 2, 6, 3});
+        assertEquals(new ArchivedGame(1, new byte[] {0, 6, 1, 6, 2, 6, 3}, 1, true), game);
+        assertEquals(new ArchivedGame(0, new byte[] {3, 3}, -1, false), ArchivedGame.of(6, 7, 0, new byte[] {3, 3}));
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.archive.ArchivedGame#replay(int, int)}.
+     */
+    @Test
+    public void testReplay() {
+        Game expected = new Game(6, 7, 0);
+        expected.place(3);
+        expected.place(4);
+        assertEquals(expected, new ArchivedGame(0, new byte[] {3, 4}, -1, false).replay(6, 7));
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.archive.ArchivedGame#toString()}.
+     */
+    @Test
+    public void testToString() {
+        assertEquals("0,-1,true,3,4", new ArchivedGame(0, new byte[] {3, 4}, -1, true).toString());
+    }
+
+}
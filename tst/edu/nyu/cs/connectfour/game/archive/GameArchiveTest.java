@@ -0,0 +1,217 @@
+package edu.nyu.cs.connectfour.game.archive;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.nyu.cs.connectfour.game.Game;
+
+public class GameArchiveTest {
+    private File file;
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @Before
+    public void setUp() throws Exception {
+        file = File.createTempFile("games", ".c4ga");
+        file.delete();
+        file.deleteOnExit();
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.archive.GameArchiveWriter#write(ArchivedGame)}.
+     * @throws Exception
+     */
+    @Test
+    public void testWriteSize() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        GameArchiveWriter writer = new GameArchiveWriter(out, 6, 7);
+        writer.write(new ArchivedGame(0, new byte[21], -1, false));
+        writer.write(new ArchivedGame(1, new byte[0], -1, true));
+        writer.close();
+        assertEquals(GameArchive.HEADER_BYTES + 10 + 2, out.size());
+        assertEquals(2L, writer.getCount());
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.archive.GameArchiveWriter#write(ArchivedGame)}.
+     * @throws Exception
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testWriteWithMoveOutOfMap() throws Exception {
+        GameArchiveWriter writer = new GameArchiveWriter(new ByteArrayOutputStream(), 6, 7);
+        writer.write(new ArchivedGame(0, new byte[] {7}, -1, false));
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.archive.GameArchiveReader#next()}.
+     * @throws Exception
+     */
+    @Test
+    public void testRoundTrip() throws Exception {
+        List<ArchivedGame> games = randomGames(new Random(1), 6, 7, 500);
+        GameArchiveWriter writer = GameArchiveWriter.append(file, 6, 7);
+        for (ArchivedGame game : games.subList(0, 200)) {
+            writer.write(game);
+        }
+        writer.close();
+        writer = GameArchiveWriter.append(file, 6, 7);
+        for (ArchivedGame game : games.subList(200, games.size())) {
+            writer.write(game);
+        }
+        writer.close();
+
+        GameArchiveReader reader = new GameArchiveReader(file, 64);
+        try {
+            assertEquals(6, reader.getRows());
+            assertEquals(7, reader.getColumns());
+            List<Long> offsets = new ArrayList<>();
+            for (ArchivedGame game : games) {
+                assertTrue(reader.hasNext());
+                assertEquals(game, reader.next());
+                offsets.add(reader.getOffset());
+            }
+            assertFalse(reader.hasNext());
+            assertNull(reader.next());
+            assertEquals(games.get(321), reader.read(offsets.get(321)));
+            assertEquals(games.get(322), reader.next());
+            assertEquals(games.get(5), reader.read(offsets.get(5)));
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.archive.GameArchiveReader#next()}.
+     * @throws Exception
+     */
+    @Test
+    public void testRoundTripWithWideMap() throws Exception {
+        List<ArchivedGame> games = randomGames(new Random(2), 5, 11, 50);
+        GameArchiveWriter writer = GameArchiveWriter.append(file, 5, 11);
+        for (ArchivedGame game : games) {
+            writer.write(game);
+        }
+        writer.close();
+        GameArchiveReader reader = new GameArchiveReader(file);
+        try {
+            for (ArchivedGame game : games) {
+                assertEquals(game, reader.next());
+            }
+            assertFalse(reader.hasNext());
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.archive.GameArchiveReader#next()}.
+     * @throws Exception
+     */
+    @Test
+    public void testRoundTripWithTallMap() throws Exception {
+        List<ArchivedGame> games = randomGames(new Random(3), 200, 1, 4);
+        GameArchiveWriter.append(file, 200, 1).close();
+        GameArchiveWriter writer = GameArchiveWriter.append(file, 200, 1);
+        for (ArchivedGame game : games) {
+            writer.write(game);
+        }
+        writer.close();
+        GameArchiveReader reader = new GameArchiveReader(file);
+        try {
+            assertEquals(200, reader.getRows());
+            assertEquals(1, reader.getColumns());
+            for (ArchivedGame game : games) {
+                assertEquals(game, reader.next());
+            }
+            assertFalse(reader.hasNext());
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.archive.GameArchiveWriter#append(File, int, int)}.
+     * @throws Exception
+     */
+    @Test(expected = IOException.class)
+    public void testAppendWithOtherMap() throws Exception {
+        GameArchiveWriter.append(file, 6, 7).close();
+        GameArchiveWriter.append(file, 7, 6);
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.archive.GameArchiveReader#GameArchiveReader(File)}.
+     * @throws Exception
+     */
+    @Test(expected = IOException.class)
+    public void testReaderWithNoArchive() throws Exception {
+        FileOutputStream out = new FileOutputStream(file);
+        out.write("6,7,0,5,5,5".getBytes("US-ASCII"));
+        out.close();
+        new GameArchiveReader(file);
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.archive.GameArchiveReader#next()}.
+     * @throws Exception
+     */
+    @Test(expected = IOException.class)
+    public void testNextWithTruncatedArchive() throws Exception {
+        GameArchiveWriter writer = GameArchiveWriter.append(file, 6, 7);
+        writer.write(new ArchivedGame(0, new byte[] {1, 2, 3, 4, 5}, -1, false));
+        writer.close();
+        FileOutputStream out = new FileOutputStream(file, true);
+        out.write(new byte[] {0, 5, 0});
+        out.close();
+        GameArchiveReader reader = new GameArchiveReader(file);
+        try {
+            reader.next();
+            reader.next();
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Plays random games, some of them stopped before their end.
+     * <p>
+     * @param random the source of the columns played
+     * @param rows the chess map row
+     * @param columns the chess map column
+     * @param number the number of games
+     * @return the games
+     */
+    private static List<ArchivedGame> randomGames(Random random, int rows, int columns, int number) {
+        List<ArchivedGame> games = new ArrayList<>();
+        for (int g = 0; g < number; g++) {
+            int offensive = random.nextInt(2);
+            Game game = new Game(rows, columns, offensive);
+            byte[] moves = new byte[rows * columns];
+            int length = 0;
+            int stop = random.nextInt(4) == 0 ? random.nextInt(rows * columns) : rows * columns;
+            while (!game.isOver() && length < stop) {
+                int column = random.nextInt(columns);
+                if (game.canPlace(column)) {
+                    game.place(column);
+                    moves[length++] = (byte) column;
+                }
+            }
+            byte[] played = new byte[length];
+            System.arraycopy(moves, 0, played, 0, length);
+            games.add(new ArchivedGame(offensive, played, game.getWinner(), game.isOver()));
+        }
+        return games;
+    }
+
+}
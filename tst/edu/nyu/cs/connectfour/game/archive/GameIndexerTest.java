@@ -0,0 +1,222 @@
+package edu.nyu.cs.connectfour.game.archive;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.nyu.cs.connectfour.game.Game;
+
+public class GameIndexerTest {
+    private File archive;
+    private File index;
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @Before
+    public void setUp() throws Exception {
+        archive = File.createTempFile("games", ".c4ga");
+        archive.delete();
+        index = File.createTempFile("positions", ".c4pi");
+    }
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @After
+    public void tearDown() throws Exception {
+        archive.delete();
+        index.delete();
+    }
+
+    /**
+     * Writes random games to the archive.
+     * <p>
+     * @param random the random generator
+     * @param number the number of games
+     * @return the games written, in order
+     * @throws IOException if the archive could not be written
+     */
+    private List<ArchivedGame> writeRandomGames(Random random, int number) throws IOException {
+        List<ArchivedGame> games = new ArrayList<ArchivedGame>();
+        GameArchiveWriter writer = new GameArchiveWriter(new FileOutputStream(archive), 6, 7);
+        for (int i = 0; i < number; i++) {
+            int offensive = random.nextInt(2);
+            Game game = new Game(6, 7, offensive);
+            byte[] moves = new byte[42];
+            int moveNumber = 0;
+            while (!game.isOver()) {
+                int column = random.nextInt(7);
+                if (game.canPlace(column)) {
+                    game.place(column);
+                    moves[moveNumber++] = (byte) column;
+                }
+            }
+            ArchivedGame archived = ArchivedGame.of(6, 7, offensive, Arrays.copyOf(moves, moveNumber));
+            games.add(archived);
+            writer.write(archived);
+        }
+        writer.close();
+        return games;
+    }
+
+    /**
+     * Returns the state of the specified game. True if it reached the position of the specified moves in any
+     * order, false if it's not.
+     * <p>
+     * @param game the game
+     * @param moves the moves of the position
+     * @return true if the game reached the position, otherwise false
+     */
+    private static boolean reached(ArchivedGame game, byte[] moves) {
+        if (game.getMoveNumber() < moves.length) {
+            return false;
+        }
+        byte[] prefix = Arrays.copyOf(game.getMoves(), moves.length);
+        return PositionIndex.position(6, 7, prefix).equals(PositionIndex.position(6, 7, moves));
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.archive.GameIndexer#importMoveLists(java.io.Reader, GameArchiveWriter)}.
+     * @throws Exception
+     */
+    @Test
+    public void testImportMoveLists() throws Exception {
+        GameArchiveWriter writer = new GameArchiveWriter(new FileOutputStream(archive), 6, 7);
+        assertEquals(2L, GameIndexer.importMoveLists(new StringReader("3344556\n\n  012\n"), writer));
+        writer.close();
+        GameArchiveReader reader = new GameArchiveReader(archive);
+        ArchivedGame first = reader.next();
+        assertTrue(first.isOver());
+        assertEquals(0, first.getWinner());
+        assertEquals(new ArchivedGame(0, new byte[] {0, 1, 2}, -1, false), reader.next());
+        assertNull(reader.next());
+        reader.close();
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.archive.GameIndexer#importMoveLists(java.io.Reader, GameArchiveWriter)}.
+     * @throws Exception
+     */
+    @Test(expected = IOException.class)
+    public void testImportMoveListsWithIllegalMove() throws Exception {
+        GameArchiveWriter writer = new GameArchiveWriter(new FileOutputStream(archive), 6, 7);
+        try {
+            GameIndexer.importMoveLists(new StringReader("012\n0000000\n"), writer);
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.archive.GameIndexer#index(File, File)}.
+     * @throws Exception
+     */
+    @Test
+    public void testIndexSorted() throws Exception {
+        List<ArchivedGame> games = writeRandomGames(new Random(19), 200);
+        long positions = 0L;
+        for (ArchivedGame game : games) {
+            positions += game.getMoveNumber();
+        }
+        GameIndexer indexer = new GameIndexer(index.getParentFile(), 97);
+        assertEquals(positions, indexer.index(archive, index));
+        PositionIndex positionIndex = new PositionIndex(index, 64);
+        assertEquals(positions, positionIndex.getEntryCount());
+        positionIndex.close();
+        assertEquals(PositionIndex.HEADER_BYTES + positions * PositionIndex.ENTRY_BYTES, index.length());
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.archive.GameIndexer#sort(long[], long[], int, int)}.
+     */
+    @Test
+    public void testSort() {
+        Random random = new Random(5);
+        long[] hashes = new long[1000];
+        long[] offsets = new long[1000];
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = random.nextInt(50) - 25;
+            offsets[i] = random.nextLong();
+        }
+        GameIndexer.sort(hashes, offsets, 0, hashes.length - 1);
+        for (int i = 1; i < hashes.length; i++) {
+            assertTrue(hashes[i - 1] < hashes[i] || (hashes[i - 1] == hashes[i] && offsets[i - 1] <= offsets[i]));
+        }
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.archive.GameArchiveSearch#findGames(byte[], int)}.
+     * @throws Exception
+     */
+    @Test
+    public void testFindGames() throws Exception {
+        Random random = new Random(23);
+        List<ArchivedGame> games = writeRandomGames(random, 300);
+        new GameIndexer(index.getParentFile(), 256).index(archive, index);
+        GameArchiveSearch search = new GameArchiveSearch(archive, index);
+        for (int i = 0; i < 50; i++) {
+            ArchivedGame sample = games.get(random.nextInt(games.size()));
+            byte[] moves = Arrays.copyOf(sample.getMoves(), 1 + random.nextInt(Math.min(8, sample.getMoveNumber())));
+            List<ArchivedGame> expected = new ArrayList<ArchivedGame>();
+            long[] results = new long[4];
+            for (ArchivedGame game : games) {
+                if (reached(game, moves)) {
+                    expected.add(game);
+                    if (game.getWinner() < 0) {
+                        results[GameArchiveSearch.DRAWS]++;
+                    } else {
+                        results[game.getWinner() == game.getOffensive()
+                                ? GameArchiveSearch.FIRST_WINS : GameArchiveSearch.SECOND_WINS]++;
+                    }
+                }
+            }
+            assertEquals(expected, search.findGames(moves, Integer.MAX_VALUE));
+            assertEquals(expected.size(), search.findOffsets(moves).length);
+            assertArrayEquals(results, search.countResults(moves));
+            assertEquals(Math.min(2, expected.size()), search.findGames(moves, 2).size());
+        }
+        search.close();
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.archive.GameArchiveSearch#findOffsets(byte[])}.
+     * @throws Exception
+     */
+    @Test
+    public void testFindOffsetsTransposition() throws Exception {
+        GameArchiveWriter writer = new GameArchiveWriter(new FileOutputStream(archive), 6, 7);
+        GameIndexer.importMoveLists(new StringReader("0123\n2103\n0213\n3210\n"), writer);
+        writer.close();
+        new GameIndexer(index.getParentFile(), 3).index(archive, index);
+        GameArchiveSearch search = new GameArchiveSearch(archive, index);
+        assertEquals(2, search.findOffsets(new byte[] {2, 1, 0, 3}).length);
+        assertEquals(2, search.findOffsets(new byte[] {0, 1, 2}).length);
+        assertEquals(0, search.findOffsets(new byte[] {6}).length);
+        assertArrayEquals(new long[] {0L, 0L, 0L, 2L}, search.countResults(new byte[] {0}));
+        assertArrayEquals(new long[] {0L, 0L, 0L, 1L}, search.countResults(new byte[] {0, 1}));
+        search.close();
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.archive.PositionIndex#PositionIndex(File)}.
+     * @throws Exception
+     */
+    @Test(expected = IOException.class)
+    public void testPositionIndexWithArchive() throws Exception {
+        writeRandomGames(new Random(1), 1);
+        new PositionIndex(archive);
+    }
+
+}
@@ -0,0 +1,132 @@
+package edu.nyu.cs.connectfour.game.rules;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class ConnectBoardTest {
+    private static final int[][] SIZES = {{6, 7, 4}, {7, 8, 4}, {9, 9, 5}, {5, 5, 3}, {4, 20, 6}, {15, 3, 7},
+            {6, 7, 7}, {1, 12, 4}};
+
+    /**
+     * Returns the state of the board. True if the specified player has a row of the rules length through the
+     * specified cell, found by walking the chess map, false if it's not.
+     * <p>
+     * @param board the board
+     * @param height the height of the cell
+     * @param column the column of the cell
+     * @param player the player index
+     * @return true if the player has a row through the cell, otherwise false
+     */
+    private static boolean walkRow(ConnectBoard board, int height, int column, int player) {
+        ConnectRules rules = board.getRules();
+        int[][] directions = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+        for (int[] direction : directions) {
+            int count = 1;
+            for (int sign = -1; sign <= 1; sign += 2) {
+                int c = column + sign * direction[0];
+                int h = height + sign * direction[1];
+                while (c >= 0 && c < rules.getColumns() && h >= 0 && h < rules.getRows()
+                        && board.getChess(h, c) == player) {
+                    count++;
+                    c += sign * direction[0];
+                    h += sign * direction[1];
+                }
+            }
+            if (count >= rules.getLength()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.rules.ConnectBoard#isWinningMove(int, int)}.
+     */
+    @Test
+    public void testIsWinningMove() {
+        Random random = new Random(11);
+        for (int[] size : SIZES) {
+            ConnectRules rules = ConnectRules.of(size[0], size[1], size[2]);
+            ConnectBoard[] boards = {rules.newBoard(), new MultiWordConnectBoard(rules)};
+            for (int game = 0; game < 50; game++) {
+                for (ConnectBoard board : boards) {
+                    board.clear();
+                }
+                int player = 0;
+                while (!boards[0].isFull()) {
+                    int column = random.nextInt(size[1]);
+                    if (!boards[0].canPlay(column)) {
+                        continue;
+                    }
+                    int height = boards[0].getHeight(column);
+                    boolean win = boards[0].isWinningMove(column, player);
+                    for (ConnectBoard board : boards) {
+                        assertEquals(rules.toString(), win, board.isWinningMove(column, player));
+                        board.play(column, player);
+                        assertEquals(win, board.isWin(player));
+                    }
+                    assertEquals(rules.toString(), win, walkRow(boards[0], height, column, player));
+                    assertEquals(boards[0].toString(), boards[1].toString());
+                    if (win) {
+                        for (ConnectBoard board : boards) {
+                            board.undo(column);
+                            assertFalse(board.isWin(player));
+                            assertEquals(-1, board.getChess(height, column));
+                        }
+                        break;
+                    }
+                    player = 1 - player;
+                }
+            }
+        }
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.rules.ConnectBoard#undo(int)}.
+     */
+    @Test
+    public void testUndo() {
+        ConnectBoard board = ConnectRules.of(9, 9, 5).newBoard();
+        board.play(4, 0);
+        board.play(4, 1);
+        assertEquals(2, board.getHeight(4));
+        assertEquals(1, board.getChess(1, 4));
+        board.undo(4);
+        assertEquals(1, board.getHeight(4));
+        assertEquals(-1, board.getChess(1, 4));
+        assertEquals(0, board.getChess(0, 4));
+        assertEquals(1, board.getChessNumber());
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.rules.ConnectBoard#canPlay(int)}.
+     */
+    @Test
+    public void testCanPlay() {
+        ConnectBoard board = ConnectRules.of(2, 3, 4).newBoard();
+        board.play(1, 0);
+        assertTrue(board.canPlay(1));
+        board.play(1, 1);
+        assertFalse(board.canPlay(1));
+        assertFalse(board.isFull());
+        board.clear();
+        assertTrue(board.canPlay(1));
+        assertEquals(0, board.getChessNumber());
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.rules.ConnectBoard#toString()}.
+     */
+    @Test
+    public void testToString() {
+        ConnectBoard board = ConnectRules.of(2, 3, 3).newBoard();
+        board.play(0, 0);
+        board.play(0, 1);
+        board.play(2, 0);
+        assertEquals("2,3,3,3,1,-1,-1,0,-1,0", board.toString());
+    }
+
+}
@@ -0,0 +1,85 @@
+package edu.nyu.cs.connectfour.game.rules;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class ConnectRulesTest {
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.rules.ConnectRules#of(int, int, int)}.
+     */
+    @Test
+    public void testOf() {
+        ConnectRules rules = ConnectRules.of(6, 7, 4);
+        assertSame(rules, ConnectRules.of(6, 7, 4));
+        assertNotSame(rules, ConnectRules.of(6, 7, 5));
+        assertEquals(6, rules.getRows());
+        assertEquals(7, rules.getColumns());
+        assertEquals(4, rules.getLength());
+        assertEquals(69, rules.getWindowNumber());
+        assertEquals(7 * 6, ConnectRules.of(6, 7, 1).getWindowNumber());
+        assertEquals(0, ConnectRules.of(3, 3, 4).getWindowNumber());
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.rules.ConnectRules#of(int, int, int)}.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testOfWithZeroLength() {
+        ConnectRules.of(6, 7, 0);
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.rules.ConnectRules#of(int, int, int)}.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testOfWithNegativeRows() {
+        ConnectRules.of(-1, 7, 4);
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.rules.ConnectRules#newBoard()}.
+     */
+    @Test
+    public void testNewBoard() {
+        assertTrue(ConnectRules.of(6, 7, 4).fitsInLong());
+        assertTrue(ConnectRules.of(7, 8, 4).newBoard() instanceof LongConnectBoard);
+        assertFalse(ConnectRules.of(9, 9, 5).fitsInLong());
+        assertTrue(ConnectRules.of(9, 9, 5).newBoard() instanceof MultiWordConnectBoard);
+        assertSame(ConnectRules.of(9, 9, 5), ConnectRules.of(9, 9, 5).newBoard().getRules());
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.rules.ConnectRules#getWindow(int)}.
+     */
+    @Test
+    public void testGetWindow() {
+        ConnectRules rules = ConnectRules.of(9, 9, 5);
+        int[] through = new int[9 * 9];
+        for (int window = 0; window < rules.getWindowNumber(); window++) {
+            int[] cells = rules.getWindow(window);
+            assertEquals(5, cells.length);
+            int step = cells[1] - cells[0];
+            assertTrue(step == 1 || step == 9 || step == 10 || step == 8);
+            for (int k = 0; k < cells.length; k++) {
+                assertEquals(cells[0] + k * step, cells[k]);
+                through[cells[k]]++;
+            }
+            cells[0] = -1;
+            assertTrue(rules.getWindow(window)[0] >= 0);
+        }
+        assertEquals(3, through[rules.cell(0, 0)]);
+        assertEquals(20, through[rules.cell(4, 4)]);
+        assertEquals(rules.cellWindows(rules.cell(4, 4)).length, through[rules.cell(4, 4)]);
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.rules.ConnectRules#toString()}.
+     */
+    @Test
+    public void testToString() {
+        assertEquals("6,7,4", ConnectRules.of(6, 7, 4).toString());
+    }
+
+}
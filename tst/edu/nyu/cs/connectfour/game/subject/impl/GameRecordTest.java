@@ -2,12 +2,27 @@ package edu.nyu.cs.connectfour.game.subject.impl;
 
 import static org.junit.Assert.*;
 
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import javax.swing.SwingUtilities;
+
 import org.easymock.EasyMock;
 import org.junit.Before;
 import org.junit.Test;
 
+import edu.nyu.cs.connectfour.game.ai.ComputerThinking;
+import edu.nyu.cs.connectfour.game.ai.MoveScheduler;
 import edu.nyu.cs.connectfour.game.observer.GameRecordObserver;
 import edu.nyu.cs.connectfour.game.observer.GameResultObserver;
+import edu.nyu.cs.connectfour.game.utils.ComputerLevel;
+import edu.nyu.cs.connectfour.game.utils.GameMode;
 import edu.nyu.cs.connectfour.player.subject.impl.PlayerInfo;
 
 public class GameRecordTest {
@@ -49,6 +64,34 @@ public class GameRecordTest {
         new GameRecord(6, 8);
     }
 
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.subject.impl.GameRecord#GameRecord(int, int)}.
+     */
+    @Test
+    public void testGameRecordWithWidestMap() {
+        GameMode mode = GameUtility.INSTANCE.getGameMode();
+        ComputerLevel level = GameUtility.INSTANCE.getComputerLevel();
+        GameUtility.INSTANCE.setGameModeAndLevel(GameMode.HUMAN_VS_HUMAN, level);
+        GameRecord widest = new GameRecord(1, Byte.MAX_VALUE);
+        try {
+            widest.place(Byte.MAX_VALUE - 1);
+            assertArrayEquals(new byte[] {Byte.MAX_VALUE - 1}, widest.getMoves());
+            assertEquals(Byte.MAX_VALUE - 1, widest.undo());
+            assertEquals(Byte.MAX_VALUE - 1, widest.redo());
+        } finally {
+            widest.dispose();
+            GameUtility.INSTANCE.setGameModeAndLevel(mode, level);
+        }
+    }
+    
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.subject.impl.GameRecord#GameRecord(int, int)}.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testGameRecordWithTooManyColumns() {
+        new GameRecord(1, Byte.MAX_VALUE + 1);
+    }
+    
     /**
      * Test method for {@link edu.nyu.cs.connectfour.game.subject.impl.GameRecord#place(int)}.
      */
@@ -81,6 +124,376 @@ public class GameRecordTest {
         gameRecord.nextPlay();
     }
     
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.subject.impl.GameRecord#nextPlay()}.
+     */
+    @Test
+    public void testNextPlayWithSearchExecutor() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        final List<Boolean> onEventDispatchThread = new ArrayList<>();
+        gameRecord.registerGameRecordObserver(new GameRecordObserver() {
+            @Override
+            public void updateGameRecord(PlayerInfo playerInfo, int row, int column) {
+                assertEquals(PlayerInfo.PLAYER_TWO, playerInfo);
+                onEventDispatchThread.add(SwingUtilities.isEventDispatchThread());
+            }
+
+            @Override
+            public void undoGameRecord(PlayerInfo playerInfo, int row, int column) {
+            }
+        });
+        gameRecord.setSearchExecutor(executor);
+        gameRecord.updateGameModeAndLevel(GameMode.HUMAN_VS_COMPUTER, ComputerLevel.REGULAR);
+        gameRecord.updateGameTurn(PlayerInfo.PLAYER_TWO);
+        Future<Integer> search = gameRecord.nextPlay();
+        int column = search.get();
+        assertTrue(column >= 0 && column < 7);
+        for (int i = 0; i < 100 && gameRecord.isThinking(); i++) {
+            SwingUtilities.invokeAndWait(new Runnable() {
+                @Override
+                public void run() {
+                }
+            });
+        }
+        SwingUtilities.invokeAndWait(new Runnable() {
+            @Override
+            public void run() {
+            }
+        });
+        assertFalse(gameRecord.isThinking());
+        assertEquals(1, onEventDispatchThread.size());
+        assertTrue(onEventDispatchThread.get(0));
+        executor.shutdown();
+    }
+    
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.subject.impl.GameRecord#setMoveScheduler(MoveScheduler)}.
+     * @throws Exception 
+     */
+    @Test
+    public void testNextPlayWithMoveScheduler() throws Exception {
+        MoveScheduler scheduler = new MoveScheduler(6, 7, 1, 2, 100L, 50L);
+        final List<Integer> columns = new ArrayList<>();
+        gameRecord.registerGameRecordObserver(new GameRecordObserver() {
+            @Override
+            public void updateGameRecord(PlayerInfo playerInfo, int row, int column) {
+                assertTrue(SwingUtilities.isEventDispatchThread());
+                columns.add(column);
+            }
+
+            @Override
+            public void undoGameRecord(PlayerInfo playerInfo, int row, int column) {
+            }
+        });
+        gameRecord.setMoveScheduler(scheduler);
+        assertSame(scheduler, gameRecord.getMoveScheduler());
+        gameRecord.updateGameModeAndLevel(GameMode.HUMAN_VS_COMPUTER, ComputerLevel.REGULAR);
+        gameRecord.updateGameTurn(PlayerInfo.PLAYER_TWO);
+        int column = gameRecord.nextPlay().get();
+        for (int i = 0; i < 100 && gameRecord.isThinking(); i++) {
+            SwingUtilities.invokeAndWait(new Runnable() {
+                @Override
+                public void run() {
+                }
+            });
+        }
+        assertFalse(gameRecord.isThinking());
+        assertEquals(1, columns.size());
+        assertEquals(column, columns.get(0).intValue());
+        assertEquals(1L, scheduler.getSubmittedCount());
+        scheduler.shutdown();
+    }
+    
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.subject.impl.GameRecord#nextPlay()}.
+     */
+    @Test
+    public void testNextPlayWhenHumanIsToMove() {
+        gameRecord.updateGameModeAndLevel(GameMode.HUMAN_VS_COMPUTER, ComputerLevel.REGULAR);
+        gameRecord.updateGameTurn(PlayerInfo.PLAYER_ONE);
+        assertNull(gameRecord.nextPlay());
+    }
+    
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.subject.impl.GameRecord#setPondering(boolean)}.
+     */
+    @Test
+    public void testSetPondering() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        final List<PlayerInfo> players = new ArrayList<>();
+        gameRecord.registerGameRecordObserver(new GameRecordObserver() {
+            @Override
+            public void updateGameRecord(PlayerInfo playerInfo, int row, int column) {
+                players.add(playerInfo);
+            }
+
+            @Override
+            public void undoGameRecord(PlayerInfo playerInfo, int row, int column) {
+            }
+        });
+        assertFalse(gameRecord.isPondering());
+        gameRecord.setPondering(true);
+        assertTrue(gameRecord.isPondering());
+        gameRecord.setSearchExecutor(executor);
+        gameRecord.updateGameModeAndLevel(GameMode.HUMAN_VS_COMPUTER, ComputerLevel.REGULAR);
+        gameRecord.updateGameTurn(PlayerInfo.PLAYER_TWO);
+        gameRecord.nextPlay().get();
+        for (int i = 0; i < 100 && (i == 0 || gameRecord.isThinking()); i++) {
+            SwingUtilities.invokeAndWait(new Runnable() {
+                @Override
+                public void run() {
+                }
+            });
+        }
+        SwingUtilities.invokeAndWait(new Runnable() {
+            @Override
+            public void run() {
+            }
+        });
+        executor.submit(new Runnable() {
+            @Override
+            public void run() {
+            }
+        }).get();
+        
+        gameRecord.place(0);
+        assertFalse(gameRecord.isThinking());
+        assertEquals(3, players.size());
+        assertEquals(PlayerInfo.PLAYER_TWO, players.get(2));
+        gameRecord.setPondering(false);
+        assertFalse(gameRecord.isPondering());
+        executor.shutdown();
+    }
+    
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.subject.impl.GameRecord#cancelSearch()}.
+     */
+    @Test
+    public void testCancelSearch() {
+        final List<Runnable> queued = new ArrayList<>();
+        gameRecord.setSearchExecutor(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                queued.add(command);
+            }
+        });
+        gameRecord.registerGameRecordObserver(mockGameRecordObserver);
+        EasyMock.replay(mockGameRecordObserver);
+        gameRecord.updateGameModeAndLevel(GameMode.HUMAN_VS_COMPUTER, ComputerLevel.REGULAR);
+        gameRecord.updateGameTurn(PlayerInfo.PLAYER_TWO);
+        Future<Integer> search = gameRecord.nextPlay();
+        assertTrue(gameRecord.isThinking());
+        gameRecord.cancelSearch();
+        assertTrue(search.isCancelled());
+        assertFalse(gameRecord.isThinking());
+        queued.get(0).run();
+        EasyMock.verify(mockGameRecordObserver);
+    }
+    
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.subject.impl.GameRecord#cancelSearch()}.
+     * @throws Exception
+     */
+    @Test
+    public void testCancelSearchBetweenSubmitAndRun() throws Exception {
+        final Thread[] worker = new Thread[1];
+        ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                worker[0] = new Thread(r);
+                worker[0].setDaemon(true);
+                return worker[0];
+            }
+        });
+        GameMode mode = GameUtility.INSTANCE.getGameMode();
+        ComputerLevel level = GameUtility.INSTANCE.getComputerLevel();
+        GameUtility.INSTANCE.setGameModeAndLevel(GameMode.HUMAN_VS_HUMAN, level);
+        try {
+            for (int column : new int[] {0, 6, 0, 6, 1, 5, 1, 5}) {
+                gameRecord.place(column);
+            }
+        } finally {
+            GameUtility.INSTANCE.setGameModeAndLevel(mode, level);
+        }
+        gameRecord.setSearchExecutor(executor);
+        gameRecord.updateGameModeAndLevel(GameMode.HUMAN_VS_COMPUTER, ComputerLevel.PROFESSION);
+        gameRecord.updateGameTurn(PlayerInfo.PLAYER_TWO);
+        gameRecord.nextPlay().get();
+        while (gameRecord.isThinking()) {
+            SwingUtilities.invokeAndWait(new Runnable() {
+                @Override
+                public void run() {
+                }
+            });
+        }
+        SwingUtilities.invokeAndWait(new Runnable() {
+            @Override
+            public void run() {
+            }
+        });
+        gameRecord.updateGameTurn(PlayerInfo.PLAYER_TWO);
+        Field field = GameRecord.class.getDeclaredField("searcher");
+        field.setAccessible(true);
+        ComputerThinking searcher = (ComputerThinking) field.get(gameRecord);
+        long nodes = searcher.getNodeCount();
+        Future<Integer> search;
+        synchronized (searcher) {
+            search = gameRecord.nextPlay();
+            while (worker[0].getState() != Thread.State.BLOCKED) {
+                Thread.sleep(1);
+            }
+            gameRecord.cancelSearch();
+        }
+        executor.submit(new Runnable() {
+            @Override
+            public void run() {
+            }
+        }).get();
+        assertTrue(search.isCancelled());
+        assertEquals(nodes, searcher.getNodeCount());
+        executor.shutdown();
+    }
+    
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.subject.impl.GameRecord#dispose()}.
+     */
+    @Test
+    public void testDispose() {
+        int count = GameUtility.INSTANCE.getGameStatusObserverCount();
+        GameRecord other = new GameRecord(6, 7);
+        assertEquals(count + 1, GameUtility.INSTANCE.getGameStatusObserverCount());
+        other.setSearchExecutor(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+            }
+        });
+        other.setPondering(true);
+        other.updateGameModeAndLevel(GameMode.HUMAN_VS_COMPUTER, ComputerLevel.REGULAR);
+        other.updateGameTurn(PlayerInfo.PLAYER_TWO);
+        Future<Integer> search = other.nextPlay();
+        other.dispose();
+        assertTrue(search.isCancelled());
+        assertFalse(other.isThinking());
+        assertFalse(other.isPondering());
+        assertEquals(count, GameUtility.INSTANCE.getGameStatusObserverCount());
+    }
+    
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.subject.impl.GameRecord#updateGameStatus(boolean, boolean)}.
+     */
+    @Test
+    public void testUpdateGameStatusCancelsSearch() {
+        gameRecord.setSearchExecutor(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+            }
+        });
+        gameRecord.updateGameModeAndLevel(GameMode.HUMAN_VS_COMPUTER, ComputerLevel.REGULAR);
+        gameRecord.updateGameTurn(PlayerInfo.PLAYER_TWO);
+        Future<Integer> search = gameRecord.nextPlay();
+        gameRecord.updateGameStatus(true, false);
+        assertFalse(search.isCancelled());
+        gameRecord.updateGameStatus(false, false);
+        assertTrue(search.isCancelled());
+    }
+    
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.subject.impl.GameRecord#undo()}.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testUndoWithoutMoves() {
+        gameRecord.undo();
+    }
+    
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.subject.impl.GameRecord#redo()}.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testRedoWithoutUndo() {
+        gameRecord.redo();
+    }
+    
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.subject.impl.GameRecord#undo()}.
+     */
+    @Test
+    public void testUndoAndRedo() {
+        GameMode mode = GameUtility.INSTANCE.getGameMode();
+        ComputerLevel level = GameUtility.INSTANCE.getComputerLevel();
+        GameUtility.INSTANCE.setGameModeAndLevel(GameMode.HUMAN_VS_HUMAN, level);
+        try {
+            assertFalse(gameRecord.canUndo());
+            gameRecord.place(3);
+            gameRecord.place(3);
+            gameRecord.place(4);
+            assertArrayEquals(new byte[] {3, 3, 4}, gameRecord.getMoves());
+            String placed = gameRecord.toString();
+            assertEquals(4, gameRecord.undo());
+            assertEquals(3, gameRecord.undo());
+            assertArrayEquals(new byte[] {3}, gameRecord.getMoves());
+            assertTrue(gameRecord.canRedo());
+            assertEquals(3, gameRecord.redo());
+            assertEquals(4, gameRecord.redo());
+            assertFalse(gameRecord.canRedo());
+            assertEquals(placed, gameRecord.toString());
+            gameRecord.undo();
+            gameRecord.place(0);
+            assertFalse(gameRecord.canRedo());
+            assertArrayEquals(new byte[] {3, 3, 0}, gameRecord.getMoves());
+        } finally {
+            GameUtility.INSTANCE.setGameModeAndLevel(mode, level);
+        }
+    }
+    
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.subject.impl.GameRecord#undo()}.
+     */
+    @Test
+    public void testUndoAfterGameOver() {
+        GameMode mode = GameUtility.INSTANCE.getGameMode();
+        ComputerLevel level = GameUtility.INSTANCE.getComputerLevel();
+        GameUtility.INSTANCE.setGameModeAndLevel(GameMode.HUMAN_VS_HUMAN, level);
+        try {
+            for (int i = 0; i < 3; i++) {
+                gameRecord.place(i);
+                gameRecord.place(i);
+            }
+            gameRecord.registerGameResultObserver(mockGameResultObserver);
+            mockGameResultObserver.updateGameResult(EasyMock.anyObject(String.class));
+            mockGameResultObserver.updateGameResult("");
+            EasyMock.replay(mockGameResultObserver);
+            gameRecord.place(3);
+            assertTrue(GameUtility.INSTANCE.isGameOver());
+            assertEquals(3, gameRecord.undo());
+            assertFalse(GameUtility.INSTANCE.isGameOver());
+            assertTrue(GameUtility.INSTANCE.isPlaying());
+            EasyMock.verify(mockGameResultObserver);
+        } finally {
+            GameUtility.INSTANCE.setGameModeAndLevel(mode, level);
+        }
+    }
+    
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.subject.impl.GameRecord#notifyUndoGameRecordObservers(int)}.
+     */
+    @Test
+    public void testNotifyUndoGameRecordObservers() {
+        GameMode mode = GameUtility.INSTANCE.getGameMode();
+        ComputerLevel level = GameUtility.INSTANCE.getComputerLevel();
+        GameUtility.INSTANCE.setGameModeAndLevel(GameMode.HUMAN_VS_HUMAN, level);
+        try {
+            gameRecord.place(2);
+            gameRecord.registerGameRecordObserver(mockGameRecordObserver);
+            mockGameRecordObserver.undoGameRecord(EasyMock.anyObject(PlayerInfo.class), EasyMock.eq(5), 
+                    EasyMock.eq(2));
+            EasyMock.replay(mockGameRecordObserver);
+            gameRecord.undo();
+            EasyMock.verify(mockGameRecordObserver);
+        } finally {
+            GameUtility.INSTANCE.setGameModeAndLevel(mode, level);
+        }
+    }
+    
     /**
      * Test method for {@link edu.nyu.cs.connectfour.game.subject.impl.GameRecord#registerGameRecordObserver(edu.nyu.cs.connectfour.game.observer.GameRecordObserver)}.
      */
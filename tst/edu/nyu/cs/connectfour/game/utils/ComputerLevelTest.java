@@ -28,5 +28,17 @@ public class ComputerLevelTest {
             assertEquals(i, computerLevelList.get(i).getDegree());
         }
     }
+    
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.game.utils.ComputerLevel#getMoveBudget()}.
+     */
+    @Test
+    public void testGetMoveBudget() {
+        for (ComputerLevel level : computerLevelList) {
+            assertTrue(level.getMoveBudget() >= 0);
+        }
+        assertEquals(0, ComputerLevel.REGULAR.getMoveBudget());
+        assertTrue(ComputerLevel.ABNORMAL.getMoveBudget() > 0);
+    }
 
 }
@@ -0,0 +1,105 @@
+package edu.nyu.cs.connectfour.server;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.nyu.cs.connectfour.game.GameSessionManager;
+
+public class GameProtocolTest {
+    private GameSessionManager manager;
+    private GameProtocol protocol;
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @Before
+    public void setUp() throws Exception {
+        manager = new GameSessionManager(6, 7, 0L);
+        protocol = new GameProtocol(manager);
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.server.GameProtocol#handle(java.lang.String)}.
+     */
+    @Test
+    public void testHandleNew() {
+        assertEquals("OK 1", protocol.handle("NEW 0"));
+        assertEquals("OK 2 -1", protocol.handle("new 0 1 amateur"));
+        String[] words = protocol.handle("NEW 1 1 BEGINNER").split(" ");
+        assertEquals("3", words[1]);
+        int opening = Integer.parseInt(words[2]);
+        assertTrue(opening >= 0 && opening < 7);
+        assertEquals(4, manager.lookup(3).getNextRow(opening));
+        assertEquals(3, manager.size());
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.server.GameProtocol#handle(java.lang.String)}.
+     */
+    @Test
+    public void testHandlePlayAndShow() {
+        protocol.handle("NEW 0");
+        assertEquals("OK -1", protocol.handle("PLAY 1 3"));
+        assertEquals("OK -1", protocol.handle("PLAY 1 3"));
+        assertEquals("OK 6 7 2 0 -1 0 ...............................1......0...",
+                protocol.handle("SHOW 1"));
+        protocol.handle("NEW 0 1 AMATEUR");
+        int reply = Integer.parseInt(protocol.handle("PLAY 2 0").split(" ")[1]);
+        assertTrue(reply >= 0 && reply < 7);
+        assertEquals("2", protocol.handle("SHOW 2").split(" ")[3]);
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.server.GameProtocol#handle(java.lang.String)}.
+     */
+    @Test
+    public void testHandleAnalyze() {
+        protocol.handle("NEW 0");
+        for (int column : new int[] {6, 6, 6, 6, 6, 6, 0, 1, 0, 1, 0, 1}) {
+            protocol.handle("PLAY 1 " + column);
+        }
+        String[] words = protocol.handle("analyze 1 amateur").split(" ");
+        assertEquals(10, words.length);
+        assertEquals("OK", words[0]);
+        assertEquals("0", words[1]);
+        assertEquals("1", words[2]);
+        assertEquals("-", words[9]);
+        protocol.handle("PLAY 1 0");
+        assertEquals("ERR the game is over", protocol.handle("ANALYZE 1 AMATEUR"));
+        assertTrue(protocol.handle("ANALYZE 7 AMATEUR").startsWith("ERR"));
+        assertEquals("ERR malformed request: ANALYZE", protocol.handle("ANALYZE 1"));
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.server.GameProtocol#handle(java.lang.String)}.
+     */
+    @Test
+    public void testHandleEndAndStats() {
+        protocol.handle("NEW 0");
+        protocol.handle("NEW 1");
+        assertEquals("OK", protocol.handle("END 1"));
+        assertEquals("OK 1 2 1", protocol.handle("STATS"));
+        assertTrue(protocol.handle("END 1").startsWith("ERR"));
+        assertTrue(protocol.handle("SHOW 1").startsWith("ERR"));
+        assertEquals(GameProtocol.BYE, protocol.handle("quit"));
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.server.GameProtocol#handle(java.lang.String)}.
+     */
+    @Test
+    public void testHandleErrors() {
+        protocol.handle("NEW 0");
+        assertEquals("ERR unknown command: JUMP", protocol.handle("JUMP 1"));
+        assertEquals("ERR malformed request: PLAY", protocol.handle("PLAY 1"));
+        assertTrue(protocol.handle("PLAY one 3").startsWith("ERR"));
+        assertTrue(protocol.handle("PLAY 1 9").startsWith("ERR"));
+        assertTrue(protocol.handle("PLAY 7 3").startsWith("ERR"));
+        assertTrue(protocol.handle("NEW 0 1 GENIUS").startsWith("ERR"));
+        assertTrue(protocol.handle("NEW 2").startsWith("ERR"));
+        assertTrue(protocol.handle("").startsWith("ERR"));
+    }
+
+}
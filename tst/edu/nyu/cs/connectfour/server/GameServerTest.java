@@ -0,0 +1,162 @@
+package edu.nyu.cs.connectfour.server;
+
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.nyu.cs.connectfour.game.GameSessionManager;
+import edu.nyu.cs.connectfour.game.utils.ComputerLevel;
+
+public class GameServerTest {
+    private GameSessionManager manager;
+    private GameServer server;
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @Before
+    public void setUp() throws Exception {
+        manager = new GameSessionManager(6, 7, 0L);
+        server = new GameServer(new GameProtocol(manager), 0, 2);
+    }
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @After
+    public void tearDown() throws Exception {
+        server.close();
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.server.GameServer#GameServer(GameProtocol, int, int)}.
+     * @throws Exception
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testGameServerWithoutWorkers() throws Exception {
+        new GameServer(new GameProtocol(manager), 0, 0);
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.server.GameServer#getRequestCount()}.
+     * @throws Exception
+     */
+    @Test
+    public void testPipelinedRequests() throws Exception {
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+        try {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), "US-ASCII"));
+            OutputStream out = socket.getOutputStream();
+            out.write("NEW 0\r\nPLAY 1 3\nPLAY 1 3\nSHOW 1\nPLAY 1\nQUIT\nSTATS\n".getBytes("US-ASCII"));
+            out.flush();
+            assertEquals("OK 1", in.readLine());
+            assertEquals("OK -1", in.readLine());
+            assertEquals("OK -1", in.readLine());
+            assertTrue(in.readLine().startsWith("OK 6 7 2 0 -1 0 "));
+            assertEquals("ERR malformed request: PLAY", in.readLine());
+            assertEquals(GameProtocol.BYE, in.readLine());
+            assertNull(in.readLine());
+        } finally {
+            socket.close();
+        }
+        assertEquals(6L, server.getRequestCount());
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.server.GameServer#getRequestCount()}.
+     * @throws Exception
+     */
+    @Test
+    public void testFailingRequest() throws Exception {
+        server.close();
+        server = new GameServer(new GameProtocol(manager) {
+            @Override
+            public String handle(String line) {
+                if (line.equals("FAIL")) {
+                    throw new NullPointerException("failed");
+                }
+                return super.handle(line);
+            }
+        }, 0, 1);
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+        try {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), "US-ASCII"));
+            OutputStream out = socket.getOutputStream();
+            out.write("NEW 0\nFAIL\nSHOW 1\n".getBytes("US-ASCII"));
+            out.flush();
+            assertEquals("OK 1", in.readLine());
+            assertEquals("ERR java.lang.NullPointerException: failed", in.readLine());
+            assertTrue(in.readLine().startsWith("OK 6 7 0 0 -1 0 "));
+            out.write("FAIL\nQUIT\n".getBytes("US-ASCII"));
+            out.flush();
+            assertTrue(in.readLine().startsWith("ERR"));
+            assertEquals(GameProtocol.BYE, in.readLine());
+        } finally {
+            socket.close();
+        }
+        assertEquals(5L, server.getRequestCount());
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.server.GameServer#GameServer(GameProtocol, int, int)}.
+     * @throws Exception
+     */
+    @Test
+    public void testTooLongLine() throws Exception {
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+        try {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), "US-ASCII"));
+            OutputStream out = socket.getOutputStream();
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i <= GameServer.MAX_LINE; i++) {
+                sb.append(' ');
+            }
+            out.write(sb.toString().getBytes("US-ASCII"));
+            out.flush();
+            assertNull(in.readLine());
+        } finally {
+            socket.close();
+        }
+        assertEquals(0L, server.getRequestCount());
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.server.LoadGenerator#run()}.
+     * @throws Exception
+     */
+    @Test
+    public void testLoadGenerator() throws Exception {
+        LoadGenerator generator = new LoadGenerator(server.getPort(), 3, 2, ComputerLevel.AMATEUR);
+        generator.run();
+        assertEquals(0L, generator.getErrorCount());
+        assertEquals(6L, generator.getGameCount());
+        assertEquals(server.getRequestCount(), generator.getRequestCount());
+        assertTrue(generator.getThroughput() > 0.0);
+        assertEquals(0, manager.size());
+        assertEquals(6L, manager.getCreatedCount());
+        for (int i = 0; i < 100 && server.getConnectionCount() > 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, server.getConnectionCount());
+    }
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.server.GameServer#close()}.
+     * @throws Exception
+     */
+    @Test
+    public void testClose() throws Exception {
+        assertTrue(server.isRunning());
+        server.close();
+        assertFalse(server.isRunning());
+    }
+
+}
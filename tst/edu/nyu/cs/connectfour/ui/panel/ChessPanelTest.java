@@ -0,0 +1,29 @@
+package edu.nyu.cs.connectfour.ui.panel;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import edu.nyu.cs.connectfour.game.subject.impl.GameRecord;
+import edu.nyu.cs.connectfour.game.subject.impl.GameUtility;
+
+public class ChessPanelTest {
+
+    /**
+     * Test method for {@link edu.nyu.cs.connectfour.ui.panel.ChessPanel#resignChessPanel()}.
+     */
+    @Test
+    public void testResignChessPanel() {
+        ChessPanel.INSTANCE.resignChessPanel();
+        int count = GameUtility.INSTANCE.getGameStatusObserverCount();
+        for (int i = 0; i < 5; i++) {
+            GameRecord old = ChessPanel.INSTANCE.getGameRecord();
+            ChessPanel.INSTANCE.resignChessPanel();
+            assertNotSame(old, ChessPanel.INSTANCE.getGameRecord());
+            assertFalse(old.isPondering());
+            assertTrue(ChessPanel.INSTANCE.getGameRecord().isPondering());
+            assertEquals(count, GameUtility.INSTANCE.getGameStatusObserverCount());
+        }
+    }
+
+}